@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.bench;
+
+import com.endeavourmining.reportbot.report.BatchFill;
+import com.endeavourmining.reportbot.report.ReportBatch;
+import com.endeavourmining.reportbot.xlsx.Row;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Time to convert parsed rows into one reused columnar batch.
+ *
+ * @since 0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchFillBench {
+
+    /**
+     * Rows per batch.
+     */
+    @Param({"4096"})
+    public int capacity;
+
+    /**
+     * Batch.
+     */
+    private ReportBatch batch;
+
+    /**
+     * Allocate batch.
+     */
+    @Setup(Level.Trial)
+    public void allocate() {
+        this.batch = new ReportBatch(ProductionReport.columns(), this.capacity);
+    }
+
+    /**
+     * Fill batches with all rows.
+     * @param report Report
+     * @param hole Consumer of full batches
+     * @return Number of rows
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public int fill(final ProductionReport report, final Blackhole hole) throws IOException {
+        final BatchFill fill = new BatchFill(this.batch, 1, full -> hole.consume(full.size()));
+        for (final Row row : report.rows()) {
+            fill.handle(row);
+        }
+        fill.flush();
+        return report.rows().size();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.bench;
+
+import com.endeavourmining.reportbot.Envelope;
+import com.endeavourmining.reportbot.EnvelopeFetch;
+import com.endeavourmining.reportbot.PooledInbox;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.mail.Folder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of envelope fetch, in messages per second.
+ *
+ * <p>Each operation fetches ENVELOPE, FLAGS, UID and BODYSTRUCTURE of all
+ * emails of the seeded INBOX; the {@code messages} counter gives the
+ * number of messages described per second.</p>
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnvelopeFetchBench {
+
+    /**
+     * Inbox.
+     */
+    private PooledInbox inbox;
+
+    /**
+     * Fetch of envelopes.
+     */
+    private EnvelopeFetch envelopes;
+
+    /**
+     * Open inbox.
+     * @param server Mail server
+     */
+    @Setup(Level.Trial)
+    public void open(final MailServer server) {
+        this.inbox = new PooledInbox(server.account(), 1, Folder.READ_ONLY);
+        this.envelopes = new EnvelopeFetch();
+    }
+
+    /**
+     * Close inbox.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        this.inbox.close();
+    }
+
+    /**
+     * Fetch envelopes of all emails.
+     * @param counter Messages fetched
+     * @return Envelopes
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public List<Envelope> fetch(final Messages counter) throws IOException {
+        final List<Envelope> list = this.inbox.apply(
+            folder -> this.envelopes.apply(folder, folder.getMessages())
+        );
+        counter.messages += list.size();
+        return list;
+    }
+
+    /**
+     * Counter of messages fetched.
+     *
+     * @since 0.1
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Messages {
+
+        /**
+         * Messages fetched.
+         */
+        public long messages;
+
+        /**
+         * Reset counter.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.messages = 0L;
+        }
+    }
+}
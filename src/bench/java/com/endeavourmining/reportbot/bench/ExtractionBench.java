@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.bench;
+
+import com.endeavourmining.reportbot.AttachmentDownload;
+import com.endeavourmining.reportbot.AttachmentPart;
+import com.endeavourmining.reportbot.Envelope;
+import com.endeavourmining.reportbot.EnvelopeFetch;
+import com.endeavourmining.reportbot.PooledInbox;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import javax.mail.Folder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of attachment extraction.
+ *
+ * <p>Each operation downloads and decodes the spreadsheet of one email to
+ * a local file; the {@code bytes} counter gives decoded bytes per second,
+ * divide it by 1048576 to get MB/s.</p>
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBench {
+
+    /**
+     * Size of partial fetches, in bytes.
+     */
+    @Param({"16384", "65536", "262144"})
+    public int chunk;
+
+    /**
+     * Inbox.
+     */
+    private PooledInbox inbox;
+
+    /**
+     * Email to extract.
+     */
+    private Envelope envelope;
+
+    /**
+     * Spreadsheet of email.
+     */
+    private AttachmentPart part;
+
+    /**
+     * Download.
+     */
+    private AttachmentDownload download;
+
+    /**
+     * Target file.
+     */
+    private Path file;
+
+    /**
+     * Open inbox and find spreadsheet to extract.
+     * @param server Mail server
+     * @throws IOException If fails
+     */
+    @Setup(Level.Trial)
+    public void open(final MailServer server) throws IOException {
+        this.inbox = new PooledInbox(server.account(), 1, Folder.READ_ONLY);
+        this.envelope = this.inbox.apply(
+            folder -> new EnvelopeFetch().apply(folder, folder.getMessage(1)).get(0)
+        );
+        this.part = this.envelope.spreadsheet().get();
+        this.download = new AttachmentDownload(this.chunk);
+        this.file = Files.createTempFile("bench-", ".xlsx");
+    }
+
+    /**
+     * Close inbox and delete file.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        this.inbox.close();
+        Files.deleteIfExists(this.file);
+    }
+
+    /**
+     * Extract spreadsheet.
+     * @param counter Bytes extracted
+     * @return Bytes written
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public long extract(final Bytes counter) throws IOException {
+        final long written = this.inbox.apply(
+            folder -> this.download.save(folder, this.envelope.uid(), this.part, this.file)
+        );
+        counter.bytes += written;
+        return written;
+    }
+
+    /**
+     * Counter of bytes extracted.
+     *
+     * @since 0.1
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+
+        /**
+         * Bytes extracted.
+         */
+        public long bytes;
+
+        /**
+         * Reset counter.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.bytes = 0L;
+        }
+    }
+}
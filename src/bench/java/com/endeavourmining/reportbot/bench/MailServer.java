@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.bench;
+
+import com.endeavourmining.reportbot.ImapAccount;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import java.util.Properties;
+import java.util.Random;
+import javax.activation.DataHandler;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import javax.mail.util.ByteArrayDataSource;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Embedded IMAP server seeded with report emails.
+ *
+ * <p>Every email carries one spreadsheet of random bytes, encoded in
+ * base64 like reports sent by sites.</p>
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+public class MailServer {
+
+    /**
+     * Excel workbook MIME type.
+     */
+    private static final String XLSX =
+        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    /**
+     * Number of emails in INBOX.
+     */
+    @Param({"100", "1000"})
+    public int messages;
+
+    /**
+     * Size of attachment of each email, in kilobytes.
+     */
+    @Param({"16", "256"})
+    public int kilobytes;
+
+    /**
+     * Server.
+     */
+    private GreenMail server;
+
+    /**
+     * User.
+     */
+    private GreenMailUser user;
+
+    /**
+     * Start server and deliver emails.
+     * @throws MessagingException If fails
+     */
+    @Setup(Level.Trial)
+    public void start() throws MessagingException {
+        this.server = new GreenMail(ServerSetup.IMAP.dynamicPort());
+        this.server.start();
+        this.user = this.server.setUser("bot@example.com", "bot", "secret");
+        final byte[] content = new byte[this.kilobytes * 1024];
+        new Random(this.messages).nextBytes(content);
+        final Session session = Session.getInstance(new Properties());
+        for (int idx = 0; idx < this.messages; ++idx) {
+            this.user.deliver(MailServer.email(session, idx, content));
+        }
+    }
+
+    /**
+     * Stop server.
+     */
+    @TearDown(Level.Trial)
+    public void stop() {
+        this.server.stop();
+    }
+
+    /**
+     * Account of seeded mailbox.
+     * @return Account
+     */
+    public ImapAccount account() {
+        return new ImapAccount(
+            this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+            this.server.getImap().getPort(), this.user.getLogin(), this.user.getPassword()
+        );
+    }
+
+    /**
+     * Report email.
+     * @param session Session
+     * @param idx Number of email
+     * @param content Attachment content
+     * @return Email
+     * @throws MessagingException If fails
+     */
+    private static MimeMessage email(final Session session, final int idx, final byte[] content)
+        throws MessagingException {
+        final MimeMessage msg = new MimeMessage(session);
+        msg.setFrom(new InternetAddress("site@example.com"));
+        msg.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("bot@example.com"));
+        msg.setSubject(String.format("Daily report %d", idx));
+        final MimeBodyPart text = new MimeBodyPart();
+        text.setText("Please find attached the daily report.");
+        final MimeBodyPart attachment = new MimeBodyPart();
+        attachment.setDataHandler(
+            new DataHandler(new ByteArrayDataSource(content, MailServer.XLSX))
+        );
+        attachment.setFileName(String.format("daily-%d.xlsx", idx));
+        attachment.setHeader("Content-Transfer-Encoding", "base64");
+        msg.setContent(new MimeMultipart(text, attachment));
+        msg.saveChanges();
+        return msg;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.bench;
+
+import com.endeavourmining.reportbot.report.Column;
+import com.endeavourmining.reportbot.report.ColumnType;
+import com.endeavourmining.reportbot.xlsx.Row;
+import com.endeavourmining.reportbot.xlsx.WorkbookFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Production report of many sites, as rows and as an Excel workbook.
+ *
+ * <p>Each row holds a site, taken from shared strings, a day and an
+ * amount of gold, after one header row.</p>
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+public class ProductionReport {
+
+    /**
+     * Number of rows, header excluded.
+     */
+    @Param({"10000", "100000"})
+    public int size;
+
+    /**
+     * Number of distinct sites.
+     */
+    @Param({"64"})
+    public int sites;
+
+    /**
+     * Rows, header included.
+     */
+    private List<Row> parsed;
+
+    /**
+     * Workbook file.
+     */
+    private Path file;
+
+    /**
+     * Build rows and write workbook.
+     * @throws IOException If fails
+     */
+    @Setup(Level.Trial)
+    public void write() throws IOException {
+        final List<String> names = new ArrayList<>(this.sites);
+        for (int idx = 0; idx < this.sites; ++idx) {
+            names.add(String.format("Site %d", idx));
+        }
+        this.parsed = new ArrayList<>(this.size + 1);
+        this.parsed.add(new Row(1, Arrays.asList("Site", "Day", "Gold (oz)")));
+        final StringBuilder data = new StringBuilder(
+            "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>Site</t></is></c></row>"
+        );
+        for (int idx = 0; idx < this.size; ++idx) {
+            final int number = idx + 2;
+            final int site = idx % this.sites;
+            final String day = String.valueOf(44_927 + idx / this.sites);
+            final String gold = String.valueOf(idx * 0.25);
+            this.parsed.add(new Row(number, Arrays.asList(names.get(site), day, gold)));
+            data.append(
+                String.format(
+                    String.join(
+                        "", "<row r=\"%d\"><c r=\"A%1$d\" t=\"s\"><v>%d</v></c>",
+                        "<c r=\"B%1$d\"><v>%s</v></c><c r=\"C%1$d\"><v>%s</v></c></row>"
+                    ),
+                    number, site, day, gold
+                )
+            );
+        }
+        this.file = new WorkbookFile(
+            names, Collections.singletonMap("Production", data.toString())
+        ).write(Files.createTempFile("bench-", ".xlsx"));
+    }
+
+    /**
+     * Delete workbook.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    /**
+     * Rows, header included.
+     * @return Rows
+     */
+    public List<Row> rows() {
+        return this.parsed;
+    }
+
+    /**
+     * Workbook file.
+     * @return Path
+     */
+    public Path workbook() {
+        return this.file;
+    }
+
+    /**
+     * Columns of report.
+     * @return Columns
+     */
+    public static List<Column> columns() {
+        return Arrays.asList(
+            new Column("site", 0, ColumnType.TEXT),
+            new Column("day", 1, ColumnType.INTEGER),
+            new Column("gold", 2, ColumnType.NUMBER)
+        );
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.bench;
+
+import com.endeavourmining.reportbot.CapableUnreadCount;
+import com.endeavourmining.reportbot.Inbox;
+import com.endeavourmining.reportbot.PooledInbox;
+import com.endeavourmining.reportbot.SearchUnreadCount;
+import com.endeavourmining.reportbot.StatusUnreadCount;
+import com.endeavourmining.reportbot.TransientInbox;
+import com.endeavourmining.reportbot.UnreadCount;
+import com.endeavourmining.reportbot.UnreadEmails;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.mail.Folder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of {@link UnreadEmails#count()}.
+ *
+ * <p>Compares count strategies, on a pooled connection and on a new
+ * connection per count; INBOX is selected on both, so STATUS falls back to
+ * SEARCH there as it does in production.</p>
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnreadCountBench {
+
+    /**
+     * Count strategy: status, search or capable.
+     */
+    @Param({"status", "search", "capable"})
+    public String strategy;
+
+    /**
+     * Connection: pooled or transient.
+     */
+    @Param({"pooled", "transient"})
+    public String connection;
+
+    /**
+     * Inbox.
+     */
+    private Inbox inbox;
+
+    /**
+     * Unread emails.
+     */
+    private UnreadEmails unread;
+
+    /**
+     * Open inbox.
+     * @param server Mail server
+     */
+    @Setup(Level.Trial)
+    public void open(final MailServer server) {
+        if ("pooled".equals(this.connection)) {
+            this.inbox = new PooledInbox(server.account(), 1, Folder.READ_ONLY);
+        } else {
+            this.inbox = new TransientInbox(server.account(), Folder.READ_ONLY);
+        }
+        this.unread = new UnreadEmails(this.inbox, UnreadCountBench.count(this.strategy));
+    }
+
+    /**
+     * Close inbox.
+     * @throws IOException If fails
+     */
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        if (this.inbox instanceof Closeable) {
+            ((Closeable) this.inbox).close();
+        }
+    }
+
+    /**
+     * Count unread emails.
+     * @return Count
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public int count() throws IOException {
+        return this.unread.count();
+    }
+
+    /**
+     * Count strategy.
+     * @param name Name
+     * @return Strategy
+     */
+    private static UnreadCount count(final String name) {
+        final UnreadCount count;
+        if ("status".equals(name)) {
+            count = new StatusUnreadCount();
+        } else if ("search".equals(name)) {
+            count = new SearchUnreadCount();
+        } else {
+            count = new CapableUnreadCount();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.sun.mail.imap.IMAPFolder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import javax.mail.Folder;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.UIDFolder;
+import javax.mail.internet.MimeUtility;
+
+/**
+ * Download of an attachment straight to a file.
+ *
+ * <p>Only the attachment section is fetched, chunk by chunk, and decoded
+ * on the fly into a file channel: heap usage does not depend on the size
+ * of the attachment and the rest of the message is never transferred.</p>
+ *
+ * @since 0.1
+ */
+public final class AttachmentDownload {
+
+    /**
+     * Default chunk size, 64 KiB.
+     */
+    private static final int CHUNK = 65_536;
+
+    /**
+     * Size of partial fetches in bytes.
+     */
+    private final int chunk;
+
+    /**
+     * Latency of attachment downloads.
+     */
+    private final Histogram timer;
+
+    /**
+     * Ctor.
+     */
+    public AttachmentDownload() {
+        this(AttachmentDownload.CHUNK);
+    }
+
+    /**
+     * Ctor.
+     * @param chunk Size of partial fetches in bytes
+     */
+    public AttachmentDownload(final int chunk) {
+        this(chunk, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param metrics Metrics
+     */
+    public AttachmentDownload(final Metrics metrics) {
+        this(AttachmentDownload.CHUNK, metrics);
+    }
+
+    /**
+     * Ctor.
+     * @param chunk Size of partial fetches in bytes
+     * @param metrics Metrics
+     */
+    public AttachmentDownload(final int chunk, final Metrics metrics) {
+        this.chunk = chunk;
+        this.timer = metrics.histogram("imap.download");
+    }
+
+    /**
+     * Save attachment to a file, replacing it if it exists.
+     * @param folder Opened folder
+     * @param uid UID of the email
+     * @param part Attachment
+     * @param target File to write
+     * @return Decoded size in bytes
+     * @throws MessagingException If mail operation fails
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public long save(
+        final Folder folder, final long uid, final AttachmentPart part, final Path target
+    ) throws MessagingException, IOException {
+        return this.save(folder, uid, part, target, Fingerprint.sha());
+    }
+
+    /**
+     * Save attachment to a file, replacing it if it exists, and digest
+     * its decoded content on the way. Digest is reset first, so that
+     * an action retried on a new connection digests content once.
+     * @param folder Opened folder
+     * @param uid UID of the email
+     * @param part Attachment
+     * @param target File to write
+     * @param digest Digest to update with decoded content
+     * @return Decoded size in bytes
+     * @throws MessagingException If mail operation fails
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public long save(
+        final Folder folder, final long uid, final AttachmentPart part, final Path target,
+        final MessageDigest digest
+    ) throws MessagingException, IOException {
+        final Message msg = ((UIDFolder) folder).getMessageByUID(uid);
+        if (msg == null) {
+            throw new MessagingException(
+                String.format("No email with UID %d in %s", uid, folder.getFullName())
+            );
+        }
+        final long start = System.nanoTime();
+        long size = 0L;
+        try (
+            InputStream input = MimeUtility.decode(
+                new PartStream(
+                    (IMAPFolder) folder, msg.getMessageNumber(), part.section(), this.chunk
+                ),
+                part.encoding()
+            );
+            FileChannel output = FileChannel.open(
+                target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            )
+        ) {
+            digest.reset();
+            final byte[] buf = new byte[this.chunk];
+            for (int len = input.read(buf); len >= 0; len = input.read(buf)) {
+                digest.update(buf, 0, len);
+                final ByteBuffer bytes = ByteBuffer.wrap(buf, 0, len);
+                while (bytes.hasRemaining()) {
+                    size += output.write(bytes);
+                }
+            }
+        }
+        this.timer.since(start);
+        return size;
+    }
+}
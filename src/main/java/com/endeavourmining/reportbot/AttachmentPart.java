@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.util.Locale;
+
+/**
+ * Attachment of an email, as described by its BODYSTRUCTURE.
+ *
+ * @since 0.1
+ */
+public final class AttachmentPart {
+
+    /**
+     * Excel workbook MIME type.
+     */
+    private static final String XLSX =
+        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    /**
+     * IMAP section identifier, like {@code 2} or {@code 1.3}.
+     */
+    private final String sctn;
+
+    /**
+     * File name.
+     */
+    private final String fname;
+
+    /**
+     * Lower case MIME base type.
+     */
+    private final String mime;
+
+    /**
+     * Transfer encoding.
+     */
+    private final String enc;
+
+    /**
+     * Encoded size in bytes, -1 if unknown.
+     */
+    private final int bytes;
+
+    /**
+     * Ctor.
+     * @param section IMAP section identifier
+     * @param name File name
+     * @param type Lower case MIME base type
+     * @param encoding Transfer encoding
+     * @param size Encoded size in bytes, -1 if unknown
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public AttachmentPart(
+        final String section, final String name, final String type,
+        final String encoding, final int size
+    ) {
+        this.sctn = section;
+        this.fname = name;
+        this.mime = type;
+        this.enc = encoding;
+        this.bytes = size;
+    }
+
+    /**
+     * IMAP section identifier.
+     * @return Section, like {@code 2} or {@code 1.3}
+     */
+    public String section() {
+        return this.sctn;
+    }
+
+    /**
+     * File name.
+     * @return Name
+     */
+    public String name() {
+        return this.fname;
+    }
+
+    /**
+     * MIME base type.
+     * @return Lower case type, like {@code application/pdf}
+     */
+    public String type() {
+        return this.mime;
+    }
+
+    /**
+     * Transfer encoding.
+     * @return Encoding, like {@code base64}
+     */
+    public String encoding() {
+        return this.enc;
+    }
+
+    /**
+     * Encoded size.
+     * @return Size in bytes, -1 if unknown
+     */
+    public int size() {
+        return this.bytes;
+    }
+
+    /**
+     * Whether it is an Excel workbook.
+     *
+     * <p>Mail clients often send workbooks as
+     * {@code application/octet-stream}, so file extension is checked too.
+     * Only OOXML workbooks are, legacy {@code .xls} ones can't be read and
+     * are not downloaded.</p>
+     * @return True if spreadsheet
+     */
+    public boolean spreadsheet() {
+        return AttachmentPart.XLSX.equals(this.mime)
+            || this.fname.toLowerCase(Locale.ENGLISH).endsWith(".xlsx");
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s, section %s)", this.fname, this.mime, this.sctn);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Adaptive interval between two polls of a mailbox.
+ *
+ * <p>During peak hours, and right after a poll that found new emails,
+ * mailbox is polled at the shortest interval. Otherwise the interval
+ * doubles with every quiet poll in a row. Every interval is spread at
+ * random by the jitter, so that mailboxes don't all hit their servers at
+ * once, then capped at the longest interval.</p>
+ *
+ * @since 0.1
+ */
+public final class Cadence {
+
+    /**
+     * Highest number of doublings, to avoid overflows.
+     */
+    private static final int DOUBLINGS = 30;
+
+    /**
+     * Percent scale.
+     */
+    private static final double PERCENT = 100.0;
+
+    /**
+     * Schedule.
+     */
+    private final ScheduleSettings schedule;
+
+    /**
+     * Clock, in local time zone.
+     */
+    private final Clock clock;
+
+    /**
+     * Ctor.
+     * @param schedule Schedule
+     */
+    public Cadence(final ScheduleSettings schedule) {
+        this(schedule, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Ctor.
+     * @param schedule Schedule
+     * @param clock Clock, in local time zone of peak hours
+     */
+    public Cadence(final ScheduleSettings schedule, final Clock clock) {
+        this.schedule = schedule;
+        this.clock = clock;
+    }
+
+    /**
+     * Interval before next poll.
+     * @param quiet Number of quiet polls in a row
+     * @return Interval
+     */
+    public Duration delay(final long quiet) {
+        final Duration base = this.schedule.interval();
+        Duration delay = base;
+        if (quiet > 0 && !this.schedule.peak(LocalTime.now(this.clock).getHour())) {
+            delay = base.multipliedBy(1L << Math.min(quiet, Cadence.DOUBLINGS));
+        }
+        final double spread = this.schedule.jitter() / Cadence.PERCENT
+            * ThreadLocalRandom.current().nextDouble(-1.0, 1.0);
+        delay = Duration.ofMillis(Math.round(delay.toMillis() * (1.0 + spread)));
+        if (delay.compareTo(this.schedule.maxInterval()) > 0) {
+            delay = this.schedule.maxInterval();
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+/**
+ * Email with a spreadsheet, with the mailbox it comes from.
+ *
+ * @since 0.1
+ */
+public final class Candidate {
+
+    /**
+     * Mailbox.
+     */
+    private final Source mailbox;
+
+    /**
+     * Email.
+     */
+    private final Envelope email;
+
+    /**
+     * Ctor.
+     * @param mailbox Mailbox
+     * @param email Email
+     */
+    public Candidate(final Source mailbox, final Envelope email) {
+        this.mailbox = mailbox;
+        this.email = email;
+    }
+
+    /**
+     * Mailbox.
+     * @return Source
+     */
+    public Source source() {
+        return this.mailbox;
+    }
+
+    /**
+     * Email.
+     * @return Envelope
+     */
+    public Envelope envelope() {
+        return this.email;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s in %s", this.email, this.mailbox);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.sun.mail.imap.IMAPFolder;
+import javax.mail.Folder;
+import javax.mail.MessagingException;
+
+/**
+ * Unread emails counted with {@code STATUS} on an IMAP folder not
+ * selected, with a search fallback otherwise.
+ *
+ * <p>STATUS is part of IMAP4rev1: any IMAP server answers it for a mailbox
+ * not selected, like INBOX of {@link ReadOnlyInbox}. A folder already
+ * selected, like the ones of {@link PooledInbox}, is searched on its own
+ * connection instead.</p>
+ *
+ * @since 0.1
+ */
+public final class CapableUnreadCount implements UnreadCount {
+
+    /**
+     * Count of IMAP folders not selected.
+     */
+    private final UnreadCount status;
+
+    /**
+     * Fallback count.
+     */
+    private final UnreadCount fallback;
+
+    /**
+     * Ctor.
+     */
+    public CapableUnreadCount() {
+        this(new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param metrics Metrics
+     */
+    public CapableUnreadCount(final Metrics metrics) {
+        this(
+            new StatusUnreadCount(new SearchUnreadCount(metrics), metrics),
+            new SearchUnreadCount(metrics)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param status Count of IMAP folders not selected
+     * @param fallback Fallback count
+     */
+    public CapableUnreadCount(final UnreadCount status, final UnreadCount fallback) {
+        this.status = status;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public int value(final Folder folder) throws MessagingException {
+        final int count;
+        if (folder instanceof IMAPFolder && !folder.isOpen()) {
+            count = this.status.value(folder);
+        } else {
+            count = this.fallback.value(folder);
+        }
+        return count;
+    }
+}
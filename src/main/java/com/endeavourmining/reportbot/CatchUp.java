@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.pipeline.Sink;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Catch-up of a large backlog of new emails, over many connections.
+ *
+ * <p>A backlog is split into chunks, each one an action on an opened
+ * INBOX. Chunks are taken by a work-stealing pool of threads, each one
+ * applying its chunk on a connection of its own, and results are
+ * delivered in order, as soon as the first chunks are done. Only a
+ * window of chunks ahead of delivery is in flight, so that a slow
+ * delivery holds fetching back. A backlog smaller than the threshold is
+ * not worth it and is fetched sequentially instead: catch-up stops by
+ * itself once a mailbox is drained.</p>
+ *
+ * @since 0.1
+ */
+public final class CatchUp implements Closeable {
+
+    /**
+     * Maximum number of connections.
+     */
+    private final int connections;
+
+    /**
+     * Number of new emails from which catch-up applies.
+     */
+    private final int threshold;
+
+    /**
+     * Threads applying chunks.
+     */
+    private final ExecutorService threads;
+
+    /**
+     * Ctor, never catching up.
+     */
+    public CatchUp() {
+        this(1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Ctor.
+     * @param connections Maximum number of connections, 1 to never catch up
+     * @param threshold Number of new emails from which catch-up applies
+     */
+    public CatchUp(final int connections, final int threshold) {
+        this.connections = connections;
+        this.threshold = threshold;
+        this.threads = Executors.newWorkStealingPool(connections);
+    }
+
+    /**
+     * Whether a backlog is large enough to catch up.
+     * @param backlog Number of new emails
+     * @return True if it's fetched in parallel
+     */
+    public boolean applies(final int backlog) {
+        return this.connections > 1 && backlog >= this.threshold;
+    }
+
+    /**
+     * Apply chunks in parallel and deliver their results in order.
+     *
+     * <p>Chunks not started yet are cancelled if a chunk or a delivery
+     * fails.</p>
+     * @param inbox Inbox
+     * @param chunks Actions on chunks of backlog, in order
+     * @param delivery Receiver of results, in order of chunks
+     * @param <T> Result type
+     * @throws IOException If a chunk or a delivery fails
+     */
+    public <T> void apply(
+        final Inbox inbox, final List<Inbox.Action<T>> chunks, final Sink<T> delivery
+    ) throws IOException {
+        final int window = 2 * this.connections;
+        final List<Future<T>> fetched = new ArrayList<>(chunks.size());
+        try {
+            for (int idx = 0; idx < chunks.size(); ++idx) {
+                while (fetched.size() < Math.min(chunks.size(), idx + window)) {
+                    final Inbox.Action<T> chunk = chunks.get(fetched.size());
+                    fetched.add(this.threads.submit(() -> inbox.apply(chunk)));
+                }
+                delivery.accept(CatchUp.result(fetched.get(idx)));
+            }
+        } finally {
+            for (final Future<T> future : fetched) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.threads.shutdown();
+    }
+
+    /**
+     * Result of a chunk, once done.
+     * @param future Future of chunk
+     * @param <T> Result type
+     * @return Result
+     * @throws IOException If chunk failed or waiting is interrupted
+     */
+    private static <T> T result(final Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException iex = new InterruptedIOException(
+                "Interrupted while catching up"
+            );
+            iex.initCause(ex);
+            throw iex;
+        } catch (final ExecutionException ex) {
+            throw new IOException("Chunk of backlog failed", ex);
+        }
+    }
+}
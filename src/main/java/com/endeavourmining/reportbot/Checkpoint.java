@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+/**
+ * Synchronization checkpoint of a folder: its UIDVALIDITY,
+ * the highest UID already processed and, on servers with CONDSTORE,
+ * the highest MODSEQ already listed.
+ *
+ * @since 0.1
+ */
+public final class Checkpoint {
+
+    /**
+     * UIDVALIDITY of the folder.
+     */
+    private final long vldt;
+
+    /**
+     * Highest processed UID.
+     */
+    private final long last;
+
+    /**
+     * Highest listed MODSEQ, zero if unknown.
+     */
+    private final long seq;
+
+    /**
+     * Ctor.
+     * @param validity UIDVALIDITY of the folder
+     * @param uid Highest processed UID
+     */
+    public Checkpoint(final long validity, final long uid) {
+        this(validity, uid, 0L);
+    }
+
+    /**
+     * Ctor.
+     * @param validity UIDVALIDITY of the folder
+     * @param uid Highest processed UID
+     * @param modseq Highest listed MODSEQ, zero if unknown
+     */
+    public Checkpoint(final long validity, final long uid, final long modseq) {
+        this.vldt = validity;
+        this.last = uid;
+        this.seq = modseq;
+    }
+
+    /**
+     * UIDVALIDITY of the folder.
+     * @return UIDVALIDITY
+     */
+    public long validity() {
+        return this.vldt;
+    }
+
+    /**
+     * Highest processed UID.
+     * @return UID
+     */
+    public long uid() {
+        return this.last;
+    }
+
+    /**
+     * Highest listed MODSEQ.
+     * @return MODSEQ, zero if unknown
+     */
+    public long modseq() {
+        return this.seq;
+    }
+
+    /**
+     * First UID to fetch for a folder having given UIDVALIDITY.
+     * All UIDs must be fetched again when UIDVALIDITY changed.
+     * @param validity Current UIDVALIDITY of the folder
+     * @return First UID not yet processed
+     */
+    public long next(final long validity) {
+        final long next;
+        if (validity == this.vldt) {
+            next = this.last + 1L;
+        } else {
+            next = 1L;
+        }
+        return next;
+    }
+
+    /**
+     * MODSEQ since which changes must be listed for a folder having
+     * given UIDVALIDITY. It's unknown when UIDVALIDITY changed.
+     * @param validity Current UIDVALIDITY of the folder
+     * @return Highest listed MODSEQ, zero if unknown
+     */
+    public long since(final long validity) {
+        final long since;
+        if (validity == this.vldt) {
+            since = this.seq;
+        } else {
+            since = 0L;
+        }
+        return since;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.IOException;
+
+/**
+ * Synchronization checkpoints of folders.
+ *
+ * @since 0.1
+ */
+public interface Checkpoints {
+
+    /**
+     * Checkpoint of a folder.
+     * @param folder Folder full name
+     * @return Checkpoint, with zero UIDVALIDITY and UID if folder was never synchronized
+     * @throws IOException If fails
+     */
+    Checkpoint checkpoint(String folder) throws IOException;
+
+    /**
+     * Save checkpoint of a folder.
+     * @param folder Folder full name
+     * @param checkpoint Checkpoint
+     * @throws IOException If fails
+     */
+    void save(String folder, Checkpoint checkpoint) throws IOException;
+}
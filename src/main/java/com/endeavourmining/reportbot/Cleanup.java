@@ -0,0 +1,500 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.jcabi.log.Logger;
+import com.sun.mail.iap.Argument;
+import com.sun.mail.iap.ProtocolException;
+import com.sun.mail.iap.Response;
+import com.sun.mail.imap.IMAPFolder;
+import com.sun.mail.imap.protocol.BASE64MailboxEncoder;
+import com.sun.mail.imap.protocol.IMAPProtocol;
+import com.sun.mail.imap.protocol.IMAPResponse;
+import com.sun.mail.imap.protocol.UIDSet;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.mail.Folder;
+import javax.mail.MessagingException;
+
+/**
+ * Emails of reports over, flagged as seen or moved to an archive folder
+ * in bulk.
+ *
+ * <p>Reports published, skipped or failed are queued without waiting for
+ * the server. A single thread takes them in batches and collapses the
+ * UIDs of every mailbox into a compact set, like {@code 12:40,44}: one
+ * {@code UID STORE +FLAGS.SILENT (\Seen)} per batch, or one
+ * {@code UID MOVE} to the archive folder of the mailbox, if set. Servers
+ * without MOVE get a {@code UID COPY} and a {@code UID STORE} of
+ * {@code \Deleted} instead, then a {@code UID EXPUNGE} of the same set,
+ * if capable of UIDPLUS. Emails already flagged as deleted are not copied
+ * again, so that a batch retried after its copy succeeded is not archived
+ * twice. Servers capable of neither only get emails flagged as seen: a
+ * plain {@code EXPUNGE} would also remove emails deleted by others.
+ * Mailboxes that are not IMAP are left as is. Reports settled while a
+ * command runs are cleaned up together by the next one.</p>
+ *
+ * <p>When a command fails, or any unexpected error occurs, it's logged
+ * and its emails are kept to be cleaned up again with a later batch,
+ * after a delay: checkpoints are already past these emails, so they are
+ * never fetched again. Emails of mailboxes not registered yet are
+ * dropped. {@link #close()} waits until queued emails are cleaned up, and
+ * drops emails still waiting for a retry.</p>
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class Cleanup implements Sink<PendingReport>, Closeable {
+
+    /**
+     * Delay between checks of closing, in milliseconds.
+     */
+    private static final long TICK = 100L;
+
+    /**
+     * Maximum number of emails per batch, keeping command lines short.
+     */
+    private static final int BATCH = 500;
+
+    /**
+     * Default delay before a failed batch is retried, in milliseconds.
+     */
+    private static final long RETRY = TimeUnit.SECONDS.toMillis(30L);
+
+    /**
+     * Capacity of queue.
+     */
+    private static final int CAPACITY = 4096;
+
+    /**
+     * Archive folders, by name of mailbox; empty to flag emails as seen.
+     */
+    private final Map<String, String> folders;
+
+    /**
+     * Mailboxes, by name.
+     */
+    private final Map<String, Source> sources;
+
+    /**
+     * Queue of reports over.
+     */
+    private final BlockingQueue<PendingReport> queue;
+
+    /**
+     * Cleaning thread.
+     */
+    private final ExecutorService thread;
+
+    /**
+     * Whether closing.
+     */
+    private final AtomicBoolean closing;
+
+    /**
+     * Delay before a failed batch is retried, in milliseconds.
+     */
+    private final long delay;
+
+    /**
+     * Archive folders known to exist, used by cleaning thread only.
+     */
+    private final Set<String> created;
+
+    /**
+     * Mailboxes told to be unable to archive or to be cleaned up at all,
+     * used by cleaning thread only.
+     */
+    private final Set<String> unarchived;
+
+    /**
+     * Reports of failed batches, used by cleaning thread only.
+     */
+    private final List<PendingReport> failed;
+
+    /**
+     * Latency of commands.
+     */
+    private final Histogram timer;
+
+    /**
+     * Time failed batches are retried, in milliseconds, used by cleaning
+     * thread only.
+     */
+    private long due;
+
+    /**
+     * Ctor.
+     * @param settings Settings of mailboxes
+     */
+    public Cleanup(final Settings settings) {
+        this(settings, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param settings Settings of mailboxes
+     * @param metrics Metrics
+     */
+    public Cleanup(final Settings settings, final Metrics metrics) {
+        this(Cleanup.archives(settings), Cleanup.RETRY, metrics);
+    }
+
+    /**
+     * Ctor.
+     * @param folders Archive folders, by name of mailbox; empty to flag
+     *  emails as seen
+     */
+    public Cleanup(final Map<String, String> folders) {
+        this(folders, Cleanup.RETRY);
+    }
+
+    /**
+     * Ctor.
+     * @param folders Archive folders, by name of mailbox; empty to flag
+     *  emails as seen
+     * @param delay Delay before a failed batch is retried, in milliseconds
+     */
+    public Cleanup(final Map<String, String> folders, final long delay) {
+        this(folders, delay, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param folders Archive folders, by name of mailbox; empty to flag
+     *  emails as seen
+     * @param delay Delay before a failed batch is retried, in milliseconds
+     * @param metrics Metrics
+     */
+    public Cleanup(
+        final Map<String, String> folders, final long delay, final Metrics metrics
+    ) {
+        this.folders = Collections.unmodifiableMap(new HashMap<>(folders));
+        this.sources = new ConcurrentHashMap<>(0);
+        this.queue = new ArrayBlockingQueue<>(Cleanup.CAPACITY);
+        this.thread = Executors.newSingleThreadExecutor(
+            runnable -> {
+                final Thread daemon = new Thread(runnable, "cleanup");
+                daemon.setDaemon(true);
+                return daemon;
+            }
+        );
+        this.closing = new AtomicBoolean();
+        this.delay = delay;
+        this.created = new HashSet<>(0);
+        this.unarchived = new HashSet<>(0);
+        this.failed = new ArrayList<>(0);
+        this.timer = metrics.histogram("imap.store");
+    }
+
+    /**
+     * Start cleaning thread.
+     * @return This
+     */
+    public Cleanup start() {
+        this.thread.execute(this::loop);
+        return this;
+    }
+
+    /**
+     * Register a mailbox, so that emails of its reports can be cleaned up.
+     * @param source Mailbox
+     */
+    public void register(final Source source) {
+        this.sources.putIfAbsent(source.name(), source);
+    }
+
+    @Override
+    public void accept(final PendingReport report) {
+        if (this.closing.get()) {
+            throw new IllegalStateException("Cleanup is closed");
+        }
+        if (!this.queue.offer(report)) {
+            Logger.warn(this, "Cleanup queue is full, %s left as is", report);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closing.set(true);
+        this.thread.shutdown();
+        try {
+            while (!this.thread.awaitTermination(1L, TimeUnit.MINUTES)) {
+                Logger.info(this, "Waiting for %d emails to clean up", this.queue.size());
+            }
+        } catch (final InterruptedException ex) {
+            this.thread.shutdownNow();
+            Thread.currentThread().interrupt();
+            final InterruptedIOException iex = new InterruptedIOException(
+                "Interrupted while cleaning up emails"
+            );
+            iex.initCause(ex);
+            throw iex;
+        }
+    }
+
+    /**
+     * Clean up emails in batches until closed and drained.
+     */
+    private void loop() {
+        while (!this.closing.get() || !this.queue.isEmpty()) {
+            final List<PendingReport> reports = this.retried();
+            if (reports.isEmpty()) {
+                final PendingReport first;
+                try {
+                    first = this.queue.poll(Cleanup.TICK, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (first != null) {
+                    reports.add(first);
+                }
+            }
+            this.queue.drainTo(reports, Cleanup.BATCH - reports.size());
+            if (!reports.isEmpty()) {
+                this.clean(reports);
+            }
+        }
+        if (!this.failed.isEmpty()) {
+            Logger.warn(this, "%d emails left as is after failures", this.failed.size());
+        }
+    }
+
+    /**
+     * Reports of failed batches due for a retry, at most a batch.
+     * @return Reports, empty if none is due
+     */
+    private List<PendingReport> retried() {
+        final List<PendingReport> reports = new ArrayList<>(Cleanup.BATCH);
+        if (!this.failed.isEmpty() && System.currentTimeMillis() >= this.due) {
+            final List<PendingReport> head = this.failed.subList(
+                0, Math.min(Cleanup.BATCH, this.failed.size())
+            );
+            reports.addAll(head);
+            head.clear();
+        }
+        return reports;
+    }
+
+    /**
+     * Clean up a batch, with one command per mailbox.
+     * @param reports Reports over
+     */
+    private void clean(final List<PendingReport> reports) {
+        final Map<String, List<PendingReport>> mailboxes = new HashMap<>(0);
+        for (final PendingReport report : reports) {
+            mailboxes.computeIfAbsent(
+                report.mailbox(), name -> new ArrayList<>(reports.size())
+            ).add(report);
+        }
+        for (final Map.Entry<String, List<PendingReport>> entry : mailboxes.entrySet()) {
+            final Source source = this.sources.get(entry.getKey());
+            if (source == null) {
+                Logger.warn(
+                    this, "Mailbox %s is not registered, %d emails left as is",
+                    entry.getKey(), entry.getValue().size()
+                );
+            } else if (!this.clean(source, entry.getValue())) {
+                this.failed.addAll(entry.getValue());
+                this.due = System.currentTimeMillis() + this.delay;
+            }
+        }
+    }
+
+    /**
+     * Clean up emails of a mailbox.
+     * @param source Mailbox
+     * @param reports Reports of mailbox
+     * @return True if cleaned up, false if the command failed
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private boolean clean(final Source source, final List<PendingReport> reports) {
+        final long[] sorted = new long[reports.size()];
+        for (int idx = 0; idx < sorted.length; ++idx) {
+            sorted[idx] = reports.get(idx).envelope().uid();
+        }
+        Arrays.sort(sorted);
+        final String set = UIDSet.toString(UIDSet.createUIDSets(sorted));
+        final String archive = this.folders.getOrDefault(source.name(), "");
+        final long start = System.nanoTime();
+        boolean done = false;
+        try {
+            final Optional<Boolean> archived = source.inbox().apply(
+                folder -> {
+                    Optional<Boolean> result = Optional.empty();
+                    if (folder instanceof IMAPFolder) {
+                        this.prepare(source, folder, archive);
+                        result = Optional.of(
+                            (Boolean) ((IMAPFolder) folder).doCommand(
+                                protocol -> Cleanup.command(protocol, set, archive)
+                            )
+                        );
+                    }
+                    return result;
+                }
+            );
+            this.timer.since(start);
+            if (!archived.isPresent() && this.unarchived.add(source.name())) {
+                Logger.warn(this, "%s is not an IMAP mailbox, emails left as is", source);
+            } else if (!archived.orElse(true) && this.unarchived.add(source.name())) {
+                Logger.warn(
+                    this, "%s can't move nor expunge by UID, emails flagged as seen only",
+                    source
+                );
+            }
+            done = true;
+        } catch (final IOException ex) {
+            Logger.warn(
+                this, "Failed to clean up %d emails of %s, to retry: %s",
+                sorted.length, source, ex.getMessage()
+            );
+        } catch (final RuntimeException ex) {
+            Logger.error(
+                this, "Failed to clean up %d emails of %s, to retry: %[exception]s",
+                sorted.length, source, ex
+            );
+        }
+        return done;
+    }
+
+    /**
+     * Create archive folder of a mailbox, once, if missing.
+     * @param source Mailbox
+     * @param folder Opened INBOX folder
+     * @param archive Name of archive folder, empty if none
+     * @throws MessagingException If fails
+     */
+    private void prepare(final Source source, final Folder folder, final String archive)
+        throws MessagingException {
+        if (!archive.isEmpty() && !this.created.contains(source.name())) {
+            final Folder target = folder.getStore().getFolder(archive);
+            if (!target.exists()) {
+                target.create(Folder.HOLDS_MESSAGES);
+                Logger.info(this, "Archive folder %s created in %s", archive, source);
+            }
+            this.created.add(source.name());
+        }
+    }
+
+    /**
+     * Flag or move emails with UID commands.
+     * @param protocol Protocol of selected INBOX
+     * @param set Compact set of UIDs
+     * @param archive Name of archive folder, empty to flag emails as seen
+     * @return False if emails were to be archived but are flagged only
+     * @throws ProtocolException If server refuses
+     */
+    private static boolean command(
+        final IMAPProtocol protocol, final String set, final String archive
+    ) throws ProtocolException {
+        final boolean move = protocol.hasCapability("MOVE");
+        final boolean movable = move || protocol.hasCapability("UIDPLUS");
+        if (archive.isEmpty() || !movable) {
+            protocol.simpleCommand(
+                String.format("UID STORE %s +FLAGS.SILENT (\\Seen)", set), null
+            );
+        } else if (move) {
+            protocol.simpleCommand(String.format("UID MOVE %s", set), Cleanup.folder(archive));
+        } else {
+            final String copied = Cleanup.undeleted(protocol, set);
+            if (!copied.isEmpty()) {
+                protocol.simpleCommand(
+                    String.format("UID COPY %s", copied), Cleanup.folder(archive)
+                );
+            }
+            protocol.simpleCommand(
+                String.format("UID STORE %s +FLAGS.SILENT (\\Seen \\Deleted)", set), null
+            );
+            protocol.simpleCommand(String.format("UID EXPUNGE %s", set), null);
+        }
+        return archive.isEmpty() || movable;
+    }
+
+    /**
+     * UIDs of a set not flagged as deleted, that is not copied yet.
+     * @param protocol Protocol of selected INBOX
+     * @param set Compact set of UIDs
+     * @return Compact set of UIDs, empty if none
+     * @throws ProtocolException If server refuses
+     */
+    private static String undeleted(final IMAPProtocol protocol, final String set)
+        throws ProtocolException {
+        final Response[] responses = protocol.command(
+            String.format("UID SEARCH UID %s NOT DELETED", set), null
+        );
+        protocol.notifyResponseHandlers(responses);
+        protocol.handleResult(responses[responses.length - 1]);
+        long[] uids = new long[0];
+        for (final Response response : responses) {
+            if (response instanceof IMAPResponse
+                && ((IMAPResponse) response).keyEquals("SEARCH")) {
+                for (long uid = response.readLong(); uid != -1L; uid = response.readLong()) {
+                    uids = Arrays.copyOf(uids, uids.length + 1);
+                    uids[uids.length - 1] = uid;
+                }
+            }
+        }
+        Arrays.sort(uids);
+        return UIDSet.toString(UIDSet.createUIDSets(uids));
+    }
+
+    /**
+     * Argument of a folder name.
+     * @param name Folder name
+     * @return Argument, encoded in modified UTF-7
+     */
+    private static Argument folder(final String name) {
+        final Argument args = new Argument();
+        args.writeString(BASE64MailboxEncoder.encode(name));
+        return args;
+    }
+
+    /**
+     * Archive folders of mailboxes.
+     * @param settings Settings
+     * @return Folders, by name of mailbox
+     */
+    private static Map<String, String> archives(final Settings settings) {
+        final Map<String, String> folders = new HashMap<>(0);
+        for (final MailSettings mailbox : settings.mailboxes()) {
+            folders.put(Mailboxes.name(mailbox), mailbox.archive());
+        }
+        return folders;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+/**
+ * Mail settings read and validated once.
+ *
+ * <p>Login, password and IMAP server are required; SMTP server is
+ * optional.</p>
+ *
+ * @since 0.1
+ */
+public final class CompiledMailSettings implements MailSettings {
+
+    /**
+     * Login.
+     */
+    private final String user;
+
+    /**
+     * Address, null if missing.
+     */
+    private final String mail;
+
+    /**
+     * Password.
+     */
+    private final String secret;
+
+    /**
+     * Archive folder, empty if none.
+     */
+    private final String folder;
+
+    /**
+     * SMTP server.
+     */
+    private final MailServerSettings smtp;
+
+    /**
+     * IMAP server.
+     */
+    private final MailServerSettings imap;
+
+    /**
+     * Ctor.
+     * @param origin Settings to read
+     * @throws IllegalArgumentException If settings are not valid
+     */
+    public CompiledMailSettings(final MailSettings origin) {
+        this.user = CompiledMailSettings.required(origin.login(), "login");
+        this.mail = origin.address();
+        this.secret = CompiledMailSettings.required(origin.password(), "password");
+        this.folder = origin.archive();
+        this.smtp = new CompiledServerSettings(origin.smtpServerSettings());
+        this.imap = CompiledMailSettings.validated(origin.imapServerSettings());
+    }
+
+    @Override
+    public String login() {
+        return this.user;
+    }
+
+    @Override
+    public String address() {
+        return this.mail;
+    }
+
+    @Override
+    public String password() {
+        return this.secret;
+    }
+
+    @Override
+    public String archive() {
+        return this.folder;
+    }
+
+    @Override
+    public MailServerSettings smtpServerSettings() {
+        return this.smtp;
+    }
+
+    @Override
+    public MailServerSettings imapServerSettings() {
+        return this.imap;
+    }
+
+    /**
+     * Validated IMAP server.
+     * @param origin Settings to read
+     * @return Settings
+     */
+    private static MailServerSettings validated(final MailServerSettings origin) {
+        final MailServerSettings server = new CompiledServerSettings(origin);
+        CompiledMailSettings.required(server.host(), "IMAP host");
+        if (server.port() < 1) {
+            throw new IllegalArgumentException(
+                String.format("IMAP port of %s must be positive", server.host())
+            );
+        }
+        return server;
+    }
+
+    /**
+     * Required value.
+     * @param value Value, may be null
+     * @param key Name of setting
+     * @return Value
+     */
+    private static String required(final String value, final String key) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException(
+                String.format("Mailbox setting '%s' is missing", key)
+            );
+        }
+        return value;
+    }
+}
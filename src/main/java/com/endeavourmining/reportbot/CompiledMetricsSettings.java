@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+/**
+ * Exposure of metrics read and validated once.
+ *
+ * @since 0.1
+ */
+public final class CompiledMetricsSettings implements MetricsSettings {
+
+    /**
+     * Highest TCP port.
+     */
+    private static final int HIGHEST = 65_535;
+
+    /**
+     * Port.
+     */
+    private final int number;
+
+    /**
+     * Ctor.
+     * @param origin Settings to read
+     * @throws IllegalArgumentException If settings are not valid
+     */
+    public CompiledMetricsSettings(final MetricsSettings origin) {
+        this.number = CompiledMetricsSettings.valid(origin.port());
+    }
+
+    @Override
+    public int port() {
+        return this.number;
+    }
+
+    /**
+     * Check port.
+     * @param port Port
+     * @return Same port
+     */
+    private static int valid(final int port) {
+        if (port < 0 || port > CompiledMetricsSettings.HIGHEST) {
+            throw new IllegalArgumentException(
+                String.format("Metrics port %d is not a TCP port", port)
+            );
+        }
+        return port;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pipeline settings read and validated once.
+ *
+ * @since 0.1
+ */
+public final class CompiledPipelineSettings implements PipelineSettings {
+
+    /**
+     * Names of stages.
+     */
+    private static final String[] STAGES = {"fetch", "extract", "parse", "publish"};
+
+    /**
+     * Threads by stage.
+     */
+    private final Map<String, Integer> stages;
+
+    /**
+     * Capacity of queues.
+     */
+    private final int capacity;
+
+    /**
+     * Rows of batches.
+     */
+    private final int rows;
+
+    /**
+     * Connections per mail server.
+     */
+    private final int connections;
+
+    /**
+     * Connections fetching a backlog.
+     */
+    private final int parallel;
+
+    /**
+     * New emails of a backlog.
+     */
+    private final int threshold;
+
+    /**
+     * Ctor.
+     * @param origin Settings to read
+     * @throws IllegalArgumentException If settings are not valid
+     */
+    public CompiledPipelineSettings(final PipelineSettings origin) {
+        this.stages = CompiledPipelineSettings.threads(origin);
+        this.capacity = origin.queue();
+        this.rows = origin.batch();
+        this.connections = origin.hostConnections();
+        this.parallel = origin.catchUp();
+        this.threshold = origin.backlog();
+    }
+
+    @Override
+    public int threads(final String stage) {
+        final Integer count = this.stages.get(stage);
+        if (count == null) {
+            throw new IllegalArgumentException(String.format("Unknown stage '%s'", stage));
+        }
+        return count;
+    }
+
+    @Override
+    public int queue() {
+        return this.capacity;
+    }
+
+    @Override
+    public int batch() {
+        return this.rows;
+    }
+
+    @Override
+    public int hostConnections() {
+        return this.connections;
+    }
+
+    @Override
+    public int catchUp() {
+        return this.parallel;
+    }
+
+    @Override
+    public int backlog() {
+        return this.threshold;
+    }
+
+    /**
+     * Threads of all stages.
+     * @param origin Settings to read
+     * @return Threads by stage
+     */
+    private static Map<String, Integer> threads(final PipelineSettings origin) {
+        final Map<String, Integer> map = new HashMap<>(CompiledPipelineSettings.STAGES.length);
+        for (final String stage : CompiledPipelineSettings.STAGES) {
+            map.put(stage, origin.threads(stage));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
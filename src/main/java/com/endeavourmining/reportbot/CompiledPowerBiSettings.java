@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * Power BI push dataset read and validated once.
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class CompiledPowerBiSettings implements PowerBiSettings {
+
+    /**
+     * Most rows per request accepted by push datasets.
+     */
+    private static final int LIMIT = 10_000;
+
+    /**
+     * Whether enabled.
+     */
+    private final boolean enable;
+
+    /**
+     * URL of rows.
+     */
+    private final String url;
+
+    /**
+     * Token.
+     */
+    private final String bearer;
+
+    /**
+     * Rows per request.
+     */
+    private final int size;
+
+    /**
+     * Requests in flight.
+     */
+    private final int flight;
+
+    /**
+     * Retries.
+     */
+    private final int attempts;
+
+    /**
+     * Backoff.
+     */
+    private final Duration delay;
+
+    /**
+     * Longest backoff.
+     */
+    private final Duration longest;
+
+    /**
+     * Connect timeout.
+     */
+    private final Duration connect;
+
+    /**
+     * Read timeout.
+     */
+    private final Duration read;
+
+    /**
+     * Column flagging removed rows.
+     */
+    private final String removed;
+
+    /**
+     * Column of date of reception.
+     */
+    private final String received;
+
+    /**
+     * Ctor.
+     * @param origin Settings to read
+     * @throws IllegalArgumentException If settings are not valid
+     */
+    public CompiledPowerBiSettings(final PowerBiSettings origin) {
+        this.enable = origin.enabled();
+        this.url = CompiledPowerBiSettings.checked(origin);
+        this.bearer = origin.token();
+        this.size = CompiledPowerBiSettings.within(
+            "Rows per request", origin.rows(), 1, CompiledPowerBiSettings.LIMIT
+        );
+        this.flight = CompiledPowerBiSettings.within(
+            "Requests in flight", origin.inFlight(), 1, Integer.MAX_VALUE
+        );
+        this.attempts = CompiledPowerBiSettings.within(
+            "Retries", origin.retries(), 0, Integer.MAX_VALUE
+        );
+        this.delay = origin.backoff();
+        this.longest = CompiledPowerBiSettings.positive("Longest backoff", origin.maxBackoff());
+        this.connect = CompiledPowerBiSettings.positive("Connect timeout", origin.connectTimeout());
+        this.read = CompiledPowerBiSettings.positive("Read timeout", origin.readTimeout());
+        this.removed = origin.removedColumn();
+        this.received = origin.receivedColumn();
+    }
+
+    @Override
+    public boolean enabled() {
+        return this.enable;
+    }
+
+    @Override
+    public String rowsUrl() {
+        return this.url;
+    }
+
+    @Override
+    public String token() {
+        return this.bearer;
+    }
+
+    @Override
+    public int rows() {
+        return this.size;
+    }
+
+    @Override
+    public int inFlight() {
+        return this.flight;
+    }
+
+    @Override
+    public int retries() {
+        return this.attempts;
+    }
+
+    @Override
+    public Duration backoff() {
+        return this.delay;
+    }
+
+    @Override
+    public Duration maxBackoff() {
+        return this.longest;
+    }
+
+    @Override
+    public Duration connectTimeout() {
+        return this.connect;
+    }
+
+    @Override
+    public Duration readTimeout() {
+        return this.read;
+    }
+
+    @Override
+    public String removedColumn() {
+        return this.removed;
+    }
+
+    @Override
+    public String receivedColumn() {
+        return this.received;
+    }
+
+    /**
+     * URL of rows, checked.
+     * @param origin Settings
+     * @return URL, empty if not enabled
+     */
+    private static String checked(final PowerBiSettings origin) {
+        String url = "";
+        if (origin.enabled()) {
+            if (origin.token().isEmpty()) {
+                throw new IllegalArgumentException("Power BI token is missing");
+            }
+            url = origin.rowsUrl();
+            try {
+                new URL(url);
+            } catch (final MalformedURLException ex) {
+                throw new IllegalArgumentException(
+                    String.format("Power BI URL %s is not valid", url), ex
+                );
+            }
+        }
+        return url;
+    }
+
+    /**
+     * Duration above zero.
+     * @param name Name, for errors
+     * @param value Value
+     * @return Value
+     */
+    private static Duration positive(final String name, final Duration value) {
+        if (value.isNegative() || value.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("%s %d ms must be above zero", name, value.toMillis())
+            );
+        }
+        return value;
+    }
+
+    /**
+     * Number within bounds.
+     * @param name Name, for errors
+     * @param value Value
+     * @param min Lowest value
+     * @param max Highest value
+     * @return Value
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static int within(final String name, final int value, final int min, final int max) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(
+                String.format("%s %d must be between %d and %d", name, value, min, max)
+            );
+        }
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.report.Column;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Report layout read once.
+ *
+ * @since 0.1
+ */
+public final class CompiledReportSettings implements ReportSettings {
+
+    /**
+     * Header rows.
+     */
+    private final int rows;
+
+    /**
+     * Columns.
+     */
+    private final List<Column> layout;
+
+    /**
+     * Columns of natural key.
+     */
+    private final List<String> natural;
+
+    /**
+     * Ctor.
+     * @param origin Settings to read
+     * @throws IllegalArgumentException If settings are not valid
+     */
+    public CompiledReportSettings(final ReportSettings origin) {
+        this.rows = origin.header();
+        this.layout = Collections.unmodifiableList(new ArrayList<>(origin.columns()));
+        this.natural = Collections.unmodifiableList(
+            CompiledReportSettings.checked(this.layout, origin.key())
+        );
+    }
+
+    @Override
+    public int header() {
+        return this.rows;
+    }
+
+    @Override
+    public List<Column> columns() {
+        return this.layout;
+    }
+
+    @Override
+    public List<String> key() {
+        return this.natural;
+    }
+
+    /**
+     * Columns of natural key, checked.
+     * @param columns Columns
+     * @param key Names of columns of natural key
+     * @return Names
+     */
+    private static List<String> checked(final List<Column> columns, final List<String> key) {
+        final List<String> names = new ArrayList<>(columns.size());
+        for (final Column column : columns) {
+            names.add(column.name());
+        }
+        for (final String name : key) {
+            if (!names.contains(name)) {
+                throw new IllegalArgumentException(
+                    String.format("Key column %s is not a column of reports", name)
+                );
+            }
+        }
+        return new ArrayList<>(key);
+    }
+}
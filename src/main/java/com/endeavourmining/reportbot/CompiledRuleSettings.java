@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rules of candidate reports read and validated once.
+ *
+ * @since 0.1
+ */
+public final class CompiledRuleSettings implements RuleSettings {
+
+    /**
+     * Allowed senders.
+     */
+    private final List<String> from;
+
+    /**
+     * Subjects of reports.
+     */
+    private final List<String> titles;
+
+    /**
+     * Window before now.
+     */
+    private final Duration age;
+
+    /**
+     * Whether reports must carry an attachment.
+     */
+    private final boolean attached;
+
+    /**
+     * Ctor.
+     * @param origin Settings to read
+     * @throws IllegalArgumentException If settings are not valid
+     */
+    public CompiledRuleSettings(final RuleSettings origin) {
+        this.from = CompiledRuleSettings.checked(origin.senders(), "sender");
+        this.titles = CompiledRuleSettings.checked(origin.subjects(), "subject");
+        this.age = CompiledRuleSettings.checked(origin.window());
+        this.attached = origin.attachments();
+    }
+
+    @Override
+    public List<String> senders() {
+        return this.from;
+    }
+
+    @Override
+    public List<String> subjects() {
+        return this.titles;
+    }
+
+    @Override
+    public Duration window() {
+        return this.age;
+    }
+
+    @Override
+    public boolean attachments() {
+        return this.attached;
+    }
+
+    /**
+     * Check values of a rule.
+     * @param values Values
+     * @param rule Name of rule
+     * @return Same values
+     */
+    private static List<String> checked(final List<String> values, final String rule) {
+        for (final String value : values) {
+            if (value == null || value.isEmpty()) {
+                throw new IllegalArgumentException(
+                    String.format("Report rule of %s can't be empty", rule)
+                );
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    /**
+     * Check window.
+     * @param window Window
+     * @return Same window
+     */
+    private static Duration checked(final Duration window) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException(
+                String.format("Report rule of days can't be negative: %s", window)
+            );
+        }
+        return window;
+    }
+}
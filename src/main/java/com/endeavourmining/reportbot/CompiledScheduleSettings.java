@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Duration;
+
+/**
+ * Schedule of polls read and validated once.
+ *
+ * @since 0.1
+ */
+public final class CompiledScheduleSettings implements ScheduleSettings {
+
+    /**
+     * Hours in a day.
+     */
+    private static final int DAY = 24;
+
+    /**
+     * Highest jitter, in percent.
+     */
+    private static final int FULL = 100;
+
+    /**
+     * Shortest interval.
+     */
+    private final Duration shortest;
+
+    /**
+     * Longest interval.
+     */
+    private final Duration longest;
+
+    /**
+     * Peak flag of each hour.
+     */
+    private final boolean[] hours;
+
+    /**
+     * Jitter, in percent.
+     */
+    private final int spread;
+
+    /**
+     * Whether mailboxes are watched.
+     */
+    private final boolean idle;
+
+    /**
+     * Ctor.
+     * @param origin Settings to read
+     * @throws IllegalArgumentException If settings are not valid
+     */
+    public CompiledScheduleSettings(final ScheduleSettings origin) {
+        this.shortest = CompiledScheduleSettings.positive(origin.interval());
+        this.longest = CompiledScheduleSettings.ceiling(origin);
+        this.hours = CompiledScheduleSettings.peaks(origin);
+        this.spread = CompiledScheduleSettings.percent(origin.jitter());
+        this.idle = origin.push();
+    }
+
+    @Override
+    public Duration interval() {
+        return this.shortest;
+    }
+
+    @Override
+    public Duration maxInterval() {
+        return this.longest;
+    }
+
+    @Override
+    public boolean peak(final int hour) {
+        return this.hours[hour];
+    }
+
+    @Override
+    public int jitter() {
+        return this.spread;
+    }
+
+    @Override
+    public boolean push() {
+        return this.idle;
+    }
+
+    /**
+     * Positive interval.
+     * @param interval Interval
+     * @return Interval
+     */
+    private static Duration positive(final Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("Poll interval %s must be positive", interval)
+            );
+        }
+        return interval;
+    }
+
+    /**
+     * Longest interval, not shorter than interval.
+     * @param origin Settings to read
+     * @return Interval
+     */
+    private static Duration ceiling(final ScheduleSettings origin) {
+        final Duration longest = origin.maxInterval();
+        if (longest.compareTo(origin.interval()) < 0) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Longest poll interval %s is shorter than interval %s",
+                    longest, origin.interval()
+                )
+            );
+        }
+        return longest;
+    }
+
+    /**
+     * Peak flags of all hours.
+     * @param origin Settings to read
+     * @return Flag of each hour
+     */
+    private static boolean[] peaks(final ScheduleSettings origin) {
+        final boolean[] peaks = new boolean[CompiledScheduleSettings.DAY];
+        for (int hour = 0; hour < peaks.length; ++hour) {
+            peaks[hour] = origin.peak(hour);
+        }
+        return peaks;
+    }
+
+    /**
+     * Valid jitter.
+     * @param jitter Jitter, in percent
+     * @return Jitter
+     */
+    private static int percent(final int jitter) {
+        if (jitter < 0 || jitter > CompiledScheduleSettings.FULL) {
+            throw new IllegalArgumentException(
+                String.format("Jitter %d%% must be between 0 and 100", jitter)
+            );
+        }
+        return jitter;
+    }
+}
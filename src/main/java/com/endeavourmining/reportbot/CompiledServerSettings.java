@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Duration;
+
+/**
+ * Mail server settings read once.
+ *
+ * @since 0.1
+ */
+public final class CompiledServerSettings implements MailServerSettings {
+
+    /**
+     * Default connect timeout.
+     */
+    private static final Duration CONNECT = Duration.ofSeconds(30L);
+
+    /**
+     * Default read timeout.
+     */
+    private static final Duration READ = Duration.ofMinutes(2L);
+
+    /**
+     * Host, null if missing.
+     */
+    private final String name;
+
+    /**
+     * Protocol.
+     */
+    private final String scheme;
+
+    /**
+     * Port, zero if missing.
+     */
+    private final int number;
+
+    /**
+     * Connect timeout.
+     */
+    private final Duration connect;
+
+    /**
+     * Read timeout.
+     */
+    private final Duration read;
+
+    /**
+     * Ctor.
+     * @param origin Settings to read
+     * @throws IllegalArgumentException If timeouts are not positive
+     */
+    public CompiledServerSettings(final MailServerSettings origin) {
+        this(
+            origin.host(), origin.protocol(), origin.port(),
+            CompiledServerSettings.positive("Connect timeout", origin.connectTimeout()),
+            CompiledServerSettings.positive("Read timeout", origin.readTimeout())
+        );
+    }
+
+    /**
+     * Ctor, with default timeouts.
+     * @param host Host, null if missing
+     * @param protocol Protocol
+     * @param port Port, zero if missing
+     */
+    public CompiledServerSettings(final String host, final String protocol, final int port) {
+        this(
+            host, protocol, port, CompiledServerSettings.CONNECT, CompiledServerSettings.READ
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param host Host, null if missing
+     * @param protocol Protocol
+     * @param port Port, zero if missing
+     * @param connect Connect timeout
+     * @param read Read timeout
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public CompiledServerSettings(final String host, final String protocol, final int port,
+        final Duration connect, final Duration read) {
+        this.name = host;
+        this.scheme = protocol;
+        this.number = port;
+        this.connect = connect;
+        this.read = read;
+    }
+
+    @Override
+    public String host() {
+        return this.name;
+    }
+
+    @Override
+    public String protocol() {
+        return this.scheme;
+    }
+
+    @Override
+    public int port() {
+        return this.number;
+    }
+
+    @Override
+    public Duration connectTimeout() {
+        return this.connect;
+    }
+
+    @Override
+    public Duration readTimeout() {
+        return this.read;
+    }
+
+    /**
+     * Duration above zero.
+     * @param name Name, for errors
+     * @param value Value
+     * @return Value
+     */
+    private static Duration positive(final String name, final Duration value) {
+        if (value.isNegative() || value.isZero()) {
+            throw new IllegalArgumentException(
+                String.format("%s %d ms must be above zero", name, value.toMillis())
+            );
+        }
+        return value;
+    }
+}
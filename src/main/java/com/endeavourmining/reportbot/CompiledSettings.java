@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of settings, read and validated once.
+ *
+ * <p>All values are read when the snapshot is built, so that invalid
+ * settings fail at once, and accessors only return fields. Main mail
+ * settings are the ones of the first mailbox.</p>
+ *
+ * @since 0.1
+ */
+public final class CompiledSettings implements Settings {
+
+    /**
+     * Mailboxes.
+     */
+    private final List<MailSettings> boxes;
+
+    /**
+     * Rules of candidate reports.
+     */
+    private final RuleSettings rules;
+
+    /**
+     * Pipeline settings.
+     */
+    private final PipelineSettings pipeline;
+
+    /**
+     * Report layout.
+     */
+    private final ReportSettings report;
+
+    /**
+     * Schedule of polls.
+     */
+    private final ScheduleSettings schedule;
+
+    /**
+     * Exposure of metrics.
+     */
+    private final MetricsSettings metrics;
+
+    /**
+     * Power BI dataset.
+     */
+    private final PowerBiSettings powerbi;
+
+    /**
+     * Ctor.
+     * @param origin Settings to read
+     * @throws IllegalArgumentException If settings are not valid
+     */
+    public CompiledSettings(final Settings origin) {
+        this.boxes = CompiledSettings.mailboxes(origin);
+        this.rules = new CompiledRuleSettings(origin.ruleSettings());
+        this.pipeline = new CompiledPipelineSettings(origin.pipelineSettings());
+        this.report = new CompiledReportSettings(origin.reportSettings());
+        this.schedule = new CompiledScheduleSettings(origin.scheduleSettings());
+        this.metrics = new CompiledMetricsSettings(origin.metricsSettings());
+        this.powerbi = new CompiledPowerBiSettings(origin.powerBiSettings());
+    }
+
+    @Override
+    public MailSettings mailSettings() {
+        return this.boxes.get(0);
+    }
+
+    @Override
+    public List<MailSettings> mailboxes() {
+        return this.boxes;
+    }
+
+    @Override
+    public RuleSettings ruleSettings() {
+        return this.rules;
+    }
+
+    @Override
+    public PipelineSettings pipelineSettings() {
+        return this.pipeline;
+    }
+
+    @Override
+    public ReportSettings reportSettings() {
+        return this.report;
+    }
+
+    @Override
+    public ScheduleSettings scheduleSettings() {
+        return this.schedule;
+    }
+
+    @Override
+    public MetricsSettings metricsSettings() {
+        return this.metrics;
+    }
+
+    @Override
+    public PowerBiSettings powerBiSettings() {
+        return this.powerbi;
+    }
+
+    /**
+     * Read all mailboxes.
+     * @param origin Settings to read
+     * @return Mailboxes, at least one
+     */
+    private static List<MailSettings> mailboxes(final Settings origin) {
+        final List<MailSettings> list = new ArrayList<>(1);
+        for (final MailSettings mailbox : origin.mailboxes()) {
+            list.add(new CompiledMailSettings(mailbox));
+        }
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException("No mailbox in settings");
+        }
+        return Collections.unmodifiableList(list);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.IOException;
+
+/**
+ * Publisher of a snapshot of settings: Power BI if set, logs otherwise.
+ *
+ * @since 0.1
+ */
+public final class ConfiguredPublisher implements Publisher {
+
+    /**
+     * Publisher chosen.
+     */
+    private final Publisher origin;
+
+    /**
+     * Ctor.
+     * @param settings Settings
+     */
+    public ConfiguredPublisher(final Settings settings) {
+        this(ConfiguredPublisher.chosen(settings));
+    }
+
+    /**
+     * Ctor.
+     * @param origin Publisher chosen
+     */
+    private ConfiguredPublisher(final Publisher origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public void publish(final ReportPart part) throws IOException {
+        this.origin.publish(part);
+    }
+
+    /**
+     * Publisher of settings.
+     * @param settings Settings
+     * @return Publisher
+     */
+    private static Publisher chosen(final Settings settings) {
+        final Publisher publisher;
+        if (settings.powerBiSettings().enabled()) {
+            publisher = new PowerBiPublisher(settings.powerBiSettings());
+        } else {
+            publisher = new LoggedPublisher();
+        }
+        return publisher;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.endeavourmining.reportbot.metrics.MetricsEndpoint;
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bot running until interrupted, polling mailboxes at adaptive intervals.
+ *
+ * <p>Mailboxes, ingestion, polls, publisher and the HTTP endpoint of
+ * metrics, if a port is set, are built from a snapshot of settings. When
+ * settings file changes, polls stop, reports found so far are published,
+ * and everything is built again from the new snapshot, in the same JVM:
+ * a new Power BI token, dataset or metrics port applies without restart.
+ * Mailboxes are also watched, when schedule asks for it, and polled as
+ * soon as new emails land. Reports left pending, by a crash or by a
+ * failed publishing, are resumed when a generation starts. A generation
+ * that fails to start, like on a mail server down, is retried after the
+ * schedule interval, or as soon as settings change. All generations
+ * record in the same metrics.</p>
+ *
+ * @since 0.1
+ */
+public final class Daemon {
+
+    /**
+     * Delay between checks of settings, in milliseconds.
+     */
+    private static final long TICK = 1000L;
+
+    /**
+     * Settings.
+     */
+    private final WatchedSettings settings;
+
+    /**
+     * Working directory.
+     */
+    private final Path dir;
+
+    /**
+     * Fingerprints of reports already seen, shared by all generations and
+     * released by each one when closed.
+     */
+    private final Fingerprints seen;
+
+    /**
+     * Metrics, shared by all generations.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param settings Watched settings
+     * @param dir Directory of checkpoints and fingerprints
+     * @param metrics Metrics
+     */
+    public Daemon(final WatchedSettings settings, final Path dir, final Metrics metrics) {
+        this.settings = settings;
+        this.dir = dir;
+        this.seen = new Fingerprints(dir.resolve(Ingestion.SEEN));
+        this.metrics = metrics;
+    }
+
+    /**
+     * Run until interrupted.
+     */
+    public void run() {
+        boolean running = true;
+        while (running) {
+            running = this.attempt(this.settings.snapshot());
+        }
+        Logger.info(this, "Daemon stopped");
+    }
+
+    /**
+     * Run a generation, waiting before the next one if it failed.
+     * @param snapshot Settings
+     * @return True if settings changed or generation is to be retried,
+     *  false if interrupted
+     * @checkstyle IllegalCatchCheck (15 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private boolean attempt(final Settings snapshot) {
+        boolean running;
+        try {
+            running = this.served(snapshot);
+        } catch (final IOException | RuntimeException ex) {
+            Logger.error(
+                this, "Generation failed, retrying in %s: %[exception]s",
+                snapshot.scheduleSettings().interval(), ex
+            );
+            running = this.pause(snapshot);
+        }
+        return running;
+    }
+
+    /**
+     * Run a generation with the HTTP endpoint of its metrics.
+     * @param snapshot Settings
+     * @return True if settings changed, false if interrupted
+     * @throws IOException If fails
+     */
+    private boolean served(final Settings snapshot) throws IOException {
+        final Closeable endpoint = this.endpoint(snapshot);
+        final boolean changed;
+        try {
+            changed = this.generation(snapshot);
+        } finally {
+            endpoint.close();
+        }
+        return changed;
+    }
+
+    /**
+     * Poll mailboxes of a snapshot of settings until they change.
+     * @param snapshot Settings
+     * @return True if settings changed, false if interrupted
+     * @throws IOException If fails
+     */
+    private boolean generation(final Settings snapshot) throws IOException {
+        final ScheduleSettings schedule = snapshot.scheduleSettings();
+        final boolean changed;
+        try (
+            Mailboxes mailboxes = new Mailboxes(snapshot, this.dir, this.metrics);
+            Ingestion ingestion = new Ingestion(
+                new ConfiguredPublisher(snapshot), snapshot, this.dir, this.seen, this.metrics
+            ).start();
+            Polls polls = new Polls(mailboxes, ingestion)
+        ) {
+            mailboxes.unread();
+            ingestion.recover(mailboxes);
+            polls.adaptive(new Cadence(schedule), schedule.interval());
+            if (schedule.push()) {
+                for (final Source source : mailboxes) {
+                    polls.watch(source, mailboxes.watch(source));
+                }
+            }
+            Logger.info(this, "Polling %d mailboxes", mailboxes.size());
+            changed = this.await(snapshot);
+        }
+        return changed;
+    }
+
+    /**
+     * HTTP endpoint of metrics, started, if settings set a port.
+     * @param snapshot Settings
+     * @return Endpoint, doing nothing on close if no port is set
+     * @throws IOException If port is not available
+     */
+    private Closeable endpoint(final Settings snapshot) throws IOException {
+        final int port = snapshot.metricsSettings().port();
+        final Closeable endpoint;
+        if (port > 0) {
+            final MetricsEndpoint http = new MetricsEndpoint(this.metrics, port).start();
+            Logger.info(this, "Metrics at http://127.0.0.1:%d/metrics", http.port());
+            endpoint = http;
+        } else {
+            endpoint = () -> {
+            };
+        }
+        return endpoint;
+    }
+
+    /**
+     * Wait a schedule interval after a failed generation, or until settings
+     * change.
+     * @param snapshot Current settings
+     * @return True if next generation is to run, false if interrupted
+     */
+    private boolean pause(final Settings snapshot) {
+        boolean running = true;
+        final long end = System.nanoTime()
+            + snapshot.scheduleSettings().interval().toNanos();
+        try {
+            while (System.nanoTime() < end && this.settings.snapshot() == snapshot) {
+                TimeUnit.MILLISECONDS.sleep(Daemon.TICK);
+            }
+        } catch (final InterruptedException ex) {
+            Logger.info(this, "Interrupted while waiting to retry");
+            running = false;
+        }
+        return running;
+    }
+
+    /**
+     * Wait until settings change.
+     * @param snapshot Current settings
+     * @return True if settings changed, false if interrupted
+     */
+    private boolean await(final Settings snapshot) {
+        boolean changed = false;
+        try {
+            while (!changed) {
+                TimeUnit.MILLISECONDS.sleep(Daemon.TICK);
+                changed = this.settings.snapshot() != snapshot;
+            }
+            Logger.info(this, "Settings changed, restarting polls");
+        } catch (final InterruptedException ex) {
+            Logger.info(this, "Interrupted, publishing reports found so far");
+        }
+        return changed;
+    }
+}
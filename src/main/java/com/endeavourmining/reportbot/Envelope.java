@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable description of an email: envelope, flags, UID and attachments.
+ *
+ * <p>Unlike {@link javax.mail.Message}, it is detached from any folder
+ * and never triggers a server round-trip.</p>
+ *
+ * @since 0.1
+ */
+public final class Envelope {
+
+    /**
+     * UID.
+     */
+    private final long id;
+
+    /**
+     * Message-ID header.
+     */
+    private final String mid;
+
+    /**
+     * Sender address.
+     */
+    private final String sndr;
+
+    /**
+     * Subject.
+     */
+    private final String subj;
+
+    /**
+     * Date email was received by the server.
+     */
+    private final Instant rcvd;
+
+    /**
+     * Whether email is flagged as seen.
+     */
+    private final boolean seen;
+
+    /**
+     * Attachments.
+     */
+    private final List<AttachmentPart> parts;
+
+    /**
+     * Ctor.
+     * @param uid UID
+     * @param mid Message-ID header
+     * @param sender Sender address
+     * @param subject Subject
+     * @param received Date email was received by the server
+     * @param seen Whether email is flagged as seen
+     * @param attachments Attachments
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public Envelope(
+        final long uid, final String mid, final String sender, final String subject,
+        final Instant received, final boolean seen, final List<AttachmentPart> attachments
+    ) {
+        this.id = uid;
+        this.mid = mid;
+        this.sndr = sender;
+        this.subj = subject;
+        this.rcvd = received;
+        this.seen = seen;
+        this.parts = Collections.unmodifiableList(new ArrayList<>(attachments));
+    }
+
+    /**
+     * UID.
+     * @return UID in its folder
+     */
+    public long uid() {
+        return this.id;
+    }
+
+    /**
+     * Message-ID header.
+     * @return Message-ID, empty if missing
+     */
+    public String messageId() {
+        return this.mid;
+    }
+
+    /**
+     * Fingerprint of Message-ID header.
+     * @return Fingerprint, empty if Message-ID is missing
+     */
+    public Optional<Fingerprint> fingerprint() {
+        final Optional<Fingerprint> print;
+        if (this.mid.isEmpty()) {
+            print = Optional.empty();
+        } else {
+            print = Optional.of(new Fingerprint(this.mid));
+        }
+        return print;
+    }
+
+    /**
+     * Sender address.
+     * @return Address, empty if missing
+     */
+    public String sender() {
+        return this.sndr;
+    }
+
+    /**
+     * Subject.
+     * @return Subject, empty if missing
+     */
+    public String subject() {
+        return this.subj;
+    }
+
+    /**
+     * Date email was received by the server.
+     * @return Date
+     */
+    public Instant received() {
+        return this.rcvd;
+    }
+
+    /**
+     * Whether email is flagged as seen.
+     * @return True if seen
+     */
+    public boolean isSeen() {
+        return this.seen;
+    }
+
+    /**
+     * Attachments.
+     * @return Attachments, in BODYSTRUCTURE order
+     */
+    public List<AttachmentPart> attachments() {
+        return this.parts;
+    }
+
+    /**
+     * First Excel workbook attached.
+     * @return Attachment, empty if email carries no spreadsheet
+     */
+    public Optional<AttachmentPart> spreadsheet() {
+        return this.parts.stream().filter(AttachmentPart::spreadsheet).findFirst();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s from %s", this.id, this.mid, this.sndr);
+    }
+}
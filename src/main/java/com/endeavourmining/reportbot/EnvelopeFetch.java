@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import javax.mail.Address;
+import javax.mail.FetchProfile;
+import javax.mail.Flags;
+import javax.mail.Folder;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Multipart;
+import javax.mail.Part;
+import javax.mail.UIDFolder;
+import javax.mail.internet.ContentType;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimePart;
+
+/**
+ * Fetch of envelopes of many messages at once.
+ *
+ * <p>ENVELOPE, FLAGS, UID and BODYSTRUCTURE of all messages are prefetched
+ * with a single {@link Folder#fetch(Message[], FetchProfile)}, then
+ * converted to detached {@link Envelope}s without any other round-trip.</p>
+ *
+ * @since 0.1
+ */
+public final class EnvelopeFetch {
+
+    /**
+     * MIME type of multiparts.
+     */
+    private static final String MULTIPART = "multipart/*";
+
+    /**
+     * Items to prefetch.
+     */
+    private final FetchProfile profile;
+
+    /**
+     * Latency of batch fetches.
+     */
+    private final Histogram timer;
+
+    /**
+     * Ctor.
+     */
+    public EnvelopeFetch() {
+        this(new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param metrics Metrics
+     */
+    public EnvelopeFetch(final Metrics metrics) {
+        this.profile = EnvelopeFetch.metadata();
+        this.timer = metrics.histogram("imap.fetch");
+    }
+
+    /**
+     * Fetch envelopes of messages.
+     * @param folder Opened folder of messages
+     * @param messages Messages
+     * @return Envelopes, in messages order
+     * @throws MessagingException If mail operation fails
+     * @throws IOException If fails
+     */
+    public List<Envelope> apply(final Folder folder, final Message... messages)
+        throws MessagingException, IOException {
+        final long start = System.nanoTime();
+        folder.fetch(messages, this.profile);
+        this.timer.since(start);
+        final UIDFolder uids = (UIDFolder) folder;
+        final List<Envelope> envelopes = new ArrayList<>(messages.length);
+        for (final Message msg : messages) {
+            final List<AttachmentPart> parts = new ArrayList<>(1);
+            if (msg.isMimeType(EnvelopeFetch.MULTIPART)) {
+                EnvelopeFetch.walk((Multipart) msg.getContent(), "", parts);
+            } else if (EnvelopeFetch.attached(msg)) {
+                parts.add(EnvelopeFetch.part(msg, "1"));
+            }
+            envelopes.add(
+                new Envelope(
+                    uids.getUID(msg),
+                    EnvelopeFetch.text(((MimeMessage) msg).getMessageID()),
+                    EnvelopeFetch.sender(msg.getFrom()),
+                    EnvelopeFetch.text(msg.getSubject()),
+                    EnvelopeFetch.date(msg),
+                    msg.isSet(Flags.Flag.SEEN),
+                    parts
+                )
+            );
+        }
+        return envelopes;
+    }
+
+    /**
+     * Items fetched for every message.
+     * @return Profile of ENVELOPE, FLAGS, BODYSTRUCTURE and UID
+     */
+    private static FetchProfile metadata() {
+        final FetchProfile profile = new FetchProfile();
+        profile.add(FetchProfile.Item.ENVELOPE);
+        profile.add(FetchProfile.Item.FLAGS);
+        profile.add(FetchProfile.Item.CONTENT_INFO);
+        profile.add(UIDFolder.FetchProfileItem.UID);
+        return profile;
+    }
+
+    /**
+     * Collect attachments of a multipart, walking nested multiparts.
+     * @param multipart Multipart built from BODYSTRUCTURE
+     * @param prefix Section of multipart, empty for message body
+     * @param parts Where to collect attachments
+     * @throws MessagingException If mail operation fails
+     * @throws IOException If fails
+     */
+    private static void walk(
+        final Multipart multipart, final String prefix, final Collection<AttachmentPart> parts
+    ) throws MessagingException, IOException {
+        for (int idx = 0; idx < multipart.getCount(); ++idx) {
+            final Part part = multipart.getBodyPart(idx);
+            final String section;
+            if (prefix.isEmpty()) {
+                section = String.valueOf(idx + 1);
+            } else {
+                section = String.format("%s.%d", prefix, idx + 1);
+            }
+            if (part.isMimeType(EnvelopeFetch.MULTIPART)) {
+                EnvelopeFetch.walk((Multipart) part.getContent(), section, parts);
+            } else if (EnvelopeFetch.attached(part)) {
+                parts.add(EnvelopeFetch.part(part, section));
+            }
+        }
+    }
+
+    /**
+     * Whether part is an attachment.
+     * @param part Part
+     * @return True if it has a file name or an attachment disposition
+     * @throws MessagingException If fails
+     */
+    private static boolean attached(final Part part) throws MessagingException {
+        return part.getFileName() != null
+            || Part.ATTACHMENT.equalsIgnoreCase(part.getDisposition());
+    }
+
+    /**
+     * Describe an attachment.
+     * @param part Part
+     * @param section IMAP section identifier
+     * @return Attachment
+     * @throws MessagingException If fails
+     */
+    private static AttachmentPart part(final Part part, final String section)
+        throws MessagingException {
+        String encoding = ((MimePart) part).getEncoding();
+        if (encoding == null) {
+            encoding = "7bit";
+        }
+        return new AttachmentPart(
+            section,
+            EnvelopeFetch.text(part.getFileName()),
+            new ContentType(part.getContentType()).getBaseType().toLowerCase(Locale.ENGLISH),
+            encoding.toLowerCase(Locale.ENGLISH),
+            part.getSize()
+        );
+    }
+
+    /**
+     * Sender address.
+     * @param from From addresses, may be null
+     * @return First address, empty if none
+     */
+    private static String sender(final Address... from) {
+        String sender = "";
+        if (from != null && from.length > 0) {
+            if (from[0] instanceof InternetAddress) {
+                sender = ((InternetAddress) from[0]).getAddress();
+            } else {
+                sender = from[0].toString();
+            }
+        }
+        return sender;
+    }
+
+    /**
+     * Date message was received, or sent if server did not tell.
+     * @param msg Message
+     * @return Date
+     * @throws MessagingException If fails
+     */
+    private static Instant date(final Message msg) throws MessagingException {
+        Date date = msg.getReceivedDate();
+        if (date == null) {
+            date = msg.getSentDate();
+        }
+        final Instant instant;
+        if (date == null) {
+            instant = Instant.EPOCH;
+        } else {
+            instant = date.toInstant();
+        }
+        return instant;
+    }
+
+    /**
+     * Non null text.
+     * @param text Text, may be null
+     * @return Text or empty
+     */
+    private static String text(final String text) {
+        final String result;
+        if (text == null) {
+            result = "";
+        } else {
+            result = text;
+        }
+        return result;
+    }
+}
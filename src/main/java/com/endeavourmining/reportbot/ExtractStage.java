@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.journey.ExtractEvent;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.endeavourmining.reportbot.pipeline.Stage;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+/**
+ * Stage downloading spreadsheets of emails to local files.
+ *
+ * <p>Message-ID of an email and content of its spreadsheet are
+ * fingerprinted apart. An email already seen, like one fetched again
+ * after its flags were reset, is skipped before any download. Content is
+ * digested while downloaded: a spreadsheet already seen, like a report
+ * forwarded or sent again under a new Message-ID, is skipped before any
+ * parsing, its file deleted and its Message-ID remembered. Fingerprints
+ * are recorded only once their report is published, so that a report
+ * that failed is not skipped when fetched again. Downloaded file is
+ * journaled with its fingerprint before it goes further, so that a crash
+ * resumes the report from its file.</p>
+ *
+ * @since 0.1
+ */
+public final class ExtractStage implements Stage<Candidate, ReportFile> {
+
+    /**
+     * Directory of downloaded files.
+     */
+    private final Path dir;
+
+    /**
+     * Download.
+     */
+    private final AttachmentDownload download;
+
+    /**
+     * Fingerprints of reports already seen.
+     */
+    private final Fingerprints seen;
+
+    /**
+     * Journal of reports.
+     */
+    private final Journal journal;
+
+    /**
+     * Ctor.
+     * @param dir Directory of downloaded files
+     * @param seen Fingerprints of reports already seen
+     * @param journal Journal of reports
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public ExtractStage(
+        final Path dir, final Fingerprints seen, final Journal journal, final Metrics metrics
+    ) {
+        this.dir = dir;
+        this.download = new AttachmentDownload(metrics);
+        this.seen = seen;
+        this.journal = journal;
+    }
+
+    @Override
+    public void process(final Candidate candidate, final Sink<ReportFile> next)
+        throws IOException {
+        final Envelope envelope = candidate.envelope();
+        final Optional<Fingerprint> mid = envelope.fingerprint();
+        if (mid.isPresent() && this.seen.contains(mid.get())) {
+            this.journal.skipped(envelope);
+            Logger.info(this, "%s already seen, skipped", envelope);
+        } else {
+            this.extract(candidate, mid, next);
+        }
+    }
+
+    /**
+     * Download spreadsheet of an email not seen yet.
+     * @param candidate Email with a spreadsheet
+     * @param mid Fingerprint of its Message-ID, empty if it has none
+     * @param next Next stage
+     * @throws IOException If fails
+     */
+    private void extract(
+        final Candidate candidate, final Optional<Fingerprint> mid,
+        final Sink<ReportFile> next
+    ) throws IOException {
+        final Envelope envelope = candidate.envelope();
+        final AttachmentPart part = envelope.spreadsheet().orElseThrow(
+            () -> new IllegalArgumentException(
+                String.format("No spreadsheet in %s", envelope)
+            )
+        );
+        Files.createDirectories(this.dir);
+        final Path file = Files.createTempFile(
+            this.dir, String.format("report-%d-", envelope.uid()), ".xlsx"
+        );
+        final ExtractEvent event = new ExtractEvent(envelope);
+        event.begin();
+        final MessageDigest digest = Fingerprint.sha();
+        boolean saved = false;
+        final Fingerprint print;
+        try {
+            final long size = candidate.source().inbox().apply(
+                new Idempotent<>(
+                    folder -> this.download.save(folder, envelope.uid(), part, file, digest)
+                )
+            );
+            event.commit(size);
+            print = new Fingerprint(digest);
+            this.journal.extracted(envelope, file, print);
+            saved = true;
+        } finally {
+            if (!saved) {
+                Files.deleteIfExists(file);
+            }
+        }
+        if (this.seen.contains(print)) {
+            this.journal.skipped(envelope);
+            if (mid.isPresent()) {
+                this.seen.add(mid.get());
+                this.seen.sync();
+            }
+            Logger.info(this, "Spreadsheet of %s already seen, skipped", envelope);
+        } else {
+            next.accept(new ReportFile(candidate.source().name(), envelope, file));
+        }
+    }
+}
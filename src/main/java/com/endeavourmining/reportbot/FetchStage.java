@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.journey.DetectEvent;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.endeavourmining.reportbot.pipeline.Stage;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stage finding new emails that carry a spreadsheet.
+ *
+ * <p>Each input mailbox is synchronized incrementally; envelopes of new
+ * emails are fetched in one round-trip per batch, over many connections
+ * for a large backlog, then handled in UID order: the ones without spreadsheet
+ * are dropped. Reports found are journaled, and the journal synced before the checkpoint of the
+ * mailbox moves past them. Mailbox is released once polled. New emails
+ * and reports found are counted in {@code emails.fetched} and
+ * {@code reports.detected}.</p>
+ *
+ * @since 0.1
+ */
+public final class FetchStage implements Stage<Source, Candidate> {
+
+    /**
+     * Fetch of envelopes.
+     */
+    private final EnvelopeFetch fetch;
+
+    /**
+     * Journal of reports.
+     */
+    private final Journal journal;
+
+    /**
+     * Number of new emails.
+     */
+    private final LongAdder emails;
+
+    /**
+     * Number of reports found.
+     */
+    private final LongAdder reports;
+
+    /**
+     * Ctor.
+     * @param journal Journal of reports
+     * @param metrics Metrics
+     */
+    public FetchStage(final Journal journal, final Metrics metrics) {
+        this.fetch = new EnvelopeFetch(metrics);
+        this.journal = journal;
+        this.emails = metrics.counter("emails.fetched");
+        this.reports = metrics.counter("reports.detected");
+    }
+
+    @Override
+    public void process(final Source source, final Sink<Candidate> next) throws IOException {
+        try {
+            final int count = source.sync().sync(
+                this.fetch::apply,
+                envelopes -> {
+                    for (final Envelope envelope : envelopes) {
+                        final Optional<AttachmentPart> part = envelope.spreadsheet();
+                        if (part.isPresent()) {
+                            new DetectEvent(envelope).commit(source.name(), part.get().size());
+                            this.journal.detected(source.name(), envelope);
+                            this.reports.increment();
+                            next.accept(new Candidate(source, envelope));
+                        } else {
+                            Logger.debug(this, "No spreadsheet in %s, skipped", envelope);
+                        }
+                    }
+                    this.journal.sync();
+                }
+            );
+            source.polled(count);
+            this.emails.add(count);
+            Logger.info(this, "%d new emails in %s", count, source);
+        } finally {
+            source.release();
+        }
+    }
+}
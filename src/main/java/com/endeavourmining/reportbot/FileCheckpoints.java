@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/**
+ * Checkpoints saved in a local properties file.
+ *
+ * <p>File is rewritten in a temporary file, forced to disk, then moved
+ * atomically over the old one, so that a crash or a power loss never
+ * leaves a half-written or empty checkpoint. A temporary file is deleted
+ * if writing or moving it fails.</p>
+ *
+ * @since 0.1
+ */
+public final class FileCheckpoints implements Checkpoints {
+
+    /**
+     * UIDVALIDITY key suffix.
+     */
+    private static final String VALIDITY = ".uidvalidity";
+
+    /**
+     * Last UID key suffix.
+     */
+    private static final String UID = ".uid";
+
+    /**
+     * HIGHESTMODSEQ key suffix.
+     */
+    private static final String MODSEQ = ".highestmodseq";
+
+    /**
+     * File path.
+     */
+    private final Path path;
+
+    /**
+     * Lock on file.
+     */
+    private final Object lock;
+
+    /**
+     * Ctor.
+     * @param path File path
+     */
+    public FileCheckpoints(final Path path) {
+        this.path = path;
+        this.lock = new Object();
+    }
+
+    @Override
+    public Checkpoint checkpoint(final String folder) throws IOException {
+        final Properties props;
+        synchronized (this.lock) {
+            props = this.load();
+        }
+        return new Checkpoint(
+            Long.parseLong(props.getProperty(folder + FileCheckpoints.VALIDITY, "0")),
+            Long.parseLong(props.getProperty(folder + FileCheckpoints.UID, "0")),
+            Long.parseLong(props.getProperty(folder + FileCheckpoints.MODSEQ, "0"))
+        );
+    }
+
+    @Override
+    public void save(final String folder, final Checkpoint checkpoint) throws IOException {
+        synchronized (this.lock) {
+            this.write(folder, checkpoint);
+        }
+    }
+
+    /**
+     * Write checkpoint of a folder.
+     * @param folder Folder full name
+     * @param checkpoint Checkpoint
+     * @throws IOException If fails
+     */
+    private void write(final String folder, final Checkpoint checkpoint) throws IOException {
+        final Properties props = this.load();
+        props.setProperty(
+            folder + FileCheckpoints.VALIDITY, String.valueOf(checkpoint.validity())
+        );
+        props.setProperty(folder + FileCheckpoints.UID, String.valueOf(checkpoint.uid()));
+        props.setProperty(
+            folder + FileCheckpoints.MODSEQ, String.valueOf(checkpoint.modseq())
+        );
+        final Path dir = this.path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        final Path temp = Files.createTempFile(dir, "checkpoints", ".tmp");
+        boolean moved = false;
+        try {
+            try (
+                FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                OutputStream out = Channels.newOutputStream(channel)
+            ) {
+                props.store(out, "Mailbox synchronization checkpoints");
+                channel.force(true);
+            }
+            Files.move(
+                temp, this.path,
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE
+            );
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Load checkpoints file.
+     * @return Properties
+     * @throws IOException If fails
+     */
+    private Properties load() throws IOException {
+        final Properties props = new Properties();
+        if (Files.exists(this.path)) {
+            try (InputStream src = Files.newInputStream(this.path)) {
+                props.load(src);
+            }
+        }
+        return props;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * SHA-256 fingerprint of a report, of the Message-ID of its email or of
+ * its attachment, or of any text.
+ *
+ * @since 0.1
+ */
+public final class Fingerprint {
+
+    /**
+     * Size in bytes.
+     */
+    public static final int SIZE = 32;
+
+    /**
+     * Digest algorithm.
+     */
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * Digest.
+     */
+    private final byte[] digest;
+
+    /**
+     * Ctor, of a text.
+     * @param mid Text, like a Message-ID header
+     */
+    public Fingerprint(final String mid) {
+        this(Fingerprint.sha().digest(mid.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Ctor, of a digest computed while downloading.
+     * @param digest SHA-256 digest, see {@link #sha()}
+     */
+    public Fingerprint(final MessageDigest digest) {
+        this(digest.digest());
+    }
+
+    /**
+     * Ctor.
+     * @param digest SHA-256 digest
+     */
+    public Fingerprint(final byte[] digest) {
+        this.digest = Fingerprint.checked(digest);
+    }
+
+    /**
+     * Fresh SHA-256 digest.
+     * @return Digest
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static MessageDigest sha() {
+        try {
+            return MessageDigest.getInstance(Fingerprint.ALGORITHM);
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Write to a buffer.
+     * @param buffer Buffer
+     * @param offset Offset in buffer
+     */
+    public void write(final ByteBuffer buffer, final int offset) {
+        for (int idx = 0; idx < Fingerprint.SIZE; ++idx) {
+            buffer.put(offset + idx, this.digest[idx]);
+        }
+    }
+
+    /**
+     * Whether buffer holds this fingerprint.
+     * @param buffer Buffer
+     * @param offset Offset in buffer
+     * @return True if equal
+     */
+    public boolean matches(final ByteBuffer buffer, final int offset) {
+        boolean equal = true;
+        for (int idx = 0; idx < Fingerprint.SIZE && equal; ++idx) {
+            equal = buffer.get(offset + idx) == this.digest[idx];
+        }
+        return equal;
+    }
+
+    /**
+     * Hash of fingerprint, its first four bytes.
+     * @return Hash
+     */
+    public int hash() {
+        return ByteBuffer.wrap(this.digest).getInt();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other || other instanceof Fingerprint
+            && Arrays.equals(this.digest, ((Fingerprint) other).digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder hex = new StringBuilder(2 * Fingerprint.SIZE);
+        for (final byte part : this.digest) {
+            hex.append(String.format("%02x", part));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Check digest size, and make it differ from an empty slot.
+     * @param digest Digest
+     * @return Copy of digest
+     */
+    private static byte[] checked(final byte[] digest) {
+        if (digest.length != Fingerprint.SIZE) {
+            throw new IllegalArgumentException(
+                String.format("Fingerprint of %d bytes is not a SHA-256", digest.length)
+            );
+        }
+        final byte[] copy = digest.clone();
+        if (Arrays.equals(copy, new byte[Fingerprint.SIZE])) {
+            copy[0] = 1;
+        }
+        return copy;
+    }
+}
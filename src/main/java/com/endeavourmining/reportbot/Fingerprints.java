@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fingerprints of reports already seen, in a memory-mapped hash file.
+ *
+ * <p>File is an open-addressing table with linear probing: a header
+ * (magic, capacity, count, capacity being grown to) followed by slots of
+ * {@link Fingerprint#SIZE} bytes, empty ones being all zero. Lookups touch
+ * a couple of pages of the mapping, whatever the history, and never load
+ * the table on the heap. Insertions are forced to disk by {@link #sync()},
+ * all at once, so that threads syncing together share a single disk
+ * sync, as in {@link Journal}.</p>
+ *
+ * <p>Table doubles when half full, in place, since a file still mapped
+ * can't be replaced on every system: file is extended, fingerprints are
+ * copied past the new slots, then the new capacity is written in the
+ * header and the slots are rebuilt from the copy. A crash half-way
+ * through a rebuild is finished on next open.</p>
+ *
+ * <p>File is opened on first use, and mapped again on first use after
+ * {@link #close()}. It's not meant to be shared by many processes.</p>
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class Fingerprints implements Closeable {
+
+    /**
+     * Magic number of file, "RBFP".
+     */
+    private static final int MAGIC = 0x52424650;
+
+    /**
+     * Size of header in bytes.
+     */
+    private static final int HEADER = 16;
+
+    /**
+     * Offset of capacity in header.
+     */
+    private static final int CAPACITY = 4;
+
+    /**
+     * Offset of count in header.
+     */
+    private static final int COUNT = 8;
+
+    /**
+     * Offset in header of capacity being grown to, zero if none.
+     */
+    private static final int GROWING = 12;
+
+    /**
+     * Initial number of slots.
+     */
+    private static final int INITIAL = 1024;
+
+    /**
+     * File.
+     */
+    private final Path path;
+
+    /**
+     * Lock on mapping.
+     */
+    private final Object lock;
+
+    /**
+     * Lock of disk syncs.
+     */
+    private final Object disk;
+
+    /**
+     * Mapping of file, null until first use.
+     */
+    private ByteBuffer table;
+
+    /**
+     * Number of insertions.
+     */
+    private long added;
+
+    /**
+     * Number of insertions durable.
+     */
+    private long durable;
+
+    /**
+     * Ctor.
+     * @param path File
+     */
+    public Fingerprints(final Path path) {
+        this.path = path;
+        this.lock = new Object();
+        this.disk = new Object();
+    }
+
+    /**
+     * Whether fingerprint was seen.
+     * @param print Fingerprint
+     * @return True if seen
+     * @throws IOException If fails
+     */
+    public boolean contains(final Fingerprint print) throws IOException {
+        synchronized (this.lock) {
+            final ByteBuffer map = this.mapped();
+            return !Fingerprints.empty(map, Fingerprints.slot(map, print));
+        }
+    }
+
+    /**
+     * Add a fingerprint; durable after next {@link #sync()}.
+     * @param print Fingerprint
+     * @return True if it was not seen before
+     * @throws IOException If fails
+     */
+    public boolean add(final Fingerprint print) throws IOException {
+        synchronized (this.lock) {
+            ByteBuffer map = this.mapped();
+            final boolean fresh = Fingerprints.empty(map, Fingerprints.slot(map, print));
+            if (fresh) {
+                final int capacity = map.getInt(Fingerprints.CAPACITY);
+                if (2 * (map.getInt(Fingerprints.COUNT) + 1) > capacity) {
+                    map = this.grow(map, 2 * capacity);
+                }
+                Fingerprints.put(map, print);
+                this.added += 1L;
+            }
+            return fresh;
+        }
+    }
+
+    /**
+     * Force all fingerprints added so far to disk.
+     * @throws IOException If fails
+     */
+    public void sync() throws IOException {
+        final long target;
+        synchronized (this.lock) {
+            target = this.added;
+        }
+        synchronized (this.disk) {
+            if (this.durable < target) {
+                final long covered;
+                final ByteBuffer map;
+                synchronized (this.lock) {
+                    covered = this.added;
+                    map = this.mapped();
+                }
+                ((MappedByteBuffer) map).force();
+                this.durable = covered;
+            }
+        }
+    }
+
+    /**
+     * Number of fingerprints.
+     * @return Count
+     * @throws IOException If fails
+     */
+    public int size() throws IOException {
+        synchronized (this.lock) {
+            return this.mapped().getInt(Fingerprints.COUNT);
+        }
+    }
+
+    /**
+     * Force fingerprints added to disk and release the mapping.
+     * @throws IOException If fails
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this.disk) {
+            synchronized (this.lock) {
+                if (this.table != null) {
+                    ((MappedByteBuffer) this.table).force();
+                    this.durable = this.added;
+                    this.table = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Mapping of file, opening or creating it if necessary.
+     * @return Mapping
+     * @throws IOException If fails
+     */
+    private ByteBuffer mapped() throws IOException {
+        if (this.table == null && Files.exists(this.path)) {
+            final ByteBuffer map = Fingerprints.map(this.path, Files.size(this.path));
+            if (map.getInt(0) != Fingerprints.MAGIC) {
+                throw new IOException(
+                    String.format("%s is not a file of fingerprints", this.path)
+                );
+            }
+            if (map.getInt(Fingerprints.GROWING) != 0) {
+                Fingerprints.rebuild(map);
+            }
+            this.table = map;
+        } else if (this.table == null) {
+            Files.createDirectories(this.path.toAbsolutePath().getParent());
+            Fingerprints.create(this.path, this.temp(), Fingerprints.INITIAL);
+            this.table = Fingerprints.map(this.path, Fingerprints.length(Fingerprints.INITIAL));
+        }
+        return this.table;
+    }
+
+    /**
+     * New temporary file next to file of fingerprints.
+     * @return Temporary file
+     * @throws IOException If fails
+     */
+    private Path temp() throws IOException {
+        return Files.createTempFile(
+            this.path.toAbsolutePath().getParent(), "fingerprints", ".tmp"
+        );
+    }
+
+    /**
+     * Grow table in place.
+     *
+     * <p>File is extended past the new slots, never shrunk, and
+     * fingerprints are copied there, preceded by their count. Once this
+     * copy is durable, the new capacity in the header marks the rebuild as
+     * started.</p>
+     * @param map Current mapping
+     * @param capacity New number of slots
+     * @return New mapping
+     * @throws IOException If fails
+     */
+    private ByteBuffer grow(final ByteBuffer map, final int capacity) throws IOException {
+        final int count = map.getInt(Fingerprints.COUNT);
+        final int slots = map.getInt(Fingerprints.CAPACITY);
+        final int copy = (int) Fingerprints.length(capacity);
+        final long end = copy + Long.BYTES + (long) count * Fingerprint.SIZE;
+        try (RandomAccessFile file = new RandomAccessFile(this.path.toFile(), "rw")) {
+            if (file.length() < end) {
+                file.setLength(end);
+            }
+        }
+        final ByteBuffer bigger = Fingerprints.map(this.path, end);
+        Fingerprints.zero(bigger, (int) Fingerprints.length(slots), (int) end);
+        bigger.putLong(copy, count);
+        int pos = copy + Long.BYTES;
+        for (int idx = 0; idx < slots; ++idx) {
+            final int offset = Fingerprints.HEADER + idx * Fingerprint.SIZE;
+            if (!Fingerprints.empty(bigger, offset)) {
+                for (int part = 0; part < Fingerprint.SIZE; part += Long.BYTES) {
+                    bigger.putLong(pos + part, bigger.getLong(offset + part));
+                }
+                pos += Fingerprint.SIZE;
+            }
+        }
+        ((MappedByteBuffer) bigger).force();
+        bigger.putInt(Fingerprints.GROWING, capacity);
+        ((MappedByteBuffer) bigger).force();
+        this.table = bigger;
+        Fingerprints.rebuild(bigger);
+        return bigger;
+    }
+
+    /**
+     * Rebuild slots of a table being grown, from the copy of its
+     * fingerprints past them.
+     * @param map Mapping, covering the copy
+     */
+    private static void rebuild(final ByteBuffer map) {
+        final int capacity = map.getInt(Fingerprints.GROWING);
+        final int copy = (int) Fingerprints.length(capacity);
+        final long count = map.getLong(copy);
+        Fingerprints.zero(map, Fingerprints.HEADER, copy);
+        map.putInt(Fingerprints.CAPACITY, capacity);
+        map.putInt(Fingerprints.COUNT, 0);
+        final byte[] digest = new byte[Fingerprint.SIZE];
+        for (long idx = 0L; idx < count; ++idx) {
+            final int offset = copy + Long.BYTES + (int) idx * Fingerprint.SIZE;
+            for (int pos = 0; pos < Fingerprint.SIZE; ++pos) {
+                digest[pos] = map.get(offset + pos);
+            }
+            Fingerprints.put(map, new Fingerprint(digest));
+        }
+        ((MappedByteBuffer) map).force();
+        map.putInt(Fingerprints.GROWING, 0);
+        ((MappedByteBuffer) map).force();
+    }
+
+    /**
+     * Create a file of fingerprints, empty.
+     *
+     * <p>Header is written to a temporary file, unmapped, which then
+     * atomically replaces the file.</p>
+     * @param path File
+     * @param temp Temporary file in the same directory
+     * @param capacity Number of slots
+     * @throws IOException If fails
+     */
+    private static void create(final Path path, final Path temp, final int capacity)
+        throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(Fingerprints.HEADER);
+        header.putInt(0, Fingerprints.MAGIC);
+        header.putInt(Fingerprints.CAPACITY, capacity);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.write(
+                ByteBuffer.allocate(1), Fingerprints.length(capacity) - 1L
+            );
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Map a file, read-write.
+     * @param path File
+     * @param length Length to map
+     * @return Mapping, still valid once channel is closed
+     * @throws IOException If fails
+     */
+    private static ByteBuffer map(final Path path, final long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(
+            path, StandardOpenOption.READ, StandardOpenOption.WRITE
+        )) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0L, length);
+        }
+    }
+
+    /**
+     * Put a fingerprint known to be absent.
+     * @param map Mapping
+     * @param print Fingerprint
+     */
+    private static void put(final ByteBuffer map, final Fingerprint print) {
+        print.write(map, Fingerprints.slot(map, print));
+        map.putInt(Fingerprints.COUNT, map.getInt(Fingerprints.COUNT) + 1);
+    }
+
+    /**
+     * Slot of a fingerprint: the one holding it, or the empty one where
+     * probing stops.
+     * @param map Mapping
+     * @param print Fingerprint
+     * @return Offset of slot
+     */
+    private static int slot(final ByteBuffer map, final Fingerprint print) {
+        final int mask = map.getInt(Fingerprints.CAPACITY) - 1;
+        int idx = print.hash() & mask;
+        int offset = Fingerprints.HEADER + idx * Fingerprint.SIZE;
+        while (!Fingerprints.empty(map, offset) && !print.matches(map, offset)) {
+            idx = idx + 1 & mask;
+            offset = Fingerprints.HEADER + idx * Fingerprint.SIZE;
+        }
+        return offset;
+    }
+
+    /**
+     * Whether slot is empty.
+     * @param map Mapping
+     * @param offset Offset of slot
+     * @return True if all zero
+     */
+    private static boolean empty(final ByteBuffer map, final int offset) {
+        boolean empty = true;
+        for (int pos = 0; pos < Fingerprint.SIZE && empty; pos += Long.BYTES) {
+            empty = map.getLong(offset + pos) == 0L;
+        }
+        return empty;
+    }
+
+    /**
+     * Fill a range with zeros.
+     * @param map Mapping
+     * @param from Offset of first byte, a multiple of eight
+     * @param end Offset past last byte, a multiple of eight
+     */
+    private static void zero(final ByteBuffer map, final int from, final int end) {
+        for (int pos = from; pos < end; pos += Long.BYTES) {
+            map.putLong(pos, 0L);
+        }
+    }
+
+    /**
+     * Length of table.
+     * @param capacity Number of slots
+     * @return Length in bytes
+     */
+    private static long length(final int capacity) {
+        return Fingerprints.HEADER + (long) capacity * Fingerprint.SIZE;
+    }
+}
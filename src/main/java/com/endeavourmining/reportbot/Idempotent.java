@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.IOException;
+import javax.mail.Folder;
+import javax.mail.MessagingException;
+
+/**
+ * Action that can safely run again, like a read.
+ *
+ * <p>An inbox may run it again on a new connection when the server
+ * dropped the first one half-way.</p>
+ *
+ * @param <T> Result type
+ * @since 0.1
+ */
+public final class Idempotent<T> implements Inbox.Action<T> {
+
+    /**
+     * Origin.
+     */
+    private final Inbox.Action<T> origin;
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     */
+    public Idempotent(final Inbox.Action<T> origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public T apply(final Folder folder) throws MessagingException, IOException {
+        return this.origin.apply(folder);
+    }
+
+    @Override
+    public boolean idempotent() {
+        return true;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.sun.mail.imap.IMAPStore;
+import java.time.Duration;
+import javax.mail.MessagingException;
+import javax.mail.Store;
+
+/**
+ * Mail account reachable through a message store (IMAP, POP3, etc.).
+ *
+ * <p>Stores are opened from a session shared by all accounts of the same
+ * server; credentials are given on connection only.</p>
+ *
+ * @since 0.1
+ */
+public final class ImapAccount {
+
+    /**
+     * Sessions shared by default.
+     */
+    private static final Sessions SHARED = new Sessions();
+
+    /**
+     * Username or mail address.
+     */
+    private final String login;
+
+    /**
+     * Password.
+     */
+    private final String password;
+
+    /**
+     * Server.
+     */
+    private final MailServerSettings server;
+
+    /**
+     * Sessions.
+     */
+    private final Sessions sessions;
+
+    /**
+     * Latency of connections, login included.
+     */
+    private final Histogram timer;
+
+    /**
+     * Ctor.
+     * @param settings Mail settings
+     */
+    public ImapAccount(final MailSettings settings) {
+        this(settings, ImapAccount.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param settings Mail settings
+     * @param sessions Sessions
+     */
+    public ImapAccount(final MailSettings settings, final Sessions sessions) {
+        this(settings, sessions, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param settings Mail settings
+     * @param sessions Sessions
+     * @param metrics Metrics
+     */
+    public ImapAccount(
+        final MailSettings settings, final Sessions sessions, final Metrics metrics
+    ) {
+        this(
+            settings.imapServerSettings(), settings.login(), settings.password(), sessions,
+            metrics
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param host Host
+     * @param protocol Protocol (imap, pop3, etc.)
+     * @param port Port
+     * @param login Login
+     * @param password Password
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public ImapAccount(
+        final String host, final String protocol, final int port,
+        final String login, final String password
+    ) {
+        this(host, protocol, port, login, password, ImapAccount.SHARED);
+    }
+
+    /**
+     * Ctor.
+     * @param host Host
+     * @param protocol Protocol (imap, pop3, etc.)
+     * @param port Port
+     * @param login Login
+     * @param password Password
+     * @param sessions Sessions
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public ImapAccount(
+        final String host, final String protocol, final int port,
+        final String login, final String password, final Sessions sessions
+    ) {
+        this(host, protocol, port, login, password, sessions, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param host Host
+     * @param protocol Protocol (imap, pop3, etc.)
+     * @param port Port
+     * @param login Login
+     * @param password Password
+     * @param sessions Sessions
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public ImapAccount(
+        final String host, final String protocol, final int port, final String login,
+        final String password, final Sessions sessions, final Metrics metrics
+    ) {
+        this(
+            new CompiledServerSettings(host, protocol, port), login, password, sessions,
+            metrics
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param server Server
+     * @param login Login
+     * @param password Password
+     * @param sessions Sessions
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public ImapAccount(
+        final MailServerSettings server, final String login, final String password,
+        final Sessions sessions, final Metrics metrics
+    ) {
+        this.server = server;
+        this.login = login;
+        this.password = password;
+        this.sessions = sessions;
+        this.timer = metrics.histogram("imap.connect");
+    }
+
+    /**
+     * Open a new authenticated store.
+     * @return Connected store
+     * @throws MessagingException If fails
+     */
+    public Store connect() throws MessagingException {
+        final long start = System.nanoTime();
+        final Store store = this.sessions.session(this.server)
+            .getStore(this.server.protocol());
+        store.connect(this.server.host(), this.server.port(), this.login, this.password);
+        this.timer.since(start);
+        return store;
+    }
+
+    /**
+     * Whether mailbox is served over IMAP, like with {@code imap} or
+     * {@code imaps}, without connecting to it.
+     * @return True if IMAP
+     * @throws MessagingException If protocol is unknown
+     */
+    public boolean imap() throws MessagingException {
+        return this.sessions.session(this.server)
+            .getStore(this.server.protocol()) instanceof IMAPStore;
+    }
+
+    /**
+     * Timeout of waiting for data from the server.
+     * @return Timeout
+     */
+    public Duration readTimeout() {
+        return this.server.readTimeout();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s://%s@%s:%d", this.server.protocol(), this.login, this.server.host(),
+            this.server.port()
+        );
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.IOException;
+import javax.mail.Folder;
+import javax.mail.MessagingException;
+
+/**
+ * Access to the INBOX folder of a mail account.
+ *
+ * @since 0.1
+ */
+public interface Inbox {
+
+    /**
+     * Apply an action on opened INBOX folder.
+     * @param action Action
+     * @param <T> Result type
+     * @return Result of the action
+     * @throws IOException If fails
+     */
+    <T> T apply(Inbox.Action<T> action) throws IOException;
+
+    /**
+     * Action on an opened folder.
+     *
+     * @param <T> Result type
+     * @since 0.1
+     */
+    interface Action<T> {
+
+        /**
+         * Apply action.
+         * @param folder Opened folder
+         * @return Result
+         * @throws MessagingException If mail operation fails
+         * @throws IOException If fails
+         */
+        T apply(Folder folder) throws MessagingException, IOException;
+
+        /**
+         * Whether action can run again after it failed half-way, like a
+         * read; see {@link Idempotent}.
+         * @return True if it can
+         */
+        default boolean idempotent() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.jcabi.log.Logger;
+import com.sun.mail.imap.IMAPFolder;
+import com.sun.mail.imap.IMAPStore;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.mail.Folder;
+import javax.mail.MessagingException;
+import javax.mail.event.MessageCountAdapter;
+import javax.mail.event.MessageCountEvent;
+
+/**
+ * Watch of INBOX notifying listeners as soon as new emails land in it.
+ *
+ * <p>It relies on IMAP IDLE when the server supports it, and falls back
+ * to NOOP polling otherwise. Connection is re-established when the server
+ * drops it. A mailbox that is not IMAP, like a POP3 one, can't be watched:
+ * it's refused once, at start, and never retried.</p>
+ *
+ * @since 0.1
+ */
+public final class InboxWatch implements Closeable {
+
+    /**
+     * Default NOOP polling period when IDLE is not available.
+     */
+    private static final Duration POLL = Duration.ofSeconds(5L);
+
+    /**
+     * Period after which IDLE is restarted to keep connection alive.
+     * RFC 2177 asks clients to re-issue IDLE at least every 29 minutes;
+     * it's restarted sooner when the read timeout of the account is
+     * shorter, so that a silent IDLE doesn't time out.
+     */
+    private static final Duration REFRESH = Duration.ofMinutes(9L);
+
+    /**
+     * Account.
+     */
+    private final ImapAccount account;
+
+    /**
+     * NOOP polling period when IDLE is not available.
+     */
+    private final Duration poll;
+
+    /**
+     * Whether IDLE should be used when server supports it.
+     */
+    private final boolean push;
+
+    /**
+     * Listeners.
+     */
+    private final Collection<InboxListener> listeners;
+
+    /**
+     * Watched folder.
+     */
+    private final AtomicReference<IMAPFolder> folder;
+
+    /**
+     * Whether watch is closed.
+     */
+    private final AtomicBoolean closed;
+
+    /**
+     * Watching threads.
+     */
+    private final ScheduledExecutorService threads;
+
+    /**
+     * Ctor.
+     * @param account Account
+     */
+    public InboxWatch(final ImapAccount account) {
+        this(account, InboxWatch.POLL, true);
+    }
+
+    /**
+     * Ctor.
+     * @param account Account
+     * @param poll NOOP polling period when IDLE is not available
+     * @param push Whether IDLE should be used when server supports it
+     */
+    public InboxWatch(final ImapAccount account, final Duration poll, final boolean push) {
+        this.account = account;
+        this.poll = poll;
+        this.push = push;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.folder = new AtomicReference<>();
+        this.closed = new AtomicBoolean(false);
+        this.threads = Executors.newScheduledThreadPool(
+            2,
+            runnable -> {
+                final Thread thread = new Thread(runnable, "inbox-watch");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * Subscribe a listener.
+     * @param listener Listener
+     * @return This watch
+     */
+    public InboxWatch subscribe(final InboxListener listener) {
+        this.listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Connect to INBOX and start watching it in background.
+     * @throws IOException If mailbox is not IMAP or initial connection fails
+     */
+    public void start() throws IOException {
+        try {
+            if (!this.account.imap()) {
+                throw new IOException(
+                    String.format("Only IMAP mailboxes can be watched, not %s", this.account)
+                );
+            }
+            this.open();
+        } catch (final MessagingException ex) {
+            throw new IOException(ex);
+        }
+        this.threads.execute(this::loop);
+        final long refresh = Math.min(
+            InboxWatch.REFRESH.toMillis(), this.account.readTimeout().toMillis() / 2L
+        );
+        this.threads.scheduleWithFixedDelay(
+            this::wake, refresh, refresh, TimeUnit.MILLISECONDS
+        );
+    }
+
+    @Override
+    public void close() {
+        this.closed.set(true);
+        this.threads.shutdownNow();
+        final IMAPFolder fld = this.folder.get();
+        if (fld != null) {
+            try {
+                fld.getStore().close();
+            } catch (final MessagingException ex) {
+                Logger.warn(this, "Failed to close %s: %s", this.account, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Watch loop, waiting for server notifications until closed.
+     */
+    private void loop() {
+        while (!this.closed.get()) {
+            try {
+                IMAPFolder fld = this.folder.get();
+                if (!fld.isOpen()) {
+                    fld.getStore().close();
+                    fld = this.open();
+                }
+                if (this.push && ((IMAPStore) fld.getStore()).hasCapability("IDLE")) {
+                    fld.idle(true);
+                } else {
+                    InboxWatch.noop(fld);
+                    Thread.sleep(this.poll.toMillis());
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (final MessagingException | IllegalStateException ex) {
+                if (!this.closed.get()) {
+                    Logger.warn(
+                        this, "Watch of %s failed, retrying: %s",
+                        this.account, ex.getMessage()
+                    );
+                    this.pause();
+                }
+            }
+        }
+    }
+
+    /**
+     * Wake up IDLE with a NOOP to keep connection alive.
+     */
+    private void wake() {
+        try {
+            InboxWatch.noop(this.folder.get());
+        } catch (final MessagingException | IllegalStateException ex) {
+            Logger.debug(this, "Refresh of %s failed: %s", this.account, ex.getMessage());
+        }
+    }
+
+    /**
+     * Wait a polling period before retrying.
+     */
+    private void pause() {
+        try {
+            Thread.sleep(this.poll.toMillis());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Open INBOX and register listeners notification.
+     * @return Opened folder
+     * @throws MessagingException If fails
+     */
+    private IMAPFolder open() throws MessagingException {
+        final Folder fld = this.account.connect().getFolder("INBOX");
+        if (!(fld instanceof IMAPFolder)) {
+            fld.getStore().close();
+            throw new IllegalStateException(
+                String.format("Only IMAP mailboxes can be watched, not %s", this.account)
+            );
+        }
+        final IMAPFolder imap = (IMAPFolder) fld;
+        imap.open(Folder.READ_ONLY);
+        imap.addMessageCountListener(
+            new MessageCountAdapter() {
+                @Override
+                public void messagesAdded(final MessageCountEvent event) {
+                    for (final InboxListener listener : InboxWatch.this.listeners) {
+                        listener.arrived(event.getMessages().length);
+                    }
+                }
+            }
+        );
+        this.folder.set(imap);
+        return imap;
+    }
+
+    /**
+     * Send a NOOP so that server reports pending changes.
+     * @param fld Opened folder
+     * @throws MessagingException If fails
+     */
+    private static void noop(final IMAPFolder fld) throws MessagingException {
+        fld.doCommand(
+            protocol -> {
+                protocol.noop();
+                return Boolean.TRUE;
+            }
+        );
+    }
+}
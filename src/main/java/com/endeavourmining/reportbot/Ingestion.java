@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.endeavourmining.reportbot.pipeline.Workers;
+import com.endeavourmining.reportbot.report.BatchPool;
+import com.endeavourmining.reportbot.report.ReportBatch;
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Ingestion of Excel reports sent by email.
+ *
+ * <p>Mailboxes to poll are accepted as input, from any number of
+ * mailboxes. Four stages, each with its own threads, are linked by bounded
+ * queues: fetch of new emails, extraction of spreadsheets, parsing and
+ * publishing. A slow mail server and a slow publisher overlap instead of
+ * adding up, and a slow publisher holds parsing back: parsed batches come
+ * from a bounded pool.</p>
+ *
+ * <p>Every report is journaled from its detection to its publishing, in
+ * the working directory, along with downloads, fingerprints and versions
+ * of reports. Reports left pending by a crash are resumed by
+ * {@link #recover(Iterable)}: reports are published at least once.
+ * Senders of reports are replied to once their report is parsed, from
+ * mailboxes with an SMTP server, and emails of reports over are flagged
+ * as seen or archived in bulk.</p>
+ *
+ * <p>Closing waits until all reports found are published.</p>
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class Ingestion implements Sink<Source>, Closeable {
+
+    /**
+     * File of fingerprints of reports already seen.
+     */
+    public static final String SEEN = "reports.fingerprints";
+
+    /**
+     * Directory of last versions of reports.
+     */
+    public static final String VERSIONS = "versions";
+
+    /**
+     * File of journal of reports.
+     */
+    public static final String JOURNAL = "reports.journal";
+
+    /**
+     * Directory of downloaded spreadsheets.
+     */
+    public static final String DOWNLOADS = "downloads";
+
+    /**
+     * Fetch stage name.
+     */
+    private static final String FETCH = "fetch";
+
+    /**
+     * Extraction stage name.
+     */
+    private static final String EXTRACT = "extract";
+
+    /**
+     * Parsing stage name.
+     */
+    private static final String PARSE = "parse";
+
+    /**
+     * Publishing stage name.
+     */
+    private static final String PUBLISH = "publish";
+
+    /**
+     * Fetch stage.
+     */
+    private final Workers<Source, Candidate> fetch;
+
+    /**
+     * Extraction stage.
+     */
+    private final Workers<Candidate, ReportFile> extract;
+
+    /**
+     * Parsing stage.
+     */
+    private final Workers<ReportFile, ReportPart> parse;
+
+    /**
+     * Publishing stage.
+     */
+    private final Workers<ReportPart, Envelope> publish;
+
+    /**
+     * Fingerprints of reports already seen.
+     */
+    private final Fingerprints seen;
+
+    /**
+     * Journal of reports.
+     */
+    private final Journal journal;
+
+    /**
+     * Replies to senders of reports.
+     */
+    private final Replies replies;
+
+    /**
+     * Cleanup of emails of reports over.
+     */
+    private final Cleanup cleanup;
+
+    /**
+     * Ctor.
+     * @param publisher Publisher
+     * @param settings Settings
+     * @param dir Working directory
+     */
+    public Ingestion(final Publisher publisher, final Settings settings, final Path dir) {
+        this(publisher, settings, dir, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param publisher Publisher
+     * @param settings Settings
+     * @param dir Working directory
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Ingestion(
+        final Publisher publisher, final Settings settings, final Path dir,
+        final Metrics metrics
+    ) {
+        this(
+            publisher, settings, dir, new Fingerprints(dir.resolve(Ingestion.SEEN)), metrics
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param publisher Publisher
+     * @param settings Settings
+     * @param dir Working directory
+     * @param seen Fingerprints of reports already seen
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Ingestion(
+        final Publisher publisher, final Settings settings, final Path dir,
+        final Fingerprints seen, final Metrics metrics
+    ) {
+        this(publisher, settings, dir, seen, new Cleanup(settings, metrics), metrics);
+    }
+
+    /**
+     * Ctor.
+     * @param publisher Publisher
+     * @param settings Settings
+     * @param dir Working directory
+     * @param seen Fingerprints of reports already seen
+     * @param cleanup Cleanup of emails of reports over
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Ingestion(
+        final Publisher publisher, final Settings settings, final Path dir,
+        final Fingerprints seen, final Cleanup cleanup, final Metrics metrics
+    ) {
+        this(
+            publisher, settings, dir, seen,
+            new Journal(dir.resolve(Ingestion.JOURNAL), cleanup, metrics),
+            new ReportVersions(dir.resolve(Ingestion.VERSIONS), settings.reportSettings()),
+            new Replies(settings, metrics), cleanup, metrics
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param publisher Publisher
+     * @param settings Settings
+     * @param dir Working directory
+     * @param seen Fingerprints of reports already seen
+     * @param journal Journal of reports
+     * @param versions Last versions of reports
+     * @param replies Replies to senders of reports
+     * @param cleanup Cleanup of emails of reports over
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private Ingestion(
+        final Publisher publisher, final Settings settings, final Path dir,
+        final Fingerprints seen, final Journal journal, final ReportVersions versions,
+        final Replies replies, final Cleanup cleanup, final Metrics metrics
+    ) {
+        this.seen = seen;
+        this.journal = journal;
+        this.replies = replies;
+        this.cleanup = cleanup;
+        this.publish = new Workers<>(
+            Ingestion.PUBLISH, new PublishStage(publisher, metrics),
+            email -> {
+                versions.accept(email);
+                final Optional<Fingerprint> print = journal.fingerprint(email);
+                if (print.isPresent()) {
+                    seen.add(print.get());
+                }
+                final Optional<Fingerprint> mid = email.fingerprint();
+                if (mid.isPresent()) {
+                    seen.add(mid.get());
+                }
+                seen.sync();
+                journal.published(email);
+            },
+            settings.pipelineSettings().threads(Ingestion.PUBLISH),
+            settings.pipelineSettings().queue(), metrics
+        );
+        this.parse = new Workers<>(
+            Ingestion.PARSE,
+            new ParseStage(
+                Ingestion.pool(settings), settings.reportSettings().header(), versions,
+                journal, replies
+            ),
+            this.publish,
+            settings.pipelineSettings().threads(Ingestion.PARSE),
+            settings.pipelineSettings().queue(), metrics
+        );
+        this.extract = new Workers<>(
+            Ingestion.EXTRACT,
+            new ExtractStage(dir.resolve(Ingestion.DOWNLOADS), seen, journal, metrics),
+            this.parse,
+            settings.pipelineSettings().threads(Ingestion.EXTRACT),
+            settings.pipelineSettings().queue(), metrics
+        );
+        this.fetch = new Workers<>(
+            Ingestion.FETCH, new FetchStage(journal, metrics), this.extract,
+            settings.pipelineSettings().threads(Ingestion.FETCH),
+            settings.pipelineSettings().queue(), metrics
+        );
+    }
+
+    /**
+     * Start all stages.
+     * @return This
+     */
+    public Ingestion start() {
+        this.replies.start();
+        this.cleanup.start();
+        this.publish.start();
+        this.parse.start();
+        this.extract.start();
+        this.fetch.start();
+        return this;
+    }
+
+    /**
+     * Resume reports left pending by a previous run.
+     *
+     * <p>A report whose spreadsheet was downloaded is parsed again, other
+     * ones are downloaded again from their mailbox. Reports of mailboxes no
+     * longer set stay pending.</p>
+     * @param sources Mailboxes
+     * @throws IOException If fails
+     */
+    public void recover(final Iterable<Source> sources) throws IOException {
+        final Map<String, Source> named = new HashMap<>(0);
+        for (final Source source : sources) {
+            named.put(source.name(), source);
+            this.cleanup.register(source);
+        }
+        int orphans = 0;
+        for (final PendingReport report : this.journal.pending()) {
+            final Optional<Path> file = report.file();
+            if (file.isPresent() && Files.exists(file.get())) {
+                this.parse.accept(
+                    new ReportFile(report.mailbox(), report.envelope(), file.get())
+                );
+            } else if (named.containsKey(report.mailbox())) {
+                this.extract.accept(
+                    new Candidate(named.get(report.mailbox()), report.envelope())
+                );
+            } else {
+                ++orphans;
+            }
+        }
+        if (orphans > 0) {
+            Logger.warn(this, "%d pending reports of mailboxes no longer set", orphans);
+        }
+    }
+
+    @Override
+    public void accept(final Source source) throws IOException {
+        this.cleanup.register(source);
+        this.fetch.accept(source);
+    }
+
+    @Override
+    public boolean offer(final Source source) {
+        this.cleanup.register(source);
+        return this.fetch.offer(source);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.fetch.close();
+        this.extract.close();
+        this.parse.close();
+        this.publish.close();
+        this.replies.close();
+        this.cleanup.close();
+        this.journal.close();
+        this.seen.close();
+    }
+
+    /**
+     * Pool of batches, large enough to keep every queue and thread busy.
+     * @param settings Settings
+     * @return Pool
+     */
+    private static BatchPool pool(final Settings settings) {
+        final PipelineSettings pipeline = settings.pipelineSettings();
+        final int parsing = pipeline.threads(Ingestion.PARSE);
+        final int publishing = pipeline.threads(Ingestion.PUBLISH);
+        return new BatchPool(
+            new ReportBatch(settings.reportSettings().columns(), pipeline.batch()),
+            pipeline.queue() + 2 * parsing + publishing
+        );
+    }
+}
@@ -21,6 +21,7 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -83,4 +84,19 @@ public final class JavaResource {
         }
         Logger.info(this, "Resource copied successfully `%s` → `%s`", this.name, dest);
     }
+
+    /**
+     * Resource data as text.
+     * @return Text, read as UTF-8
+     * @throws IOException On error
+     */
+    public String text() throws IOException {
+        try (
+            InputStream src = new BufferedInputStream(
+                Objects.requireNonNull(this.clo.getResourceAsStream(this.name))
+            )
+        ) {
+            return IOUtils.toString(src, StandardCharsets.UTF_8);
+        }
+    }
 }
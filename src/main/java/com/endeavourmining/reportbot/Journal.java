@@ -0,0 +1,717 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.jcabi.log.Logger;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of reports, for crash-safe, at-least-once ingestion.
+ *
+ * <p>Every step of a report is appended to the journal: detected in its
+ * mailbox, extracted to a local file with its {@link Fingerprint}, then
+ * published, skipped as a
+ * duplicate or failed for good. Records are framed with their length and
+ * CRC-32, so that a record torn by a crash is ignored, and replay resumes
+ * at the next valid frame after a corrupt one. A journal found corrupt is
+ * copied aside before being compacted. Appends only fill
+ * a buffer: {@link #sync()} writes and forces all records buffered so far
+ * at once, so threads syncing together share a single disk sync. A
+ * report is extracted only once its extraction is durable, and the
+ * checkpoint of its mailbox is saved only once its detection is.</p>
+ *
+ * <p>Journal is opened on first use, again after being closed: it's
+ * replayed to find reports not over, then compacted to them. Downloaded files are kept until
+ * their report is over, so that a pending report resumes from parsing if
+ * its file is still there, from download otherwise. Reports over are
+ * handed to a receiver once durable, like a {@link Cleanup} of their
+ * emails.</p>
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class Journal implements Closeable {
+
+    /**
+     * Record of a report detected.
+     */
+    private static final byte DETECTION = 1;
+
+    /**
+     * Record of a report extracted.
+     */
+    private static final byte EXTRACTION = 2;
+
+    /**
+     * Record of a report published.
+     */
+    private static final byte PUBLISHING = 3;
+
+    /**
+     * Record of a report skipped.
+     */
+    private static final byte SKIPPING = 4;
+
+    /**
+     * Record of a report failed.
+     */
+    private static final byte FAILURE = 5;
+
+    /**
+     * Largest record, in bytes.
+     */
+    private static final int LARGEST = 1_048_576;
+
+    /**
+     * Size of frame header: length and CRC of record, in bytes.
+     */
+    private static final int HEADER = 8;
+
+    /**
+     * File.
+     */
+    private final Path path;
+
+    /**
+     * Lock of buffer and reports.
+     */
+    private final Object lock;
+
+    /**
+     * Lock of file.
+     */
+    private final Object disk;
+
+    /**
+     * Reports not over, by email.
+     */
+    private final Map<Envelope, PendingReport> reports;
+
+    /**
+     * Receiver of reports over, once durable.
+     */
+    private final Sink<PendingReport> settled;
+
+    /**
+     * Records not yet written.
+     */
+    private final ByteArrayOutputStream buffer;
+
+    /**
+     * Latency of syncs.
+     */
+    private final Histogram timer;
+
+    /**
+     * File open for appending.
+     */
+    private FileChannel channel;
+
+    /**
+     * Whether file is open.
+     */
+    private boolean opened;
+
+    /**
+     * Next identifier of report.
+     */
+    private long next;
+
+    /**
+     * Number of records appended.
+     */
+    private long appended;
+
+    /**
+     * Number of records durable.
+     */
+    private long durable;
+
+    /**
+     * Ctor.
+     * @param path File
+     */
+    public Journal(final Path path) {
+        this(path, report -> { });
+    }
+
+    /**
+     * Ctor.
+     * @param path File
+     * @param settled Receiver of reports over, once durable
+     */
+    public Journal(final Path path, final Sink<PendingReport> settled) {
+        this(path, settled, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param path File
+     * @param settled Receiver of reports over, once durable
+     * @param metrics Metrics
+     */
+    public Journal(
+        final Path path, final Sink<PendingReport> settled, final Metrics metrics
+    ) {
+        this.path = path;
+        this.settled = settled;
+        this.lock = new Object();
+        this.disk = new Object();
+        this.reports = new IdentityHashMap<>(0);
+        this.buffer = new ByteArrayOutputStream();
+        this.timer = metrics.histogram("journal.sync");
+    }
+
+    /**
+     * Reports not over, like reports left pending by a crash.
+     * @return Reports, in order of detection
+     * @throws IOException If fails
+     */
+    public List<PendingReport> pending() throws IOException {
+        final List<PendingReport> pending;
+        synchronized (this.lock) {
+            this.open();
+            pending = new ArrayList<>(this.reports.values());
+        }
+        pending.sort((left, right) -> Long.compare(left.number(), right.number()));
+        return pending;
+    }
+
+    /**
+     * Append detection of a report; durable after next {@link #sync()}.
+     * @param mailbox Name of mailbox
+     * @param email Email of report
+     * @throws IOException If fails
+     */
+    public void detected(final String mailbox, final Envelope email) throws IOException {
+        synchronized (this.lock) {
+            this.open();
+            final PendingReport report = new PendingReport(this.next, mailbox, email);
+            this.next += 1L;
+            this.reports.put(email, report);
+            this.append(Journal.DETECTION, report.number(), Journal.payload(report));
+        }
+    }
+
+    /**
+     * Record extraction of a report, durably.
+     * @param email Email of report
+     * @param file Downloaded spreadsheet
+     * @param print Fingerprint of spreadsheet
+     * @throws IOException If fails
+     */
+    public void extracted(final Envelope email, final Path file, final Fingerprint print)
+        throws IOException {
+        synchronized (this.lock) {
+            final PendingReport report = this.report(email).extracted(file, print);
+            this.reports.put(email, report);
+            this.append(Journal.EXTRACTION, report.number(), Journal.download(report));
+        }
+        this.sync();
+    }
+
+    /**
+     * Fingerprint of a report extracted.
+     * @param email Email of report
+     * @return Fingerprint of spreadsheet, empty if unknown
+     */
+    public Optional<Fingerprint> fingerprint(final Envelope email) {
+        synchronized (this.lock) {
+            return this.report(email).fingerprint();
+        }
+    }
+
+    /**
+     * Record publishing of a report, durably, deleting its file.
+     * @param email Email of report
+     * @throws IOException If fails
+     */
+    public void published(final Envelope email) throws IOException {
+        this.over(email, Journal.PUBLISHING);
+    }
+
+    /**
+     * Record a report skipped as a duplicate, durably, deleting its file.
+     * @param email Email of report
+     * @throws IOException If fails
+     */
+    public void skipped(final Envelope email) throws IOException {
+        this.over(email, Journal.SKIPPING);
+    }
+
+    /**
+     * Record a report failed for good, durably, deleting its file.
+     * @param email Email of report
+     * @throws IOException If fails
+     */
+    public void failed(final Envelope email) throws IOException {
+        this.over(email, Journal.FAILURE);
+    }
+
+    /**
+     * Write and force all records appended so far.
+     *
+     * <p>Only one thread forces the file at a time. Threads arriving
+     * meanwhile wait for it, then find their records durable already or
+     * force all of theirs in one go.</p>
+     * @throws IOException If fails
+     */
+    public void sync() throws IOException {
+        final long target;
+        synchronized (this.lock) {
+            target = this.appended;
+        }
+        synchronized (this.disk) {
+            if (this.durable < target) {
+                final long start = System.nanoTime();
+                final long covered;
+                final ByteBuffer bytes;
+                synchronized (this.lock) {
+                    covered = this.appended;
+                    bytes = ByteBuffer.wrap(this.buffer.toByteArray());
+                    this.buffer.reset();
+                }
+                while (bytes.hasRemaining()) {
+                    this.channel.write(bytes);
+                }
+                this.channel.force(false);
+                this.durable = covered;
+                this.timer.since(start);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.sync();
+        synchronized (this.disk) {
+            synchronized (this.lock) {
+                if (this.opened) {
+                    this.channel.close();
+                    this.opened = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Record end of a report, deleting its file and handing it over.
+     * @param email Email of report
+     * @param type Type of record
+     * @throws IOException If fails
+     */
+    private void over(final Envelope email, final byte type) throws IOException {
+        final PendingReport report;
+        synchronized (this.lock) {
+            report = this.report(email);
+            this.reports.remove(email);
+            this.append(type, report.number(), new byte[0]);
+        }
+        this.sync();
+        if (report.file().isPresent()) {
+            Files.deleteIfExists(report.file().get());
+        }
+        this.settled.accept(report);
+    }
+
+    /**
+     * Report of an email.
+     * @param email Email
+     * @return Report
+     */
+    private PendingReport report(final Envelope email) {
+        final PendingReport report = this.reports.get(email);
+        if (report == null) {
+            throw new IllegalStateException(
+                String.format("%s was not detected in journal", email)
+            );
+        }
+        return report;
+    }
+
+    /**
+     * Append a record to buffer.
+     * @param type Type of record
+     * @param id Identifier of report
+     * @param payload Payload
+     * @throws IOException If fails
+     */
+    private void append(final byte type, final long id, final byte[] payload)
+        throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(payload.length + 9);
+        final DataOutputStream data = new DataOutputStream(body);
+        data.writeByte(type);
+        data.writeLong(id);
+        data.write(payload);
+        if (body.size() > Journal.LARGEST) {
+            throw new IOException(
+                String.format("Record of %d bytes is too large for journal", body.size())
+            );
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(body.toByteArray());
+        final DataOutputStream frame = new DataOutputStream(this.buffer);
+        frame.writeInt(body.size());
+        frame.writeInt((int) crc.getValue());
+        body.writeTo(frame);
+        this.appended += 1L;
+    }
+
+    /**
+     * Replay journal, compact it and open it for appending, unless open.
+     * @throws IOException If fails
+     */
+    private void open() throws IOException {
+        if (!this.opened) {
+            this.reports.clear();
+            final Map<Long, PendingReport> pending = new LinkedHashMap<>(0);
+            if (Files.exists(this.path)) {
+                final boolean corrupt;
+                try (FileChannel input = FileChannel.open(this.path, StandardOpenOption.READ)) {
+                    corrupt = this.replay(input, pending);
+                }
+                if (corrupt) {
+                    final Path copy = this.path.resolveSibling(
+                        String.format(
+                            "%s.%d.corrupt", this.path.getFileName(), System.currentTimeMillis()
+                        )
+                    );
+                    Files.copy(this.path, copy);
+                    Logger.error(this, "Corrupt journal %s copied to %s", this.path, copy);
+                }
+            }
+            for (final PendingReport report : pending.values()) {
+                this.reports.put(report.envelope(), report);
+                this.next = Math.max(this.next, report.number() + 1L);
+                this.append(Journal.DETECTION, report.number(), Journal.payload(report));
+                if (report.file().isPresent()) {
+                    this.append(Journal.EXTRACTION, report.number(), Journal.download(report));
+                }
+            }
+            this.compact();
+            if (!pending.isEmpty()) {
+                Logger.info(this, "%d reports pending in %s", pending.size(), this.path);
+            }
+        }
+    }
+
+    /**
+     * Replace journal with records buffered, and open it for appending.
+     * @throws IOException If fails
+     */
+    private void compact() throws IOException {
+        final Path dir = this.path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        final Path temp = this.path.resolveSibling(
+            String.format("%s.tmp", this.path.getFileName())
+        );
+        try (FileChannel compacted = FileChannel.open(
+            temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE
+        )) {
+            final ByteBuffer bytes = ByteBuffer.wrap(this.buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                compacted.write(bytes);
+            }
+            compacted.force(false);
+        }
+        this.buffer.reset();
+        Files.move(
+            temp, this.path, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+        this.channel = FileChannel.open(
+            this.path, StandardOpenOption.WRITE, StandardOpenOption.APPEND
+        );
+        this.opened = true;
+        this.durable = this.appended;
+    }
+
+    /**
+     * Replay records, skipping corrupt ones.
+     *
+     * <p>Bytes of a frame torn or corrupt are skipped one at a time, until
+     * the next frame of valid length and CRC.</p>
+     * @param input Journal
+     * @param pending Where to collect reports not over, by identifier
+     * @return True if records were skipped before the end of journal
+     * @throws IOException If fails
+     */
+    private boolean replay(
+        final FileChannel input, final Map<Long, PendingReport> pending
+    ) throws IOException {
+        final long end = input.size();
+        boolean corrupt = false;
+        long skipped = -1L;
+        long pos = 0L;
+        while (pos < end) {
+            final byte[] body = Journal.frame(input, pos, end);
+            if (body.length == 0) {
+                if (skipped < 0L) {
+                    skipped = pos;
+                }
+                pos += 1L;
+            } else {
+                if (skipped >= 0L) {
+                    Logger.error(
+                        this, "Corrupt records in %s from offset %d to %d, skipped",
+                        this.path, skipped, pos
+                    );
+                    corrupt = true;
+                    skipped = -1L;
+                }
+                if (!this.apply(body, pending)) {
+                    Logger.error(
+                        this, "Unreadable record at offset %d of %s, skipped", pos, this.path
+                    );
+                    corrupt = true;
+                }
+                pos += Journal.HEADER + body.length;
+            }
+        }
+        if (skipped >= 0L) {
+            Logger.warn(
+                this, "Record torn from offset %d to the end of %s, ignored", skipped, this.path
+            );
+        }
+        return corrupt;
+    }
+
+    /**
+     * Apply a record to reports not over.
+     * @param body Body of record
+     * @param pending Reports not over, by identifier
+     * @return True if applied, false if its payload can't be read
+     */
+    private boolean apply(final byte[] body, final Map<Long, PendingReport> pending) {
+        boolean applied = true;
+        try {
+            final DataInputStream record = new DataInputStream(new ByteArrayInputStream(body));
+            final byte type = record.readByte();
+            final long id = record.readLong();
+            this.next = Math.max(this.next, id + 1L);
+            if (type == Journal.DETECTION) {
+                pending.put(id, Journal.restored(id, record));
+            } else if (type == Journal.EXTRACTION && pending.containsKey(id)) {
+                pending.put(id, Journal.extracted(pending.get(id), record));
+            } else {
+                pending.remove(id);
+            }
+        } catch (final IOException ex) {
+            applied = false;
+        }
+        return applied;
+    }
+
+    /**
+     * Body of the frame at a position, checked against its length and CRC.
+     * @param input Journal
+     * @param pos Position of frame
+     * @param end Size of journal
+     * @return Body, empty if torn or corrupt
+     * @throws IOException If fails
+     */
+    private static byte[] frame(final FileChannel input, final long pos, final long end)
+        throws IOException {
+        byte[] body = new byte[0];
+        if (end - pos >= Journal.HEADER) {
+            final ByteBuffer header = Journal.read(input, pos, Journal.HEADER);
+            final int size = header.getInt();
+            final int sum = header.getInt();
+            if (size > 0 && size <= Journal.LARGEST && size <= end - pos - Journal.HEADER) {
+                final byte[] bytes = Journal.read(input, pos + Journal.HEADER, size).array();
+                final CRC32 crc = new CRC32();
+                crc.update(bytes);
+                if ((int) crc.getValue() == sum) {
+                    body = bytes;
+                }
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Read bytes of journal.
+     * @param input Journal
+     * @param pos Position
+     * @param size Number of bytes
+     * @return Bytes, ready to be read
+     * @throws IOException If fails
+     */
+    private static ByteBuffer read(final FileChannel input, final long pos, final int size)
+        throws IOException {
+        final ByteBuffer bytes = ByteBuffer.allocate(size);
+        while (bytes.hasRemaining()) {
+            if (input.read(bytes, pos + bytes.position()) < 0) {
+                throw new EOFException(String.format("Journal ends before %d", pos + size));
+            }
+        }
+        bytes.flip();
+        return bytes;
+    }
+
+    /**
+     * Payload of a detection.
+     * @param report Report
+     * @return Bytes
+     * @throws IOException If fails
+     */
+    private static byte[] payload(final PendingReport report) throws IOException {
+        final Envelope email = report.envelope();
+        final AttachmentPart part = email.spreadsheet().orElseThrow(
+            () -> new IllegalArgumentException(String.format("No spreadsheet in %s", email))
+        );
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        final DataOutputStream data = new DataOutputStream(payload);
+        Journal.write(data, report.mailbox());
+        data.writeLong(email.uid());
+        Journal.write(data, email.messageId());
+        Journal.write(data, email.sender());
+        Journal.write(data, email.subject());
+        data.writeLong(email.received().toEpochMilli());
+        data.writeBoolean(email.isSeen());
+        Journal.write(data, part.section());
+        Journal.write(data, part.name());
+        Journal.write(data, part.type());
+        Journal.write(data, part.encoding());
+        data.writeInt(part.size());
+        return payload.toByteArray();
+    }
+
+    /**
+     * Write a string as its UTF-8 bytes, prefixed with their length.
+     * @param data Payload
+     * @param text String, of any length
+     * @throws IOException If fails
+     */
+    private static void write(final DataOutputStream data, final String text)
+        throws IOException {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Read a string.
+     * @param data Payload
+     * @return String
+     * @throws IOException If fails
+     */
+    private static String read(final DataInputStream data) throws IOException {
+        final int size = data.readInt();
+        if (size < 0 || size > data.available()) {
+            throw new EOFException(String.format("String of %d bytes is torn", size));
+        }
+        final byte[] bytes = new byte[size];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Payload of an extraction.
+     * @param report Report extracted
+     * @return Bytes
+     * @throws IOException If fails
+     */
+    private static byte[] download(final PendingReport report) throws IOException {
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        final DataOutputStream data = new DataOutputStream(payload);
+        data.writeUTF(report.file().get().toString());
+        if (report.fingerprint().isPresent()) {
+            final ByteBuffer print = ByteBuffer.allocate(Fingerprint.SIZE);
+            report.fingerprint().get().write(print, 0);
+            data.write(print.array());
+        }
+        return payload.toByteArray();
+    }
+
+    /**
+     * Report of an extraction.
+     * @param report Report detected
+     * @param data Payload
+     * @return Report extracted, without fingerprint if journaled without
+     * @throws IOException If fails
+     */
+    private static PendingReport extracted(final PendingReport report, final DataInputStream data)
+        throws IOException {
+        final Path file = Paths.get(data.readUTF());
+        Fingerprint print = null;
+        if (data.available() >= Fingerprint.SIZE) {
+            final byte[] digest = new byte[Fingerprint.SIZE];
+            data.readFully(digest);
+            print = new Fingerprint(digest);
+        }
+        return report.extracted(file, print);
+    }
+
+    /**
+     * Report of a detection.
+     * @param id Identifier of report
+     * @param data Payload
+     * @return Report
+     * @throws IOException If fails
+     */
+    private static PendingReport restored(final long id, final DataInputStream data)
+        throws IOException {
+        final String mailbox = Journal.read(data);
+        final long uid = data.readLong();
+        final String mid = Journal.read(data);
+        final String sender = Journal.read(data);
+        final String subject = Journal.read(data);
+        final Instant received = Instant.ofEpochMilli(data.readLong());
+        final boolean seen = data.readBoolean();
+        return new PendingReport(
+            id, mailbox,
+            new Envelope(
+                uid, mid, sender, subject, received, seen,
+                Collections.singletonList(
+                    new AttachmentPart(
+                        Journal.read(data), Journal.read(data), Journal.read(data),
+                        Journal.read(data), data.readInt()
+                    )
+                )
+            )
+        );
+    }
+}
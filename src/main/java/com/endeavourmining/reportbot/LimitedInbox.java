@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Inbox sharing a limit of concurrent actions with other inboxes.
+ *
+ * <p>Inboxes of mailboxes hosted by the same server share one fair
+ * semaphore, so that the server never sees more connections at work than
+ * allowed, whatever the number of mailboxes.</p>
+ *
+ * @since 0.1
+ */
+public final class LimitedInbox implements Inbox {
+
+    /**
+     * Origin.
+     */
+    private final Inbox origin;
+
+    /**
+     * Shared permits.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Ctor.
+     * @param origin Origin
+     * @param permits Shared permits
+     */
+    public LimitedInbox(final Inbox origin, final Semaphore permits) {
+        this.origin = origin;
+        this.permits = permits;
+    }
+
+    @Override
+    public <T> T apply(final Inbox.Action<T> action) throws IOException {
+        try {
+            this.permits.acquire();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException iex = new InterruptedIOException(
+                "Interrupted while waiting for a connection to mail server"
+            );
+            iex.initCause(ex);
+            throw iex;
+        }
+        try {
+            return this.origin.apply(action);
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.origin.toString();
+    }
+}
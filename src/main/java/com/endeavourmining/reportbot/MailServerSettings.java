@@ -16,6 +16,8 @@
  */
 package com.endeavourmining.reportbot;
 
+import java.time.Duration;
+
 /**
  * Mail server settings.
  *
@@ -40,4 +42,16 @@ public interface MailServerSettings {
      * @return Port
      */
     int port();
+
+    /**
+     * Timeout of connecting to the server.
+     * @return Timeout
+     */
+    Duration connectTimeout();
+
+    /**
+     * Timeout of waiting for data from the server.
+     * @return Timeout
+     */
+    Duration readTimeout();
 }
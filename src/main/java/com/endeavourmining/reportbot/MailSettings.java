@@ -41,6 +41,12 @@ public interface MailSettings {
      */
     String password();
 
+    /**
+     * Folder emails of reports are moved to, once reports are over.
+     * @return Folder name, empty to only flag them as seen
+     */
+    String archive();
+
     /**
      * SMTP server settings.
      * @return Settings
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import javax.mail.Folder;
+
+/**
+ * Mailboxes listed in settings, ready to be polled.
+ *
+ * <p>Every mailbox has its own pool of connections and its own file of
+ * checkpoints, named after its login and host. Mailboxes of the same host
+ * share one mail session and one fair limit of connections at work, so
+ * that many mailboxes never overload their server. A backlog of new emails
+ * is caught up over several connections of its mailbox, within that
+ * limit. Unread emails of every mailbox can be counted, to log the
+ * backlog left on the server, on connections of its pool and within the
+ * limit of its host.</p>
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class Mailboxes implements Iterable<Source>, Closeable {
+
+    /**
+     * Pools of connections.
+     */
+    private final List<PooledInbox> pools;
+
+    /**
+     * Catch-up of large backlogs, shared by all mailboxes.
+     */
+    private final CatchUp catchup;
+
+    /**
+     * Sources.
+     */
+    private final List<Source> sources;
+
+    /**
+     * Accounts by mailbox name.
+     */
+    private final Map<String, ImapAccount> accounts;
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param settings Settings
+     * @param dir Directory of checkpoints
+     */
+    public Mailboxes(final Settings settings, final Path dir) {
+        this(settings, dir, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param settings Settings
+     * @param dir Directory of checkpoints
+     * @param metrics Metrics
+     */
+    public Mailboxes(final Settings settings, final Path dir, final Metrics metrics) {
+        this(
+            settings, dir, new ArrayList<>(settings.mailboxes().size()),
+            new HashMap<>(0),
+            new CatchUp(
+                settings.pipelineSettings().catchUp(), settings.pipelineSettings().backlog()
+            ),
+            metrics
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param settings Settings
+     * @param dir Directory of checkpoints
+     * @param pools Where to keep pools of connections
+     * @param accounts Where to keep accounts by mailbox name
+     * @param catchup Catch-up of large backlogs
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Mailboxes(
+        final Settings settings, final Path dir, final List<PooledInbox> pools,
+        final Map<String, ImapAccount> accounts, final CatchUp catchup, final Metrics metrics
+    ) {
+        this.pools = pools;
+        this.accounts = accounts;
+        this.catchup = catchup;
+        this.metrics = metrics;
+        this.sources = Mailboxes.build(settings, dir, pools, accounts, catchup, metrics);
+    }
+
+    @Override
+    public Iterator<Source> iterator() {
+        return this.sources.iterator();
+    }
+
+    /**
+     * Number of mailboxes.
+     * @return Number
+     */
+    public int size() {
+        return this.sources.size();
+    }
+
+    /**
+     * Watch of INBOX of a mailbox, on its own connection.
+     * @param source Mailbox
+     * @return Watch, not started
+     */
+    public InboxWatch watch(final Source source) {
+        return new InboxWatch(this.accounts.get(source.name()));
+    }
+
+    /**
+     * Count and log unread emails of every mailbox, on a connection leased
+     * from its pool, where INBOX is selected and searched.
+     *
+     * <p>A mailbox that can't be counted is logged and left out, so that
+     * an unreachable server doesn't hold the others.</p>
+     * @return Unread emails of all mailboxes counted
+     */
+    public int unread() {
+        int total = 0;
+        for (final Source source : this.sources) {
+            try {
+                final int count = new UnreadEmails(
+                    source.inbox(), new CapableUnreadCount(this.metrics)
+                ).count();
+                Logger.info(this, "%d unread emails in %s", count, source);
+                total += count;
+            } catch (final IOException ex) {
+                Logger.warn(
+                    this, "Can't count unread emails in %s: %s", source, ex.getMessage()
+                );
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final PooledInbox pool : this.pools) {
+            pool.close();
+        }
+        this.catchup.close();
+    }
+
+    /**
+     * Name of a mailbox.
+     * @param mailbox Settings of mailbox
+     * @return Name, like {@code login@host}
+     */
+    static String name(final MailSettings mailbox) {
+        return String.format(
+            "%s@%s", mailbox.login(),
+            mailbox.imapServerSettings().host().toLowerCase(Locale.ENGLISH)
+        );
+    }
+
+    /**
+     * Build sources of settings.
+     * @param settings Settings
+     * @param dir Directory of checkpoints
+     * @param pools Where to keep pools of connections
+     * @param accounts Where to keep accounts by mailbox name
+     * @param catchup Catch-up of large backlogs
+     * @param metrics Metrics
+     * @return Sources
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static List<Source> build(
+        final Settings settings, final Path dir, final List<PooledInbox> pools,
+        final Map<String, ImapAccount> accounts, final CatchUp catchup, final Metrics metrics
+    ) {
+        final PipelineSettings pipeline = settings.pipelineSettings();
+        final int limit = pipeline.hostConnections();
+        final int fetching = pipeline.threads("fetch");
+        final int extracting = pipeline.threads("extract");
+        final Map<String, Semaphore> hosts = new HashMap<>(0);
+        final Sessions sessions = new Sessions();
+        final ReportRules rules = new ReportRules(settings.ruleSettings());
+        final List<Source> list = new ArrayList<>(settings.mailboxes().size());
+        for (final MailSettings mailbox : settings.mailboxes()) {
+            final String host = mailbox.imapServerSettings().host()
+                .toLowerCase(Locale.ENGLISH);
+            final String name = Mailboxes.name(mailbox);
+            final ImapAccount account = new ImapAccount(mailbox, sessions, metrics);
+            accounts.put(name, account);
+            final PooledInbox pool = new PooledInbox(
+                account,
+                Math.max(fetching, pipeline.catchUp()) + extracting,
+                Folder.READ_WRITE, metrics
+            );
+            pools.add(pool);
+            list.add(
+                new Source(
+                    name,
+                    new LimitedInbox(
+                        pool, hosts.computeIfAbsent(host, key -> new Semaphore(limit, true))
+                    ),
+                    new FileCheckpoints(
+                        dir.resolve(
+                            String.format(
+                                "checkpoints-%s.properties",
+                                name.replaceAll("[^A-Za-z0-9@._-]", "_")
+                            )
+                        )
+                    ),
+                    rules, catchup, metrics
+                )
+            );
+        }
+        return Collections.unmodifiableList(list);
+    }
+}
@@ -16,15 +16,22 @@
  */
 package com.endeavourmining.reportbot;
 
+import com.endeavourmining.reportbot.metrics.JmxMetrics;
+import com.endeavourmining.reportbot.metrics.Metrics;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import javax.management.JMException;
 
 /**
  * Entrance.
  *
  * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
-@SuppressWarnings({"PMD.ProhibitPublicStaticMethods", "PMD.SystemPrintln"})
+@SuppressWarnings("PMD.ProhibitPublicStaticMethods")
 public final class Main {
 
     /**
@@ -36,26 +43,72 @@ public final class Main {
 
     /**
      * Main function.
+     *
+     * <p>Publishes reports arrived in all mailboxes since last run, then
+     * exits. With {@code --daemon}, keeps running and polling mailboxes
+     * until the JVM is stopped, reloading settings file when it
+     * changes. Daemon exposes latency metrics through JMX and, if
+     * a port is set, a local HTTP endpoint, see {@link Daemon}.</p>
      * @param args Arguments
      * @throws IOException If fails
-     * @checkstyle MagicNumberCheck (10 lines)
      */
     public static void main(final String[] args) throws IOException {
-        final Settings settings = new SettingsFromPath(
-            Paths.get(System.getProperty("user.dir"), "settings.yml")
-        );
-        final MailSettings msettings = settings.mailSettings();
-        System.out.println(
-            String.format(
-                "Number of emails : %s",
-                new UnreadEmails(
-                    msettings.imapServerSettings().host(),
-                    msettings.imapServerSettings().protocol(),
-                    msettings.imapServerSettings().port(),
-                    msettings.login(),
-                    msettings.password()
-                ).count()
-            )
-        );
+        final Path dir = Paths.get(System.getProperty("user.dir"));
+        final Path file = dir.resolve("settings.yml");
+        if (Arrays.asList(args).contains("--daemon")) {
+            try (WatchedSettings settings = new WatchedSettings(file).start()) {
+                Runtime.getRuntime().addShutdownHook(Main.shutdown(Thread.currentThread()));
+                Main.daemon(settings, dir);
+            }
+        } else {
+            final Settings settings = new CompiledSettings(new SettingsFromPath(file));
+            final Metrics metrics = new Metrics();
+            try (
+                Mailboxes mailboxes = new Mailboxes(settings, dir, metrics);
+                Ingestion ingestion = new Ingestion(
+                    new ConfiguredPublisher(settings), settings, dir, metrics
+                ).start();
+                Polls polls = new Polls(mailboxes, ingestion)
+            ) {
+                mailboxes.unread();
+                ingestion.recover(mailboxes);
+                polls.once();
+            }
+        }
+    }
+
+    /**
+     * Run daemon, exposing metrics through JMX.
+     * @param settings Settings
+     * @param dir Working directory
+     * @throws IOException If fails
+     */
+    private static void daemon(final WatchedSettings settings, final Path dir)
+        throws IOException {
+        final Metrics metrics = new Metrics();
+        try {
+            new JmxMetrics(metrics).register(ManagementFactory.getPlatformMBeanServer());
+        } catch (final JMException ex) {
+            throw new IOException(ex);
+        }
+        new Daemon(settings, dir, metrics).run();
+    }
+
+    /**
+     * Hook interrupting main thread and waiting until it's over, so that
+     * reports already found are published before the JVM stops.
+     * @param main Main thread
+     * @return Hook
+     */
+    private static Thread shutdown(final Thread main) {
+        final Runnable stop = () -> {
+            main.interrupt();
+            try {
+                main.join();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        return new Thread(stop, "shutdown");
     }
 }
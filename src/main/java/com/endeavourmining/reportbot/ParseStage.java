@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.delta.Diff;
+import com.endeavourmining.reportbot.journey.ParseEvent;
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.endeavourmining.reportbot.pipeline.Stage;
+import com.endeavourmining.reportbot.report.BatchFill;
+import com.endeavourmining.reportbot.report.Batches;
+import com.endeavourmining.reportbot.report.ReportBatch;
+import com.endeavourmining.reportbot.xlsx.XlsxWorkbook;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Stage parsing downloaded spreadsheets into batches.
+ *
+ * <p>Batches are taken from a bounded source: when publishing lags,
+ * parsing waits for batches to be released instead of filling memory.
+ * Rows are diffed against the version of the report published last, and
+ * the new version is staged before its last part goes downstream, one
+ * version of a report at a time. A spreadsheet is read through once,
+ * into a single batch, before any part goes downstream, so that a
+ * spreadsheet broken half-way never gets its first rows published: it's
+ * journaled as failed, and its file deleted; otherwise the file is kept
+ * until the report is published. Sender is replied to either way.</p>
+ *
+ * @since 0.1
+ */
+public final class ParseStage implements Stage<ReportFile, ReportPart> {
+
+    /**
+     * Source of empty batches.
+     */
+    private final Batches batches;
+
+    /**
+     * Number of header rows to skip.
+     */
+    private final int header;
+
+    /**
+     * Last versions of reports.
+     */
+    private final ReportVersions versions;
+
+    /**
+     * Journal of reports.
+     */
+    private final Journal journal;
+
+    /**
+     * Replies to senders of reports.
+     */
+    private final Replies replies;
+
+    /**
+     * Ctor.
+     * @param batches Source of empty batches
+     * @param header Number of header rows to skip
+     * @param versions Last versions of reports
+     * @param journal Journal of reports
+     * @param replies Replies to senders of reports
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public ParseStage(
+        final Batches batches, final int header, final ReportVersions versions,
+        final Journal journal, final Replies replies
+    ) {
+        this.batches = batches;
+        this.header = header;
+        this.versions = versions;
+        this.journal = journal;
+        this.replies = replies;
+    }
+
+    @Override
+    public void process(final ReportFile report, final Sink<ReportPart> next)
+        throws IOException {
+        final ReportParts parts = this.versions.serial(
+            report.envelope(),
+            () -> {
+                final Diff diff = this.versions.diff(report.envelope());
+                final ReportParts all = new ReportParts(
+                    report.envelope(), this.batches, next, diff
+                );
+                this.parse(report, diff, all);
+                return all;
+            }
+        );
+        this.replies.accept(report.mailbox(), report.envelope(), parts.rows());
+    }
+
+    /**
+     * Parse a spreadsheet into parts.
+     *
+     * <p>Runtime exceptions are caught too, so that a spreadsheet that
+     * can't be parsed is always journaled as failed and its sender told
+     * why. An interruption leaves the report pending.</p>
+     * @param report Spreadsheet
+     * @param diff Diff against last version
+     * @param parts Parts of report
+     * @throws IOException If fails
+     * @checkstyle IllegalCatchCheck (30 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void parse(final ReportFile report, final Diff diff, final ReportParts parts)
+        throws IOException {
+        final BatchFill fill = new BatchFill(this.batches, this.header, parts);
+        final ParseEvent event = new ParseEvent(report.envelope());
+        event.begin();
+        boolean done = false;
+        try {
+            this.check(report);
+            new XlsxWorkbook(report.path()).rows(fill);
+            fill.flush();
+            this.versions.stage(report.envelope(), diff);
+            parts.finish();
+            event.commit(parts.rows());
+            done = true;
+        } catch (final InterruptedIOException ex) {
+            Logger.info(this, "Parsing of %s interrupted, left pending", report);
+            throw ex;
+        } catch (final IOException | RuntimeException ex) {
+            this.journal.failed(report.envelope());
+            this.replies.reject(report.mailbox(), report.envelope(), ParseStage.reason(ex));
+            throw ex;
+        } finally {
+            if (!done) {
+                fill.discard();
+                parts.discard();
+            }
+        }
+    }
+
+    /**
+     * Read every row of a spreadsheet into one batch, reused, without
+     * sending anything downstream.
+     * @param report Spreadsheet
+     * @throws IOException If a row can't be read or converted
+     */
+    private void check(final ReportFile report) throws IOException {
+        final ReportBatch batch = this.batches.take();
+        try {
+            new XlsxWorkbook(report.path()).rows(
+                new BatchFill(batch, this.header, rows -> { })
+            );
+        } finally {
+            this.batches.release(batch);
+        }
+    }
+
+    /**
+     * Reason a spreadsheet was rejected.
+     * @param error Error
+     * @return Message of error, or its type if none
+     */
+    private static String reason(final Exception error) {
+        final String reason;
+        if (error.getMessage() == null) {
+            reason = error.getClass().getSimpleName();
+        } else {
+            reason = error.getMessage();
+        }
+        return reason;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.sun.mail.iap.ByteArray;
+import com.sun.mail.imap.IMAPFolder;
+import com.sun.mail.imap.protocol.BODY;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.mail.MessagingException;
+
+/**
+ * Raw content of a message part, read with partial
+ * {@code FETCH BODY.PEEK[section]<start.size>} commands.
+ *
+ * <p>Only one chunk is held in memory at a time, whatever the size of
+ * the part. Content is returned as transferred, still encoded.</p>
+ *
+ * @since 0.1
+ */
+public final class PartStream extends InputStream {
+
+    /**
+     * Mask of an unsigned byte.
+     */
+    private static final int MASK = 0xff;
+
+    /**
+     * Opened folder.
+     */
+    private final IMAPFolder folder;
+
+    /**
+     * Message sequence number.
+     */
+    private final int msgno;
+
+    /**
+     * IMAP section identifier.
+     */
+    private final String section;
+
+    /**
+     * Chunk size in bytes.
+     */
+    private final int chunk;
+
+    /**
+     * Current chunk.
+     */
+    private ByteArray current;
+
+    /**
+     * Position in current chunk.
+     */
+    private int pos;
+
+    /**
+     * Offset of next chunk in part.
+     */
+    private int offset;
+
+    /**
+     * Whether last chunk was fetched.
+     */
+    private boolean last;
+
+    /**
+     * Ctor.
+     * @param folder Opened folder
+     * @param msgno Message sequence number
+     * @param section IMAP section identifier
+     * @param chunk Chunk size in bytes
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public PartStream(
+        final IMAPFolder folder, final int msgno, final String section, final int chunk
+    ) {
+        super();
+        this.folder = folder;
+        this.msgno = msgno;
+        this.section = section;
+        this.chunk = chunk;
+        this.current = new ByteArray(0);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int result;
+        if (this.remaining() == 0) {
+            result = -1;
+        } else {
+            result = this.current.getBytes()[this.current.getStart() + this.pos] & PartStream.MASK;
+            this.pos += 1;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(final byte[] buf, final int off, final int len) throws IOException {
+        final int result;
+        final int available = this.remaining();
+        if (len == 0) {
+            result = 0;
+        } else if (available == 0) {
+            result = -1;
+        } else {
+            result = Math.min(len, available);
+            System.arraycopy(
+                this.current.getBytes(), this.current.getStart() + this.pos,
+                buf, off, result
+            );
+            this.pos += result;
+        }
+        return result;
+    }
+
+    @Override
+    public int available() {
+        return this.current.getCount() - this.pos;
+    }
+
+    /**
+     * Bytes left in current chunk, fetching next chunk if needed.
+     * @return Bytes left, zero at end of part
+     * @throws IOException If fetch fails
+     */
+    private int remaining() throws IOException {
+        if (this.available() == 0 && !this.last) {
+            this.current = this.fetch();
+            this.pos = 0;
+            this.offset += this.current.getCount();
+            this.last = this.current.getCount() < this.chunk;
+        }
+        return this.available();
+    }
+
+    /**
+     * Fetch next chunk.
+     * @return Chunk, empty if part is over
+     * @throws IOException If fetch fails
+     */
+    private ByteArray fetch() throws IOException {
+        final BODY body;
+        try {
+            body = (BODY) this.folder.doCommand(
+                protocol -> protocol.peekBody(this.msgno, this.section, this.offset, this.chunk)
+            );
+        } catch (final MessagingException ex) {
+            throw new IOException(
+                String.format("Can't fetch section %s of #%d", this.section, this.msgno),
+                ex
+            );
+        }
+        ByteArray bytes = null;
+        if (body != null) {
+            bytes = body.getByteArray();
+        }
+        if (bytes == null) {
+            bytes = new ByteArray(0);
+        }
+        return bytes;
+    }
+}
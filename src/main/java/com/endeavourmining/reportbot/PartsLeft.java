@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parts of a report not yet published, shared by all its parts.
+ *
+ * <p>Count starts at one, for the last part, and grows by one for every
+ * other part before it goes downstream. Since the last part is sent
+ * after all others, count drops to zero exactly once, when every part
+ * is over, whatever the order publishing threads finish them in. Report
+ * is complete then, unless a part failed.</p>
+ *
+ * @since 0.1
+ */
+public final class PartsLeft {
+
+    /**
+     * Parts not over.
+     */
+    private final AtomicInteger left;
+
+    /**
+     * Whether a part failed.
+     */
+    private final AtomicBoolean broken;
+
+    /**
+     * Ctor.
+     */
+    public PartsLeft() {
+        this.left = new AtomicInteger(1);
+        this.broken = new AtomicBoolean();
+    }
+
+    /**
+     * Count a part other than the last one, before it goes downstream.
+     */
+    public void sent() {
+        this.left.incrementAndGet();
+    }
+
+    /**
+     * Record a part published.
+     * @return True if it was the last part left and no part failed
+     */
+    public boolean published() {
+        return this.left.decrementAndGet() == 0 && !this.broken.get();
+    }
+
+    /**
+     * Record a part that failed to publish.
+     * @return True if it was the last part left
+     */
+    public boolean failed() {
+        this.broken.set(true);
+        return this.left.decrementAndGet() == 0;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Report found in a mailbox and not yet published, as journaled.
+ *
+ * @since 0.1
+ */
+public final class PendingReport {
+
+    /**
+     * Identifier in journal.
+     */
+    private final long ident;
+
+    /**
+     * Name of mailbox.
+     */
+    private final String box;
+
+    /**
+     * Email.
+     */
+    private final Envelope email;
+
+    /**
+     * Downloaded spreadsheet, null if not yet extracted.
+     */
+    private final Path spreadsheet;
+
+    /**
+     * Fingerprint of spreadsheet, null if not yet extracted.
+     */
+    private final Fingerprint print;
+
+    /**
+     * Ctor, of a report detected.
+     * @param id Identifier in journal
+     * @param mailbox Name of mailbox
+     * @param email Email
+     */
+    public PendingReport(final long id, final String mailbox, final Envelope email) {
+        this(id, mailbox, email, null, null);
+    }
+
+    /**
+     * Ctor.
+     * @param id Identifier in journal
+     * @param mailbox Name of mailbox
+     * @param email Email
+     * @param spreadsheet Downloaded spreadsheet, null if not yet extracted
+     * @param print Fingerprint, null if not yet extracted or unknown
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private PendingReport(
+        final long id, final String mailbox, final Envelope email, final Path spreadsheet,
+        final Fingerprint print
+    ) {
+        this.ident = id;
+        this.box = mailbox;
+        this.email = email;
+        this.spreadsheet = spreadsheet;
+        this.print = print;
+    }
+
+    /**
+     * Same report, extracted.
+     * @param file Downloaded spreadsheet
+     * @param fingerprint Fingerprint of spreadsheet, null if unknown
+     * @return Report
+     */
+    public PendingReport extracted(final Path file, final Fingerprint fingerprint) {
+        return new PendingReport(this.ident, this.box, this.email, file, fingerprint);
+    }
+
+    /**
+     * Identifier in journal.
+     * @return Identifier, in order of detection
+     */
+    public long number() {
+        return this.ident;
+    }
+
+    /**
+     * Name of mailbox.
+     * @return Name, like {@code login@host}
+     */
+    public String mailbox() {
+        return this.box;
+    }
+
+    /**
+     * Email.
+     * @return Envelope
+     */
+    public Envelope envelope() {
+        return this.email;
+    }
+
+    /**
+     * Downloaded spreadsheet.
+     * @return File, empty if not yet extracted
+     */
+    public Optional<Path> file() {
+        return Optional.ofNullable(this.spreadsheet);
+    }
+
+    /**
+     * Fingerprint of spreadsheet.
+     * @return Fingerprint, empty if not yet extracted
+     */
+    public Optional<Fingerprint> fingerprint() {
+        return Optional.ofNullable(this.print);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s in %s", this.email, this.box);
+    }
+}
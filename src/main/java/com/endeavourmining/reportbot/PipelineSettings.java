@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+/**
+ * Settings of ingestion pipeline.
+ *
+ * @since 0.1
+ */
+public interface PipelineSettings {
+
+    /**
+     * Number of threads of a stage.
+     * @param stage Stage: fetch, extract, parse or publish
+     * @return Number of threads
+     */
+    int threads(String stage);
+
+    /**
+     * Capacity of queue in front of each stage.
+     * @return Number of items
+     */
+    int queue();
+
+    /**
+     * Number of rows of parsed batches.
+     * @return Rows
+     */
+    int batch();
+
+    /**
+     * Maximum number of connections at work on one mail server, shared
+     * by all its mailboxes.
+     * @return Number of connections
+     */
+    int hostConnections();
+
+    /**
+     * Maximum number of connections fetching a backlog of one mailbox in
+     * parallel.
+     * @return Number of connections, 1 to always fetch sequentially
+     */
+    int catchUp();
+
+    /**
+     * Number of new emails of a mailbox from which they are fetched in
+     * parallel.
+     * @return Number of emails
+     */
+    int backlog();
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls of many mailboxes, run by one shared scheduler.
+ *
+ * <p>A mailbox is never queued twice: while its previous poll is queued
+ * or running, it's skipped. The scheduler never waits for the fetch
+ * stage: while its queue is full, due polls are skipped too, and done
+ * at their next turn, so that a backlog of one mailbox doesn't hold
+ * polls of the others. Periodic polls of mailboxes are staggered
+ * over the period, so that they don't all hit their servers at once.
+ * Adaptive polls of a mailbox are rescheduled after each poll, at an
+ * interval given by its {@link Cadence}. A watched mailbox is also
+ * polled as soon as its {@link InboxWatch} reports new emails; if a poll
+ * of it is still running, the push poll is retried until it gets
+ * through, so that emails landing during a poll are never left
+ * to the next scheduled one.</p>
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class Polls implements Closeable {
+
+    /**
+     * Delay before retrying a push poll of a busy mailbox, in milliseconds.
+     */
+    private static final long RETRY = 1000L;
+
+    /**
+     * Message logged when a poll is scheduled after close.
+     */
+    private static final String CLOSED = "Polls closed, %s is not polled anymore";
+
+    /**
+     * Mailboxes.
+     */
+    private final List<Source> sources;
+
+    /**
+     * Where to send mailboxes to poll.
+     */
+    private final Sink<Source> sink;
+
+    /**
+     * Scheduler.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Watches of mailboxes.
+     */
+    private final List<InboxWatch> watches;
+
+    /**
+     * Ctor.
+     * @param sources Mailboxes
+     * @param sink Where to send mailboxes to poll
+     */
+    public Polls(final Iterable<Source> sources, final Sink<Source> sink) {
+        this.sources = Polls.list(sources);
+        this.sink = sink;
+        this.watches = new ArrayList<>(0);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                final Thread thread = new Thread(runnable, "polls");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    /**
+     * Poll every mailbox once.
+     * @throws IOException If interrupted while fetch stage is busy
+     */
+    public void once() throws IOException {
+        for (final Source source : this.sources) {
+            if (!this.poll(source, true)) {
+                Logger.info(this, "Previous poll of %s is not over, skipped", source);
+            }
+        }
+    }
+
+    /**
+     * Poll every mailbox periodically, until closed.
+     * @param period Period between polls of a mailbox
+     * @return This
+     */
+    public Polls every(final Duration period) {
+        final long millis = period.toMillis();
+        final int count = this.sources.size();
+        for (int idx = 0; idx < count; ++idx) {
+            final Source source = this.sources.get(idx);
+            this.scheduler.scheduleWithFixedDelay(
+                () -> this.safe(source), millis * idx / count, millis, TimeUnit.MILLISECONDS
+            );
+        }
+        return this;
+    }
+
+    /**
+     * Poll every mailbox at adaptive intervals, until closed.
+     *
+     * <p>First polls are staggered over the shortest interval. Next poll of
+     * a mailbox is scheduled once its poll is over, so that its interval
+     * depends on what that poll found.</p>
+     * @param cadence Intervals between polls
+     * @param first Longest delay before first polls
+     * @return This
+     */
+    public Polls adaptive(final Cadence cadence, final Duration first) {
+        final long millis = first.toMillis();
+        final int count = this.sources.size();
+        for (int idx = 0; idx < count; ++idx) {
+            final Source source = this.sources.get(idx);
+            this.scheduler.schedule(
+                () -> this.cycle(source, cadence), millis * idx / count, TimeUnit.MILLISECONDS
+            );
+        }
+        return this;
+    }
+
+    /**
+     * Poll a mailbox as soon as new emails land in it, until closed.
+     *
+     * <p>If the watch can't start, like on a server that is not IMAP,
+     * the mailbox is polled on schedule only.</p>
+     * @param source Mailbox
+     * @param watch Watch of its INBOX, not started
+     * @return This
+     */
+    public Polls watch(final Source source, final InboxWatch watch) {
+        watch.subscribe(count -> this.later(source, 0L));
+        try {
+            watch.start();
+            this.watches.add(watch);
+        } catch (final IOException | IllegalStateException ex) {
+            watch.close();
+            Logger.warn(
+                this, "Can't watch %s, polling it on schedule only: %s",
+                source, ex.getMessage()
+            );
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        for (final InboxWatch watch : this.watches) {
+            watch.close();
+        }
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Poll a mailbox, unless its previous poll is not over.
+     * @param source Mailbox
+     * @param wait Whether to wait while fetch stage is busy
+     * @return True if queued, false if previous poll is not over or
+     *  fetch stage is busy
+     * @throws IOException If interrupted while fetch stage is busy
+     */
+    private boolean poll(final Source source, final boolean wait) throws IOException {
+        boolean queued = false;
+        if (source.claim()) {
+            try {
+                if (wait) {
+                    this.sink.accept(source);
+                    queued = true;
+                } else {
+                    queued = this.sink.offer(source);
+                }
+            } finally {
+                if (!queued) {
+                    source.release();
+                }
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Poll a mailbox on schedule, skipping it if busy.
+     * @param source Mailbox
+     * @throws IOException If fails
+     */
+    private void scheduled(final Source source) throws IOException {
+        if (!this.poll(source, false)) {
+            Logger.info(
+                this, "Previous poll of %s is not over or fetch stage is busy, skipped",
+                source
+            );
+        }
+    }
+
+    /**
+     * Poll a mailbox where new emails landed, retrying while it's busy.
+     * @param source Mailbox
+     * @checkstyle IllegalCatchCheck (15 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void push(final Source source) {
+        try {
+            if (!this.poll(source, false)) {
+                this.later(source, Polls.RETRY);
+            }
+        } catch (final IOException | RuntimeException ex) {
+            Logger.error(this, "Push poll of %s failed: %[exception]s", source, ex);
+        }
+    }
+
+    /**
+     * Schedule a push poll of a mailbox.
+     * @param source Mailbox
+     * @param delay Delay, in milliseconds
+     */
+    private void later(final Source source, final long delay) {
+        try {
+            this.scheduler.schedule(() -> this.push(source), delay, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException ex) {
+            Logger.debug(this, Polls.CLOSED, source);
+        }
+    }
+
+    /**
+     * Poll a mailbox, logging failures, so that scheduling goes on.
+     * @param source Mailbox
+     * @checkstyle IllegalCatchCheck (10 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void safe(final Source source) {
+        try {
+            this.scheduled(source);
+        } catch (final IOException | RuntimeException ex) {
+            Logger.error(this, "Poll of %s failed: %[exception]s", source, ex);
+        }
+    }
+
+    /**
+     * Poll a mailbox, then schedule its next poll once it's over.
+     * @param source Mailbox
+     * @param cadence Intervals between polls
+     */
+    private void cycle(final Source source, final Cadence cadence) {
+        this.safe(source);
+        source.idle(() -> this.next(source, cadence));
+    }
+
+    /**
+     * Schedule next poll of a mailbox just polled.
+     * @param source Mailbox
+     * @param cadence Intervals between polls
+     */
+    private void next(final Source source, final Cadence cadence) {
+        final Duration delay = cadence.delay(source.quiet());
+        try {
+            this.scheduler.schedule(
+                () -> this.cycle(source, cadence), delay.toMillis(), TimeUnit.MILLISECONDS
+            );
+            Logger.debug(this, "Next poll of %s in %s", source, delay);
+        } catch (final RejectedExecutionException ex) {
+            Logger.debug(this, Polls.CLOSED, source);
+        }
+    }
+
+    /**
+     * List of mailboxes.
+     * @param sources Mailboxes
+     * @return List
+     */
+    private static List<Source> list(final Iterable<Source> sources) {
+        final List<Source> list = new ArrayList<>(0);
+        for (final Source source : sources) {
+            list.add(source);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.jcabi.log.Logger;
+import com.sun.mail.imap.IMAPFolder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.mail.Folder;
+import javax.mail.FolderClosedException;
+import javax.mail.MessagingException;
+import javax.mail.Store;
+import javax.mail.StoreClosedException;
+
+/**
+ * Inbox keeping authenticated connections open between actions.
+ *
+ * <p>Connections are opened lazily, at most {@code max} at a time per account.
+ * An idle connection is checked with a NOOP before being reused, and
+ * replaced by a new one when the server dropped it. An action the server
+ * dropped the connection of half-way is run again on a new connection
+ * only if it is {@link Inbox.Action#idempotent()}, once the dropped
+ * connection is released.</p>
+ *
+ * @since 0.1
+ */
+public final class PooledInbox implements Inbox, Closeable {
+
+    /**
+     * Default maximum number of connections.
+     */
+    private static final int CONNECTIONS = 2;
+
+    /**
+     * Idle delay after which a connection is checked with a NOOP, in milliseconds.
+     */
+    private static final long CHECK = TimeUnit.SECONDS.toMillis(30L);
+
+    /**
+     * Account.
+     */
+    private final ImapAccount account;
+
+    /**
+     * Folder open mode.
+     */
+    private final int mode;
+
+    /**
+     * Permits to use a connection.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Idle connections, most recently used first.
+     */
+    private final BlockingDeque<PooledInbox.Handle> idle;
+
+    /**
+     * Whether pool is closed.
+     */
+    private final AtomicBoolean closed;
+
+    /**
+     * Latency of INBOX selection.
+     */
+    private final Histogram timer;
+
+    /**
+     * Ctor.
+     * @param account Account
+     */
+    public PooledInbox(final ImapAccount account) {
+        this(account, PooledInbox.CONNECTIONS);
+    }
+
+    /**
+     * Ctor.
+     * @param account Account
+     * @param max Maximum number of connections
+     */
+    public PooledInbox(final ImapAccount account, final int max) {
+        this(account, max, Folder.READ_WRITE);
+    }
+
+    /**
+     * Ctor.
+     * @param account Account
+     * @param max Maximum number of connections
+     * @param mode Folder open mode ({@link Folder#READ_ONLY} or {@link Folder#READ_WRITE})
+     */
+    public PooledInbox(final ImapAccount account, final int max, final int mode) {
+        this(account, max, mode, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param account Account
+     * @param max Maximum number of connections
+     * @param mode Folder open mode ({@link Folder#READ_ONLY} or {@link Folder#READ_WRITE})
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public PooledInbox(
+        final ImapAccount account, final int max, final int mode, final Metrics metrics
+    ) {
+        this.account = account;
+        this.mode = mode;
+        this.permits = new Semaphore(max, true);
+        this.idle = new LinkedBlockingDeque<>();
+        this.closed = new AtomicBoolean(false);
+        this.timer = metrics.histogram("imap.select");
+    }
+
+    @Override
+    public <T> T apply(final Inbox.Action<T> action) throws IOException {
+        if (this.closed.get()) {
+            throw new IllegalStateException(
+                String.format("Connection pool of %s is closed", this.account)
+            );
+        }
+        try {
+            this.permits.acquire();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException iex = new InterruptedIOException(
+                String.format("Interrupted while waiting a connection to %s", this.account)
+            );
+            iex.initCause(ex);
+            throw iex;
+        }
+        try {
+            return this.run(action, true);
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.account.toString();
+    }
+
+    @Override
+    public void close() {
+        this.closed.set(true);
+        PooledInbox.Handle conn = this.idle.pollFirst();
+        while (conn != null) {
+            conn.drop();
+            conn = this.idle.pollFirst();
+        }
+    }
+
+    /**
+     * Run action on a leased connection, released exactly once.
+     * @param action Action
+     * @param retry Whether to retry once on a new connection when server
+     *  dropped it, if action is idempotent
+     * @param <T> Result type
+     * @return Result
+     * @throws IOException If fails
+     */
+    private <T> T run(final Inbox.Action<T> action, final boolean retry)
+        throws IOException {
+        final PooledInbox.Handle conn = this.lease();
+        boolean reuse = false;
+        T result = null;
+        try {
+            result = action.apply(conn.folder());
+            reuse = true;
+        } catch (final FolderClosedException | StoreClosedException ex) {
+            if (!retry || !action.idempotent()) {
+                throw new IOException(ex);
+            }
+        } catch (final MessagingException ex) {
+            throw new IOException(ex);
+        } finally {
+            this.release(conn, reuse);
+        }
+        if (!reuse) {
+            Logger.info(this, "Connection to %s dropped, reconnecting", this.account);
+            result = this.run(action, false);
+        }
+        return result;
+    }
+
+    /**
+     * Lease an alive connection, opening a new one if none is idle.
+     * @return Connection
+     * @throws IOException If fails
+     */
+    private PooledInbox.Handle lease() throws IOException {
+        PooledInbox.Handle conn = this.idle.pollFirst();
+        while (conn != null && !conn.alive(PooledInbox.CHECK)) {
+            conn.drop();
+            conn = this.idle.pollFirst();
+        }
+        if (conn == null) {
+            conn = this.open();
+        }
+        return conn;
+    }
+
+    /**
+     * Give back a connection to the pool.
+     * @param conn Connection
+     * @param reuse Whether connection can be reused
+     */
+    private void release(final PooledInbox.Handle conn, final boolean reuse) {
+        if (reuse && !this.closed.get()) {
+            conn.touch();
+            this.idle.offerFirst(conn);
+            if (this.closed.get() && this.idle.remove(conn)) {
+                conn.drop();
+            }
+        } else {
+            conn.drop();
+        }
+    }
+
+    /**
+     * Open a new connection.
+     * @return Connection
+     * @throws IOException If fails
+     */
+    private PooledInbox.Handle open() throws IOException {
+        try {
+            final Store store = this.account.connect();
+            final Folder folder = store.getFolder("INBOX");
+            final long start = System.nanoTime();
+            folder.open(this.mode);
+            this.timer.since(start);
+            Logger.debug(this, "New connection opened to %s", this.account);
+            return new PooledInbox.Handle(store, folder);
+        } catch (final MessagingException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Authenticated connection with its opened INBOX.
+     *
+     * @since 0.1
+     */
+    private static final class Handle {
+
+        /**
+         * Store.
+         */
+        private final Store store;
+
+        /**
+         * Opened folder.
+         */
+        private final Folder fld;
+
+        /**
+         * Last time connection was used, in milliseconds.
+         */
+        private final AtomicLong used;
+
+        /**
+         * Ctor.
+         * @param store Store
+         * @param folder Opened folder
+         */
+        Handle(final Store store, final Folder folder) {
+            this.store = store;
+            this.fld = folder;
+            this.used = new AtomicLong(System.currentTimeMillis());
+        }
+
+        /**
+         * Opened folder.
+         * @return Folder
+         */
+        Folder folder() {
+            return this.fld;
+        }
+
+        /**
+         * Mark connection as just used.
+         */
+        void touch() {
+            this.used.set(System.currentTimeMillis());
+        }
+
+        /**
+         * Check connection is still alive, sending a NOOP if it was idle too long.
+         * @param check Idle delay after which server is pinged, in milliseconds
+         * @return True if alive
+         */
+        boolean alive(final long check) {
+            boolean alive = this.fld.isOpen();
+            if (alive && System.currentTimeMillis() - this.used.get() > check) {
+                try {
+                    if (this.fld instanceof IMAPFolder) {
+                        ((IMAPFolder) this.fld).doCommand(
+                            protocol -> {
+                                protocol.noop();
+                                return Boolean.TRUE;
+                            }
+                        );
+                    } else {
+                        alive = this.store.isConnected();
+                    }
+                } catch (final MessagingException ex) {
+                    alive = false;
+                }
+            }
+            return alive;
+        }
+
+        /**
+         * Close connection quietly.
+         */
+        void drop() {
+            try {
+                if (this.fld.isOpen()) {
+                    this.fld.close(false);
+                }
+            } catch (final MessagingException ex) {
+                Logger.warn(this, "Failed to close folder: %s", ex.getMessage());
+            }
+            try {
+                this.store.close();
+            } catch (final MessagingException ex) {
+                Logger.warn(this, "Failed to close store: %s", ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.report.ReportBatch;
+import com.jcabi.log.Logger;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpRetryException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publisher adding rows to a table of a Power BI push dataset.
+ *
+ * <p>Rows of a part are posted in requests of at most
+ * {@link PowerBiSettings#rows()} rows. Publishing threads share a limit
+ * of requests in flight, so that the service is not flooded when many
+ * reports arrive together. A request throttled (429), failed on server
+ * side (5xx) or on network, timeouts included, is retried after the
+ * delay the service asks for in {@code Retry-After}, or after an
+ * exponential backoff with jitter, both at most
+ * {@link PowerBiSettings#maxBackoff()}. A request waiting for its retry
+ * leaves its place in flight to others. A request lost on network may
+ * have been received, so its rows may be added twice. Responses are read
+ * fully so that keep-alive connections are reused between requests.</p>
+ *
+ * <p>Push datasets can't update nor delete rows: rows changed in a report
+ * are added again, and rows removed are added again flagged by the column
+ * of {@link PowerBiSettings#removedColumn()}, or not published at all
+ * without such column. Every row is dated by the column of
+ * {@link PowerBiSettings#receivedColumn()}, if any, so that only the
+ * last row of a key counts.</p>
+ *
+ * @since 0.1
+ */
+public final class PowerBiPublisher implements Publisher {
+
+    /**
+     * Status of throttled requests.
+     */
+    private static final int THROTTLED = 429;
+
+    /**
+     * Lowest status of redirections.
+     */
+    private static final int REDIRECT = 300;
+
+    /**
+     * Lowest status of server errors.
+     */
+    private static final int SERVER = 500;
+
+    /**
+     * Pseudo status of a request failed on network.
+     */
+    private static final int UNREACHABLE = -1;
+
+    /**
+     * Delay telling that no retry is needed.
+     */
+    private static final long DONE = -1L;
+
+    /**
+     * Most doublings of backoff.
+     */
+    private static final int DOUBLINGS = 16;
+
+    /**
+     * Size of buffer draining responses.
+     */
+    private static final int BUFFER = 1024;
+
+    /**
+     * Settings.
+     */
+    private final PowerBiSettings settings;
+
+    /**
+     * Requests in flight.
+     */
+    private final Semaphore flight;
+
+    /**
+     * Ctor.
+     * @param settings Settings
+     */
+    public PowerBiPublisher(final PowerBiSettings settings) {
+        this.settings = settings;
+        this.flight = new Semaphore(settings.inFlight(), true);
+    }
+
+    @Override
+    public void publish(final ReportPart part) throws IOException {
+        final ReportBatch batch = part.batch();
+        final String flag = this.settings.removedColumn();
+        if (part.removal() && flag.isEmpty()) {
+            Logger.info(this, "%s not published, no column flags them", part);
+        } else {
+            for (int from = 0; from < batch.size(); from += this.settings.rows()) {
+                final int until = Math.min(from + this.settings.rows(), batch.size());
+                this.post(
+                    new PowerBiRows(
+                        batch, from, until, flag, part.removal(),
+                        this.settings.receivedColumn(), part.envelope().received()
+                    ).bytes()
+                );
+            }
+        }
+        if (part.last()) {
+            Logger.info(this, "Report %s published to Power BI", part.envelope());
+        }
+    }
+
+    /**
+     * Post rows, retrying when throttled or failed.
+     * @param body JSON body
+     * @throws IOException If fails
+     */
+    private void post(final byte[] body) throws IOException {
+        long delay = this.permitted(body, 0);
+        for (int attempt = 1; delay != PowerBiPublisher.DONE; ++attempt) {
+            Logger.debug(this, "Power BI post failed %d times, retry in %d ms", attempt, delay);
+            try {
+                Thread.sleep(delay);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw (IOException) new InterruptedIOException("Interrupted during backoff")
+                    .initCause(ex);
+            }
+            delay = this.permitted(body, attempt);
+        }
+    }
+
+    /**
+     * Post rows once, in flight.
+     * @param body JSON body
+     * @param attempt Number of attempts made before
+     * @return Delay before retry in milliseconds, or {@link #DONE}
+     * @throws IOException If fails for good
+     */
+    private long permitted(final byte[] body, final int attempt) throws IOException {
+        try {
+            this.flight.acquire();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw (IOException) new InterruptedIOException("Interrupted before post")
+                .initCause(ex);
+        }
+        try {
+            return this.attempt(body, attempt);
+        } finally {
+            this.flight.release();
+        }
+    }
+
+    /**
+     * Post rows once.
+     * @param body JSON body
+     * @param attempt Number of attempts made before
+     * @return Delay before retry in milliseconds, or {@link #DONE}
+     * @throws IOException If fails for good
+     */
+    private long attempt(final byte[] body, final int attempt) throws IOException {
+        final HttpURLConnection conn = this.connection(body.length);
+        int status;
+        String answer;
+        String after = null;
+        try {
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(body);
+            }
+            status = conn.getResponseCode();
+            after = conn.getHeaderField("Retry-After");
+            answer = PowerBiPublisher.drained(conn, status);
+        } catch (final HttpRetryException ex) {
+            status = ex.responseCode();
+            answer = ex.getReason();
+        } catch (final IOException ex) {
+            if (PowerBiPublisher.interrupted(ex) || attempt >= this.settings.retries()) {
+                throw ex;
+            }
+            conn.disconnect();
+            status = PowerBiPublisher.UNREACHABLE;
+            answer = ex.toString();
+        }
+        return this.verdict(status, answer, after, attempt);
+    }
+
+    /**
+     * Whether to retry a request answered.
+     * @param status Status of answer
+     * @param answer Body of answer
+     * @param after Retry-After header, may be null
+     * @param attempt Number of attempts made before
+     * @return Delay before retry in milliseconds, or {@link #DONE}
+     * @throws IOException If failed for good
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private long verdict(
+        final int status, final String answer, final String after, final int attempt
+    ) throws IOException {
+        final boolean retry = status == PowerBiPublisher.THROTTLED
+            || status >= PowerBiPublisher.SERVER || status == PowerBiPublisher.UNREACHABLE;
+        final boolean failed = status < HttpURLConnection.HTTP_OK
+            || status >= PowerBiPublisher.REDIRECT;
+        if (failed && !(retry && attempt < this.settings.retries())) {
+            throw new IOException(
+                String.format(
+                    "Power BI answered %d to %s: %s", status, this.settings.rowsUrl(), answer
+                )
+            );
+        }
+        long delay = PowerBiPublisher.DONE;
+        if (retry) {
+            Logger.debug(this, "Power BI post to retry: %s", answer);
+            delay = this.delay(after, attempt);
+        }
+        return delay;
+    }
+
+    /**
+     * Connection posting rows.
+     * @param length Length of body
+     * @return Connection, not connected yet
+     * @throws IOException If fails
+     */
+    private HttpURLConnection connection(final int length) throws IOException {
+        final HttpURLConnection conn = (HttpURLConnection) new URL(this.settings.rowsUrl())
+            .openConnection();
+        conn.setConnectTimeout((int) this.settings.connectTimeout().toMillis());
+        conn.setReadTimeout((int) this.settings.readTimeout().toMillis());
+        conn.setRequestMethod("POST");
+        conn.setDoOutput(true);
+        conn.setFixedLengthStreamingMode(length);
+        conn.setRequestProperty(
+            "Authorization", String.format("Bearer %s", this.settings.token())
+        );
+        conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+        return conn;
+    }
+
+    /**
+     * Delay before a retry.
+     * @param after Retry-After header, in seconds, may be null
+     * @param attempt Number of attempts made before
+     * @return Delay in milliseconds, at most the longest backoff
+     */
+    private long delay(final String after, final int attempt) {
+        final long longest = this.settings.maxBackoff().toMillis();
+        final long millis;
+        if (after != null && after.trim().matches("\\d{1,9}")) {
+            millis = Math.min(TimeUnit.SECONDS.toMillis(Long.parseLong(after.trim())), longest);
+        } else {
+            final long full = Math.min(
+                this.settings.backoff().toMillis()
+                    << Math.min(attempt, PowerBiPublisher.DOUBLINGS),
+                longest
+            );
+            millis = full / 2L + ThreadLocalRandom.current().nextLong(full / 2L + 1L);
+        }
+        return millis;
+    }
+
+    /**
+     * Whether an error is an interruption of the thread, not a timeout.
+     * @param error Error
+     * @return True if interrupted
+     */
+    private static boolean interrupted(final IOException error) {
+        return error instanceof InterruptedIOException
+            && !(error instanceof SocketTimeoutException);
+    }
+
+    /**
+     * Read response fully, so that connection can be reused.
+     *
+     * <p>Body of a success is read from the input stream, body of an error
+     * from the error stream, which is null when the error has no body.</p>
+     * @param conn Connection
+     * @param status Status of response
+     * @return Body of response, as text, empty if none
+     * @throws IOException If fails
+     */
+    private static String drained(final HttpURLConnection conn, final int status)
+        throws IOException {
+        InputStream input = conn.getErrorStream();
+        if (input == null && status >= HttpURLConnection.HTTP_OK
+            && status < PowerBiPublisher.REDIRECT) {
+            input = conn.getInputStream();
+        }
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (input != null) {
+            try (InputStream stream = input) {
+                final byte[] buf = new byte[PowerBiPublisher.BUFFER];
+                for (int len = stream.read(buf); len >= 0; len = stream.read(buf)) {
+                    body.write(buf, 0, len);
+                }
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
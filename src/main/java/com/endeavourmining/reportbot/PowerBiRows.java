@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.report.Column;
+import com.endeavourmining.reportbot.report.ColumnType;
+import com.endeavourmining.reportbot.report.ReportBatch;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Rows of a batch as the JSON body of a Power BI push request.
+ *
+ * <p>Body is {@code {"rows":[{"<column>":<value>,...},...]}}, keys being
+ * names of columns. Blank cells, and numbers JSON can't represent, are
+ * {@code null}. If a column flags removed rows, every row has it set to
+ * {@code true} or {@code false}. If a column dates rows, every row has it
+ * set to the date its email was received, in ISO-8601.</p>
+ *
+ * @since 0.1
+ */
+public final class PowerBiRows {
+
+    /**
+     * JSON null.
+     */
+    private static final String NULL = "null";
+
+    /**
+     * Highest control character.
+     */
+    private static final char CONTROL = 0x1f;
+
+    /**
+     * Batch.
+     */
+    private final ReportBatch batch;
+
+    /**
+     * First row.
+     */
+    private final int from;
+
+    /**
+     * Row after last one.
+     */
+    private final int until;
+
+    /**
+     * Column flagging removed rows, empty if none.
+     */
+    private final String flag;
+
+    /**
+     * Whether rows are removed.
+     */
+    private final boolean removed;
+
+    /**
+     * Column of date of reception, empty if none.
+     */
+    private final String stamp;
+
+    /**
+     * Date email of rows was received.
+     */
+    private final Instant received;
+
+    /**
+     * Ctor.
+     * @param batch Batch
+     * @param from First row
+     * @param until Row after last one
+     */
+    public PowerBiRows(final ReportBatch batch, final int from, final int until) {
+        this(batch, from, until, "", false, "", Instant.EPOCH);
+    }
+
+    /**
+     * Ctor.
+     * @param batch Batch
+     * @param from First row
+     * @param until Row after last one
+     * @param flag Column flagging removed rows, empty if none
+     * @param removed Whether rows are removed
+     * @param stamp Column of date of reception, empty if none
+     * @param received Date email of rows was received
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public PowerBiRows(final ReportBatch batch, final int from, final int until,
+        final String flag, final boolean removed, final String stamp, final Instant received) {
+        this.batch = batch;
+        this.from = from;
+        this.until = until;
+        this.flag = flag;
+        this.removed = removed;
+        this.stamp = stamp;
+        this.received = received;
+    }
+
+    /**
+     * JSON body.
+     * @return UTF-8 bytes
+     */
+    public byte[] bytes() {
+        final List<Column> columns = this.batch.columns();
+        final String[] keys = new String[columns.size()];
+        for (int col = 0; col < keys.length; ++col) {
+            keys[col] = PowerBiRows.quoted(columns.get(col).name());
+        }
+        final StringBuilder suffix = new StringBuilder(0);
+        if (!this.flag.isEmpty()) {
+            suffix.append(',').append(PowerBiRows.quoted(this.flag)).append(':')
+                .append(this.removed);
+        }
+        if (!this.stamp.isEmpty()) {
+            suffix.append(',').append(PowerBiRows.quoted(this.stamp)).append(':')
+                .append(PowerBiRows.quoted(this.received.toString()));
+        }
+        final StringBuilder json = new StringBuilder(
+            (this.until - this.from) * keys.length * Long.BYTES
+        );
+        json.append("{\"rows\":[");
+        for (int row = this.from; row < this.until; ++row) {
+            if (row > this.from) {
+                json.append(',');
+            }
+            json.append('{');
+            for (int col = 0; col < keys.length; ++col) {
+                if (col > 0) {
+                    json.append(',');
+                }
+                json.append(keys[col]).append(':');
+                this.value(json, columns.get(col).type(), col, row);
+            }
+            json.append(suffix).append('}');
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Append value of a cell.
+     * @param json JSON to append to
+     * @param type Type of column
+     * @param col Column index
+     * @param row Row index
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void value(
+        final StringBuilder json, final ColumnType type, final int col, final int row
+    ) {
+        if (this.batch.blank(col, row)) {
+            json.append(PowerBiRows.NULL);
+        } else if (type == ColumnType.TEXT) {
+            json.append(PowerBiRows.quoted(this.batch.text(col, row)));
+        } else if (type == ColumnType.INTEGER) {
+            json.append(this.batch.integer(col, row));
+        } else {
+            final double value = this.batch.decimal(col, row);
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                json.append(PowerBiRows.NULL);
+            } else {
+                json.append(value);
+            }
+        }
+    }
+
+    /**
+     * JSON string.
+     * @param text Text
+     * @return Quoted and escaped text
+     */
+    private static String quoted(final String text) {
+        final StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int idx = 0; idx < text.length(); ++idx) {
+            final char chr = text.charAt(idx);
+            if (chr == '"' || chr == '\\') {
+                quoted.append('\\').append(chr);
+            } else if (chr <= PowerBiRows.CONTROL) {
+                quoted.append(String.format("\\u%04x", (int) chr));
+            } else {
+                quoted.append(chr);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
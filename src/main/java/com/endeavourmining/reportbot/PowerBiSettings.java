@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Duration;
+
+/**
+ * Power BI push dataset rows are published to.
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public interface PowerBiSettings {
+
+    /**
+     * Whether reports are published to Power BI.
+     * @return True if a dataset is set
+     */
+    boolean enabled();
+
+    /**
+     * URL of the table rows are added to, like
+     * {@code https://api.powerbi.com/v1.0/myorg/groups/<g>/datasets/<d>/tables/<t>/rows}.
+     * @return URL
+     */
+    String rowsUrl();
+
+    /**
+     * Azure AD access token of the service principal.
+     * @return Bearer token
+     */
+    String token();
+
+    /**
+     * Most rows in one request.
+     * @return Number of rows
+     */
+    int rows();
+
+    /**
+     * Most requests in flight at once.
+     * @return Number of requests
+     */
+    int inFlight();
+
+    /**
+     * Retries of a request throttled or failed on server side.
+     * @return Number of retries
+     */
+    int retries();
+
+    /**
+     * Delay before first retry, doubled at each retry unless the service
+     * tells how long to wait.
+     * @return Delay
+     */
+    Duration backoff();
+
+    /**
+     * Longest delay before a retry, even if the service asks for more.
+     * @return Delay
+     */
+    Duration maxBackoff();
+
+    /**
+     * Timeout of connecting to the service.
+     * @return Timeout
+     */
+    Duration connectTimeout();
+
+    /**
+     * Timeout of waiting for data from the service.
+     * @return Timeout
+     */
+    Duration readTimeout();
+
+    /**
+     * Boolean column flagging rows removed from a report since its
+     * previous version, see {@link ReportPart#removal()}.
+     * @return Name of column, empty to not publish removed rows
+     */
+    String removedColumn();
+
+    /**
+     * Date-time column set on every row to the date its email was
+     * received, so that the last version of a row can be told apart from
+     * the ones it supersedes.
+     * @return Name of column, empty if none
+     */
+    String receivedColumn();
+}
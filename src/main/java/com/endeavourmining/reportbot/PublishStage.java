@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.journey.PublishEvent;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.endeavourmining.reportbot.pipeline.Stage;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stage publishing parts of reports.
+ *
+ * <p>Batches are released once published. Email of a report goes
+ * downstream, to be settled, once all its parts are published, whatever
+ * thread publishes the last one. If any part fails, email never goes
+ * downstream: the report is left pending in the journal, and resumed
+ * as a whole later. Rows and whole reports published are counted in
+ * {@code rows.published} and {@code reports.published}.</p>
+ *
+ * @since 0.1
+ */
+public final class PublishStage implements Stage<ReportPart, Envelope> {
+
+    /**
+     * Publisher.
+     */
+    private final Publisher publisher;
+
+    /**
+     * Number of rows published.
+     */
+    private final LongAdder rows;
+
+    /**
+     * Number of reports published whole.
+     */
+    private final LongAdder reports;
+
+    /**
+     * Ctor.
+     * @param publisher Publisher
+     * @param metrics Metrics
+     */
+    public PublishStage(final Publisher publisher, final Metrics metrics) {
+        this.publisher = publisher;
+        this.rows = metrics.counter("rows.published");
+        this.reports = metrics.counter("reports.published");
+    }
+
+    @Override
+    public void process(final ReportPart part, final Sink<Envelope> next) throws IOException {
+        final PublishEvent event = new PublishEvent(part.envelope());
+        event.begin();
+        boolean published = false;
+        boolean complete = false;
+        try {
+            this.publisher.publish(part);
+            event.commit(part.batch().size(), part.last());
+            this.rows.add(part.batch().size());
+            published = true;
+        } finally {
+            part.release();
+            if (published) {
+                complete = part.left().published();
+            } else if (part.left().failed()) {
+                Logger.warn(
+                    this, "Some parts of %s failed, report left pending", part.envelope()
+                );
+            }
+        }
+        if (complete) {
+            this.reports.increment();
+            next.accept(part.envelope());
+        }
+    }
+}
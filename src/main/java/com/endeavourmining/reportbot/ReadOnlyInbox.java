@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.sun.mail.imap.IMAPFolder;
+import java.io.IOException;
+import javax.mail.Folder;
+import javax.mail.MessagingException;
+import javax.mail.Store;
+
+/**
+ * Inbox that opens a new connection for every action, never to write.
+ *
+ * <p>An IMAP INBOX is given to actions without being selected, so that
+ * only commands on a mailbox not selected apply, like {@code STATUS}.
+ * INBOX of other protocols is opened {@link Folder#READ_ONLY}.</p>
+ *
+ * @since 0.1
+ */
+public final class ReadOnlyInbox implements Inbox {
+
+    /**
+     * Account.
+     */
+    private final ImapAccount account;
+
+    /**
+     * Latency of INBOX selection.
+     */
+    private final Histogram timer;
+
+    /**
+     * Ctor.
+     * @param account Account
+     */
+    public ReadOnlyInbox(final ImapAccount account) {
+        this(account, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param account Account
+     * @param metrics Metrics
+     */
+    public ReadOnlyInbox(final ImapAccount account, final Metrics metrics) {
+        this.account = account;
+        this.timer = metrics.histogram("imap.select");
+    }
+
+    @Override
+    public <T> T apply(final Inbox.Action<T> action) throws IOException {
+        try {
+            final Store store = this.account.connect();
+            try {
+                return this.applied(store.getFolder("INBOX"), action);
+            } finally {
+                store.close();
+            }
+        } catch (final MessagingException exe) {
+            throw new IOException(exe);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.account.toString();
+    }
+
+    /**
+     * Apply action on INBOX, opening it read-only unless it's IMAP.
+     * @param folder INBOX, closed
+     * @param action Action
+     * @param <T> Result type
+     * @return Result
+     * @throws MessagingException If mail operation fails
+     * @throws IOException If fails
+     */
+    private <T> T applied(final Folder folder, final Inbox.Action<T> action)
+        throws MessagingException, IOException {
+        final T result;
+        if (folder instanceof IMAPFolder) {
+            result = action.apply(folder);
+        } else {
+            final long start = System.nanoTime();
+            folder.open(Folder.READ_ONLY);
+            this.timer.since(start);
+            try {
+                result = action.apply(folder);
+            } finally {
+                folder.close(false);
+            }
+        }
+        return result;
+    }
+}
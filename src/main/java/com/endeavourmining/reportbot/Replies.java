@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Replies to senders of reports: acknowledgement of a report accepted,
+ * or the reason a report was rejected.
+ *
+ * <p>Replies are sent from the mailbox a report was found in, through the
+ * SMTP server of that mailbox, if set; mailboxes without SMTP server send
+ * no reply. Every mailbox has its own {@link SmtpOutbox}, sending replies
+ * in batches over one connection. Templates are bundled in
+ * {@code replies/} and compiled once.</p>
+ *
+ * @since 0.1
+ */
+public final class Replies implements Closeable {
+
+    /**
+     * Maximum number of replies sent over a connection at once.
+     */
+    private static final int BATCH = 50;
+
+    /**
+     * Capacity of outboxes.
+     */
+    private static final int CAPACITY = 1024;
+
+    /**
+     * Outboxes, by name of mailbox.
+     */
+    private final Map<String, SmtpOutbox> outboxes;
+
+    /**
+     * Template of acknowledgements.
+     */
+    private final ReplyTemplate accepted;
+
+    /**
+     * Template of rejections.
+     */
+    private final ReplyTemplate rejected;
+
+    /**
+     * Ctor.
+     * @param settings Settings of mailboxes
+     */
+    public Replies(final Settings settings) {
+        this(settings, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param settings Settings of mailboxes
+     * @param metrics Metrics
+     */
+    public Replies(final Settings settings, final Metrics metrics) {
+        this(
+            Replies.smtp(settings, metrics),
+            Replies.template("replies/accepted.txt"),
+            Replies.template("replies/rejected.txt")
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param outboxes Outboxes, by name of mailbox
+     * @param accepted Template of acknowledgements
+     * @param rejected Template of rejections
+     */
+    public Replies(
+        final Map<String, SmtpOutbox> outboxes, final ReplyTemplate accepted,
+        final ReplyTemplate rejected
+    ) {
+        this.outboxes = Collections.unmodifiableMap(outboxes);
+        this.accepted = accepted;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Start all outboxes.
+     * @return This
+     */
+    public Replies start() {
+        for (final SmtpOutbox outbox : this.outboxes.values()) {
+            outbox.start();
+        }
+        return this;
+    }
+
+    /**
+     * Acknowledge a report accepted.
+     * @param mailbox Name of mailbox report was found in
+     * @param email Email of report
+     * @param rows Number of rows accepted
+     */
+    public void accept(final String mailbox, final Envelope email, final long rows) {
+        final Map<String, String> values = Replies.values(email);
+        values.put("rows", String.valueOf(rows));
+        this.send(mailbox, email, this.accepted, values);
+    }
+
+    /**
+     * Tell why a report was rejected.
+     * @param mailbox Name of mailbox report was found in
+     * @param email Email of report
+     * @param reason Reason
+     */
+    public void reject(final String mailbox, final Envelope email, final String reason) {
+        final Map<String, String> values = Replies.values(email);
+        values.put("reason", reason);
+        this.send(mailbox, email, this.rejected, values);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final SmtpOutbox outbox : this.outboxes.values()) {
+            outbox.close();
+        }
+    }
+
+    /**
+     * Queue a reply, if mailbox has an outbox and email a sender.
+     * @param mailbox Name of mailbox
+     * @param email Email replied to
+     * @param template Template
+     * @param values Values of placeholders
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void send(
+        final String mailbox, final Envelope email, final ReplyTemplate template,
+        final Map<String, String> values
+    ) {
+        final SmtpOutbox outbox = this.outboxes.get(mailbox);
+        if (outbox == null || email.sender().isEmpty()) {
+            Logger.debug(this, "No reply to %s from %s", email, mailbox);
+        } else {
+            outbox.send(template.reply(email.sender(), email.messageId(), values));
+        }
+    }
+
+    /**
+     * Values of placeholders common to all replies.
+     * @param email Email replied to
+     * @return Values, to complete
+     */
+    private static Map<String, String> values(final Envelope email) {
+        final Map<String, String> values = new HashMap<>(4);
+        values.put("subject", email.subject());
+        values.put("file", email.spreadsheet().map(AttachmentPart::name).orElse(""));
+        return values;
+    }
+
+    /**
+     * Outboxes of mailboxes with an SMTP server.
+     * @param settings Settings
+     * @param metrics Metrics
+     * @return Outboxes, by name of mailbox
+     */
+    private static Map<String, SmtpOutbox> smtp(
+        final Settings settings, final Metrics metrics
+    ) {
+        final Sessions sessions = new Sessions();
+        final Map<String, SmtpOutbox> outboxes = new HashMap<>(0);
+        for (final MailSettings mailbox : settings.mailboxes()) {
+            final String host = mailbox.smtpServerSettings().host();
+            if (host != null && !host.isEmpty()) {
+                outboxes.put(
+                    Mailboxes.name(mailbox),
+                    new SmtpOutbox(
+                        new SmtpAccount(mailbox, sessions, metrics),
+                        Replies.BATCH, Replies.CAPACITY, metrics
+                    )
+                );
+            }
+        }
+        return outboxes;
+    }
+
+    /**
+     * Bundled template.
+     * @param name Name of resource
+     * @return Template
+     */
+    private static ReplyTemplate template(final String name) {
+        try {
+            return new ReplyTemplate(new JavaResource(name).text());
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.nio.charset.StandardCharsets;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+/**
+ * Reply to the sender of a report, rendered and ready to send.
+ *
+ * @since 0.1
+ */
+public final class Reply {
+
+    /**
+     * Address of recipient.
+     */
+    private final String recipient;
+
+    /**
+     * Message-ID of email replied to, empty if unknown.
+     */
+    private final String origin;
+
+    /**
+     * Subject.
+     */
+    private final String subject;
+
+    /**
+     * Text of body.
+     */
+    private final String body;
+
+    /**
+     * Ctor.
+     * @param recipient Address of recipient
+     * @param origin Message-ID of email replied to, empty if unknown
+     * @param subject Subject
+     * @param body Text of body
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public Reply(
+        final String recipient, final String origin, final String subject, final String body
+    ) {
+        this.recipient = recipient;
+        this.origin = origin;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    /**
+     * Message of reply, threaded with the email replied to.
+     * @param session Session
+     * @param from Address of sender
+     * @return Message, ready to send
+     * @throws MessagingException If fails
+     */
+    public MimeMessage message(final Session session, final InternetAddress from)
+        throws MessagingException {
+        final MimeMessage msg = new MimeMessage(session);
+        msg.setFrom(from);
+        msg.setRecipient(Message.RecipientType.TO, new InternetAddress(this.recipient));
+        msg.setSubject(this.subject, StandardCharsets.UTF_8.name());
+        msg.setText(this.body, StandardCharsets.UTF_8.name());
+        if (!this.origin.isEmpty()) {
+            msg.setHeader("In-Reply-To", this.origin);
+            msg.setHeader("References", this.origin);
+        }
+        msg.saveChanges();
+        return msg;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("'%s' to %s", this.subject, this.recipient);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Template of replies, compiled once and rendered for every reply.
+ *
+ * <p>First line of template is the subject, the rest after a blank line
+ * is the body. Placeholders like {@code {subject}} are located once, when
+ * the template is built: rendering only joins constant chunks and values,
+ * without scanning the template again.</p>
+ *
+ * @since 0.1
+ */
+public final class ReplyTemplate {
+
+    /**
+     * Placeholder.
+     */
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([a-z]+)}");
+
+    /**
+     * Chunks of subject: constant text at even positions, keys at odd ones.
+     */
+    private final String[] title;
+
+    /**
+     * Chunks of body: constant text at even positions, keys at odd ones.
+     */
+    private final String[] text;
+
+    /**
+     * Ctor.
+     * @param template Subject line, blank line and body
+     */
+    public ReplyTemplate(final String template) {
+        this(template.replace("\r\n", "\n").split("\n\n?", 2));
+    }
+
+    /**
+     * Ctor.
+     * @param lines Subject and body
+     */
+    private ReplyTemplate(final String... lines) {
+        this.title = ReplyTemplate.compiled(lines[0]);
+        this.text = ReplyTemplate.compiled(ReplyTemplate.body(lines));
+    }
+
+    /**
+     * Render a reply.
+     * @param recipient Address of recipient
+     * @param origin Message-ID of email replied to, empty if unknown
+     * @param values Values of placeholders, missing ones rendered empty
+     * @return Reply
+     */
+    public Reply reply(
+        final String recipient, final String origin, final Map<String, String> values
+    ) {
+        return new Reply(
+            recipient, origin,
+            ReplyTemplate.rendered(this.title, values),
+            ReplyTemplate.rendered(this.text, values)
+        );
+    }
+
+    /**
+     * Body of template.
+     * @param lines Subject and body
+     * @return Body, empty if none
+     */
+    private static String body(final String... lines) {
+        final String body;
+        if (lines.length > 1) {
+            body = lines[1];
+        } else {
+            body = "";
+        }
+        return body;
+    }
+
+    /**
+     * Split text into chunks.
+     * @param text Text with placeholders
+     * @return Constant text at even positions, keys at odd ones
+     */
+    private static String[] compiled(final String text) {
+        final List<String> chunks = new ArrayList<>(1);
+        final Matcher matcher = ReplyTemplate.PLACEHOLDER.matcher(text);
+        int start = 0;
+        while (matcher.find()) {
+            chunks.add(text.substring(start, matcher.start()));
+            chunks.add(matcher.group(1));
+            start = matcher.end();
+        }
+        chunks.add(text.substring(start));
+        return chunks.toArray(new String[0]);
+    }
+
+    /**
+     * Render chunks.
+     * @param chunks Constant text at even positions, keys at odd ones
+     * @param values Values of placeholders
+     * @return Text
+     */
+    private static String rendered(final String[] chunks, final Map<String, String> values) {
+        final StringBuilder out = new StringBuilder(chunks[0]);
+        for (int idx = 1; idx < chunks.length; idx += 2) {
+            out.append(values.getOrDefault(chunks[idx], "")).append(chunks[idx + 1]);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.nio.file.Path;
+
+/**
+ * Spreadsheet of an email, downloaded to a local file.
+ *
+ * @since 0.1
+ */
+public final class ReportFile {
+
+    /**
+     * Name of mailbox email was found in.
+     */
+    private final String box;
+
+    /**
+     * Email.
+     */
+    private final Envelope email;
+
+    /**
+     * Local file.
+     */
+    private final Path file;
+
+    /**
+     * Ctor.
+     * @param mailbox Name of mailbox email was found in
+     * @param email Email
+     * @param file Local file
+     */
+    public ReportFile(final String mailbox, final Envelope email, final Path file) {
+        this.box = mailbox;
+        this.email = email;
+        this.file = file;
+    }
+
+    /**
+     * Name of mailbox email was found in.
+     * @return Name, like {@code login@host}
+     */
+    public String mailbox() {
+        return this.box;
+    }
+
+    /**
+     * Email.
+     * @return Envelope
+     */
+    public Envelope envelope() {
+        return this.email;
+    }
+
+    /**
+     * Local file.
+     * @return Path
+     */
+    public Path path() {
+        return this.file;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s in %s", this.email, this.file);
+    }
+}
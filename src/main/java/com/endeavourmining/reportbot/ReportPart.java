@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.report.Batches;
+import com.endeavourmining.reportbot.report.ReportBatch;
+
+/**
+ * Batch of rows of a report, on its way to publishing.
+ *
+ * @since 0.1
+ */
+public final class ReportPart {
+
+    /**
+     * Email of report.
+     */
+    private final Envelope email;
+
+    /**
+     * Rows.
+     */
+    private final ReportBatch rows;
+
+    /**
+     * Where batch goes back once published.
+     */
+    private final Batches source;
+
+    /**
+     * Whether it is the last part of the report.
+     */
+    private final boolean end;
+
+    /**
+     * Whether rows are removed from the report.
+     */
+    private final boolean gone;
+
+    /**
+     * Parts of the report not yet published.
+     */
+    private final PartsLeft pending;
+
+    /**
+     * Ctor, of rows added or changed.
+     * @param email Email of report
+     * @param rows Rows
+     * @param source Where batch goes back once published
+     * @param end Whether it is the last part of the report
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public ReportPart(
+        final Envelope email, final ReportBatch rows, final Batches source, final boolean end
+    ) {
+        this(email, rows, source, end, false);
+    }
+
+    /**
+     * Ctor.
+     * @param email Email of report
+     * @param rows Rows
+     * @param source Where batch goes back once published
+     * @param end Whether it is the last part of the report
+     * @param gone Whether rows are removed from the report
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public ReportPart(
+        final Envelope email, final ReportBatch rows, final Batches source, final boolean end,
+        final boolean gone
+    ) {
+        this(email, rows, source, end, gone, new PartsLeft());
+    }
+
+    /**
+     * Ctor.
+     * @param email Email of report
+     * @param rows Rows
+     * @param source Where batch goes back once published
+     * @param end Whether it is the last part of the report
+     * @param gone Whether rows are removed from the report
+     * @param left Parts of the report not yet published
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public ReportPart(
+        final Envelope email, final ReportBatch rows, final Batches source, final boolean end,
+        final boolean gone, final PartsLeft left
+    ) {
+        this.pending = left;
+        this.email = email;
+        this.rows = rows;
+        this.source = source;
+        this.end = end;
+        this.gone = gone;
+    }
+
+    /**
+     * Email of report.
+     * @return Envelope
+     */
+    public Envelope envelope() {
+        return this.email;
+    }
+
+    /**
+     * Rows.
+     * @return Batch, valid until released
+     */
+    public ReportBatch batch() {
+        return this.rows;
+    }
+
+    /**
+     * Whether it is the last part of the report.
+     * @return True if report is complete with this part
+     */
+    public boolean last() {
+        return this.end;
+    }
+
+    /**
+     * Whether rows are removed from the report, since its previous
+     * version: only cells of natural key are set.
+     * @return True if rows are removed
+     */
+    public boolean removal() {
+        return this.gone;
+    }
+
+    /**
+     * Parts of the report not yet published, this one included until
+     * it's recorded there.
+     * @return Parts left
+     */
+    public PartsLeft left() {
+        return this.pending;
+    }
+
+    /**
+     * Give batch back for next rows.
+     */
+    public void release() {
+        this.source.release(this.rows);
+    }
+
+    @Override
+    public String toString() {
+        final String kind;
+        if (this.gone) {
+            kind = "removed rows";
+        } else {
+            kind = "rows";
+        }
+        return String.format("%d %s of %s", this.rows.size(), kind, this.email);
+    }
+}
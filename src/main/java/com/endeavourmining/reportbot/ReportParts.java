@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.delta.Diff;
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.endeavourmining.reportbot.report.BatchHandler;
+import com.endeavourmining.reportbot.report.Batches;
+import com.endeavourmining.reportbot.report.ReportBatch;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batches of a report sent downstream as parts.
+ *
+ * <p>Last batch is held back until the sheet is over, so that it can be
+ * flagged as the last part of the report. With a diff against the
+ * previous version of the report, only rows inserted or changed are sent,
+ * followed by parts of rows removed. All parts share one count of
+ * {@link PartsLeft}, so that the report is complete only once every
+ * part is published.</p>
+ *
+ * @since 0.1
+ */
+public final class ReportParts implements BatchHandler {
+
+    /**
+     * Email of report.
+     */
+    private final Envelope email;
+
+    /**
+     * Source of batches.
+     */
+    private final Batches source;
+
+    /**
+     * Next stage.
+     */
+    private final Sink<ReportPart> next;
+
+    /**
+     * Batch held back, if any.
+     */
+    private final List<ReportBatch> held;
+
+    /**
+     * Diff against previous version.
+     */
+    private final Diff diff;
+
+    /**
+     * Parts not yet published.
+     */
+    private final PartsLeft left;
+
+    /**
+     * Whether batch held is of removed rows.
+     */
+    private boolean gone;
+
+    /**
+     * Rows handled so far.
+     */
+    private long count;
+
+    /**
+     * Ctor.
+     * @param email Email of report
+     * @param source Source of batches
+     * @param next Next stage
+     * @param diff Diff against previous version of report
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public ReportParts(
+        final Envelope email, final Batches source, final Sink<ReportPart> next, final Diff diff
+    ) {
+        this.email = email;
+        this.source = source;
+        this.next = next;
+        this.held = new ArrayList<>(1);
+        this.diff = diff;
+        this.left = new PartsLeft();
+    }
+
+    @Override
+    public void handle(final ReportBatch batch) throws IOException {
+        this.count += batch.size();
+        this.diff.retain(batch);
+        if (batch.size() == 0) {
+            this.source.release(batch);
+        } else {
+            this.hold(batch, false);
+        }
+    }
+
+    /**
+     * Rows handled so far.
+     * @return Count of rows
+     */
+    public long rows() {
+        return this.count;
+    }
+
+    /**
+     * Send rows removed, if any, and last part, empty if report has no row.
+     * @throws IOException If fails
+     */
+    public void finish() throws IOException {
+        for (final String[] removed : this.diff.removed()) {
+            if (!this.gone || this.held.get(0).full()) {
+                this.hold(this.source.take(), true);
+            }
+            this.diff.restore(this.held.get(0), removed);
+        }
+        if (this.held.isEmpty()) {
+            this.held.add(this.source.take());
+        }
+        this.next.accept(
+            new ReportPart(
+                this.email, this.held.remove(0), this.source, true, this.gone, this.left
+            )
+        );
+    }
+
+    /**
+     * Give back batch held, after a failure.
+     */
+    public void discard() {
+        if (!this.held.isEmpty()) {
+            this.source.release(this.held.remove(0));
+        }
+    }
+
+    /**
+     * Hold a batch back, sending the one held before.
+     * @param batch Batch
+     * @param removal Whether batch is of removed rows
+     * @throws IOException If fails
+     */
+    private void hold(final ReportBatch batch, final boolean removal) throws IOException {
+        if (!this.held.isEmpty()) {
+            this.left.sent();
+            this.next.accept(
+                new ReportPart(
+                    this.email, this.held.remove(0), this.source, false, this.gone, this.left
+                )
+            );
+        }
+        this.held.add(batch);
+        this.gone = removal;
+    }
+}
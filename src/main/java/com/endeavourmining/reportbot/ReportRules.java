@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import javax.mail.search.AndTerm;
+import javax.mail.search.ComparisonTerm;
+import javax.mail.search.FromStringTerm;
+import javax.mail.search.HeaderTerm;
+import javax.mail.search.OrTerm;
+import javax.mail.search.ReceivedDateTerm;
+import javax.mail.search.SearchTerm;
+import javax.mail.search.SubjectTerm;
+
+/**
+ * Rules of candidate reports, compiled into one IMAP search.
+ *
+ * <p>Rules are joined into a single composite {@link SearchTerm}, that
+ * the server evaluates in one SEARCH: emails of other senders, with other
+ * subjects, too old, or without any attachment are never fetched.
+ * Senders and subjects match as case-insensitive substrings, as in IMAP;
+ * the window matches the date emails were received, to the day. An
+ * attachment is told by the Content-Type header: a mixed multipart, or
+ * an application type for an email that is an attachment by itself.</p>
+ *
+ * @since 0.1
+ */
+public final class ReportRules {
+
+    /**
+     * Header telling attachments.
+     */
+    private static final String TYPE = "Content-Type";
+
+    /**
+     * Rules.
+     */
+    private final RuleSettings settings;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Ctor, of no rule.
+     */
+    public ReportRules() {
+        this(new YamlRuleSettings(null));
+    }
+
+    /**
+     * Ctor.
+     * @param settings Rules
+     */
+    public ReportRules(final RuleSettings settings) {
+        this(settings, Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     * @param settings Rules
+     * @param clock Clock, to start the window from
+     */
+    public ReportRules(final RuleSettings settings, final Clock clock) {
+        this.settings = settings;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether any rule is set.
+     * @return False if every email is a candidate
+     */
+    public boolean enabled() {
+        return !this.settings.senders().isEmpty()
+            || !this.settings.subjects().isEmpty()
+            || !this.settings.window().isZero()
+            || this.settings.attachments();
+    }
+
+    /**
+     * Search matching candidate reports, now.
+     * @return Term, matching all emails if no rule is set
+     */
+    public SearchTerm term() {
+        final List<SearchTerm> terms = new ArrayList<>(4);
+        if (!this.settings.senders().isEmpty()) {
+            terms.add(ReportRules.any(this.settings.senders(), FromStringTerm::new));
+        }
+        if (!this.settings.subjects().isEmpty()) {
+            terms.add(ReportRules.any(this.settings.subjects(), SubjectTerm::new));
+        }
+        if (!this.settings.window().isZero()) {
+            terms.add(
+                new ReceivedDateTerm(
+                    ComparisonTerm.GE,
+                    Date.from(this.clock.instant().minus(this.settings.window()))
+                )
+            );
+        }
+        if (this.settings.attachments()) {
+            terms.add(
+                new OrTerm(
+                    new HeaderTerm(ReportRules.TYPE, "multipart/mixed"),
+                    new HeaderTerm(ReportRules.TYPE, "application/")
+                )
+            );
+        }
+        return ReportRules.all(terms);
+    }
+
+    /**
+     * Term matching any of values.
+     * @param values Values, at least one
+     * @param term Term of a value
+     * @return Term
+     */
+    private static SearchTerm any(
+        final List<String> values, final Function<String, SearchTerm> term
+    ) {
+        final SearchTerm any;
+        if (values.size() == 1) {
+            any = term.apply(values.get(0));
+        } else {
+            final SearchTerm[] terms = new SearchTerm[values.size()];
+            for (int idx = 0; idx < terms.length; ++idx) {
+                terms[idx] = term.apply(values.get(idx));
+            }
+            any = new OrTerm(terms);
+        }
+        return any;
+    }
+
+    /**
+     * Term matching all terms.
+     * @param terms Terms
+     * @return Term, matching all emails if there is none
+     */
+    private static SearchTerm all(final List<SearchTerm> terms) {
+        final SearchTerm all;
+        if (terms.isEmpty()) {
+            all = new AndTerm(new SearchTerm[0]);
+        } else if (terms.size() == 1) {
+            all = terms.get(0);
+        } else {
+            all = new AndTerm(terms.toArray(new SearchTerm[0]));
+        }
+        return all;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.report.Column;
+import java.util.List;
+
+/**
+ * Layout of Excel reports.
+ *
+ * @since 0.1
+ */
+public interface ReportSettings {
+
+    /**
+     * Number of header rows to skip.
+     * @return Number of rows
+     */
+    int header();
+
+    /**
+     * Columns to read.
+     * @return Columns
+     */
+    List<Column> columns();
+
+    /**
+     * Columns of natural key of rows, to publish only changes between
+     * successive versions of a report.
+     * @return Names of columns, empty to publish all rows of every version
+     */
+    List<String> key();
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.delta.Diff;
+import com.endeavourmining.reportbot.delta.RowHashes;
+import com.endeavourmining.reportbot.delta.Version;
+import com.endeavourmining.reportbot.delta.VersionFile;
+import com.endeavourmining.reportbot.pipeline.Sink;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Last versions of reports, to publish only changes of a report sent
+ * again with corrections.
+ *
+ * <p>Versions of a report share its sender and the name of its
+ * spreadsheet. A version is staged once parsed, and saved to a file of
+ * its own, in the directory of versions, once all its parts are published,
+ * unless a newer version is staged already. Only a saved version is the
+ * base of the next one, so that a version whose publishing failed is
+ * diffed again against what was published. Versions of the same report
+ * are diffed and staged one at a time.</p>
+ *
+ * @since 0.1
+ */
+public final class ReportVersions implements Sink<Envelope> {
+
+    /**
+     * Number of locks of reports.
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * Directory of versions.
+     */
+    private final Path dir;
+
+    /**
+     * Hashes of rows.
+     */
+    private final RowHashes hashes;
+
+    /**
+     * Versions parsed but not yet published, by report.
+     */
+    private final Map<String, Map.Entry<Envelope, Version>> staged;
+
+    /**
+     * Lock of versions.
+     */
+    private final Object lock;
+
+    /**
+     * Locks of reports, by hash of report.
+     */
+    private final Object[] stripes;
+
+    /**
+     * Ctor.
+     * @param dir Directory of versions
+     * @param settings Layout of reports
+     */
+    public ReportVersions(final Path dir, final ReportSettings settings) {
+        this.dir = dir;
+        this.hashes = new RowHashes(settings.columns(), settings.key());
+        this.staged = new HashMap<>(0);
+        this.lock = new Object();
+        this.stripes = ReportVersions.locks();
+    }
+
+    /**
+     * Run an action alone among versions of the same report, to diff and
+     * stage a version before another one is diffed.
+     * @param email Email of report
+     * @param action Action
+     * @param <T> Result type
+     * @return Result of action
+     * @throws IOException If fails
+     */
+    public <T> T serial(final Envelope email, final ReportVersions.Action<T> action)
+        throws IOException {
+        final int hash = ReportVersions.report(email).hashCode();
+        synchronized (this.stripes[Math.floorMod(hash, this.stripes.length)]) {
+            return action.run();
+        }
+    }
+
+    /**
+     * Start a diff of a report against its last version published.
+     * @param email Email of report
+     * @return Diff, that keeps all rows if no natural key is set
+     * @throws IOException If fails
+     */
+    public Diff diff(final Envelope email) throws IOException {
+        Version base = new Version();
+        if (this.hashes.enabled()) {
+            synchronized (this.lock) {
+                base = this.file(ReportVersions.report(email)).read();
+            }
+        }
+        return new Diff(this.hashes, base);
+    }
+
+    /**
+     * Stage a version, once all its rows are parsed.
+     * @param email Email of report
+     * @param diff Diff of all its rows
+     */
+    public void stage(final Envelope email, final Diff diff) {
+        if (diff.enabled()) {
+            final Version version = diff.version();
+            synchronized (this.lock) {
+                this.staged.put(
+                    ReportVersions.report(email),
+                    new AbstractMap.SimpleImmutableEntry<>(email, version)
+                );
+            }
+        }
+    }
+
+    @Override
+    public void accept(final Envelope email) throws IOException {
+        final String report = ReportVersions.report(email);
+        synchronized (this.lock) {
+            final Map.Entry<Envelope, Version> last = this.staged.get(report);
+            if (last != null && last.getKey() == email) {
+                this.file(report).write(last.getValue());
+                this.staged.remove(report);
+            }
+        }
+    }
+
+    /**
+     * File of a report.
+     * @param report Report
+     * @return File of its last version
+     */
+    private VersionFile file(final String report) {
+        return new VersionFile(
+            this.dir.resolve(String.format("%s.version", new Fingerprint(report)))
+        );
+    }
+
+    /**
+     * Locks of reports.
+     * @return Locks
+     */
+    private static Object[] locks() {
+        final Object[] locks = new Object[ReportVersions.STRIPES];
+        for (int idx = 0; idx < locks.length; ++idx) {
+            locks[idx] = new Object();
+        }
+        return locks;
+    }
+
+    /**
+     * Report of an email.
+     * @param email Email
+     * @return Sender and name of spreadsheet
+     */
+    private static String report(final Envelope email) {
+        return String.format(
+            "%s %s", email.sender(),
+            email.spreadsheet().map(AttachmentPart::name).orElse("")
+        ).toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Action on a version of a report.
+     *
+     * @param <T> Result type
+     * @since 0.1
+     */
+    public interface Action<T> {
+
+        /**
+         * Run action.
+         * @return Result
+         * @throws IOException If fails
+         */
+        T run() throws IOException;
+    }
+}
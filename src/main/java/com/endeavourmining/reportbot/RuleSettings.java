@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rules emails must match to be candidate reports, evaluated by the mail
+ * server.
+ *
+ * @since 0.1
+ */
+public interface RuleSettings {
+
+    /**
+     * Allowed senders.
+     * @return Parts of sender addresses, any of which matches; empty for all
+     */
+    List<String> senders();
+
+    /**
+     * Subjects of reports.
+     * @return Parts of subjects, any of which matches; empty for all
+     */
+    List<String> subjects();
+
+    /**
+     * How old reports can be.
+     * @return Window before now, zero for no limit
+     */
+    Duration window();
+
+    /**
+     * Whether reports must carry an attachment.
+     * @return True to skip emails without attachments
+     */
+    boolean attachments();
+}
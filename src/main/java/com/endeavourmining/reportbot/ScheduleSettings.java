@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Duration;
+
+/**
+ * Schedule of polls in daemon mode.
+ *
+ * @since 0.1
+ */
+public interface ScheduleSettings {
+
+    /**
+     * Interval between polls of a mailbox during peak hours, and after
+     * a poll that found new emails.
+     * @return Interval
+     */
+    Duration interval();
+
+    /**
+     * Longest interval between polls of a quiet mailbox.
+     * @return Interval
+     */
+    Duration maxInterval();
+
+    /**
+     * Whether reports usually arrive at this hour.
+     * @param hour Hour of day, from 0 to 23
+     * @return True if mailboxes are polled at the shortest interval
+     */
+    boolean peak(int hour);
+
+    /**
+     * Random spread of intervals.
+     * @return Percentage of interval, from 0 to 100
+     */
+    int jitter();
+
+    /**
+     * Whether mailboxes are watched with IMAP IDLE, to poll them as soon
+     * as new emails land, on top of scheduled polls.
+     * @return True if mailboxes are watched
+     */
+    boolean push();
+}
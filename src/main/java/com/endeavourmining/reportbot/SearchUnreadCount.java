@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.sun.mail.iap.ProtocolException;
+import com.sun.mail.imap.IMAPFolder;
+import com.sun.mail.imap.protocol.IMAPProtocol;
+import javax.mail.Flags;
+import javax.mail.Folder;
+import javax.mail.MessagingException;
+import javax.mail.search.FlagTerm;
+import javax.mail.search.SearchException;
+import javax.mail.search.SearchTerm;
+
+/**
+ * Unread emails counted by searching messages without SEEN flag.
+ *
+ * <p>It works with any store protocol. On IMAP, the search is sent on the
+ * connection the folder is selected on and only sequence numbers are
+ * read back; other protocols create a message for every unread email
+ * found.</p>
+ *
+ * @since 0.1
+ */
+public final class SearchUnreadCount implements UnreadCount {
+
+    /**
+     * Latency of searches.
+     */
+    private final Histogram timer;
+
+    /**
+     * Ctor.
+     */
+    public SearchUnreadCount() {
+        this(new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param metrics Metrics
+     */
+    public SearchUnreadCount(final Metrics metrics) {
+        this.timer = metrics.histogram("imap.search");
+    }
+
+    @Override
+    public int value(final Folder folder) throws MessagingException {
+        final long start = System.nanoTime();
+        final int count;
+        if (folder instanceof IMAPFolder) {
+            count = (Integer) ((IMAPFolder) folder).doCommand(SearchUnreadCount::unseen);
+        } else {
+            count = folder.search(SearchUnreadCount.term()).length;
+        }
+        this.timer.since(start);
+        return count;
+    }
+
+    /**
+     * Count unread emails of the selected mailbox, as sequence numbers.
+     * @param protocol Protocol of the selected mailbox
+     * @return Number of unread emails
+     * @throws ProtocolException If fails
+     */
+    private static Object unseen(final IMAPProtocol protocol) throws ProtocolException {
+        try {
+            return protocol.search(SearchUnreadCount.term()).length;
+        } catch (final SearchException ex) {
+            throw new ProtocolException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Search term of unread emails.
+     * @return Term
+     */
+    private static SearchTerm term() {
+        return new FlagTerm(new Flags(Flags.Flag.SEEN), false);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.mail.Session;
+
+/**
+ * Mail sessions, cached by server.
+ *
+ * <p>Every session has its own properties: nothing is written to the
+ * JVM-wide system properties, so that accounts of different servers can
+ * connect concurrently without racing. Sessions hold no credentials and
+ * are shared by all accounts of the same server. Connections time out
+ * when connecting and when waiting for data, so that a server gone
+ * silent never holds a connection forever.</p>
+ *
+ * @since 0.1
+ */
+public final class Sessions {
+
+    /**
+     * Sessions by server.
+     */
+    private final Map<String, Session> cache;
+
+    /**
+     * Ctor.
+     */
+    public Sessions() {
+        this.cache = new ConcurrentHashMap<>(0);
+    }
+
+    /**
+     * Session of a server, with default timeouts.
+     * @param protocol Protocol (imap, imaps, pop3, etc.)
+     * @param host Host
+     * @param port Port
+     * @return Session, the same for the same server
+     */
+    public Session session(final String protocol, final String host, final int port) {
+        return this.session(new CompiledServerSettings(host, protocol, port));
+    }
+
+    /**
+     * Session of a server.
+     * @param server Server
+     * @return Session, the same for the same server and timeouts
+     */
+    public Session session(final MailServerSettings server) {
+        return this.cache.computeIfAbsent(
+            String.format(
+                "%s://%s:%d?%d,%d", server.protocol(),
+                server.host().toLowerCase(Locale.ENGLISH), server.port(),
+                server.connectTimeout().toMillis(), server.readTimeout().toMillis()
+            ),
+            key -> Session.getInstance(Sessions.properties(server))
+        );
+    }
+
+    /**
+     * Number of sessions cached.
+     * @return Number
+     */
+    public int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Properties of a server.
+     * @param server Server
+     * @return Isolated properties
+     */
+    private static Properties properties(final MailServerSettings server) {
+        final Properties props = new Properties();
+        final String prefix = String.format("mail.%s.", server.protocol());
+        final String number = String.valueOf(server.port());
+        props.setProperty(prefix.concat("host"), server.host());
+        props.setProperty(prefix.concat("port"), number);
+        props.setProperty(
+            prefix.concat("connectiontimeout"), Sessions.millis(server.connectTimeout())
+        );
+        props.setProperty(prefix.concat("timeout"), Sessions.millis(server.readTimeout()));
+        props.setProperty(prefix.concat("socketFactory.port"), number);
+        props.setProperty(prefix.concat("socketFactory.fallback"), "false");
+        return props;
+    }
+
+    /**
+     * Milliseconds of a duration, as a property.
+     * @param duration Duration
+     * @return Milliseconds
+     */
+    private static String millis(final Duration duration) {
+        return String.valueOf(duration.toMillis());
+    }
+}
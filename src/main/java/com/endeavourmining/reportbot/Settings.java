@@ -16,6 +16,8 @@
  */
 package com.endeavourmining.reportbot;
 
+import java.util.List;
+
 /**
  * App settings.
  *
@@ -28,4 +30,46 @@ public interface Settings {
      * @return Settings
      */
     MailSettings mailSettings();
+
+    /**
+     * Settings of all mailboxes to poll.
+     * @return Settings, at least one
+     */
+    List<MailSettings> mailboxes();
+
+    /**
+     * Rules of candidate reports, evaluated by mail servers.
+     * @return Settings
+     */
+    RuleSettings ruleSettings();
+
+    /**
+     * Ingestion pipeline settings.
+     * @return Settings
+     */
+    PipelineSettings pipelineSettings();
+
+    /**
+     * Layout of reports.
+     * @return Settings
+     */
+    ReportSettings reportSettings();
+
+    /**
+     * Schedule of polls in daemon mode.
+     * @return Settings
+     */
+    ScheduleSettings scheduleSettings();
+
+    /**
+     * Exposure of metrics in daemon mode.
+     * @return Settings
+     */
+    MetricsSettings metricsSettings();
+
+    /**
+     * Power BI dataset reports are published to.
+     * @return Settings
+     */
+    PowerBiSettings powerBiSettings();
 }
@@ -18,17 +18,28 @@ package com.endeavourmining.reportbot;
 
 import com.amihaiemil.eoyaml.Yaml;
 import com.amihaiemil.eoyaml.YamlMapping;
+import com.amihaiemil.eoyaml.YamlNode;
+import com.amihaiemil.eoyaml.YamlSequence;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Settings from path.
  *
  * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 public final class SettingsFromPath implements Settings {
 
+    /**
+     * Root key.
+     */
+    private static final String ROOT = "settings";
+
     /**
      * YAML content.
      */
@@ -45,10 +56,62 @@ public final class SettingsFromPath implements Settings {
 
     @Override
     public MailSettings mailSettings() {
-        return new YamlMailSettings(
-            this.content.yamlMapping("settings")
-                .yamlMapping("mailbox")
-        );
+        return new YamlMailSettings(this.section("mailbox"));
+    }
+
+    @Override
+    public List<MailSettings> mailboxes() {
+        final YamlSequence seq = this.content.yamlMapping(SettingsFromPath.ROOT)
+            .yamlSequence("mailboxes");
+        final List<MailSettings> list;
+        if (seq == null) {
+            list = Collections.singletonList(this.mailSettings());
+        } else {
+            list = new ArrayList<>(seq.size());
+            for (final YamlNode node : seq) {
+                list.add(new YamlMailSettings(node.asMapping()));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public RuleSettings ruleSettings() {
+        return new YamlRuleSettings(this.section("rules"));
+    }
+
+    @Override
+    public PipelineSettings pipelineSettings() {
+        return new YamlPipelineSettings(this.section("pipeline"));
+    }
+
+    @Override
+    public ReportSettings reportSettings() {
+        return new YamlReportSettings(this.section("report"));
+    }
+
+    @Override
+    public ScheduleSettings scheduleSettings() {
+        return new YamlScheduleSettings(this.section("schedule"));
+    }
+
+    @Override
+    public MetricsSettings metricsSettings() {
+        return new YamlMetricsSettings(this.section("metrics"));
+    }
+
+    @Override
+    public PowerBiSettings powerBiSettings() {
+        return new YamlPowerBiSettings(this.section("powerbi"));
+    }
+
+    /**
+     * Section of settings.
+     * @param name Name
+     * @return YAML content, null if missing
+     */
+    private YamlMapping section(final String name) {
+        return this.content.yamlMapping(SettingsFromPath.ROOT).yamlMapping(name);
     }
 
     /**
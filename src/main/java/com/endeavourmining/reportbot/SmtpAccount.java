@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+
+/**
+ * Mail account sending emails through an SMTP server.
+ *
+ * <p>Transports are opened from a session shared by all accounts of the
+ * same server; credentials are given on connection only, and the server
+ * is asked to authenticate whenever it supports it.</p>
+ *
+ * @since 0.1
+ */
+public final class SmtpAccount {
+
+    /**
+     * Username or mail address.
+     */
+    private final String login;
+
+    /**
+     * Password.
+     */
+    private final String password;
+
+    /**
+     * Address emails are sent from.
+     */
+    private final String from;
+
+    /**
+     * SMTP server.
+     */
+    private final MailServerSettings server;
+
+    /**
+     * Sessions.
+     */
+    private final Sessions sessions;
+
+    /**
+     * Latency of connections, login included.
+     */
+    private final Histogram timer;
+
+    /**
+     * Ctor.
+     * @param settings Mail settings
+     * @param sessions Sessions
+     */
+    public SmtpAccount(final MailSettings settings, final Sessions sessions) {
+        this(settings, sessions, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param settings Mail settings
+     * @param sessions Sessions
+     * @param metrics Metrics
+     */
+    public SmtpAccount(
+        final MailSettings settings, final Sessions sessions, final Metrics metrics
+    ) {
+        this(
+            settings.smtpServerSettings(), settings.login(), settings.password(),
+            SmtpAccount.sender(settings), sessions, metrics
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param server SMTP server
+     * @param login Login
+     * @param password Password
+     * @param from Address emails are sent from
+     * @param sessions Sessions
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public SmtpAccount(
+        final MailServerSettings server, final String login, final String password,
+        final String from, final Sessions sessions
+    ) {
+        this(server, login, password, from, sessions, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param server SMTP server
+     * @param login Login
+     * @param password Password
+     * @param from Address emails are sent from
+     * @param sessions Sessions
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public SmtpAccount(
+        final MailServerSettings server, final String login, final String password,
+        final String from, final Sessions sessions, final Metrics metrics
+    ) {
+        this.server = server;
+        this.login = login;
+        this.password = password;
+        this.from = from;
+        this.sessions = sessions;
+        this.timer = metrics.histogram("smtp.connect");
+    }
+
+    /**
+     * Session of the server, to build messages with.
+     * @return Session
+     */
+    public Session session() {
+        return this.sessions.session(this.server);
+    }
+
+    /**
+     * Address emails are sent from.
+     * @return Address
+     * @throws AddressException If address is not valid
+     */
+    public InternetAddress address() throws AddressException {
+        return new InternetAddress(this.from);
+    }
+
+    /**
+     * Open a new authenticated transport.
+     * @return Connected transport
+     * @throws MessagingException If fails
+     */
+    public Transport connect() throws MessagingException {
+        final long start = System.nanoTime();
+        final Transport transport = this.session().getTransport(this.server.protocol());
+        transport.connect(this.server.host(), this.server.port(), this.login, this.password);
+        this.timer.since(start);
+        return transport;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s://%s@%s:%d", this.server.protocol(), this.login, this.server.host(),
+            this.server.port()
+        );
+    }
+
+    /**
+     * Address of a mailbox.
+     * @param settings Mail settings
+     * @return Address if set, login otherwise
+     */
+    private static String sender(final MailSettings settings) {
+        final String address;
+        if (settings.address() == null || settings.address().isEmpty()) {
+            address = settings.login();
+        } else {
+            address = settings.address();
+        }
+        return address;
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+/**
+ * Queue of replies sent in batches through one SMTP connection.
+ *
+ * <p>Replies are queued without waiting for the server. A single thread
+ * takes them in batches and sends every batch over the same
+ * authenticated transport, kept open between batches and closed once
+ * idle; a transport dropped by the server is opened again, once per
+ * batch. A reply that can't be built, like one to a malformed address,
+ * or refused by the server is logged and dropped alone, as well as
+ * replies queued while the queue is full: replies never hold reports
+ * back. {@link #close()} waits until queued replies are sent.</p>
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class SmtpOutbox implements Closeable {
+
+    /**
+     * Delay between checks of closing, in milliseconds.
+     */
+    private static final long TICK = 100L;
+
+    /**
+     * Idle delay after which transport is closed, in milliseconds.
+     */
+    private static final long IDLE = TimeUnit.MINUTES.toMillis(1L);
+
+    /**
+     * Account.
+     */
+    private final SmtpAccount account;
+
+    /**
+     * Maximum number of replies per batch.
+     */
+    private final int batch;
+
+    /**
+     * Queue of replies.
+     */
+    private final BlockingQueue<Reply> queue;
+
+    /**
+     * Sending thread.
+     */
+    private final ExecutorService thread;
+
+    /**
+     * Whether closing.
+     */
+    private final AtomicBoolean closing;
+
+    /**
+     * Latency of batches sent.
+     */
+    private final Histogram timer;
+
+    /**
+     * Transport, used by sending thread only.
+     */
+    private Transport transport;
+
+    /**
+     * Whether transport is open.
+     */
+    private boolean open;
+
+    /**
+     * Last time transport was used, in milliseconds.
+     */
+    private long used;
+
+    /**
+     * Ctor.
+     * @param account Account
+     * @param batch Maximum number of replies per batch
+     * @param capacity Capacity of queue
+     */
+    public SmtpOutbox(final SmtpAccount account, final int batch, final int capacity) {
+        this(account, batch, capacity, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param account Account
+     * @param batch Maximum number of replies per batch
+     * @param capacity Capacity of queue
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public SmtpOutbox(
+        final SmtpAccount account, final int batch, final int capacity, final Metrics metrics
+    ) {
+        this.account = account;
+        this.batch = batch;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = Executors.newSingleThreadExecutor(
+            runnable -> {
+                final Thread daemon = new Thread(runnable, String.format("smtp-%s", account));
+                daemon.setDaemon(true);
+                return daemon;
+            }
+        );
+        this.closing = new AtomicBoolean();
+        this.timer = metrics.histogram("smtp.send");
+    }
+
+    /**
+     * Start sending thread.
+     * @return This
+     */
+    public SmtpOutbox start() {
+        this.thread.execute(this::loop);
+        return this;
+    }
+
+    /**
+     * Queue a reply.
+     * @param reply Reply
+     */
+    public void send(final Reply reply) {
+        if (this.closing.get()) {
+            throw new IllegalStateException(String.format("Outbox of %s is closed", this));
+        }
+        if (!this.queue.offer(reply)) {
+            Logger.warn(this, "Outbox of %s is full, %s dropped", this.account, reply);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closing.set(true);
+        this.thread.shutdown();
+        try {
+            while (!this.thread.awaitTermination(1L, TimeUnit.MINUTES)) {
+                Logger.info(this, "Waiting for %d replies of %s", this.queue.size(), this);
+            }
+        } catch (final InterruptedException ex) {
+            this.thread.shutdownNow();
+            Thread.currentThread().interrupt();
+            final InterruptedIOException iex = new InterruptedIOException(
+                String.format("Interrupted while sending replies of %s", this.account)
+            );
+            iex.initCause(ex);
+            throw iex;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.account.toString();
+    }
+
+    /**
+     * Send replies in batches until closed and drained.
+     */
+    private void loop() {
+        while (!this.closing.get() || !this.queue.isEmpty()) {
+            final Reply first;
+            try {
+                first = this.queue.poll(SmtpOutbox.TICK, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (first == null) {
+                this.expire();
+            } else {
+                final List<Reply> replies = new ArrayList<>(this.batch);
+                replies.add(first);
+                this.queue.drainTo(replies, this.batch - 1);
+                this.deliver(replies);
+            }
+        }
+        this.disconnect();
+    }
+
+    /**
+     * Send a batch, on a new transport again if server dropped it.
+     * @param replies Replies
+     */
+    private void deliver(final List<Reply> replies) {
+        final long start = System.nanoTime();
+        int sent = this.attempt(replies, 0);
+        if (sent < replies.size()) {
+            this.disconnect();
+            sent = this.attempt(replies, sent);
+        }
+        final int lost = replies.size() - sent;
+        if (lost > 0) {
+            this.disconnect();
+            Logger.warn(this, "%d replies of %s not sent", lost, this.account);
+        }
+        this.timer.since(start);
+    }
+
+    /**
+     * Send replies until the transport fails.
+     * @param replies Replies
+     * @param from Position of first reply to send
+     * @return Position of first reply not sent
+     */
+    private int attempt(final List<Reply> replies, final int from) {
+        int next = from;
+        int refused = 0;
+        try {
+            final Transport conn = this.connected();
+            while (next < replies.size()) {
+                final Optional<MimeMessage> msg = this.message(replies.get(next));
+                if (msg.isPresent()) {
+                    try {
+                        conn.sendMessage(msg.get(), msg.get().getAllRecipients());
+                    } catch (final SendFailedException ex) {
+                        ++refused;
+                    }
+                }
+                ++next;
+            }
+            this.used = System.currentTimeMillis();
+        } catch (final MessagingException ex) {
+            Logger.warn(this, "Transport to %s failed: %s", this.account, ex.getMessage());
+        }
+        if (refused > 0) {
+            Logger.warn(this, "%d replies refused by %s", refused, this.account);
+        }
+        return next;
+    }
+
+    /**
+     * Message of a reply.
+     * @param reply Reply
+     * @return Message, empty if it can't be built
+     */
+    private Optional<MimeMessage> message(final Reply reply) {
+        Optional<MimeMessage> msg = Optional.empty();
+        try {
+            msg = Optional.of(reply.message(this.account.session(), this.account.address()));
+        } catch (final MessagingException ex) {
+            Logger.warn(this, "Reply %s dropped: %s", reply, ex.getMessage());
+        }
+        return msg;
+    }
+
+    /**
+     * Transport, connected.
+     * @return Transport, opened again if closed or dropped
+     * @throws MessagingException If fails
+     */
+    private Transport connected() throws MessagingException {
+        if (!this.open || !this.transport.isConnected()) {
+            this.disconnect();
+            this.transport = this.account.connect();
+            this.open = true;
+            Logger.debug(this, "New transport opened to %s", this.account);
+        }
+        return this.transport;
+    }
+
+    /**
+     * Close transport if idle for too long.
+     */
+    private void expire() {
+        if (this.open
+            && System.currentTimeMillis() - this.used > SmtpOutbox.IDLE) {
+            this.disconnect();
+        }
+    }
+
+    /**
+     * Close transport quietly.
+     */
+    private void disconnect() {
+        if (this.open) {
+            this.open = false;
+            try {
+                this.transport.close();
+            } catch (final MessagingException ex) {
+                Logger.warn(this, "Failed to close transport: %s", ex.getMessage());
+            }
+        }
+    }
+}
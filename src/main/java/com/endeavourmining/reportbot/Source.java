@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Metrics;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mailbox polled for reports.
+ *
+ * <p>A source is claimed while a poll of it is queued or running, so that
+ * a slow mailbox never gets several polls piled up. It counts its quiet
+ * polls in a row, so that a quiet mailbox can be polled less often, and
+ * runs actions waiting for its poll once it's over.</p>
+ *
+ * @since 0.1
+ */
+public final class Source {
+
+    /**
+     * Name.
+     */
+    private final String label;
+
+    /**
+     * Inbox.
+     */
+    private final Inbox box;
+
+    /**
+     * Synchronization of inbox.
+     */
+    private final UidSync synchro;
+
+    /**
+     * Whether a poll is queued or running.
+     */
+    private final AtomicBoolean busy;
+
+    /**
+     * Number of polls in a row that found no new email.
+     */
+    private final AtomicLong silence;
+
+    /**
+     * Actions to run once source is released.
+     */
+    private final Queue<Runnable> waiting;
+
+    /**
+     * Ctor.
+     * @param name Name
+     * @param inbox Inbox
+     * @param checkpoints Checkpoints of inbox
+     */
+    public Source(final String name, final Inbox inbox, final Checkpoints checkpoints) {
+        this(name, inbox, checkpoints, new ReportRules());
+    }
+
+    /**
+     * Ctor.
+     * @param name Name
+     * @param inbox Inbox
+     * @param checkpoints Checkpoints of inbox
+     * @param rules Rules of candidate reports
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Source(
+        final String name, final Inbox inbox, final Checkpoints checkpoints,
+        final ReportRules rules
+    ) {
+        this(name, inbox, checkpoints, rules, new CatchUp());
+    }
+
+    /**
+     * Ctor.
+     * @param name Name
+     * @param inbox Inbox
+     * @param checkpoints Checkpoints of inbox
+     * @param rules Rules of candidate reports
+     * @param catchup Catch-up of large backlogs
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Source(
+        final String name, final Inbox inbox, final Checkpoints checkpoints,
+        final ReportRules rules, final CatchUp catchup
+    ) {
+        this(name, inbox, checkpoints, rules, catchup, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param name Name
+     * @param inbox Inbox
+     * @param checkpoints Checkpoints of inbox
+     * @param rules Rules of candidate reports
+     * @param catchup Catch-up of large backlogs
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Source(
+        final String name, final Inbox inbox, final Checkpoints checkpoints,
+        final ReportRules rules, final CatchUp catchup, final Metrics metrics
+    ) {
+        this.label = name;
+        this.box = inbox;
+        this.synchro = new UidSync(
+            inbox, checkpoints, UidSync.BATCH, rules, catchup, metrics
+        );
+        this.busy = new AtomicBoolean();
+        this.silence = new AtomicLong();
+        this.waiting = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Name.
+     * @return Name, like {@code login@host}
+     */
+    public String name() {
+        return this.label;
+    }
+
+    /**
+     * Inbox.
+     * @return Inbox
+     */
+    public Inbox inbox() {
+        return this.box;
+    }
+
+    /**
+     * Synchronization of inbox.
+     * @return Synchronization
+     */
+    public UidSync sync() {
+        return this.synchro;
+    }
+
+    /**
+     * Claim source for a poll.
+     * @return True if claimed, false if a poll is already queued or running
+     */
+    public boolean claim() {
+        return this.busy.compareAndSet(false, true);
+    }
+
+    /**
+     * Release source once polled.
+     */
+    public void release() {
+        this.busy.set(false);
+        this.drain();
+    }
+
+    /**
+     * Run an action once, as soon as no poll is queued or running.
+     * @param action Action, run by the thread releasing source or by the
+     *  calling one if source is not claimed
+     */
+    public void idle(final Runnable action) {
+        this.waiting.add(action);
+        if (!this.busy.get()) {
+            this.drain();
+        }
+    }
+
+    /**
+     * Record result of a poll.
+     * @param found Number of new emails found
+     */
+    public void polled(final int found) {
+        if (found > 0) {
+            this.silence.set(0L);
+        } else {
+            this.silence.incrementAndGet();
+        }
+    }
+
+    /**
+     * Number of polls in a row that found no new email.
+     * @return Number of polls
+     */
+    public long quiet() {
+        return this.silence.get();
+    }
+
+    @Override
+    public String toString() {
+        return this.label;
+    }
+
+    /**
+     * Run actions waiting for source to be released.
+     */
+    private void drain() {
+        Runnable action = this.waiting.poll();
+        while (action != null) {
+            action.run();
+            action = this.waiting.poll();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.sun.mail.imap.IMAPFolder;
+import javax.mail.Folder;
+import javax.mail.MessagingException;
+
+/**
+ * Unread emails counted by the IMAP server with {@code STATUS (UNSEEN)}.
+ *
+ * <p>Server only answers a number: no message is created on client side,
+ * and the folder is neither selected nor opened for write. STATUS is sent
+ * only for a folder not opened, like the ones of {@link ReadOnlyInbox}, on
+ * the connection of its store: IMAP4rev1 servers may answer stale counts
+ * for the selected mailbox. Folders opened, and folders of other
+ * protocols, are counted by the fallback.</p>
+ *
+ * @since 0.1
+ */
+public final class StatusUnreadCount implements UnreadCount {
+
+    /**
+     * Count of folders opened or not IMAP.
+     */
+    private final UnreadCount fallback;
+
+    /**
+     * Latency of STATUS commands.
+     */
+    private final Histogram timer;
+
+    /**
+     * Ctor, searching folders opened or not IMAP.
+     */
+    public StatusUnreadCount() {
+        this(new SearchUnreadCount());
+    }
+
+    /**
+     * Ctor.
+     * @param fallback Count of folders opened or not IMAP
+     */
+    public StatusUnreadCount(final UnreadCount fallback) {
+        this(fallback, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param fallback Count of folders opened or not IMAP
+     * @param metrics Metrics
+     */
+    public StatusUnreadCount(final UnreadCount fallback, final Metrics metrics) {
+        this.fallback = fallback;
+        this.timer = metrics.histogram("imap.status");
+    }
+
+    @Override
+    public int value(final Folder folder) throws MessagingException {
+        final int count;
+        if (folder instanceof IMAPFolder && !folder.isOpen()) {
+            final long start = System.nanoTime();
+            final String name = folder.getFullName();
+            count = (Integer) ((IMAPFolder) folder).doCommand(
+                protocol -> protocol.status(name, new String[] {"UNSEEN"}).unseen
+            );
+            this.timer.since(start);
+        } else {
+            count = this.fallback.value(folder);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import java.io.IOException;
+import javax.mail.Folder;
+import javax.mail.MessagingException;
+import javax.mail.Store;
+
+/**
+ * Inbox that opens a new connection for every action and closes it after.
+ *
+ * @since 0.1
+ */
+public final class TransientInbox implements Inbox {
+
+    /**
+     * Account.
+     */
+    private final ImapAccount account;
+
+    /**
+     * Folder open mode.
+     */
+    private final int mode;
+
+    /**
+     * Latency of INBOX selection.
+     */
+    private final Histogram timer;
+
+    /**
+     * Ctor.
+     * @param account Account
+     */
+    public TransientInbox(final ImapAccount account) {
+        this(account, Folder.READ_WRITE);
+    }
+
+    /**
+     * Ctor.
+     * @param account Account
+     * @param mode Folder open mode ({@link Folder#READ_ONLY} or {@link Folder#READ_WRITE})
+     */
+    public TransientInbox(final ImapAccount account, final int mode) {
+        this(account, mode, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param account Account
+     * @param mode Folder open mode ({@link Folder#READ_ONLY} or {@link Folder#READ_WRITE})
+     * @param metrics Metrics
+     */
+    public TransientInbox(final ImapAccount account, final int mode, final Metrics metrics) {
+        this.account = account;
+        this.mode = mode;
+        this.timer = metrics.histogram("imap.select");
+    }
+
+    @Override
+    public <T> T apply(final Inbox.Action<T> action) throws IOException {
+        try {
+            final Store store = this.account.connect();
+            try {
+                return this.opened(store, action);
+            } finally {
+                store.close();
+            }
+        } catch (final MessagingException exe) {
+            throw new IOException(exe);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.account.toString();
+    }
+
+    /**
+     * Apply action on INBOX of connected store.
+     * @param store Connected store
+     * @param action Action
+     * @param <T> Result type
+     * @return Result
+     * @throws MessagingException If mail operation fails
+     * @throws IOException If fails
+     */
+    private <T> T opened(final Store store, final Inbox.Action<T> action)
+        throws MessagingException, IOException {
+        final Folder folder = store.getFolder("INBOX");
+        final long start = System.nanoTime();
+        folder.open(this.mode);
+        this.timer.since(start);
+        try {
+            return action.apply(folder);
+        } finally {
+            folder.close(false);
+        }
+    }
+}
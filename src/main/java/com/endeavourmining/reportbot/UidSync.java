@@ -0,0 +1,652 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.jcabi.log.Logger;
+import com.sun.mail.iap.Response;
+import com.sun.mail.imap.IMAPFolder;
+import com.sun.mail.imap.IMAPStore;
+import com.sun.mail.imap.protocol.FetchResponse;
+import com.sun.mail.imap.protocol.MODSEQ;
+import com.sun.mail.imap.protocol.UID;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import javax.mail.Folder;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.UIDFolder;
+
+/**
+ * Incremental synchronization of INBOX based on UIDs.
+ *
+ * <p>Only messages with a UID greater than the last processed one are
+ * fetched ({@code UID FETCH n+1:*}), independently of their SEEN flag.
+ * When rules of reports are set, new messages are searched by the server
+ * first, and only the ones matching are handled. Checkpoint is saved after
+ * each handled batch, so that a restart resumes where it stopped, and
+ * past the last new message once all are handled. All messages are
+ * fetched again if server changed the UIDVALIDITY of the folder.</p>
+ *
+ * <p>On servers advertising CONDSTORE, new UIDs are listed together with
+ * their MODSEQ, and the highest one is kept in the checkpoint once all
+ * new messages are handled. Next listing asks only messages changed
+ * since ({@code UID FETCH n+1:* (UID MODSEQ) (CHANGEDSINCE m)}), so that
+ * a poll without new messages gets an empty answer, instead of the last
+ * message that range always holds. Other servers, a checkpoint without
+ * MODSEQ or a changed UIDVALIDITY get a full listing of UIDs from the
+ * checkpoint on. Only this listing of new UIDs uses CONDSTORE: messages
+ * are handled by UID whatever their flags, and nothing is kept about the
+ * ones already handled, so their flag changes and expunges are not
+ * resynced, and neither QRESYNC nor VANISHED is requested.</p>
+ *
+ * <p>Batches are fetched one after the other over one connection, unless
+ * new messages are a backlog large enough for a {@link CatchUp}: batches
+ * are then fetched over many connections at once, and still delivered
+ * and checkpointed in UID order.</p>
+ *
+ * @since 0.1
+ */
+public final class UidSync {
+
+    /**
+     * Default batch size.
+     */
+    static final int BATCH = 100;
+
+    /**
+     * Conditional STORE extension.
+     */
+    private static final String CONDSTORE = "CONDSTORE";
+
+    /**
+     * Inbox.
+     */
+    private final Inbox inbox;
+
+    /**
+     * Checkpoints.
+     */
+    private final Checkpoints checkpoints;
+
+    /**
+     * Maximum number of messages handled at once.
+     */
+    private final int batch;
+
+    /**
+     * Rules of candidate reports.
+     */
+    private final ReportRules rules;
+
+    /**
+     * Catch-up of large backlogs.
+     */
+    private final CatchUp catchup;
+
+    /**
+     * Latency of listings of new UIDs.
+     */
+    private final Histogram timer;
+
+    /**
+     * Latency of searches.
+     */
+    private final Histogram search;
+
+    /**
+     * Ctor.
+     * @param inbox Inbox
+     * @param checkpoints Checkpoints
+     */
+    public UidSync(final Inbox inbox, final Checkpoints checkpoints) {
+        this(inbox, checkpoints, new ReportRules());
+    }
+
+    /**
+     * Ctor.
+     * @param inbox Inbox
+     * @param checkpoints Checkpoints
+     * @param rules Rules of candidate reports
+     */
+    public UidSync(final Inbox inbox, final Checkpoints checkpoints, final ReportRules rules) {
+        this(inbox, checkpoints, rules, new CatchUp());
+    }
+
+    /**
+     * Ctor.
+     * @param inbox Inbox
+     * @param checkpoints Checkpoints
+     * @param rules Rules of candidate reports
+     * @param catchup Catch-up of large backlogs
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public UidSync(
+        final Inbox inbox, final Checkpoints checkpoints, final ReportRules rules,
+        final CatchUp catchup
+    ) {
+        this(inbox, checkpoints, UidSync.BATCH, rules, catchup);
+    }
+
+    /**
+     * Ctor.
+     * @param inbox Inbox
+     * @param checkpoints Checkpoints
+     * @param batch Maximum number of messages handled at once
+     */
+    public UidSync(final Inbox inbox, final Checkpoints checkpoints, final int batch) {
+        this(inbox, checkpoints, batch, new ReportRules(), new CatchUp());
+    }
+
+    /**
+     * Ctor.
+     * @param inbox Inbox
+     * @param checkpoints Checkpoints
+     * @param batch Maximum number of messages handled at once
+     * @param rules Rules of candidate reports
+     * @param catchup Catch-up of large backlogs
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public UidSync(
+        final Inbox inbox, final Checkpoints checkpoints, final int batch,
+        final ReportRules rules, final CatchUp catchup
+    ) {
+        this(inbox, checkpoints, batch, rules, catchup, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param inbox Inbox
+     * @param checkpoints Checkpoints
+     * @param batch Maximum number of messages handled at once
+     * @param rules Rules of candidate reports
+     * @param catchup Catch-up of large backlogs
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public UidSync(
+        final Inbox inbox, final Checkpoints checkpoints, final int batch,
+        final ReportRules rules, final CatchUp catchup, final Metrics metrics
+    ) {
+        this.inbox = inbox;
+        this.checkpoints = checkpoints;
+        this.batch = batch;
+        this.rules = rules;
+        this.catchup = catchup;
+        this.timer = metrics.histogram("imap.uids");
+        this.search = metrics.histogram("imap.search");
+    }
+
+    /**
+     * Handle messages arrived since last synchronization, matching rules,
+     * one batch after the other.
+     * @param handler Handler of new messages
+     * @return Number of new messages matching rules
+     * @throws IOException If fails
+     */
+    public int sync(final UidSync.Handler handler) throws IOException {
+        return this.sync(
+            (folder, messages) -> {
+                handler.handle(folder, messages);
+                return messages.length;
+            },
+            handled -> { },
+            false
+        );
+    }
+
+    /**
+     * Fetch messages arrived since last synchronization, matching rules,
+     * in parallel if they are a large backlog.
+     * @param fetch Fetch of a batch of new messages, on its own connection
+     * @param delivery Receiver of fetched batches, in UID order
+     * @param <T> Type of fetched batches
+     * @return Number of new messages matching rules
+     * @throws IOException If fails
+     */
+    public <T> int sync(final UidSync.Fetch<T> fetch, final Sink<T> delivery)
+        throws IOException {
+        return this.sync(fetch, delivery, true);
+    }
+
+    /**
+     * Fetch and deliver new messages, then move checkpoint past all.
+     * Every batch is delivered after the inbox is released, so that a
+     * blocking receiver never holds a connection of the host.
+     * @param fetch Fetch of a batch
+     * @param delivery Receiver of fetched batches
+     * @param parallel Whether a backlog may be caught up in parallel
+     * @param <T> Type of fetched batches
+     * @return Number of new messages matching rules
+     * @throws IOException If fails
+     */
+    private <T> int sync(
+        final UidSync.Fetch<T> fetch, final Sink<T> delivery, final boolean parallel
+    ) throws IOException {
+        final UidSync.Backlog backlog = this.inbox.apply(new Idempotent<>(this::backlog));
+        final List<Inbox.Action<T>> chunks = new ArrayList<>(0);
+        for (final long[] uids : backlog.chunks(this.batch)) {
+            chunks.add(
+                new Idempotent<>(folder -> fetch.fetch(folder, backlog.messages(folder, uids)))
+            );
+        }
+        final Iterator<long[]> order = backlog.chunks(this.batch).iterator();
+        final Sink<T> ordered = done -> {
+            final long[] uids = order.next();
+            delivery.accept(done);
+            this.checkpoints.save(
+                backlog.name(),
+                new Checkpoint(backlog.validity(), uids[uids.length - 1], backlog.since())
+            );
+        };
+        if (parallel && this.catchup.applies(backlog.size())) {
+            final int size = backlog.size();
+            Logger.info(this, "Catching up %d new emails of %s", size, backlog.name());
+            this.catchup.apply(this.inbox, chunks, ordered);
+        } else {
+            for (final Inbox.Action<T> chunk : chunks) {
+                ordered.accept(this.inbox.apply(chunk));
+            }
+        }
+        if (backlog.moved()) {
+            this.checkpoints.save(
+                backlog.name(),
+                new Checkpoint(backlog.validity(), backlog.last(), backlog.modseq())
+            );
+        }
+        return backlog.size();
+    }
+
+    /**
+     * List new messages of an opened folder, matching rules.
+     * @param folder Opened folder
+     * @return Backlog of new messages
+     * @throws MessagingException If mail operation fails
+     * @throws IOException If fails
+     */
+    private UidSync.Backlog backlog(final Folder folder) throws MessagingException, IOException {
+        if (!(folder instanceof UIDFolder)) {
+            throw new IllegalStateException(
+                String.format("Folder %s doesn't support UIDs", folder.getURLName())
+            );
+        }
+        final UIDFolder uids = (UIDFolder) folder;
+        final long validity = uids.getUIDValidity();
+        final String name = folder.getFullName();
+        final Checkpoint checkpoint = this.checkpoints.checkpoint(name);
+        final long from = checkpoint.next(validity);
+        final long since = checkpoint.since(validity);
+        final long listing = System.nanoTime();
+        final UidSync.Listing listed = UidSync.list(folder, from, since);
+        this.timer.since(listing);
+        final List<Message> fresh = new ArrayList<>(0);
+        for (final Message msg : listed.messages()) {
+            if (msg != null && uids.getUID(msg) >= from) {
+                fresh.add(msg);
+            }
+        }
+        final Message[] matching = this.matching(folder, fresh);
+        final long[] numbers = new long[matching.length];
+        for (int idx = 0; idx < matching.length; ++idx) {
+            numbers[idx] = uids.getUID(matching[idx]);
+        }
+        Arrays.sort(numbers);
+        long last = 0L;
+        if (!fresh.isEmpty()) {
+            last = uids.getUID(fresh.get(fresh.size() - 1));
+        }
+        return new UidSync.Backlog(
+            name, numbers, last, checkpoint, new Checkpoint(validity, 0L, listed.modseq())
+        );
+    }
+
+    /**
+     * List messages from a UID on, changed since a MODSEQ if server
+     * is capable of CONDSTORE.
+     * @param folder Opened folder
+     * @param from First UID
+     * @param since MODSEQ of last listing, zero if unknown
+     * @return Listing
+     * @throws MessagingException If mail operation fails
+     */
+    private static UidSync.Listing list(final Folder folder, final long from, final long since)
+        throws MessagingException {
+        final UIDFolder uids = (UIDFolder) folder;
+        final UidSync.Listing listing;
+        if (folder instanceof IMAPFolder
+            && ((IMAPStore) folder.getStore()).hasCapability(UidSync.CONDSTORE)) {
+            final long[] changed = (long[]) ((IMAPFolder) folder).doCommand(
+                protocol -> {
+                    final StringBuilder cmd = new StringBuilder(
+                        String.format("UID FETCH %d:* (UID MODSEQ)", from)
+                    );
+                    if (since > 0L) {
+                        cmd.append(String.format(" (CHANGEDSINCE %d)", since));
+                    }
+                    final Response[] responses = protocol.command(cmd.toString(), null);
+                    protocol.notifyResponseHandlers(responses);
+                    protocol.handleResult(responses[responses.length - 1]);
+                    return UidSync.changes(from, since, responses);
+                }
+            );
+            final Message[] messages;
+            if (changed.length > 1) {
+                final long[] sorted = Arrays.copyOfRange(changed, 1, changed.length);
+                Arrays.sort(sorted);
+                messages = uids.getMessagesByUID(sorted);
+            } else {
+                messages = new Message[0];
+            }
+            listing = new UidSync.Listing(messages, changed[0]);
+        } else {
+            listing = new UidSync.Listing(uids.getMessagesByUID(from, UIDFolder.LASTUID), 0L);
+        }
+        return listing;
+    }
+
+    /**
+     * UIDs listed by a FETCH, after their highest MODSEQ. Unsolicited
+     * responses about messages before the first UID are ignored.
+     * @param from First UID
+     * @param since MODSEQ of last listing, zero if unknown
+     * @param responses Responses of FETCH
+     * @return Highest MODSEQ, followed by UIDs
+     */
+    private static long[] changes(
+        final long from, final long since, final Response... responses
+    ) {
+        final long[] changes = new long[responses.length + 1];
+        changes[0] = since;
+        int count = 1;
+        for (final Response response : responses) {
+            if (response instanceof FetchResponse) {
+                final FetchResponse fetch = (FetchResponse) response;
+                final UID uid = fetch.getItem(UID.class);
+                final MODSEQ modseq = fetch.getItem(MODSEQ.class);
+                if (uid != null && uid.uid >= from) {
+                    changes[count] = uid.uid;
+                    ++count;
+                    if (modseq != null) {
+                        changes[0] = Math.max(changes[0], modseq.modseq);
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(changes, count);
+    }
+
+    /**
+     * New messages matching rules, searched by the server.
+     * @param folder Opened folder
+     * @param fresh New messages
+     * @return Messages matching, in ascending UID order
+     * @throws MessagingException If mail operation fails
+     */
+    private Message[] matching(final Folder folder, final List<Message> fresh)
+        throws MessagingException {
+        Message[] matching = fresh.toArray(new Message[0]);
+        if (this.rules.enabled() && matching.length > 0) {
+            final long start = System.nanoTime();
+            matching = folder.search(this.rules.term(), matching);
+            this.search.since(start);
+        }
+        return matching;
+    }
+
+    /**
+     * Handler of new messages.
+     *
+     * @since 0.1
+     */
+    public interface Handler {
+
+        /**
+         * Handle new messages, in ascending UID order. A batch may be
+         * handled again on a new connection, if the server dropped the
+         * first one half-way.
+         * @param folder Opened folder of messages
+         * @param messages New messages
+         * @throws MessagingException If mail operation fails
+         * @throws IOException If fails
+         */
+        void handle(Folder folder, Message... messages) throws MessagingException, IOException;
+    }
+
+    /**
+     * Fetch of a batch of new messages.
+     *
+     * @param <T> Type of fetched batches
+     * @since 0.1
+     */
+    public interface Fetch<T> {
+
+        /**
+         * Fetch new messages, maybe concurrently with other batches. A
+         * batch may be fetched again on a new connection, if the server
+         * dropped the first one half-way.
+         * @param folder Opened folder of messages
+         * @param messages New messages, in ascending UID order
+         * @return Fetched batch
+         * @throws MessagingException If mail operation fails
+         * @throws IOException If fails
+         */
+        T fetch(Folder folder, Message... messages) throws MessagingException, IOException;
+    }
+
+    /**
+     * New messages of a folder, listed at once.
+     *
+     * @since 0.1
+     */
+    private static final class Backlog {
+
+        /**
+         * Name of folder.
+         */
+        private final String folder;
+
+        /**
+         * UIDs of new messages matching rules, in ascending order.
+         */
+        private final long[] uids;
+
+        /**
+         * UID of last new message, matching rules or not, zero if none.
+         */
+        private final long tail;
+
+        /**
+         * Checkpoint the listing started from.
+         */
+        private final Checkpoint start;
+
+        /**
+         * UIDVALIDITY and MODSEQ of the listing.
+         */
+        private final Checkpoint listed;
+
+        /**
+         * Ctor.
+         * @param folder Name of folder
+         * @param uids UIDs of new messages matching rules, in ascending order
+         * @param tail UID of last new message, zero if none
+         * @param start Checkpoint the listing started from
+         * @param listed UIDVALIDITY and MODSEQ of the listing
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Backlog(
+            final String folder, final long[] uids, final long tail,
+            final Checkpoint start, final Checkpoint listed
+        ) {
+            this.folder = folder;
+            this.uids = uids.clone();
+            this.tail = tail;
+            this.start = start;
+            this.listed = listed;
+        }
+
+        /**
+         * Name of folder.
+         * @return Name
+         */
+        String name() {
+            return this.folder;
+        }
+
+        /**
+         * UIDVALIDITY of folder.
+         * @return UIDVALIDITY
+         */
+        long validity() {
+            return this.listed.validity();
+        }
+
+        /**
+         * Number of new messages matching rules.
+         * @return Number
+         */
+        int size() {
+            return this.uids.length;
+        }
+
+        /**
+         * UID of last new message.
+         * @return UID, or last UID of checkpoint if none
+         */
+        long last() {
+            return Math.max(this.tail, this.start.next(this.validity()) - 1L);
+        }
+
+        /**
+         * MODSEQ of checkpoint, kept until all new messages are handled.
+         * @return MODSEQ, zero if unknown
+         */
+        long since() {
+            return this.start.since(this.validity());
+        }
+
+        /**
+         * MODSEQ once all new messages are handled.
+         * @return MODSEQ, zero if unknown
+         */
+        long modseq() {
+            return this.listed.modseq();
+        }
+
+        /**
+         * Whether checkpoint must be moved once all new messages are
+         * handled, because the last ones don't match rules, or MODSEQ
+         * changed.
+         * @return True if so
+         */
+        boolean moved() {
+            return this.since() != this.modseq()
+                || this.tail > 0L
+                && (this.uids.length == 0 || this.uids[this.uids.length - 1] < this.tail);
+        }
+
+        /**
+         * UIDs of new messages, in batches.
+         * @param size Maximum number of UIDs per batch
+         * @return Batches, in ascending UID order
+         */
+        List<long[]> chunks(final int size) {
+            final List<long[]> chunks = new ArrayList<>(this.uids.length / size + 1);
+            for (int start = 0; start < this.uids.length; start += size) {
+                chunks.add(
+                    Arrays.copyOfRange(
+                        this.uids, start, Math.min(start + size, this.uids.length)
+                    )
+                );
+            }
+            return chunks;
+        }
+
+        /**
+         * Messages of UIDs, in an opened folder.
+         * @param opened Opened folder, maybe over another connection
+         * @param batch UIDs
+         * @return Messages still there, in ascending UID order
+         * @throws MessagingException If mail operation fails
+         */
+        Message[] messages(final Folder opened, final long... batch)
+            throws MessagingException {
+            final UIDFolder box = (UIDFolder) opened;
+            if (box.getUIDValidity() != this.validity()) {
+                throw new MessagingException(
+                    String.format("UIDVALIDITY of %s changed during sync", this.folder)
+                );
+            }
+            final List<Message> found = new ArrayList<>(batch.length);
+            for (final Message msg : box.getMessagesByUID(batch)) {
+                if (msg != null) {
+                    found.add(msg);
+                }
+            }
+            return found.toArray(new Message[0]);
+        }
+    }
+
+    /**
+     * Messages listed from a UID on, with their highest MODSEQ.
+     *
+     * @since 0.1
+     */
+    private static final class Listing {
+
+        /**
+         * Messages.
+         */
+        private final Message[] msgs;
+
+        /**
+         * Highest MODSEQ.
+         */
+        private final long seq;
+
+        /**
+         * Ctor.
+         * @param messages Messages
+         * @param modseq Highest MODSEQ, zero if unknown
+         */
+        Listing(final Message[] messages, final long modseq) {
+            this.msgs = messages.clone();
+            this.seq = modseq;
+        }
+
+        /**
+         * Messages.
+         * @return Messages, some null if gone
+         */
+        Message[] messages() {
+            return this.msgs.clone();
+        }
+
+        /**
+         * Highest MODSEQ.
+         * @return MODSEQ, zero if unknown
+         */
+        long modseq() {
+            return this.seq;
+        }
+    }
+}
@@ -16,16 +16,8 @@
  */
 package com.endeavourmining.reportbot;
 
+import com.endeavourmining.reportbot.journey.ScanEvent;
 import java.io.IOException;
-import java.util.Properties;
-import javax.mail.Flags;
-import javax.mail.Folder;
-import javax.mail.Message;
-import javax.mail.MessagingException;
-import javax.mail.PasswordAuthentication;
-import javax.mail.Session;
-import javax.mail.Store;
-import javax.mail.search.FlagTerm;
 
 /**
  * Unread emails.
@@ -35,29 +27,14 @@ import javax.mail.search.FlagTerm;
 public final class UnreadEmails implements Mailbox {
 
     /**
-     * Username or mail address.
+     * Inbox.
      */
-    private final String login;
+    private final Inbox inbox;
 
     /**
-     * Password.
+     * Count strategy.
      */
-    private final String password;
-
-    /**
-     * Host.
-     */
-    private final String host;
-
-    /**
-     * Protocol.
-     */
-    private final String protocol;
-
-    /**
-     * Port.
-     */
-    private final int port;
+    private final UnreadCount strategy;
 
     /**
      * Ctor.
@@ -72,54 +49,35 @@ public final class UnreadEmails implements Mailbox {
         final String host, final String protocol, final int port,
         final String login, final String password
     ) {
-        this.host = host;
-        this.protocol = protocol;
-        this.port = port;
-        this.login = login;
-        this.password = password;
+        this(
+            new ReadOnlyInbox(new ImapAccount(host, protocol, port, login, password))
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param inbox Inbox
+     */
+    public UnreadEmails(final Inbox inbox) {
+        this(inbox, new CapableUnreadCount());
+    }
+
+    /**
+     * Ctor.
+     * @param inbox Inbox
+     * @param strategy Count strategy
+     */
+    public UnreadEmails(final Inbox inbox, final UnreadCount strategy) {
+        this.inbox = inbox;
+        this.strategy = strategy;
     }
 
     @Override
-    @SuppressWarnings("PMD.AvoidDuplicateLiterals")
     public int count() throws IOException {
-        final Properties props = System.getProperties();
-        props.setProperty(
-            String.format("mail.%s.socketFactory.fallback", this.protocol), "false"
-        );
-        props.setProperty(
-            String.format("mail.%s.port", this.protocol), String.valueOf(this.port)
-        );
-        props.setProperty(
-            String.format("mail.%s.socketFactory.port", this.protocol),
-            String.valueOf(this.port)
-        );
-        props.put(
-            String.format("mail.%s.host", this.protocol), this.host
-        );
-        final Session session = Session.getInstance(
-            props,
-            new javax.mail.Authenticator() {
-                protected PasswordAuthentication getPasswordAuthentication() {
-                    return new PasswordAuthentication(
-                        UnreadEmails.this.login,
-                        UnreadEmails.this.password
-                    );
-                }
-            }
-        );
-        try {
-            final Store store = session.getStore(this.protocol);
-            store.connect();
-            final Folder folder = store.getFolder("INBOX");
-            folder.open(Folder.READ_WRITE);
-            final Message[] messages = folder.search(
-                new FlagTerm(new Flags(Flags.Flag.SEEN), false)
-            );
-            folder.close(false);
-            store.close();
-            return messages.length;
-        } catch (final MessagingException exe) {
-            throw new IOException(exe);
-        }
+        final ScanEvent event = new ScanEvent(this.inbox.toString());
+        event.begin();
+        final int count = this.inbox.apply(new Idempotent<>(this.strategy::value));
+        event.commit(count);
+        return count;
     }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Settings file watched for changes.
+ *
+ * <p>File is compiled into an immutable {@link CompiledSettings} snapshot,
+ * swapped atomically each time the file is created or modified. If the new
+ * file is not valid, the failure is logged and the previous snapshot is
+ * kept. Accessors delegate to the current snapshot: to read several values
+ * consistently, read them from one {@link #snapshot()}.</p>
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class WatchedSettings implements Settings, Closeable {
+
+    /**
+     * Settings file.
+     */
+    private final Path path;
+
+    /**
+     * Current snapshot.
+     */
+    private final AtomicReference<Settings> current;
+
+    /**
+     * Watcher of directory of file.
+     */
+    private final WatchService watcher;
+
+    /**
+     * Watching thread.
+     */
+    private final ExecutorService thread;
+
+    /**
+     * Ctor.
+     * @param path Settings file
+     * @throws IOException If fails to read file
+     * @throws IllegalArgumentException If settings are not valid
+     */
+    public WatchedSettings(final Path path) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.current = new AtomicReference<>(WatchedSettings.compile(path));
+        this.watcher = path.getFileSystem().newWatchService();
+        this.thread = Executors.newSingleThreadExecutor(
+            runnable -> {
+                final Thread daemon = new Thread(runnable, "settings");
+                daemon.setDaemon(true);
+                return daemon;
+            }
+        );
+    }
+
+    /**
+     * Start watching file.
+     * @return This
+     * @throws IOException If fails
+     */
+    public WatchedSettings start() throws IOException {
+        this.path.getParent().register(
+            this.watcher,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY
+        );
+        this.thread.execute(this::watch);
+        return this;
+    }
+
+    /**
+     * Current snapshot.
+     * @return Immutable settings
+     */
+    public Settings snapshot() {
+        return this.current.get();
+    }
+
+    /**
+     * Compile file again and swap snapshot.
+     * @return True if swapped, false if file is not valid
+     * @checkstyle IllegalCatchCheck (15 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public boolean reload() {
+        boolean swapped = false;
+        try {
+            this.current.set(WatchedSettings.compile(this.path));
+            swapped = true;
+            Logger.info(this, "Settings reloaded from %s", this.path);
+        } catch (final IOException | RuntimeException ex) {
+            Logger.warn(
+                this, "Settings of %s kept, new ones are not valid: %[exception]s",
+                this.path, ex
+            );
+        }
+        return swapped;
+    }
+
+    @Override
+    public MailSettings mailSettings() {
+        return this.current.get().mailSettings();
+    }
+
+    @Override
+    public List<MailSettings> mailboxes() {
+        return this.current.get().mailboxes();
+    }
+
+    @Override
+    public RuleSettings ruleSettings() {
+        return this.current.get().ruleSettings();
+    }
+
+    @Override
+    public PipelineSettings pipelineSettings() {
+        return this.current.get().pipelineSettings();
+    }
+
+    @Override
+    public ReportSettings reportSettings() {
+        return this.current.get().reportSettings();
+    }
+
+    @Override
+    public ScheduleSettings scheduleSettings() {
+        return this.current.get().scheduleSettings();
+    }
+
+    @Override
+    public MetricsSettings metricsSettings() {
+        return this.current.get().metricsSettings();
+    }
+
+    @Override
+    public PowerBiSettings powerBiSettings() {
+        return this.current.get().powerBiSettings();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.thread.shutdownNow();
+        this.watcher.close();
+    }
+
+    /**
+     * Reload settings each time file changes, until closed.
+     */
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final WatchKey key = this.watcher.take();
+                boolean changed = false;
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    changed |= this.path.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    this.reload();
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (final ClosedWatchServiceException ex) {
+            Logger.debug(this, "Watch of %s closed", this.path);
+        }
+    }
+
+    /**
+     * Compile settings file.
+     * @param path Settings file
+     * @return Snapshot
+     * @throws IOException If fails
+     */
+    private static Settings compile(final Path path) throws IOException {
+        return new CompiledSettings(new SettingsFromPath(path));
+    }
+}
@@ -17,6 +17,7 @@
 package com.endeavourmining.reportbot;
 
 import com.amihaiemil.eoyaml.YamlMapping;
+import java.time.Duration;
 
 /**
  * IMAP settings in YAML.
@@ -26,13 +27,28 @@ import com.amihaiemil.eoyaml.YamlMapping;
 public final class YamlImapServerSettings implements MailServerSettings {
 
     /**
-     * YAML content.
+     * Port key.
+     */
+    private static final String PORT_KEY = "port";
+
+    /**
+     * Default connect timeout, in milliseconds.
+     */
+    private static final int CONNECT = 30_000;
+
+    /**
+     * Default read timeout, in milliseconds.
+     */
+    private static final int READ = 120_000;
+
+    /**
+     * YAML content, null if missing.
      */
     private final YamlMapping content;
 
     /**
      * Ctor.
-     * @param content YAML content
+     * @param content YAML content, null if missing
      */
     public YamlImapServerSettings(final YamlMapping content) {
         this.content = content;
@@ -40,16 +56,19 @@ public final class YamlImapServerSettings implements MailServerSettings {
 
     @Override
     public String host() {
-        return this.content.string("host");
+        String host = null;
+        if (this.content != null) {
+            host = this.content.string("host");
+        }
+        return host;
     }
 
     @Override
     public String protocol() {
         final String ptl;
         if (
-            Boolean.parseBoolean(
-                this.content.string("ssl_tls")
-            )
+            this.content != null
+                && Boolean.parseBoolean(this.content.string("ssl_tls"))
         ) {
             ptl = "imaps";
         } else {
@@ -60,6 +79,34 @@ public final class YamlImapServerSettings implements MailServerSettings {
 
     @Override
     public int port() {
-        return this.content.integer("port");
+        int port = 0;
+        if (this.content != null && this.content.string(YamlImapServerSettings.PORT_KEY) != null) {
+            port = this.content.integer(YamlImapServerSettings.PORT_KEY);
+        }
+        return port;
+    }
+
+    @Override
+    public Duration connectTimeout() {
+        return Duration.ofMillis(this.number("connect_timeout", YamlImapServerSettings.CONNECT));
+    }
+
+    @Override
+    public Duration readTimeout() {
+        return Duration.ofMillis(this.number("read_timeout", YamlImapServerSettings.READ));
+    }
+
+    /**
+     * Number.
+     * @param key Key
+     * @param def Default value
+     * @return Value or default if missing
+     */
+    private int number(final String key, final int def) {
+        int value = def;
+        if (this.content != null && this.content.string(key) != null) {
+            value = this.content.integer(key);
+        }
+        return value;
     }
 }
@@ -30,6 +30,11 @@ public final class YamlMailSettings implements MailSettings {
      */
     private static final String CREDENTIALS = "credentials";
 
+    /**
+     * Address.
+     */
+    private static final String ADDRESS_KEY = "address";
+
     /**
      * YAML file content.
      */
@@ -52,9 +57,13 @@ public final class YamlMailSettings implements MailSettings {
 
     @Override
     public String address() {
-        return this.content.yamlMapping(
-            YamlMailSettings.CREDENTIALS
-        ).string("address");
+        String address = this.content.string(YamlMailSettings.ADDRESS_KEY);
+        if (address == null) {
+            address = this.content.yamlMapping(
+                YamlMailSettings.CREDENTIALS
+            ).string(YamlMailSettings.ADDRESS_KEY);
+        }
+        return address;
     }
 
     @Override
@@ -64,6 +73,15 @@ public final class YamlMailSettings implements MailSettings {
         ).string("password");
     }
 
+    @Override
+    public String archive() {
+        String archive = this.content.string("archive");
+        if (archive == null) {
+            archive = "";
+        }
+        return archive;
+    }
+
     @Override
     public MailServerSettings smtpServerSettings() {
         return new YamlSmtpServerSettings(
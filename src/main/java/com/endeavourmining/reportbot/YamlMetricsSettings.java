@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.amihaiemil.eoyaml.YamlMapping;
+
+/**
+ * Exposure of metrics in YAML.
+ *
+ * <p>Without section or port, HTTP endpoint is disabled; metrics are
+ * still exposed through JMX.</p>
+ *
+ * @since 0.1
+ */
+public final class YamlMetricsSettings implements MetricsSettings {
+
+    /**
+     * Port key.
+     */
+    private static final String PORT_KEY = "port";
+
+    /**
+     * YAML content, null if missing.
+     */
+    private final YamlMapping content;
+
+    /**
+     * Ctor.
+     * @param content YAML content, null if missing
+     */
+    public YamlMetricsSettings(final YamlMapping content) {
+        this.content = content;
+    }
+
+    @Override
+    public int port() {
+        int port = 0;
+        if (this.content != null && this.content.string(YamlMetricsSettings.PORT_KEY) != null) {
+            port = this.content.integer(YamlMetricsSettings.PORT_KEY);
+        }
+        return port;
+    }
+}
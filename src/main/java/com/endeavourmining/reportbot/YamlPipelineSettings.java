@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.amihaiemil.eoyaml.YamlMapping;
+
+/**
+ * Pipeline settings in YAML, defaults when missing.
+ *
+ * @since 0.1
+ */
+public final class YamlPipelineSettings implements PipelineSettings {
+
+    /**
+     * Default capacity of queues.
+     */
+    private static final int CAPACITY = 16;
+
+    /**
+     * Default rows of batches.
+     */
+    private static final int ROWS = 4096;
+
+    /**
+     * Default connections per mail server.
+     */
+    private static final int CONNECTIONS = 4;
+
+    /**
+     * Default new emails of a backlog.
+     */
+    private static final int EMAILS = 1000;
+
+    /**
+     * YAML content, null if missing.
+     */
+    private final YamlMapping content;
+
+    /**
+     * Ctor.
+     * @param content YAML content, null if missing
+     */
+    public YamlPipelineSettings(final YamlMapping content) {
+        this.content = content;
+    }
+
+    @Override
+    public int threads(final String stage) {
+        return this.number(stage, 1);
+    }
+
+    @Override
+    public int queue() {
+        return this.number("queue", YamlPipelineSettings.CAPACITY);
+    }
+
+    @Override
+    public int batch() {
+        return this.number("batch", YamlPipelineSettings.ROWS);
+    }
+
+    @Override
+    public int hostConnections() {
+        return this.number("host_connections", YamlPipelineSettings.CONNECTIONS);
+    }
+
+    @Override
+    public int catchUp() {
+        return this.number("catch_up", 1);
+    }
+
+    @Override
+    public int backlog() {
+        return this.number("backlog", YamlPipelineSettings.EMAILS);
+    }
+
+    /**
+     * Positive number.
+     * @param key Key
+     * @param def Default value
+     * @return Value or default if missing
+     */
+    private int number(final String key, final int def) {
+        int value = def;
+        if (this.content != null && this.content.string(key) != null) {
+            value = this.content.integer(key);
+        }
+        if (value < 1) {
+            throw new IllegalArgumentException(
+                String.format("Pipeline setting '%s' must be positive, not %d", key, value)
+            );
+        }
+        return value;
+    }
+}
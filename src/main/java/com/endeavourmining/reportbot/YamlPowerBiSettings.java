@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.amihaiemil.eoyaml.YamlMapping;
+import java.time.Duration;
+
+/**
+ * Power BI push dataset in YAML.
+ *
+ * <p>Rows are added to table {@code table} of dataset {@code dataset}, in
+ * workspace {@code group} or in "My workspace" without group. Defaults
+ * follow push dataset limits: 10,000 rows per request. Backoff and
+ * timeouts are in milliseconds.</p>
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class YamlPowerBiSettings implements PowerBiSettings {
+
+    /**
+     * Default REST API root.
+     */
+    private static final String API = "https://api.powerbi.com/v1.0/myorg";
+
+    /**
+     * Default rows per request, limit of the service.
+     */
+    private static final int LIMIT = 10_000;
+
+    /**
+     * Default requests in flight.
+     */
+    private static final int FLIGHT = 4;
+
+    /**
+     * Default retries.
+     */
+    private static final int ATTEMPTS = 5;
+
+    /**
+     * Default backoff, in milliseconds.
+     */
+    private static final int DELAY = 1000;
+
+    /**
+     * Default longest backoff, in milliseconds.
+     */
+    private static final int LONGEST = 60_000;
+
+    /**
+     * Default connect timeout, in milliseconds.
+     */
+    private static final int CONNECT = 10_000;
+
+    /**
+     * Default read timeout, in milliseconds.
+     */
+    private static final int READ = 60_000;
+
+    /**
+     * Dataset key.
+     */
+    private static final String DATASET = "dataset";
+
+    /**
+     * YAML content, null if missing.
+     */
+    private final YamlMapping content;
+
+    /**
+     * Ctor.
+     * @param content YAML content, null if missing
+     */
+    public YamlPowerBiSettings(final YamlMapping content) {
+        this.content = content;
+    }
+
+    @Override
+    public boolean enabled() {
+        return this.content != null && this.content.string(YamlPowerBiSettings.DATASET) != null;
+    }
+
+    @Override
+    public String rowsUrl() {
+        final StringBuilder url = new StringBuilder(this.text("api", YamlPowerBiSettings.API));
+        final String group = this.text("group", "");
+        if (!group.isEmpty()) {
+            url.append("/groups/").append(group);
+        }
+        final String table = this.text("table", "");
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("Power BI table is missing");
+        }
+        return url.append("/datasets/").append(this.text(YamlPowerBiSettings.DATASET, ""))
+            .append("/tables/").append(table)
+            .append("/rows")
+            .toString();
+    }
+
+    @Override
+    public String token() {
+        return this.text("token", "");
+    }
+
+    @Override
+    public int rows() {
+        return this.number("rows", YamlPowerBiSettings.LIMIT);
+    }
+
+    @Override
+    public int inFlight() {
+        return this.number("in_flight", YamlPowerBiSettings.FLIGHT);
+    }
+
+    @Override
+    public int retries() {
+        return this.number("retries", YamlPowerBiSettings.ATTEMPTS);
+    }
+
+    @Override
+    public Duration backoff() {
+        return Duration.ofMillis(this.number("backoff", YamlPowerBiSettings.DELAY));
+    }
+
+    @Override
+    public Duration maxBackoff() {
+        return Duration.ofMillis(this.number("max_backoff", YamlPowerBiSettings.LONGEST));
+    }
+
+    @Override
+    public Duration connectTimeout() {
+        return Duration.ofMillis(this.number("connect_timeout", YamlPowerBiSettings.CONNECT));
+    }
+
+    @Override
+    public Duration readTimeout() {
+        return Duration.ofMillis(this.number("read_timeout", YamlPowerBiSettings.READ));
+    }
+
+    @Override
+    public String removedColumn() {
+        return this.text("removed", "");
+    }
+
+    @Override
+    public String receivedColumn() {
+        return this.text("received", "");
+    }
+
+    /**
+     * Text.
+     * @param key Key
+     * @param def Default value
+     * @return Value or default if missing
+     */
+    private String text(final String key, final String def) {
+        String value = null;
+        if (this.content != null) {
+            value = this.content.string(key);
+        }
+        if (value == null) {
+            value = def;
+        }
+        return value;
+    }
+
+    /**
+     * Number.
+     * @param key Key
+     * @param def Default value
+     * @return Value or default if missing
+     */
+    private int number(final String key, final int def) {
+        int value = def;
+        if (this.content != null && this.content.string(key) != null) {
+            value = this.content.integer(key);
+        }
+        return value;
+    }
+}
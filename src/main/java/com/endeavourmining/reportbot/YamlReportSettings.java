@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.amihaiemil.eoyaml.YamlMapping;
+import com.amihaiemil.eoyaml.YamlNode;
+import com.endeavourmining.reportbot.report.Column;
+import com.endeavourmining.reportbot.report.ColumnType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Report layout in YAML.
+ *
+ * <p>Columns are listed in sheet order, starting at column A, each with
+ * a name and a type: {@code number}, {@code integer} or {@code text}.
+ * Without layout, one header row is skipped and no column is read.
+ * Columns of natural key, if any, are listed by name under {@code key}.</p>
+ *
+ * @since 0.1
+ */
+public final class YamlReportSettings implements ReportSettings {
+
+    /**
+     * Header key.
+     */
+    private static final String SKIP = "header";
+
+    /**
+     * Columns key.
+     */
+    private static final String LAYOUT = "columns";
+
+    /**
+     * Natural key key.
+     */
+    private static final String NATURAL = "key";
+
+    /**
+     * YAML content, null if missing.
+     */
+    private final YamlMapping content;
+
+    /**
+     * Ctor.
+     * @param content YAML content, null if missing
+     */
+    public YamlReportSettings(final YamlMapping content) {
+        this.content = content;
+    }
+
+    @Override
+    public int header() {
+        int rows = 1;
+        if (this.content != null && this.content.string(YamlReportSettings.SKIP) != null) {
+            rows = this.content.integer(YamlReportSettings.SKIP);
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Column> columns() {
+        final List<Column> columns = new ArrayList<>(0);
+        if (this.content != null
+            && this.content.yamlSequence(YamlReportSettings.LAYOUT) != null) {
+            for (final YamlNode node
+                : this.content.yamlSequence(YamlReportSettings.LAYOUT).values()) {
+                final YamlMapping column = node.asMapping();
+                columns.add(
+                    new Column(
+                        column.string("name"), columns.size(),
+                        ColumnType.valueOf(column.string("type").toUpperCase(Locale.ENGLISH))
+                    )
+                );
+            }
+        }
+        return Collections.unmodifiableList(columns);
+    }
+
+    @Override
+    public List<String> key() {
+        final List<String> names = new ArrayList<>(0);
+        if (this.content != null
+            && this.content.yamlSequence(YamlReportSettings.NATURAL) != null) {
+            for (final YamlNode node
+                : this.content.yamlSequence(YamlReportSettings.NATURAL).values()) {
+                names.add(node.asScalar().value());
+            }
+        }
+        return Collections.unmodifiableList(names);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.amihaiemil.eoyaml.YamlMapping;
+import com.amihaiemil.eoyaml.YamlNode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rules of candidate reports in YAML.
+ *
+ * <p>Without section, every new email is a candidate.</p>
+ *
+ * @since 0.1
+ */
+public final class YamlRuleSettings implements RuleSettings {
+
+    /**
+     * Window key.
+     */
+    private static final String DAYS = "days";
+
+    /**
+     * Attachments key.
+     */
+    private static final String ATTACHED = "attachments";
+
+    /**
+     * YAML content, null if missing.
+     */
+    private final YamlMapping content;
+
+    /**
+     * Ctor.
+     * @param content YAML content, null if missing
+     */
+    public YamlRuleSettings(final YamlMapping content) {
+        this.content = content;
+    }
+
+    @Override
+    public List<String> senders() {
+        return this.values("senders");
+    }
+
+    @Override
+    public List<String> subjects() {
+        return this.values("subjects");
+    }
+
+    @Override
+    public Duration window() {
+        Duration window = Duration.ZERO;
+        if (this.content != null && this.content.string(YamlRuleSettings.DAYS) != null) {
+            window = Duration.ofDays(this.content.integer(YamlRuleSettings.DAYS));
+        }
+        return window;
+    }
+
+    @Override
+    public boolean attachments() {
+        return this.content != null
+            && Boolean.parseBoolean(this.content.string(YamlRuleSettings.ATTACHED));
+    }
+
+    /**
+     * Values of a sequence.
+     * @param key Key of sequence
+     * @return Values, empty if missing
+     */
+    private List<String> values(final String key) {
+        final List<String> values = new ArrayList<>(0);
+        if (this.content != null && this.content.yamlSequence(key) != null) {
+            for (final YamlNode node : this.content.yamlSequence(key).values()) {
+                values.add(node.asScalar().value());
+            }
+        }
+        return Collections.unmodifiableList(values);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.amihaiemil.eoyaml.YamlMapping;
+import java.time.Duration;
+
+/**
+ * Schedule of polls in YAML.
+ *
+ * <p>Intervals are in seconds. Peak hours are a comma-separated list of
+ * hours or ranges of hours, like {@code 6-10, 17}: range {@code 6-10}
+ * starts at 06:00 and ends at 10:00. Without schedule, mailboxes are
+ * polled every minute and at least every 30 minutes, with no peak hours
+ * and intervals spread by 10%, and watched with IMAP IDLE.</p>
+ *
+ * @since 0.1
+ */
+public final class YamlScheduleSettings implements ScheduleSettings {
+
+    /**
+     * Default interval, in seconds.
+     */
+    private static final int MINUTE = 60;
+
+    /**
+     * Default longest interval, in seconds.
+     */
+    private static final int HALF_HOUR = 1800;
+
+    /**
+     * Default jitter, in percent.
+     */
+    private static final int SPREAD = 10;
+
+    /**
+     * Peak hours key.
+     */
+    private static final String HOURS = "peak_hours";
+
+    /**
+     * Jitter key.
+     */
+    private static final String RANDOM = "jitter";
+
+    /**
+     * Push key.
+     */
+    private static final String WATCH = "push";
+
+    /**
+     * Hours in a day.
+     */
+    private static final int DAY = 24;
+
+    /**
+     * YAML content, null if missing.
+     */
+    private final YamlMapping content;
+
+    /**
+     * Ctor.
+     * @param content YAML content, null if missing
+     */
+    public YamlScheduleSettings(final YamlMapping content) {
+        this.content = content;
+    }
+
+    @Override
+    public Duration interval() {
+        return Duration.ofSeconds(this.number("interval", YamlScheduleSettings.MINUTE));
+    }
+
+    @Override
+    public Duration maxInterval() {
+        return Duration.ofSeconds(
+            this.number("max_interval", YamlScheduleSettings.HALF_HOUR)
+        );
+    }
+
+    @Override
+    public boolean peak(final int hour) {
+        String hours = null;
+        if (this.content != null) {
+            hours = this.content.string(YamlScheduleSettings.HOURS);
+        }
+        boolean peak = false;
+        if (hours != null) {
+            for (final String item : hours.split(",")) {
+                final String[] range = item.trim().split("-");
+                final int from = YamlScheduleSettings.hour(range[0]);
+                int until = from + 1;
+                if (range.length > 1) {
+                    until = YamlScheduleSettings.hour(range[1]);
+                }
+                peak |= hour >= from && hour < until;
+            }
+        }
+        return peak;
+    }
+
+    @Override
+    public int jitter() {
+        int jitter = YamlScheduleSettings.SPREAD;
+        if (this.content != null && this.content.string(YamlScheduleSettings.RANDOM) != null) {
+            jitter = this.content.integer(YamlScheduleSettings.RANDOM);
+        }
+        return jitter;
+    }
+
+    @Override
+    public boolean push() {
+        return this.content == null
+            || this.content.string(YamlScheduleSettings.WATCH) == null
+            || Boolean.parseBoolean(this.content.string(YamlScheduleSettings.WATCH));
+    }
+
+    /**
+     * Number.
+     * @param key Key
+     * @param def Default value
+     * @return Value or default if missing
+     */
+    private long number(final String key, final int def) {
+        long value = def;
+        if (this.content != null && this.content.string(key) != null) {
+            value = this.content.longNumber(key);
+        }
+        return value;
+    }
+
+    /**
+     * Parse hour.
+     * @param text Text
+     * @return Hour, from 0 to 24
+     */
+    private static int hour(final String text) {
+        final int hour = Integer.parseInt(text.trim());
+        if (hour < 0 || hour > YamlScheduleSettings.DAY) {
+            throw new IllegalArgumentException(
+                String.format("Peak hour %d is not an hour of day", hour)
+            );
+        }
+        return hour;
+    }
+}
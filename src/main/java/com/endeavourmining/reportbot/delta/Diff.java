@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.delta;
+
+import com.endeavourmining.reportbot.report.ReportBatch;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Diff of a report being parsed against its previous version.
+ *
+ * <p>Batches are filtered in place, keeping only rows inserted or changed
+ * since the previous version. Once all rows went through, rows of the
+ * previous version not seen again are the ones removed. Without natural
+ * key, batches are left untouched. A diff is not thread safe: a report is
+ * parsed by a single thread.</p>
+ *
+ * @since 0.1
+ */
+public final class Diff {
+
+    /**
+     * Initial capacity of new version.
+     */
+    private static final int CAPACITY = 64;
+
+    /**
+     * Hashes of rows.
+     */
+    private final RowHashes hashes;
+
+    /**
+     * Previous version.
+     */
+    private final Version base;
+
+    /**
+     * Rows of previous version seen again.
+     */
+    private final BitSet matched;
+
+    /**
+     * Rows of batch to keep.
+     */
+    private final BitSet keep;
+
+    /**
+     * Hashes of natural keys of new version.
+     */
+    private long[] keys;
+
+    /**
+     * Hashes of rows of new version.
+     */
+    private long[] rows;
+
+    /**
+     * Texts of key cells of new version.
+     */
+    private String[][] cells;
+
+    /**
+     * Number of rows of new version.
+     */
+    private int size;
+
+    /**
+     * Ctor.
+     * @param hashes Hashes of rows
+     * @param base Previous version
+     */
+    public Diff(final RowHashes hashes, final Version base) {
+        this.hashes = hashes;
+        this.base = base;
+        this.matched = new BitSet(base.size());
+        this.keep = new BitSet();
+        this.keys = new long[Diff.CAPACITY];
+        this.rows = new long[Diff.CAPACITY];
+        this.cells = new String[Diff.CAPACITY][];
+    }
+
+    /**
+     * Whether rows are diffed.
+     * @return True if a natural key is set
+     */
+    public boolean enabled() {
+        return this.hashes.enabled();
+    }
+
+    /**
+     * Keep only rows inserted or changed, recording all rows.
+     * @param batch Batch of rows parsed
+     */
+    public void retain(final ReportBatch batch) {
+        if (this.enabled()) {
+            this.keep.clear();
+            for (int row = 0; row < batch.size(); ++row) {
+                final int recorded = this.record(batch, row);
+                final int idx = this.base.find(this.keys[recorded]);
+                if (idx < 0 || this.base.row(idx) != this.rows[recorded]) {
+                    this.keep.set(row);
+                }
+                if (idx >= 0) {
+                    this.matched.set(idx);
+                }
+            }
+            batch.retain(this.keep);
+        }
+    }
+
+    /**
+     * Key cells of rows removed since previous version.
+     * @return Texts of key cells, null for blank cells
+     */
+    public List<String[]> removed() {
+        final List<String[]> removed = new ArrayList<>(0);
+        if (this.enabled()) {
+            for (int idx = this.matched.nextClearBit(0); idx < this.base.size();
+                idx = this.matched.nextClearBit(idx + 1)) {
+                removed.add(this.base.cells(idx));
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Append a removed row to a batch, with key cells only.
+     * @param batch Batch, not full
+     * @param removed Texts of key cells, see {@link #removed()}
+     */
+    public void restore(final ReportBatch batch, final String... removed) {
+        this.hashes.restore(batch, removed);
+    }
+
+    /**
+     * New version, of all rows seen so far.
+     * @return Version
+     */
+    public Version version() {
+        return new Version(this.keys, this.rows, this.cells, this.size);
+    }
+
+    /**
+     * Record a row of new version.
+     * @param batch Batch
+     * @param row Row index
+     * @return Index of row in new version
+     */
+    private int record(final ReportBatch batch, final int row) {
+        if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.size * 2);
+            this.rows = Arrays.copyOf(this.rows, this.size * 2);
+            this.cells = Arrays.copyOf(this.cells, this.size * 2);
+        }
+        final int idx = this.size;
+        this.keys[idx] = this.hashes.key(batch, row);
+        this.rows[idx] = this.hashes.row(batch, row);
+        this.cells[idx] = this.hashes.cells(batch, row);
+        this.size += 1;
+        return idx;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.delta;
+
+import com.endeavourmining.reportbot.report.Column;
+import com.endeavourmining.reportbot.report.ColumnType;
+import com.endeavourmining.reportbot.report.ReportBatch;
+import java.util.List;
+
+/**
+ * Hashes of rows: of their natural key and of all their cells.
+ *
+ * <p>Hashes are 64-bit FNV-1a of cell values, finalized with the mixer of
+ * MurmurHash3, so they don't depend on dictionary codes of a run and
+ * survive restarts. Key cells are also kept as texts, to restore rows
+ * removed from a report.</p>
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class RowHashes {
+
+    /**
+     * FNV-1a offset basis.
+     */
+    private static final long BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * FNV-1a prime.
+     */
+    private static final long PRIME = 0x100000001b3L;
+
+    /**
+     * First multiplier of finalizer.
+     */
+    private static final long FIRST = 0xff51afd7ed558ccdL;
+
+    /**
+     * Second multiplier of finalizer.
+     */
+    private static final long SECOND = 0xc4ceb9fe1a85ec53L;
+
+    /**
+     * Shift of finalizer.
+     */
+    private static final int SHIFT = 33;
+
+    /**
+     * Marker of a blank cell.
+     */
+    private static final long BLANK = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Mask of a byte.
+     */
+    private static final long BYTE = 0xffL;
+
+    /**
+     * Types of columns.
+     */
+    private final ColumnType[] types;
+
+    /**
+     * Indexes of key columns in batches.
+     */
+    private final int[] keys;
+
+    /**
+     * Ctor.
+     * @param columns Columns of batches
+     * @param key Names of columns of natural key, empty to disable deltas
+     * @throws IllegalArgumentException If a key column is unknown
+     */
+    public RowHashes(final List<Column> columns, final List<String> key) {
+        this.types = RowHashes.kinds(columns);
+        this.keys = RowHashes.indexes(columns, key);
+    }
+
+    /**
+     * Whether a natural key is set.
+     * @return True if rows can be diffed
+     */
+    public boolean enabled() {
+        return this.keys.length > 0;
+    }
+
+    /**
+     * Number of key columns.
+     * @return Count
+     */
+    public int width() {
+        return this.keys.length;
+    }
+
+    /**
+     * Hash of natural key of a row.
+     * @param batch Batch
+     * @param row Row index
+     * @return Hash
+     */
+    public long key(final ReportBatch batch, final int row) {
+        long hash = RowHashes.BASIS;
+        for (final int col : this.keys) {
+            hash = this.cell(hash, batch, col, row);
+        }
+        return RowHashes.mixed(hash);
+    }
+
+    /**
+     * Hash of all cells of a row.
+     * @param batch Batch
+     * @param row Row index
+     * @return Hash
+     */
+    public long row(final ReportBatch batch, final int row) {
+        long hash = RowHashes.BASIS;
+        for (int col = 0; col < this.types.length; ++col) {
+            hash = this.cell(hash, batch, col, row);
+        }
+        return RowHashes.mixed(hash);
+    }
+
+    /**
+     * Key cells of a row, as texts.
+     * @param batch Batch
+     * @param row Row index
+     * @return Texts, null for blank cells
+     */
+    public String[] cells(final ReportBatch batch, final int row) {
+        final String[] cells = new String[this.keys.length];
+        for (int idx = 0; idx < cells.length; ++idx) {
+            if (!batch.blank(this.keys[idx], row)) {
+                cells[idx] = this.text(batch, this.keys[idx], row);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Append a row with key cells only.
+     * @param batch Batch, not full
+     * @param cells Texts of key cells, null for blank cells
+     */
+    public void restore(final ReportBatch batch, final String... cells) {
+        final int row = batch.add(0);
+        for (int idx = 0; idx < cells.length; ++idx) {
+            if (cells[idx] != null) {
+                this.put(batch, this.keys[idx], row, cells[idx]);
+            }
+        }
+    }
+
+    /**
+     * Text of a cell, not blank.
+     * @param batch Batch
+     * @param col Column index
+     * @param row Row index
+     * @return Text
+     */
+    private String text(final ReportBatch batch, final int col, final int row) {
+        final String text;
+        if (this.types[col] == ColumnType.TEXT) {
+            text = batch.text(col, row);
+        } else if (this.types[col] == ColumnType.INTEGER) {
+            text = Long.toString(batch.integer(col, row));
+        } else {
+            text = Double.toString(batch.decimal(col, row));
+        }
+        return text;
+    }
+
+    /**
+     * Set a cell from its text.
+     * @param batch Batch
+     * @param col Column index
+     * @param row Row index
+     * @param text Text
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void put(final ReportBatch batch, final int col, final int row, final String text) {
+        if (this.types[col] == ColumnType.TEXT) {
+            batch.putText(col, row, text);
+        } else if (this.types[col] == ColumnType.INTEGER) {
+            batch.putInteger(col, row, Long.parseLong(text));
+        } else {
+            batch.putDecimal(col, row, Double.parseDouble(text));
+        }
+    }
+
+    /**
+     * Hash a cell.
+     * @param hash Hash so far
+     * @param batch Batch
+     * @param col Column index
+     * @param row Row index
+     * @return Hash
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private long cell(final long hash, final ReportBatch batch, final int col, final int row) {
+        long result = hash;
+        if (batch.blank(col, row)) {
+            result = RowHashes.word(result, RowHashes.BLANK);
+        } else if (this.types[col] == ColumnType.TEXT) {
+            final String text = batch.text(col, row);
+            for (int idx = 0; idx < text.length(); ++idx) {
+                result = (result ^ text.charAt(idx)) * RowHashes.PRIME;
+            }
+            result = RowHashes.word(result, text.length());
+        } else if (this.types[col] == ColumnType.INTEGER) {
+            result = RowHashes.word(result, batch.integer(col, row));
+        } else {
+            result = RowHashes.word(
+                result, Double.doubleToLongBits(batch.decimal(col, row))
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Hash the bytes of a word.
+     * @param hash Hash so far
+     * @param word Word
+     * @return Hash
+     */
+    private static long word(final long hash, final long word) {
+        long result = hash;
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            result = (result ^ (word >>> shift & RowHashes.BYTE)) * RowHashes.PRIME;
+        }
+        return result;
+    }
+
+    /**
+     * Finalize a hash, spreading its bits.
+     * @param hash Hash
+     * @return Mixed hash
+     */
+    private static long mixed(final long hash) {
+        long mixed = hash;
+        mixed ^= mixed >>> RowHashes.SHIFT;
+        mixed *= RowHashes.FIRST;
+        mixed ^= mixed >>> RowHashes.SHIFT;
+        mixed *= RowHashes.SECOND;
+        mixed ^= mixed >>> RowHashes.SHIFT;
+        return mixed;
+    }
+
+    /**
+     * Types of columns.
+     * @param columns Columns
+     * @return Types
+     */
+    private static ColumnType[] kinds(final List<Column> columns) {
+        final ColumnType[] types = new ColumnType[columns.size()];
+        for (int col = 0; col < types.length; ++col) {
+            types[col] = columns.get(col).type();
+        }
+        return types;
+    }
+
+    /**
+     * Indexes of key columns.
+     * @param columns Columns
+     * @param key Names of key columns
+     * @return Indexes
+     */
+    private static int[] indexes(final List<Column> columns, final List<String> key) {
+        final int[] indexes = new int[key.size()];
+        for (int idx = 0; idx < indexes.length; ++idx) {
+            indexes[idx] = -1;
+            for (int col = 0; col < columns.size(); ++col) {
+                if (columns.get(col).name().equals(key.get(idx))) {
+                    indexes[idx] = col;
+                }
+            }
+            if (indexes[idx] < 0) {
+                throw new IllegalArgumentException(
+                    String.format("Key column %s is not a column of reports", key.get(idx))
+                );
+            }
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.delta;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Version of a report: hashes of its rows, sorted by hash of natural key.
+ *
+ * <p>It takes 16 bytes per row, plus texts of key cells. When rows share
+ * a natural key, the last one wins.</p>
+ *
+ * @since 0.1
+ */
+public final class Version {
+
+    /**
+     * Hashes of natural keys, sorted.
+     */
+    private final long[] keys;
+
+    /**
+     * Hashes of rows, by key.
+     */
+    private final long[] rows;
+
+    /**
+     * Texts of key cells, by key.
+     */
+    private final String[][] texts;
+
+    /**
+     * Ctor, of a report never seen.
+     */
+    public Version() {
+        this(new long[0], new long[0], new String[0][], 0);
+    }
+
+    /**
+     * Ctor.
+     * @param keys Hashes of natural keys, in sheet order
+     * @param rows Hashes of rows
+     * @param cells Texts of key cells
+     * @param size Number of rows
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Version(
+        final long[] keys, final long[] rows, final String[][] cells, final int size
+    ) {
+        this(keys, rows, cells, Version.order(keys, size));
+    }
+
+    /**
+     * Ctor.
+     * @param keys Hashes of natural keys
+     * @param rows Hashes of rows
+     * @param cells Texts of key cells
+     * @param order Indexes of rows to keep, in order
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private Version(
+        final long[] keys, final long[] rows, final String[][] cells, final int... order
+    ) {
+        this.keys = Version.picked(keys, order);
+        this.rows = Version.picked(rows, order);
+        this.texts = Version.picked(cells, order);
+    }
+
+    /**
+     * Number of rows.
+     * @return Count
+     */
+    public int size() {
+        return this.keys.length;
+    }
+
+    /**
+     * Find a row by its natural key.
+     * @param key Hash of natural key
+     * @return Index of row, negative if not found
+     */
+    public int find(final long key) {
+        return Math.max(Arrays.binarySearch(this.keys, key), -1);
+    }
+
+    /**
+     * Hash of natural key of a row.
+     * @param idx Index of row
+     * @return Hash
+     */
+    public long key(final int idx) {
+        return this.keys[idx];
+    }
+
+    /**
+     * Hash of a row.
+     * @param idx Index of row
+     * @return Hash
+     */
+    public long row(final int idx) {
+        return this.rows[idx];
+    }
+
+    /**
+     * Texts of key cells of a row.
+     * @param idx Index of row
+     * @return Texts, null for blank cells
+     */
+    public String[] cells(final int idx) {
+        return this.texts[idx].clone();
+    }
+
+    /**
+     * Hashes of rows kept.
+     * @param hashes Hashes
+     * @param order Indexes of rows to keep
+     * @return Hashes
+     */
+    private static long[] picked(final long[] hashes, final int... order) {
+        final long[] picked = new long[order.length];
+        for (int idx = 0; idx < order.length; ++idx) {
+            picked[idx] = hashes[order[idx]];
+        }
+        return picked;
+    }
+
+    /**
+     * Texts of rows kept.
+     * @param cells Texts of key cells
+     * @param order Indexes of rows to keep
+     * @return Texts
+     */
+    private static String[][] picked(final String[][] cells, final int... order) {
+        final String[][] picked = new String[order.length][];
+        for (int idx = 0; idx < order.length; ++idx) {
+            picked[idx] = cells[order[idx]].clone();
+        }
+        return picked;
+    }
+
+    /**
+     * Indexes of rows sorted by key, keeping the last row of each key.
+     * @param keys Hashes of natural keys
+     * @param size Number of rows
+     * @return Indexes
+     */
+    private static int[] order(final long[] keys, final int size) {
+        final int[] sorted = IntStream.range(0, size).boxed()
+            .sorted(Comparator.comparingLong(idx -> keys[idx]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        int unique = 0;
+        for (int idx = 0; idx < sorted.length; ++idx) {
+            if (idx + 1 == sorted.length || keys[sorted[idx]] != keys[sorted[idx + 1]]) {
+                sorted[unique] = sorted[idx];
+                unique += 1;
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+}
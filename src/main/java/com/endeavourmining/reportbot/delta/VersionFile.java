@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.delta;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * File of the last version of a report.
+ *
+ * <p>The file is replaced atomically, so that a crash leaves either
+ * version, never a mix of both.</p>
+ *
+ * @since 0.1
+ */
+public final class VersionFile {
+
+    /**
+     * Magic number, {@code RBDV}.
+     */
+    private static final int MAGIC = 0x52424456;
+
+    /**
+     * Path of file.
+     */
+    private final Path path;
+
+    /**
+     * Ctor.
+     * @param path Path of file
+     */
+    public VersionFile(final Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Read version.
+     * @return Version, empty if file does not exist
+     * @throws IOException If fails
+     */
+    public Version read() throws IOException {
+        Version version = new Version();
+        if (Files.exists(this.path)) {
+            try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(this.path))
+            )) {
+                if (input.readInt() != VersionFile.MAGIC) {
+                    throw new IOException(
+                        String.format("%s is not a version of a report", this.path)
+                    );
+                }
+                final int size = input.readInt();
+                final int width = input.readInt();
+                final long[] keys = new long[size];
+                final long[] rows = new long[size];
+                final String[][] cells = new String[size][width];
+                for (int idx = 0; idx < size; ++idx) {
+                    keys[idx] = input.readLong();
+                    rows[idx] = input.readLong();
+                    for (int col = 0; col < width; ++col) {
+                        cells[idx][col] = VersionFile.text(input);
+                    }
+                }
+                version = new Version(keys, rows, cells, size);
+            }
+        }
+        return version;
+    }
+
+    /**
+     * Replace version.
+     * @param version Version
+     * @throws IOException If fails
+     */
+    public void write(final Version version) throws IOException {
+        Files.createDirectories(this.path.toAbsolutePath().getParent());
+        final Path temp = this.path.resolveSibling(
+            String.format("%s.tmp", this.path.getFileName())
+        );
+        try (DataOutputStream output = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(temp))
+        )) {
+            output.writeInt(VersionFile.MAGIC);
+            output.writeInt(version.size());
+            int width = 0;
+            if (version.size() > 0) {
+                width = version.cells(0).length;
+            }
+            output.writeInt(width);
+            for (int idx = 0; idx < version.size(); ++idx) {
+                output.writeLong(version.key(idx));
+                output.writeLong(version.row(idx));
+                for (final String cell : version.cells(idx)) {
+                    output.writeBoolean(cell != null);
+                    if (cell != null) {
+                        output.writeUTF(cell);
+                    }
+                }
+            }
+        }
+        Files.move(
+            temp, this.path, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+    }
+
+    /**
+     * Read text of a cell.
+     * @param input Input
+     * @return Text, null if blank
+     * @throws IOException If fails
+     */
+    private static String text(final DataInputStream input) throws IOException {
+        String text = null;
+        if (input.readBoolean()) {
+            text = input.readUTF();
+        }
+        return text;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.journey;
+
+import com.endeavourmining.reportbot.Envelope;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timestamp;
+
+/**
+ * Download of a spreadsheet.
+ *
+ * <p>Fields are read by the recorder only.</p>
+ *
+ * @since 0.1
+ */
+@Name("com.endeavourmining.reportbot.Extract")
+@Label("Report Extracted")
+@Description("Spreadsheet downloaded to a local file")
+@Category({"Report Bot", "Journey"})
+@StackTrace(false)
+@SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
+public final class ExtractEvent extends Event {
+
+    /**
+     * Message-ID header of email.
+     */
+    @Label("Message-ID")
+    private final String mid;
+
+    /**
+     * UID of email.
+     */
+    @Label("UID")
+    private final long uid;
+
+    /**
+     * Date email was received by the server.
+     */
+    @Label("Received")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    private final long received;
+
+    /**
+     * Size of spreadsheet downloaded.
+     */
+    @Label("Attachment Size")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Ctor.
+     * @param email Email of report
+     */
+    public ExtractEvent(final Envelope email) {
+        super();
+        this.mid = email.messageId();
+        this.uid = email.uid();
+        this.received = email.received().toEpochMilli();
+    }
+
+    /**
+     * Commit.
+     * @param size Size of spreadsheet downloaded
+     */
+    public void commit(final long size) {
+        this.bytes = size;
+        this.commit();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.journey;
+
+import com.endeavourmining.reportbot.Envelope;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timestamp;
+
+/**
+ * Publishing of a part of a report.
+ *
+ * <p>Fields are read by the recorder only.</p>
+ *
+ * @since 0.1
+ */
+@Name("com.endeavourmining.reportbot.Publish")
+@Label("Report Published")
+@Description("Part of a report published")
+@Category({"Report Bot", "Journey"})
+@StackTrace(false)
+@SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
+public final class PublishEvent extends Event {
+
+    /**
+     * Message-ID header of email.
+     */
+    @Label("Message-ID")
+    private final String mid;
+
+    /**
+     * UID of email.
+     */
+    @Label("UID")
+    private final long uid;
+
+    /**
+     * Date email was received by the server.
+     */
+    @Label("Received")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    private final long received;
+
+    /**
+     * Rows published.
+     */
+    @Label("Rows")
+    private long rows;
+
+    /**
+     * Whether part is the last one of report.
+     */
+    @Label("Last Part")
+    private boolean last;
+
+    /**
+     * Ctor.
+     * @param email Email of report
+     */
+    public PublishEvent(final Envelope email) {
+        super();
+        this.mid = email.messageId();
+        this.uid = email.uid();
+        this.received = email.received().toEpochMilli();
+    }
+
+    /**
+     * Commit.
+     * @param count Rows published
+     * @param end Whether part is the last one of report
+     */
+    public void commit(final long count, final boolean end) {
+        this.rows = count;
+        this.last = end;
+        this.commit();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.journey;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Count of unread emails of a mailbox.
+ *
+ * <p>Fields are read by the recorder only.</p>
+ *
+ * @since 0.1
+ */
+@Name("com.endeavourmining.reportbot.Scan")
+@Label("Mailbox Scan")
+@Description("Unread emails counted in a mailbox")
+@Category({"Report Bot", "Journey"})
+@StackTrace(false)
+@SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
+public final class ScanEvent extends Event {
+
+    /**
+     * Mailbox.
+     */
+    @Label("Mailbox")
+    private final String mailbox;
+
+    /**
+     * Unread emails.
+     */
+    @Label("Unread")
+    private int unread;
+
+    /**
+     * Ctor.
+     * @param mailbox Mailbox
+     */
+    public ScanEvent(final String mailbox) {
+        super();
+        this.mailbox = mailbox;
+    }
+
+    /**
+     * Commit with count of unread emails.
+     * @param count Unread emails
+     */
+    public void commit(final int count) {
+        this.unread = count;
+        this.commit();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations, with logarithmic buckets.
+ *
+ * <p>Like HDR histograms, every power of two is split in 8 linear
+ * buckets, so that any recorded value is known within 12.5%, from
+ * nanoseconds to centuries, in less than 4 KB. Recording increments one
+ * bucket, a sum and, rarely, a maximum: it never locks nor allocates and
+ * costs a few tens of nanoseconds.</p>
+ *
+ * @since 0.1
+ */
+public final class Histogram {
+
+    /**
+     * Bits of linear buckets within a power of two.
+     */
+    private static final int BITS = 3;
+
+    /**
+     * Linear buckets within a power of two.
+     */
+    private static final int LINEAR = 1 << Histogram.BITS;
+
+    /**
+     * Number of buckets, up to {@link Long#MAX_VALUE}.
+     */
+    private static final int SIZE = (Long.SIZE - Histogram.BITS) * Histogram.LINEAR;
+
+    /**
+     * Counts of buckets.
+     */
+    private final AtomicLongArray buckets;
+
+    /**
+     * Sum of values.
+     */
+    private final AtomicLong total;
+
+    /**
+     * Highest value.
+     */
+    private final AtomicLong highest;
+
+    /**
+     * Ctor.
+     */
+    public Histogram() {
+        this.buckets = new AtomicLongArray(Histogram.SIZE);
+        this.total = new AtomicLong();
+        this.highest = new AtomicLong();
+    }
+
+    /**
+     * Record a value.
+     * @param value Value, negative ones are recorded as zero
+     */
+    public void record(final long value) {
+        final long val = Math.max(value, 0L);
+        this.buckets.incrementAndGet(Histogram.index(val));
+        this.total.addAndGet(val);
+        long max = this.highest.get();
+        while (val > max && !this.highest.compareAndSet(max, val)) {
+            max = this.highest.get();
+        }
+    }
+
+    /**
+     * Record time elapsed since a start.
+     * @param start Start, from {@link System#nanoTime()}
+     */
+    public void since(final long start) {
+        this.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Number of values recorded.
+     * @return Count
+     */
+    public long count() {
+        long count = 0L;
+        for (int idx = 0; idx < Histogram.SIZE; ++idx) {
+            count += this.buckets.get(idx);
+        }
+        return count;
+    }
+
+    /**
+     * Sum of values recorded.
+     * @return Sum
+     */
+    public long sum() {
+        return this.total.get();
+    }
+
+    /**
+     * Highest value recorded.
+     * @return Value, zero if none
+     */
+    public long max() {
+        return this.highest.get();
+    }
+
+    /**
+     * Value below which a fraction of recorded values fall.
+     * @param quantile Fraction, from 0 to 1
+     * @return Highest value of the bucket of quantile, zero if none
+     */
+    public long quantile(final double quantile) {
+        final long rank = (long) Math.ceil(quantile * this.count());
+        long seen = 0L;
+        long value = 0L;
+        for (int idx = 0; idx < Histogram.SIZE; ++idx) {
+            seen += this.buckets.get(idx);
+            if (seen >= rank && seen > 0L) {
+                value = Math.min(Histogram.upper(idx), this.max());
+                break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Bucket of a value.
+     * @param value Positive value
+     * @return Index of bucket
+     */
+    private static int index(final long value) {
+        final int index;
+        if (value < Histogram.LINEAR) {
+            index = (int) value;
+        } else {
+            final int exp = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            index = (exp - Histogram.BITS + 1 << Histogram.BITS)
+                + (int) (value >>> exp - Histogram.BITS & Histogram.LINEAR - 1);
+        }
+        return index;
+    }
+
+    /**
+     * Highest value of a bucket.
+     * @param index Index of bucket
+     * @return Value
+     */
+    private static long upper(final int index) {
+        final long value;
+        if (index < Histogram.LINEAR) {
+            value = index;
+        } else {
+            final int shift = (index >>> Histogram.BITS) - 1;
+            final long mantissa = Histogram.LINEAR + (index & Histogram.LINEAR - 1);
+            value = (mantissa + 1L << shift) - 1L;
+        }
+        return value;
+    }
+}
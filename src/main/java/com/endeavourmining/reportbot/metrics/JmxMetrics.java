@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import javax.management.RuntimeOperationsException;
+
+/**
+ * Metrics exposed through JMX.
+ *
+ * <p>A single MBean has, for every histogram, read-only attributes named
+ * after it: count, mean, p50, p90, p99, p999 and max. Durations are in
+ * microseconds. Every counter is an attribute of its own name. Attributes
+ * are listed again on every read of the MBean info, so that histograms and
+ * counters created later show up too.</p>
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class JmxMetrics implements DynamicMBean {
+
+    /**
+     * Name of MBean.
+     */
+    public static final String NAME = "com.endeavourmining.reportbot:type=Metrics";
+
+    /**
+     * Nanoseconds in a microsecond.
+     */
+    private static final double MICRO = 1000.0;
+
+    /**
+     * Statistics of each histogram: count first, mean second, max last.
+     */
+    private static final String[] STATS = {"count", "mean", "p50", "p90", "p99", "p999", "max"};
+
+    /**
+     * Quantiles of statistics, by index.
+     */
+    private static final double[] QUANTILES = {0.0, 0.0, 0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param metrics Metrics
+     */
+    public JmxMetrics(final Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Register in an MBean server.
+     * @param server MBean server, like the platform one
+     * @return This
+     * @throws JMException If fails
+     */
+    public JmxMetrics register(final MBeanServer server) throws JMException {
+        server.registerMBean(this, new ObjectName(JmxMetrics.NAME));
+        return this;
+    }
+
+    @Override
+    public Object getAttribute(final String attribute) throws AttributeNotFoundException {
+        final LongAdder counter = this.metrics.counters().get(attribute);
+        final Object value;
+        if (counter == null) {
+            value = this.statistic(attribute);
+        } else {
+            value = counter.sum();
+        }
+        return value;
+    }
+
+    @Override
+    public void setAttribute(final Attribute attribute) {
+        throw new RuntimeOperationsException(
+            new UnsupportedOperationException("Metrics are read-only")
+        );
+    }
+
+    @Override
+    public AttributeList getAttributes(final String[] attributes) {
+        final AttributeList list = new AttributeList();
+        for (final String name : attributes) {
+            try {
+                list.add(new Attribute(name, this.getAttribute(name)));
+            } catch (final AttributeNotFoundException ex) {
+                continue;
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(final AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(final String action, final Object[] params, final String[] signature)
+        throws ReflectionException {
+        throw new ReflectionException(
+            new NoSuchMethodException(action), "Metrics have no operation"
+        );
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        final List<MBeanAttributeInfo> attrs = new ArrayList<>(0);
+        for (final Map.Entry<String, Histogram> entry : this.metrics.histograms().entrySet()) {
+            for (final String stat : JmxMetrics.STATS) {
+                String type = Double.class.getName();
+                if (stat.equals(JmxMetrics.STATS[0])) {
+                    type = Long.class.getName();
+                }
+                attrs.add(
+                    new MBeanAttributeInfo(
+                        String.format("%s.%s", entry.getKey(), stat), type,
+                        String.format("%s of %s", stat, entry.getKey()),
+                        true, false, false
+                    )
+                );
+            }
+        }
+        for (final String name : this.metrics.counters().keySet()) {
+            attrs.add(
+                new MBeanAttributeInfo(
+                    name, Long.class.getName(), String.format("Total of %s", name),
+                    true, false, false
+                )
+            );
+        }
+        return new MBeanInfo(
+            JmxMetrics.class.getName(), "Latency histograms, in microseconds, and counters",
+            attrs.toArray(new MBeanAttributeInfo[0]), null, null, null
+        );
+    }
+
+    /**
+     * Statistic of a histogram, by attribute name.
+     * @param attribute Attribute, like {@code imap.connect.p99}
+     * @return Value
+     * @throws AttributeNotFoundException If histogram or statistic is unknown
+     */
+    private Object statistic(final String attribute) throws AttributeNotFoundException {
+        final int dot = attribute.lastIndexOf('.');
+        final Histogram histogram;
+        if (dot > 0) {
+            histogram = this.metrics.histograms().get(attribute.substring(0, dot));
+        } else {
+            histogram = null;
+        }
+        if (histogram == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return JmxMetrics.value(histogram, attribute.substring(dot + 1));
+    }
+
+    /**
+     * Statistic of a histogram.
+     * @param histogram Histogram
+     * @param stat Statistic
+     * @return Value
+     * @throws AttributeNotFoundException If statistic is unknown
+     */
+    private static Object value(final Histogram histogram, final String stat)
+        throws AttributeNotFoundException {
+        final int idx = Arrays.asList(JmxMetrics.STATS).indexOf(stat);
+        if (idx < 0) {
+            throw new AttributeNotFoundException(stat);
+        }
+        final Object value;
+        if (idx == 0) {
+            value = histogram.count();
+        } else if (idx == 1) {
+            value = histogram.sum() / Math.max(histogram.count(), 1L) / JmxMetrics.MICRO;
+        } else if (idx == JmxMetrics.STATS.length - 1) {
+            value = histogram.max() / JmxMetrics.MICRO;
+        } else {
+            value = histogram.quantile(JmxMetrics.QUANTILES[idx]) / JmxMetrics.MICRO;
+        }
+        return value;
+    }
+}
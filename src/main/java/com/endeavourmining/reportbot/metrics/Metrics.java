@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named histograms of durations, in nanoseconds, and named counters.
+ *
+ * <p>One instance is made at start and passed to constructors of classes
+ * that measure. Classes on hot paths look their histograms and counters
+ * up once, in their constructors, and only record afterwards.</p>
+ *
+ * @since 0.1
+ */
+public final class Metrics {
+
+    /**
+     * Histograms by name.
+     */
+    private final Map<String, Histogram> all;
+
+    /**
+     * Counters by name.
+     */
+    private final Map<String, LongAdder> totals;
+
+    /**
+     * Ctor.
+     */
+    public Metrics() {
+        this.all = new ConcurrentSkipListMap<>();
+        this.totals = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Histogram of a name, created if missing.
+     * @param name Name, like {@code imap.connect}
+     * @return Histogram
+     */
+    public Histogram histogram(final String name) {
+        return this.all.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * All histograms.
+     * @return Histograms by name, sorted by name
+     */
+    public Map<String, Histogram> histograms() {
+        return Collections.unmodifiableMap(this.all);
+    }
+
+    /**
+     * Counter of a name, created if missing.
+     * @param name Name, like {@code emails.fetched}
+     * @return Counter
+     */
+    public LongAdder counter(final String name) {
+        return this.totals.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * All counters.
+     * @return Counters by name, sorted by name
+     */
+    public Map<String, LongAdder> counters() {
+        return Collections.unmodifiableMap(this.totals);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local HTTP endpoint serving metrics as plain text.
+ *
+ * <p>{@code GET /metrics} answers every histogram as a summary in the
+ * Prometheus text format, in seconds: quantiles 0.5, 0.9, 0.99 and 0.999,
+ * sum, count and max; then every counter, with suffix {@code _total}.
+ * Endpoint listens on loopback interface only.</p>
+ *
+ * @since 0.1
+ */
+public final class MetricsEndpoint implements Closeable {
+
+    /**
+     * Nanoseconds in a second.
+     */
+    private static final double SECOND = 1.0e9;
+
+    /**
+     * Quantiles reported.
+     */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * HTTP server.
+     */
+    private final HttpServer server;
+
+    /**
+     * Ctor.
+     * @param metrics Metrics
+     * @param port Port, zero for any free port
+     * @throws IOException If port is not available
+     */
+    public MetricsEndpoint(final Metrics metrics, final int port) throws IOException {
+        this.metrics = metrics;
+        this.server = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0
+        );
+    }
+
+    /**
+     * Start serving.
+     * @return This
+     */
+    public MetricsEndpoint start() {
+        this.server.createContext("/metrics", this::handle);
+        this.server.start();
+        return this;
+    }
+
+    /**
+     * Port endpoint listens to.
+     * @return Port
+     */
+    public int port() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Metrics in Prometheus text format.
+     * @return Text
+     */
+    public String text() {
+        final StringBuilder text = new StringBuilder(0);
+        for (final Map.Entry<String, Histogram> entry : this.metrics.histograms().entrySet()) {
+            final String name = MetricsEndpoint.name(entry.getKey(), "seconds");
+            final Histogram histogram = entry.getValue();
+            text.append(String.format("# TYPE %s summary\n", name));
+            for (final double quantile : MetricsEndpoint.QUANTILES) {
+                text.append(
+                    String.format(
+                        Locale.ENGLISH, "%s{quantile=\"%s\"} %.9f\n", name, quantile,
+                        histogram.quantile(quantile) / MetricsEndpoint.SECOND
+                    )
+                );
+            }
+            text.append(
+                String.format(
+                    Locale.ENGLISH, "%s_sum %.9f\n%1$s_count %d\n%1$s_max %.9f\n",
+                    name, histogram.sum() / MetricsEndpoint.SECOND, histogram.count(),
+                    histogram.max() / MetricsEndpoint.SECOND
+                )
+            );
+        }
+        for (final Map.Entry<String, LongAdder> entry : this.metrics.counters().entrySet()) {
+            final String name = MetricsEndpoint.name(entry.getKey(), "total");
+            text.append(
+                String.format("# TYPE %s counter\n%1$s %d\n", name, entry.getValue().sum())
+            );
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+    }
+
+    /**
+     * Name of a metric in Prometheus format.
+     * @param key Name of metric, like {@code imap.connect}
+     * @param suffix Suffix, like unit
+     * @return Name, like {@code reportbot_imap_connect_seconds}
+     */
+    private static String name(final String key, final String suffix) {
+        return String.format(
+            "reportbot_%s_%s",
+            key.replaceAll("[^A-Za-z0-9_]", "_").toLowerCase(Locale.ENGLISH), suffix
+        );
+    }
+
+    /**
+     * Answer a request.
+     * @param exchange Exchange
+     * @throws IOException If fails
+     */
+    private void handle(final HttpExchange exchange) throws IOException {
+        final byte[] body = this.text().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.pipeline;
+
+import java.io.IOException;
+
+/**
+ * Receiver of items.
+ *
+ * @param <T> Type of items
+ * @since 0.1
+ */
+public interface Sink<T> {
+
+    /**
+     * Accept an item, blocking while receiver is busy.
+     * @param item Item
+     * @throws IOException If fails or interrupted
+     */
+    void accept(T item) throws IOException;
+
+    /**
+     * Accept an item, unless receiver is busy.
+     *
+     * <p>Receivers that can't tell they're busy block, like
+     * {@link #accept(Object)}.</p>
+     * @param item Item
+     * @return True if accepted, false if receiver is busy
+     * @throws IOException If fails or interrupted
+     */
+    default boolean offer(final T item) throws IOException {
+        this.accept(item);
+        return true;
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.pipeline;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.jcabi.log.Logger;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stage run by its own threads, fed through a bounded queue.
+ *
+ * <p>{@link #accept(Object)} blocks while the queue is full: a slow stage
+ * slows its upstream down instead of piling items up in memory. Queue is
+ * fair: upstream threads blocked on it get in by turns, so that one busy
+ * producer doesn't starve the others. A failure on one item is logged and
+ * does not stop the stage. {@link #close()}
+ * stops accepting items and waits until queued ones are processed.</p>
+ *
+ * <p>Processing of each item is timed in histogram {@code stage.<name>};
+ * time blocked handing items over to the next stage is left out, so that
+ * a slow downstream stage shows up in its own histogram only.</p>
+ *
+ * @param <I> Type of input items
+ * @param <O> Type of output items
+ * @since 0.1
+ */
+public final class Workers<I, O> implements Sink<I>, Closeable {
+
+    /**
+     * Delay between checks of closing, in milliseconds.
+     */
+    private static final long TICK = 100L;
+
+    /**
+     * Name, for threads and logs.
+     */
+    private final String name;
+
+    /**
+     * Stage.
+     */
+    private final Stage<I, O> stage;
+
+    /**
+     * Next stage.
+     */
+    private final Sink<O> next;
+
+    /**
+     * Queue of items.
+     */
+    private final BlockingQueue<I> queue;
+
+    /**
+     * Threads.
+     */
+    private final ExecutorService threads;
+
+    /**
+     * Number of threads.
+     */
+    private final int count;
+
+    /**
+     * Whether closing.
+     */
+    private final AtomicBoolean closing;
+
+    /**
+     * Latency of items processed, hand-off to next stage left out.
+     */
+    private final Histogram timer;
+
+    /**
+     * Ctor.
+     * @param name Name, for threads and logs
+     * @param stage Stage
+     * @param next Next stage
+     * @param count Number of threads
+     * @param capacity Capacity of queue
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public Workers(
+        final String name, final Stage<I, O> stage, final Sink<O> next,
+        final int count, final int capacity
+    ) {
+        this(name, stage, next, count, capacity, new Metrics());
+    }
+
+    /**
+     * Ctor.
+     * @param name Name, for threads and logs
+     * @param stage Stage
+     * @param next Next stage
+     * @param count Number of threads
+     * @param capacity Capacity of queue
+     * @param metrics Metrics
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public Workers(
+        final String name, final Stage<I, O> stage, final Sink<O> next,
+        final int count, final int capacity, final Metrics metrics
+    ) {
+        this.name = name;
+        this.stage = stage;
+        this.next = next;
+        this.count = count;
+        this.queue = new ArrayBlockingQueue<>(capacity, true);
+        this.threads = Executors.newFixedThreadPool(count, Workers.factory(name));
+        this.closing = new AtomicBoolean();
+        this.timer = metrics.histogram(String.format("stage.%s", name));
+    }
+
+    /**
+     * Start threads.
+     * @return This
+     */
+    public Workers<I, O> start() {
+        for (int idx = 0; idx < this.count; ++idx) {
+            this.threads.execute(this::loop);
+        }
+        return this;
+    }
+
+    @Override
+    public void accept(final I item) throws IOException {
+        if (this.closing.get()) {
+            throw new IllegalStateException(String.format("Stage %s is closed", this.name));
+        }
+        try {
+            this.queue.put(item);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException iex = new InterruptedIOException(
+                String.format("Interrupted while queuing to %s", this.name)
+            );
+            iex.initCause(ex);
+            throw iex;
+        }
+    }
+
+    @Override
+    public boolean offer(final I item) {
+        if (this.closing.get()) {
+            throw new IllegalStateException(String.format("Stage %s is closed", this.name));
+        }
+        return this.queue.offer(item);
+    }
+
+    /**
+     * Number of items waiting.
+     * @return Size of queue
+     */
+    public int pending() {
+        return this.queue.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closing.set(true);
+        this.threads.shutdown();
+        try {
+            while (!this.threads.awaitTermination(1L, TimeUnit.MINUTES)) {
+                Logger.info(this, "Waiting for %d items of %s", this.pending(), this.name);
+            }
+        } catch (final InterruptedException ex) {
+            this.threads.shutdownNow();
+            Thread.currentThread().interrupt();
+            final InterruptedIOException iex = new InterruptedIOException(
+                String.format("Interrupted while draining %s", this.name)
+            );
+            iex.initCause(ex);
+            throw iex;
+        }
+    }
+
+    /**
+     * Factory of named daemon threads.
+     * @param name Stage name
+     * @return Factory
+     */
+    private static ThreadFactory factory(final String name) {
+        final AtomicInteger seq = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(
+                runnable, String.format("%s-%d", name, seq.incrementAndGet())
+            );
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Process items until closed and drained.
+     */
+    private void loop() {
+        while (!this.closing.get() || !this.queue.isEmpty()) {
+            final I item;
+            try {
+                item = this.queue.poll(Workers.TICK, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (item != null) {
+                this.process(item);
+            }
+        }
+    }
+
+    /**
+     * Process one item, logging failures.
+     *
+     * <p>Runtime exceptions are caught too, so that a bad item never
+     * stops a thread of the stage.</p>
+     * @param item Item
+     * @checkstyle IllegalCatchCheck (10 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void process(final I item) {
+        final Workers.Handoff<O> handoff = new Workers.Handoff<>(this.next);
+        final long start = System.nanoTime();
+        try {
+            this.stage.process(item, handoff);
+        } catch (final IOException | RuntimeException ex) {
+            Logger.error(this, "Stage %s failed on %s: %[exception]s", this.name, item, ex);
+        } finally {
+            this.timer.record(System.nanoTime() - start - handoff.spent());
+        }
+    }
+
+    /**
+     * Next stage, timing hand-offs of one item processed.
+     *
+     * @param <T> Type of items
+     * @since 0.1
+     */
+    private static final class Handoff<T> implements Sink<T> {
+
+        /**
+         * Next stage.
+         */
+        private final Sink<T> next;
+
+        /**
+         * Time spent handing items over, in nanoseconds; a stage may hand
+         * items over from threads of its own.
+         */
+        private final AtomicLong blocked;
+
+        /**
+         * Ctor.
+         * @param next Next stage
+         */
+        Handoff(final Sink<T> next) {
+            this.next = next;
+            this.blocked = new AtomicLong();
+        }
+
+        @Override
+        public void accept(final T item) throws IOException {
+            final long start = System.nanoTime();
+            try {
+                this.next.accept(item);
+            } finally {
+                this.blocked.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Time spent handing items over.
+         * @return Nanoseconds
+         */
+        long spent() {
+            return this.blocked.get();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.report;
+
+import com.endeavourmining.reportbot.xlsx.Row;
+import com.endeavourmining.reportbot.xlsx.RowHandler;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sheet rows loaded into batches.
+ *
+ * <p>Cells are converted to primitives as rows are parsed; each time a
+ * batch is full it is handed downstream and the next one is taken from
+ * the source. Call {@link #flush()} once the sheet is over.</p>
+ *
+ * @since 0.1
+ */
+public final class BatchFill implements RowHandler {
+
+    /**
+     * Source of empty batches.
+     */
+    private final Batches source;
+
+    /**
+     * Number of header rows to skip.
+     */
+    private final int header;
+
+    /**
+     * Downstream stage.
+     */
+    private final BatchHandler downstream;
+
+    /**
+     * Batch being filled, if any.
+     */
+    private final List<ReportBatch> current;
+
+    /**
+     * Ctor, reusing one batch.
+     * @param batch Batch to fill, cleared when handed downstream
+     * @param header Number of header rows to skip
+     * @param downstream Downstream stage
+     */
+    public BatchFill(final ReportBatch batch, final int header, final BatchHandler downstream) {
+        this(new SingleBatch(batch), header, downstream);
+    }
+
+    /**
+     * Ctor.
+     * @param source Source of empty batches
+     * @param header Number of header rows to skip
+     * @param downstream Downstream stage, owner of batches it receives
+     */
+    public BatchFill(final Batches source, final int header, final BatchHandler downstream) {
+        this.source = source;
+        this.header = header;
+        this.downstream = downstream;
+        this.current = new ArrayList<>(1);
+    }
+
+    @Override
+    public void handle(final Row row) throws IOException {
+        if (row.number() > this.header) {
+            if (this.current.isEmpty()) {
+                this.current.add(this.source.take());
+            }
+            final ReportBatch batch = this.current.get(0);
+            final int idx = batch.add(row.number());
+            for (int col = 0; col < batch.columns().size(); ++col) {
+                final Column column = batch.columns().get(col);
+                final String cell = row.cell(column.index()).trim();
+                if (!cell.isEmpty()) {
+                    BatchFill.put(batch, col, idx, cell);
+                }
+            }
+            if (batch.full()) {
+                this.flush();
+            }
+        }
+    }
+
+    /**
+     * Hand remaining rows downstream.
+     * @throws IOException If fails
+     */
+    public void flush() throws IOException {
+        if (!this.current.isEmpty() && this.current.get(0).size() > 0) {
+            this.downstream.handle(this.current.remove(0));
+        }
+    }
+
+    /**
+     * Give back rows not handed downstream, after a failure.
+     */
+    public void discard() {
+        if (!this.current.isEmpty()) {
+            this.source.release(this.current.remove(0));
+        }
+    }
+
+    /**
+     * Set a cell.
+     * @param batch Batch
+     * @param col Column index in batch
+     * @param idx Row index in batch
+     * @param cell Non blank raw value
+     * @throws IOException If value does not fit column type
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void put(final ReportBatch batch, final int col, final int idx,
+        final String cell) throws IOException {
+        final Column column = batch.columns().get(col);
+        try {
+            if (column.type() == ColumnType.NUMBER) {
+                batch.putDecimal(col, idx, Double.parseDouble(cell));
+            } else if (column.type() == ColumnType.INTEGER) {
+                batch.putInteger(col, idx, (long) Double.parseDouble(cell));
+            } else {
+                batch.putText(col, idx, cell);
+            }
+        } catch (final NumberFormatException ex) {
+            throw new IOException(
+                String.format(
+                    "'%s' of row %d is not a number for %s", cell, batch.number(idx), column
+                ),
+                ex
+            );
+        }
+    }
+}
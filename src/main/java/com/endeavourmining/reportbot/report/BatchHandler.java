@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.report;
+
+import java.io.IOException;
+
+/**
+ * Stage receiving batches of a report: validation, delta, publishing.
+ *
+ * @since 0.1
+ */
+public interface BatchHandler {
+
+    /**
+     * Handle a batch.
+     *
+     * <p>When a single batch is reused, it is cleared once this method
+     * returns: values must be consumed or copied before. Batches taken
+     * from a {@link BatchPool} must be released by the handler.</p>
+     * @param batch Batch
+     * @throws IOException If fails
+     */
+    void handle(ReportBatch batch) throws IOException;
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.report;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of sibling batches.
+ *
+ * <p>At most {@code size} batches ever exist: once all of them are taken,
+ * {@link #take()} blocks until one is {@link #release(ReportBatch)
+ * released}. It bounds memory used by parsed reports waiting to be
+ * published and slows parsing down to publishing rate.</p>
+ *
+ * @since 0.1
+ */
+public final class BatchPool implements Batches {
+
+    /**
+     * Batch all others are siblings of.
+     */
+    private final ReportBatch prototype;
+
+    /**
+     * Maximum number of batches.
+     */
+    private final int size;
+
+    /**
+     * Free batches.
+     */
+    private final BlockingQueue<ReportBatch> free;
+
+    /**
+     * Number of batches created.
+     */
+    private final AtomicInteger created;
+
+    /**
+     * Ctor.
+     * @param prototype Batch all others are siblings of, never taken
+     * @param size Maximum number of batches
+     */
+    public BatchPool(final ReportBatch prototype, final int size) {
+        this.prototype = prototype;
+        this.size = size;
+        this.free = new LinkedBlockingQueue<>();
+        this.created = new AtomicInteger();
+    }
+
+    @Override
+    public ReportBatch take() throws IOException {
+        ReportBatch batch = this.free.poll();
+        if (batch == null) {
+            if (this.created.incrementAndGet() <= this.size) {
+                batch = this.prototype.sibling();
+            } else {
+                this.created.decrementAndGet();
+                batch = this.waited();
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public void release(final ReportBatch batch) {
+        batch.clear();
+        this.free.add(batch);
+    }
+
+    /**
+     * Wait for a batch to be released.
+     * @return Batch
+     * @throws IOException If interrupted
+     */
+    private ReportBatch waited() throws IOException {
+        try {
+            return this.free.take();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException iex = new InterruptedIOException(
+                "Interrupted while waiting for a free batch"
+            );
+            iex.initCause(ex);
+            throw iex;
+        }
+    }
+}
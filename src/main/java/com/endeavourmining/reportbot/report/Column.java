@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.report;
+
+/**
+ * Column of a report.
+ *
+ * @since 0.1
+ */
+public final class Column {
+
+    /**
+     * Name.
+     */
+    private final String label;
+
+    /**
+     * Index of source column in sheet, 0-based.
+     */
+    private final int source;
+
+    /**
+     * Storage.
+     */
+    private final ColumnType kind;
+
+    /**
+     * Ctor.
+     * @param name Name
+     * @param index Index of source column in sheet, 0-based
+     * @param type Storage
+     */
+    public Column(final String name, final int index, final ColumnType type) {
+        this.label = name;
+        this.source = index;
+        this.kind = type;
+    }
+
+    /**
+     * Name.
+     * @return Name
+     */
+    public String name() {
+        return this.label;
+    }
+
+    /**
+     * Index of source column in sheet.
+     * @return Index, 0-based
+     */
+    public int index() {
+        return this.source;
+    }
+
+    /**
+     * Storage.
+     * @return Type
+     */
+    public ColumnType type() {
+        return this.kind;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s:%s", this.label, this.kind);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.report;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary of repeated texts, like site, shift or equipment names.
+ *
+ * <p>Each distinct text is stored once and referred to by an {@code int}
+ * code, assigned in order of appearance. A dictionary belongs to one
+ * batch and, like it, is not thread safe: it's filled by one thread,
+ * then handed over with its batch. It's cleared with its batch, so that
+ * it never holds more texts than the batch holds rows.</p>
+ *
+ * @since 0.1
+ */
+public final class Dictionary {
+
+    /**
+     * Codes by text.
+     */
+    private final Map<String, Integer> codes;
+
+    /**
+     * Texts by code.
+     */
+    private final List<String> texts;
+
+    /**
+     * Ctor.
+     */
+    public Dictionary() {
+        this.codes = new HashMap<>(0);
+        this.texts = new ArrayList<>(0);
+    }
+
+    /**
+     * Code of a text, assigned if new.
+     * @param text Text
+     * @return Code
+     */
+    public int code(final String text) {
+        Integer code = this.codes.get(text);
+        if (code == null) {
+            code = this.texts.size();
+            this.codes.put(text, code);
+            this.texts.add(text);
+        }
+        return code;
+    }
+
+    /**
+     * Text of a code.
+     * @param code Code
+     * @return Text
+     */
+    public String text(final int code) {
+        return this.texts.get(code);
+    }
+
+    /**
+     * Number of distinct texts.
+     * @return Size
+     */
+    public int size() {
+        return this.texts.size();
+    }
+
+    /**
+     * Forget all texts, keeping allocated room.
+     */
+    public void clear() {
+        this.codes.clear();
+        this.texts.clear();
+    }
+}
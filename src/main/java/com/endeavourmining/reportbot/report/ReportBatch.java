@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.report;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed capacity batch of report rows, stored by columns.
+ *
+ * <p>Numbers live in primitive {@code double[]} and {@code long[]} arrays
+ * and texts are dictionary encoded, so a batch holds no boxed value nor
+ * duplicated string. A batch is meant to be {@link #clear() cleared} and
+ * filled again. Every batch has dictionaries of its own, cleared with it,
+ * so codes are only meaningful within one fill of a batch and memory of
+ * a pooled batch stays bounded by its capacity, however many distinct
+ * texts flow through it. A batch is not thread safe.</p>
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class ReportBatch {
+
+    /**
+     * Columns.
+     */
+    private final List<Column> cols;
+
+    /**
+     * Maximum number of rows.
+     */
+    private final int max;
+
+    /**
+     * Values by column: {@code double[]}, {@code long[]} or {@code int[]}.
+     */
+    private final Object[] values;
+
+    /**
+     * Dictionaries by column, null for numeric columns.
+     */
+    private final Dictionary[] dicts;
+
+    /**
+     * Blank cells, at {@code column * capacity + row}.
+     */
+    private final BitSet blanks;
+
+    /**
+     * Sheet row numbers.
+     */
+    private final int[] numbers;
+
+    /**
+     * Number of rows.
+     */
+    private int rows;
+
+    /**
+     * Ctor.
+     * @param columns Columns
+     * @param capacity Maximum number of rows
+     */
+    public ReportBatch(final List<Column> columns, final int capacity) {
+        this.cols = Collections.unmodifiableList(new ArrayList<>(columns));
+        this.max = capacity;
+        this.values = ReportBatch.storage(columns, capacity);
+        this.dicts = ReportBatch.dictionaries(columns);
+        this.blanks = new BitSet(columns.size() * capacity);
+        this.numbers = new int[capacity];
+    }
+
+    /**
+     * Empty batch of same columns and capacity, with its own dictionaries.
+     * @return New batch
+     */
+    public ReportBatch sibling() {
+        return new ReportBatch(this.cols, this.max);
+    }
+
+    /**
+     * Columns.
+     * @return Columns, in batch order
+     */
+    public List<Column> columns() {
+        return this.cols;
+    }
+
+    /**
+     * Maximum number of rows.
+     * @return Capacity
+     */
+    public int capacity() {
+        return this.max;
+    }
+
+    /**
+     * Number of rows.
+     * @return Size
+     */
+    public int size() {
+        return this.rows;
+    }
+
+    /**
+     * Whether no more row can be added.
+     * @return True if full
+     */
+    public boolean full() {
+        return this.rows == this.max;
+    }
+
+    /**
+     * Remove all rows and texts of dictionaries, keeping arrays.
+     */
+    public void clear() {
+        this.rows = 0;
+        for (final Dictionary dict : this.dicts) {
+            if (dict != null) {
+                dict.clear();
+            }
+        }
+    }
+
+    /**
+     * Keep only some rows, in their order, moving them to the front.
+     * @param keep Indexes of rows to keep
+     */
+    public void retain(final BitSet keep) {
+        int size = 0;
+        for (int row = keep.nextSetBit(0); row >= 0 && row < this.rows;
+            row = keep.nextSetBit(row + 1)) {
+            if (row != size) {
+                this.move(row, size);
+            }
+            size += 1;
+        }
+        this.rows = size;
+    }
+
+    /**
+     * Append a row with all cells blank.
+     * @param number Sheet row number
+     * @return Row index in batch
+     */
+    public int add(final int number) {
+        if (this.full()) {
+            throw new IllegalStateException(
+                String.format("Batch is full with %d rows", this.max)
+            );
+        }
+        final int row = this.rows;
+        for (int col = 0; col < this.cols.size(); ++col) {
+            this.blanks.set(col * this.max + row);
+            this.reset(col, row);
+        }
+        this.numbers[row] = number;
+        this.rows += 1;
+        return row;
+    }
+
+    /**
+     * Sheet row number.
+     * @param row Row index
+     * @return Number, 1-based
+     */
+    public int number(final int row) {
+        return this.numbers[this.checked(row)];
+    }
+
+    /**
+     * Whether a cell is blank.
+     * @param column Column index
+     * @param row Row index
+     * @return True if blank
+     */
+    public boolean blank(final int column, final int row) {
+        return this.blanks.get(column * this.max + this.checked(row));
+    }
+
+    /**
+     * Value of a {@link ColumnType#NUMBER} cell.
+     * @param column Column index
+     * @param row Row index
+     * @return Value, zero if blank
+     */
+    public double decimal(final int column, final int row) {
+        return ((double[]) this.values[column])[this.checked(row)];
+    }
+
+    /**
+     * Value of a {@link ColumnType#INTEGER} cell.
+     * @param column Column index
+     * @param row Row index
+     * @return Value, zero if blank
+     */
+    public long integer(final int column, final int row) {
+        return ((long[]) this.values[column])[this.checked(row)];
+    }
+
+    /**
+     * Code of a {@link ColumnType#TEXT} cell.
+     * @param column Column index
+     * @param row Row index
+     * @return Code in column dictionary
+     */
+    public int code(final int column, final int row) {
+        return ((int[]) this.values[column])[this.checked(row)];
+    }
+
+    /**
+     * Value of a {@link ColumnType#TEXT} cell.
+     * @param column Column index
+     * @param row Row index
+     * @return Text, empty if blank
+     */
+    public String text(final int column, final int row) {
+        final String text;
+        if (this.blank(column, row)) {
+            text = "";
+        } else {
+            text = this.dicts[column].text(this.code(column, row));
+        }
+        return text;
+    }
+
+    /**
+     * Dictionary of a {@link ColumnType#TEXT} column.
+     * @param column Column index
+     * @return Dictionary
+     */
+    public Dictionary dictionary(final int column) {
+        return this.dicts[column];
+    }
+
+    /**
+     * Set a {@link ColumnType#NUMBER} cell.
+     * @param column Column index
+     * @param row Row index
+     * @param value Value
+     */
+    public void putDecimal(final int column, final int row, final double value) {
+        ((double[]) this.values[column])[this.checked(row)] = value;
+        this.blanks.clear(column * this.max + row);
+    }
+
+    /**
+     * Set a {@link ColumnType#INTEGER} cell.
+     * @param column Column index
+     * @param row Row index
+     * @param value Value
+     */
+    public void putInteger(final int column, final int row, final long value) {
+        ((long[]) this.values[column])[this.checked(row)] = value;
+        this.blanks.clear(column * this.max + row);
+    }
+
+    /**
+     * Set a {@link ColumnType#TEXT} cell.
+     * @param column Column index
+     * @param row Row index
+     * @param value Text
+     */
+    public void putText(final int column, final int row, final String value) {
+        ((int[]) this.values[column])[this.checked(row)] = this.dicts[column].code(value);
+        this.blanks.clear(column * this.max + row);
+    }
+
+    /**
+     * Arrays of values.
+     * @param columns Columns
+     * @param capacity Maximum number of rows
+     * @return Array per column
+     */
+    private static Object[] storage(final List<Column> columns, final int capacity) {
+        final Object[] arrays = new Object[columns.size()];
+        for (int col = 0; col < arrays.length; ++col) {
+            final ColumnType type = columns.get(col).type();
+            if (type == ColumnType.NUMBER) {
+                arrays[col] = new double[capacity];
+            } else if (type == ColumnType.INTEGER) {
+                arrays[col] = new long[capacity];
+            } else {
+                arrays[col] = new int[capacity];
+            }
+        }
+        return arrays;
+    }
+
+    /**
+     * Dictionaries of text columns.
+     * @param columns Columns
+     * @return Dictionary per column, null for numeric ones
+     */
+    private static Dictionary[] dictionaries(final List<Column> columns) {
+        final Dictionary[] dicts = new Dictionary[columns.size()];
+        for (int col = 0; col < dicts.length; ++col) {
+            if (columns.get(col).type() == ColumnType.TEXT) {
+                dicts[col] = new Dictionary();
+            }
+        }
+        return dicts;
+    }
+
+    /**
+     * Zero a cell left by a previous fill.
+     * @param column Column index
+     * @param row Row index
+     */
+    private void reset(final int column, final int row) {
+        final Object array = this.values[column];
+        if (array instanceof double[]) {
+            ((double[]) array)[row] = 0.0;
+        } else if (array instanceof long[]) {
+            ((long[]) array)[row] = 0L;
+        } else {
+            ((int[]) array)[row] = 0;
+        }
+    }
+
+    /**
+     * Copy a row over another one.
+     * @param from Index of row to copy
+     * @param row Index of row to overwrite
+     */
+    private void move(final int from, final int row) {
+        for (int col = 0; col < this.cols.size(); ++col) {
+            System.arraycopy(this.values[col], from, this.values[col], row, 1);
+            this.blanks.set(col * this.max + row, this.blanks.get(col * this.max + from));
+        }
+        this.numbers[row] = this.numbers[from];
+    }
+
+    /**
+     * Check a row index.
+     * @param row Row index
+     * @return Same index
+     */
+    private int checked(final int row) {
+        if (row < 0 || row >= this.rows) {
+            throw new IndexOutOfBoundsException(
+                String.format("Row %d is not in batch of %d rows", row, this.rows)
+            );
+        }
+        return row;
+    }
+}
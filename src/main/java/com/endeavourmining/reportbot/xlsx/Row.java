@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.xlsx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Row of a sheet.
+ *
+ * <p>Cells hold raw values as stored in the workbook: shared and inline
+ * strings are resolved, numbers and dates are left as written, like
+ * {@code 1250.5} or serial {@code 44927}.</p>
+ *
+ * @since 0.1
+ */
+public final class Row {
+
+    /**
+     * Row number, 1-based.
+     */
+    private final int num;
+
+    /**
+     * Cells by column index, empty text for blank cells.
+     */
+    private final List<String> cells;
+
+    /**
+     * Ctor.
+     * @param number Row number, 1-based
+     * @param cells Cells by column index
+     */
+    public Row(final int number, final List<String> cells) {
+        this.num = number;
+        this.cells = Collections.unmodifiableList(new ArrayList<>(cells));
+    }
+
+    /**
+     * Row number.
+     * @return Number, 1-based as in Excel
+     */
+    public int number() {
+        return this.num;
+    }
+
+    /**
+     * Number of columns up to last non blank cell.
+     * @return Size
+     */
+    public int size() {
+        return this.cells.size();
+    }
+
+    /**
+     * Cell value.
+     * @param column Column index, 0-based
+     * @return Raw value, empty if blank
+     */
+    public String cell(final int column) {
+        final String value;
+        if (column < this.cells.size()) {
+            value = this.cells.get(column);
+        } else {
+            value = "";
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d: %s", this.num, this.cells);
+    }
+}
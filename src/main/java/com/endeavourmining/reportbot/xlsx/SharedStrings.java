@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.xlsx;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Shared strings table of a workbook, spilled to a file.
+ *
+ * <p>Strings are written to a temporary file as they are parsed; only
+ * their offsets stay in memory, with a small cache of recently used
+ * strings. The file is deleted on close.</p>
+ *
+ * @since 0.1
+ */
+public final class SharedStrings implements Closeable {
+
+    /**
+     * Number of cached strings.
+     */
+    private static final int CACHED = 1024;
+
+    /**
+     * Phonetic run element, not part of text.
+     */
+    private static final String PHONETIC = "rPh";
+
+    /**
+     * Spill file.
+     */
+    private final FileChannel spill;
+
+    /**
+     * Cached strings, by index modulo cache size.
+     */
+    private final String[] cache;
+
+    /**
+     * Index of cached strings.
+     */
+    private final int[] keys;
+
+    /**
+     * Offsets of strings in spill file, last one is end of file.
+     */
+    private long[] offsets;
+
+    /**
+     * Number of strings.
+     */
+    private int count;
+
+    /**
+     * Ctor.
+     * @param file Spill file, created or truncated, deleted on close
+     * @throws IOException If fails
+     */
+    public SharedStrings(final Path file) throws IOException {
+        this.spill = FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE,
+            StandardOpenOption.DELETE_ON_CLOSE
+        );
+        this.cache = new String[SharedStrings.CACHED];
+        this.keys = new int[SharedStrings.CACHED];
+        this.offsets = new long[SharedStrings.CACHED + 1];
+    }
+
+    /**
+     * Load strings of {@code xl/sharedStrings.xml}.
+     * @param xml XML factory
+     * @param input Content of shared strings part
+     * @throws IOException If fails
+     */
+    public void load(final XMLInputFactory xml, final InputStream input)
+        throws IOException {
+        final OutputStream out = new BufferedOutputStream(Channels.newOutputStream(this.spill));
+        try {
+            final XMLStreamReader reader = xml.createXMLStreamReader(input);
+            this.parse(reader, out);
+            reader.close();
+            out.flush();
+        } catch (final XMLStreamException ex) {
+            throw new IOException("Can't parse shared strings", ex);
+        }
+    }
+
+    /**
+     * Number of strings.
+     * @return Count
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * String at index.
+     * @param index Index, 0-based
+     * @return Text
+     * @throws IOException If index is out of bounds or read fails
+     */
+    public String get(final int index) throws IOException {
+        if (index < 0 || index >= this.count) {
+            throw new IOException(
+                String.format("No shared string #%d among %d", index, this.count)
+            );
+        }
+        final int slot = index % SharedStrings.CACHED;
+        if (this.cache[slot] == null || this.keys[slot] != index) {
+            this.cache[slot] = this.read(index);
+            this.keys[slot] = index;
+        }
+        return this.cache[slot];
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.spill.close();
+    }
+
+    /**
+     * Spill every string item to a file.
+     * @param reader Shared strings XML
+     * @param out Spill output
+     * @throws XMLStreamException If XML is malformed
+     * @throws IOException If fails
+     */
+    private void parse(final XMLStreamReader reader, final OutputStream out)
+        throws XMLStreamException, IOException {
+        final StringBuilder text = new StringBuilder(0);
+        long offset = this.spill.size();
+        boolean phonetic = false;
+        boolean capture = false;
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                phonetic |= SharedStrings.PHONETIC.equals(reader.getLocalName());
+                capture = !phonetic && "t".equals(reader.getLocalName());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                capture = false;
+                phonetic &= !SharedStrings.PHONETIC.equals(reader.getLocalName());
+                if ("si".equals(reader.getLocalName())) {
+                    offset += this.append(out, offset, text);
+                    text.setLength(0);
+                }
+            } else if (capture && reader.isCharacters()) {
+                text.append(reader.getText());
+            }
+        }
+    }
+
+    /**
+     * Write a string at end of spill file.
+     * @param out Spill output
+     * @param offset Offset where string starts
+     * @param text Text
+     * @return Number of bytes written
+     * @throws IOException If fails
+     */
+    private int append(final OutputStream out, final long offset, final CharSequence text)
+        throws IOException {
+        final byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        out.write(bytes);
+        if (this.count + 1 >= this.offsets.length) {
+            this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+        }
+        this.offsets[this.count] = offset;
+        this.count += 1;
+        this.offsets[this.count] = offset + bytes.length;
+        return bytes.length;
+    }
+
+    /**
+     * Read a string from spill file.
+     * @param index Index
+     * @return Text
+     * @throws IOException If fails
+     */
+    private String read(final int index) throws IOException {
+        final ByteBuffer buf = ByteBuffer.allocate(
+            (int) (this.offsets[index + 1] - this.offsets[index])
+        );
+        long pos = this.offsets[index];
+        while (buf.hasRemaining()) {
+            final int len = this.spill.read(buf, pos);
+            if (len < 0) {
+                throw new IOException(String.format("Shared string #%d is truncated", index));
+            }
+            pos += len;
+        }
+        return new String(buf.array(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.xlsx;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Rows of a worksheet part, parsed event by event.
+ *
+ * <p>Only the row being parsed is held in memory. Phonetic runs of
+ * inline strings are skipped, and a shared string cell without index is
+ * blank.</p>
+ *
+ * @since 0.1
+ */
+public final class SheetRows {
+
+    /**
+     * Cell element.
+     */
+    private static final String CELL = "c";
+
+    /**
+     * Row element.
+     */
+    private static final String ROW = "row";
+
+    /**
+     * Phonetic run element, not part of text.
+     */
+    private static final String PHONETIC = "rPh";
+
+    /**
+     * Worksheet XML.
+     */
+    private final XMLStreamReader reader;
+
+    /**
+     * Shared strings.
+     */
+    private final SharedStrings strings;
+
+    /**
+     * Value of current cell.
+     */
+    @SuppressWarnings("PMD.AvoidStringBufferField")
+    private final StringBuilder value;
+
+    /**
+     * Cells of current row.
+     */
+    private final List<String> cells;
+
+    /**
+     * Number of current row.
+     */
+    private int row;
+
+    /**
+     * Column of current cell.
+     */
+    private int column;
+
+    /**
+     * Type of current cell.
+     */
+    private String type;
+
+    /**
+     * Whether characters belong to cell value.
+     */
+    private boolean capture;
+
+    /**
+     * Whether parser is inside a phonetic run.
+     */
+    private boolean phonetic;
+
+    /**
+     * Ctor.
+     * @param reader Worksheet XML
+     * @param strings Shared strings
+     */
+    public SheetRows(final XMLStreamReader reader, final SharedStrings strings) {
+        this.reader = reader;
+        this.strings = strings;
+        this.value = new StringBuilder(0);
+        this.cells = new ArrayList<>(0);
+        this.type = "";
+    }
+
+    /**
+     * Parse all rows.
+     * @param handler Receiver of rows
+     * @return Number of rows
+     * @throws IOException If fails, or a number in XML is not valid
+     */
+    public int emit(final RowHandler handler) throws IOException {
+        int total = 0;
+        try {
+            while (this.reader.hasNext()) {
+                final int event = this.reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    this.start();
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    total += this.end(handler);
+                } else if (this.capture && this.reader.isCharacters()) {
+                    this.value.append(this.reader.getText());
+                }
+            }
+            this.reader.close();
+        } catch (final XMLStreamException | NumberFormatException ex) {
+            throw new IOException(String.format("Can't parse row %d", this.row), ex);
+        }
+        return total;
+    }
+
+    /**
+     * Column index of a cell reference.
+     * @param ref Reference, like {@code AB12}
+     * @return Index, 0-based
+     */
+    private static int index(final String ref) {
+        int col = 0;
+        for (int idx = 0; idx < ref.length() && Character.isLetter(ref.charAt(idx)); ++idx) {
+            col = col * ('Z' - 'A' + 1) + Character.toUpperCase(ref.charAt(idx)) - 'A' + 1;
+        }
+        return col - 1;
+    }
+
+    /**
+     * Handle start of an element.
+     */
+    private void start() {
+        final String name = this.reader.getLocalName();
+        if (SheetRows.ROW.equals(name)) {
+            final String ref = this.reader.getAttributeValue(null, "r");
+            if (ref == null) {
+                this.row += 1;
+            } else {
+                this.row = Integer.parseInt(ref);
+            }
+            this.cells.clear();
+        } else if (SheetRows.CELL.equals(name)) {
+            final String ref = this.reader.getAttributeValue(null, "r");
+            if (ref == null) {
+                this.column = this.cells.size();
+            } else {
+                this.column = SheetRows.index(ref);
+            }
+            final String attr = this.reader.getAttributeValue(null, "t");
+            if (attr == null) {
+                this.type = "";
+            } else {
+                this.type = attr;
+            }
+            this.value.setLength(0);
+        } else if (SheetRows.PHONETIC.equals(name)) {
+            this.phonetic = true;
+            this.capture = false;
+        } else {
+            this.capture = !this.phonetic && ("v".equals(name) || "t".equals(name));
+        }
+    }
+
+    /**
+     * Handle end of an element.
+     * @param handler Receiver of rows
+     * @return Number of rows emitted, one or zero
+     * @throws IOException If fails
+     */
+    private int end(final RowHandler handler) throws IOException {
+        final String name = this.reader.getLocalName();
+        int emitted = 0;
+        this.capture = false;
+        if (SheetRows.PHONETIC.equals(name)) {
+            this.phonetic = false;
+        } else if (SheetRows.CELL.equals(name)) {
+            while (this.cells.size() <= this.column) {
+                this.cells.add("");
+            }
+            this.cells.set(this.column, this.text());
+        } else if (SheetRows.ROW.equals(name)) {
+            handler.handle(new Row(this.row, this.cells));
+            emitted = 1;
+        }
+        return emitted;
+    }
+
+    /**
+     * Text of current cell.
+     * @return Value, shared string resolved, empty if it has no index
+     * @throws IOException If shared string is missing
+     */
+    private String text() throws IOException {
+        final String text;
+        final String index = this.value.toString().trim();
+        if ("s".equals(this.type) && index.isEmpty()) {
+            text = "";
+        } else if ("s".equals(this.type)) {
+            text = this.strings.get(Integer.parseInt(index));
+        } else {
+            text = this.value.toString();
+        }
+        return text;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.xlsx;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Excel workbook ({@code .xlsx}) read as a stream of rows.
+ *
+ * <p>Worksheets are parsed with StAX straight from the zip entry, never
+ * as a DOM, and shared strings are spilled to a temporary file: memory
+ * usage does not depend on the number of rows.</p>
+ *
+ * @since 0.1
+ */
+public final class XlsxWorkbook {
+
+    /**
+     * Workbook part.
+     */
+    private static final String WORKBOOK = "xl/workbook.xml";
+
+    /**
+     * Workbook file.
+     */
+    private final Path file;
+
+    /**
+     * XML factory.
+     */
+    private final XMLInputFactory xml;
+
+    /**
+     * Ctor.
+     * @param file Workbook file
+     */
+    public XlsxWorkbook(final Path file) {
+        this.file = file;
+        this.xml = XlsxWorkbook.factory();
+    }
+
+    /**
+     * Names of sheets.
+     * @return Names, in workbook order
+     * @throws IOException If fails
+     */
+    public List<String> sheets() throws IOException {
+        try (ZipFile zip = new ZipFile(this.file.toFile())) {
+            return new ArrayList<>(this.parts(zip).keySet());
+        }
+    }
+
+    /**
+     * Read rows of first sheet.
+     * @param handler Receiver of rows
+     * @return Number of rows
+     * @throws IOException If fails
+     */
+    public int rows(final RowHandler handler) throws IOException {
+        return this.rows("", handler);
+    }
+
+    /**
+     * Read rows of a sheet.
+     * @param sheet Sheet name, empty for first sheet
+     * @param handler Receiver of rows
+     * @return Number of rows
+     * @throws IOException If fails
+     */
+    public int rows(final String sheet, final RowHandler handler) throws IOException {
+        try (SharedStrings strings = XlsxWorkbook.strings();
+            ZipFile zip = new ZipFile(this.file.toFile())) {
+            final ZipEntry shared = zip.getEntry("xl/sharedStrings.xml");
+            if (shared != null) {
+                try (InputStream input = zip.getInputStream(shared)) {
+                    strings.load(this.xml, input);
+                }
+            }
+            final Map<String, String> parts = this.parts(zip);
+            final String part;
+            if (sheet.isEmpty() && !parts.isEmpty()) {
+                part = parts.values().iterator().next();
+            } else {
+                part = parts.get(sheet);
+            }
+            try (InputStream input = this.entry(zip, part)) {
+                return new SheetRows(this.xml.createXMLStreamReader(input), strings)
+                    .emit(handler);
+            } catch (final XMLStreamException ex) {
+                throw new IOException(String.format("Can't read sheet '%s'", sheet), ex);
+            }
+        }
+    }
+
+    /**
+     * Shared strings spilled to a new temporary file.
+     *
+     * <p>File is owned, and deleted on close, by shared strings; it's
+     * deleted right away if they can't be opened.</p>
+     * @return Shared strings
+     * @throws IOException If fails
+     */
+    private static SharedStrings strings() throws IOException {
+        final Path spill = Files.createTempFile("shared-strings", ".bin");
+        boolean owned = false;
+        try {
+            final SharedStrings strings = new SharedStrings(spill);
+            owned = true;
+            return strings;
+        } finally {
+            if (!owned) {
+                Files.deleteIfExists(spill);
+            }
+        }
+    }
+
+    /**
+     * XML factory safe against external entities.
+     * @return Factory
+     */
+    private static XMLInputFactory factory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    /**
+     * Worksheet parts by sheet name.
+     * @param zip Workbook archive
+     * @return Zip entry names, in workbook order
+     * @throws IOException If fails
+     */
+    private Map<String, String> parts(final ZipFile zip) throws IOException {
+        final Map<String, String> targets = new HashMap<>(0);
+        try (InputStream input = this.entry(zip, "xl/_rels/workbook.xml.rels")) {
+            final XMLStreamReader reader = this.xml.createXMLStreamReader(input);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                    && "Relationship".equals(reader.getLocalName())) {
+                    final String target = reader.getAttributeValue(null, "Target");
+                    if (!target.isEmpty() && target.charAt(0) == '/') {
+                        targets.put(reader.getAttributeValue(null, "Id"), target.substring(1));
+                    } else {
+                        targets.put(reader.getAttributeValue(null, "Id"), "xl/".concat(target));
+                    }
+                }
+            }
+            reader.close();
+        } catch (final XMLStreamException ex) {
+            throw new IOException("Can't read workbook relationships", ex);
+        }
+        return this.named(zip, targets);
+    }
+
+    /**
+     * Sheet names mapped to their parts.
+     * @param zip Workbook archive
+     * @param targets Parts by relationship id
+     * @return Zip entry names, in workbook order
+     * @throws IOException If fails
+     */
+    private Map<String, String> named(final ZipFile zip, final Map<String, String> targets)
+        throws IOException {
+        final Map<String, String> parts = new LinkedHashMap<>(0);
+        try (InputStream input = this.entry(zip, XlsxWorkbook.WORKBOOK)) {
+            final XMLStreamReader reader = this.xml.createXMLStreamReader(input);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                    && "sheet".equals(reader.getLocalName())) {
+                    String rid = null;
+                    for (int idx = 0; idx < reader.getAttributeCount(); ++idx) {
+                        if ("id".equals(reader.getAttributeLocalName(idx))) {
+                            rid = reader.getAttributeValue(idx);
+                        }
+                    }
+                    parts.put(reader.getAttributeValue(null, "name"), targets.get(rid));
+                }
+            }
+            reader.close();
+        } catch (final XMLStreamException ex) {
+            throw new IOException("Can't read workbook", ex);
+        }
+        return parts;
+    }
+
+    /**
+     * Content of a zip entry.
+     * @param zip Workbook archive
+     * @param name Entry name
+     * @return Content
+     * @throws IOException If entry is missing
+     */
+    private InputStream entry(final ZipFile zip, final String name) throws IOException {
+        ZipEntry entry = null;
+        if (name != null) {
+            entry = zip.getEntry(name);
+        }
+        if (entry == null) {
+            throw new IOException(String.format("No part %s in %s", name, this.file));
+        }
+        return zip.getInputStream(entry);
+    }
+}
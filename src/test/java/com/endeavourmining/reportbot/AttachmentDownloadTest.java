@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link AttachmentDownload}.
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class AttachmentDownloadTest {
+
+    /**
+     * Mail server.
+     */
+    private GreenMail server;
+
+    /**
+     * Mail user.
+     */
+    private GreenMailUser user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = new GreenMail(
+            new ServerSetup[] {
+                ServerSetup.SMTP.withPort(new AvailablePort().intValue()),
+                ServerSetup.IMAP.withPort(new AvailablePort().intValue()),
+            }
+        );
+        this.server.start();
+        this.user = this.server.setUser("bar@example.com", "bar", "pwd");
+    }
+
+    @Test
+    void savesLargeAttachmentInChunks(final @TempDir Path temp) throws Exception {
+        final byte[] content = new byte[1024 * 1024 + 17];
+        new Random(42L).nextBytes(content);
+        final String name = "monthly.xlsx";
+        new ReportEmail(this.server, this.user.getEmail(), "Monthly report", name, content)
+            .send();
+        final Path file = temp.resolve(name);
+        final long size = new TransientInbox(this.account()).apply(
+            folder -> {
+                final Envelope envelope = new EnvelopeFetch().apply(
+                    folder, folder.getMessages()
+                ).get(0);
+                return new AttachmentDownload(50_000).save(
+                    folder, envelope.uid(), envelope.spreadsheet().get(), file
+                );
+            }
+        );
+        MatcherAssert.assertThat(size, new IsEqual<>((long) content.length));
+        MatcherAssert.assertThat(Files.readAllBytes(file), new IsEqual<>(content));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop();
+    }
+
+    /**
+     * Account of test user.
+     * @return Account
+     */
+    private ImapAccount account() {
+        return new ImapAccount(
+            this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+            this.server.getImap().getPort(), this.user.getLogin(), this.user.getPassword()
+        );
+    }
+}
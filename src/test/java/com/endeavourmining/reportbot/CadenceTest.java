@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.amihaiemil.eoyaml.Yaml;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.number.OrderingComparison;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Cadence}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class CadenceTest {
+
+    @Test
+    void backsOffQuietMailboxOutsidePeakHours() throws IOException {
+        final Cadence cadence = new Cadence(CadenceTest.schedule("0"), CadenceTest.clock(14));
+        MatcherAssert.assertThat(cadence.delay(0L), new IsEqual<>(Duration.ofSeconds(60L)));
+        MatcherAssert.assertThat(cadence.delay(3L), new IsEqual<>(Duration.ofSeconds(480L)));
+        MatcherAssert.assertThat(cadence.delay(50L), new IsEqual<>(Duration.ofSeconds(900L)));
+    }
+
+    @Test
+    void pollsFastDuringPeakHours() throws IOException {
+        final Cadence cadence = new Cadence(CadenceTest.schedule("0"), CadenceTest.clock(7));
+        MatcherAssert.assertThat(cadence.delay(10L), new IsEqual<>(Duration.ofSeconds(60L)));
+        MatcherAssert.assertThat(
+            new Cadence(CadenceTest.schedule("0"), CadenceTest.clock(17)).delay(10L),
+            new IsEqual<>(Duration.ofSeconds(60L))
+        );
+    }
+
+    @Test
+    void spreadsIntervalsByJitter() throws IOException {
+        final Cadence cadence = new Cadence(CadenceTest.schedule("50"), CadenceTest.clock(7));
+        for (int idx = 0; idx < 100; ++idx) {
+            final Duration delay = cadence.delay(0L);
+            MatcherAssert.assertThat(
+                delay, OrderingComparison.greaterThanOrEqualTo(Duration.ofSeconds(30L))
+            );
+            MatcherAssert.assertThat(
+                delay, OrderingComparison.lessThanOrEqualTo(Duration.ofSeconds(90L))
+            );
+        }
+    }
+
+    @Test
+    void neverWaitsLongerThanLongestInterval() throws IOException {
+        final Cadence cadence = new Cadence(CadenceTest.schedule("50"), CadenceTest.clock(14));
+        for (int idx = 0; idx < 100; ++idx) {
+            MatcherAssert.assertThat(
+                cadence.delay(50L),
+                OrderingComparison.lessThanOrEqualTo(Duration.ofSeconds(900L))
+            );
+        }
+    }
+
+    /**
+     * Compiled schedule with peak hours from 6 to 9 and at 17.
+     * @param jitter Jitter, in percent
+     * @return Schedule
+     * @throws IOException If fails
+     */
+    private static ScheduleSettings schedule(final String jitter) throws IOException {
+        return new CompiledScheduleSettings(
+            new YamlScheduleSettings(
+                Yaml.createYamlInput(
+                    String.join(
+                        "\n",
+                        "interval: 60",
+                        "max_interval: 900",
+                        "peak_hours: 6-9, 17",
+                        String.format("jitter: %s", jitter)
+                    )
+                ).readYamlMapping()
+            )
+        );
+    }
+
+    /**
+     * Clock fixed at an hour.
+     * @param hour Hour of day
+     * @return Clock
+     */
+    private static Clock clock(final int hour) {
+        return Clock.fixed(
+            LocalDateTime.of(2022, 3, 14, hour, 30).toInstant(ZoneOffset.UTC), ZoneOffset.UTC
+        );
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.mail.Folder;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Cleanup}.
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class CleanupTest {
+
+    /**
+     * Name of test mailbox.
+     */
+    private static final String MAILBOX = "bar@127.0.0.1";
+
+    /**
+     * Sender of reports.
+     */
+    private static final String SENDER = "site@example.com";
+
+    /**
+     * Mail server.
+     */
+    private GreenMail server;
+
+    /**
+     * Mail user.
+     */
+    private GreenMailUser user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = new GreenMail(
+            new ServerSetup[] {
+                ServerSetup.SMTP.withPort(new AvailablePort().intValue()),
+                ServerSetup.IMAP.withPort(new AvailablePort().intValue()),
+            }
+        );
+        this.server.start();
+        this.user = this.server.setUser("bar@example.com", "bar", "pwd");
+    }
+
+    @Test
+    void movesEmailsToArchiveWithOneCommand(final @TempDir Path temp) throws Exception {
+        for (int idx = 1; idx <= 5; ++idx) {
+            this.send(idx);
+        }
+        final Metrics metrics = new Metrics();
+        final String archive = "Processed";
+        final Inbox inbox = new TransientInbox(this.account());
+        try (Cleanup cleanup = new Cleanup(
+            Collections.singletonMap(CleanupTest.MAILBOX, archive), 30_000L, metrics
+        )) {
+            cleanup.register(CleanupTest.source(inbox, temp));
+            for (final long uid : new long[] {1L, 2L, 3L, 5L}) {
+                cleanup.accept(CleanupTest.report(uid));
+            }
+            cleanup.start();
+        }
+        MatcherAssert.assertThat(
+            metrics.histogram("imap.store").count(), new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(inbox.apply(Folder::getMessageCount), new IsEqual<>(1));
+        MatcherAssert.assertThat(
+            inbox.apply(folder -> folder.getStore().getFolder(archive).getMessageCount()),
+            new IsEqual<>(4)
+        );
+    }
+
+    @Test
+    void flagsEmailsAsSeenWithoutArchive(final @TempDir Path temp) throws Exception {
+        for (int idx = 1; idx <= 3; ++idx) {
+            this.send(idx);
+        }
+        final Inbox inbox = new TransientInbox(this.account());
+        try (Cleanup cleanup = new Cleanup(Collections.emptyMap()).start()) {
+            cleanup.register(CleanupTest.source(inbox, temp));
+            cleanup.accept(CleanupTest.report(1L));
+            cleanup.accept(CleanupTest.report(2L));
+            cleanup.accept(new PendingReport(3L, "other@127.0.0.1", CleanupTest.email(3L)));
+        }
+        MatcherAssert.assertThat(inbox.apply(Folder::getMessageCount), new IsEqual<>(3));
+        MatcherAssert.assertThat(inbox.apply(Folder::getUnreadMessageCount), new IsEqual<>(1));
+    }
+
+    @Test
+    void keepsBatchOfFailedCommand(final @TempDir Path temp) throws Exception {
+        for (int idx = 1; idx <= 2; ++idx) {
+            this.send(idx);
+        }
+        final Inbox inbox = new TransientInbox(this.account());
+        final AtomicInteger failures = new AtomicInteger(1);
+        final Inbox flaky = new Inbox() {
+            @Override
+            public <T> T apply(final Inbox.Action<T> action) throws IOException {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IOException("Connection reset");
+                }
+                return inbox.apply(action);
+            }
+        };
+        try (Cleanup cleanup = new Cleanup(Collections.emptyMap(), 50L)) {
+            cleanup.register(CleanupTest.source(flaky, temp));
+            cleanup.accept(CleanupTest.report(1L));
+            cleanup.accept(CleanupTest.report(2L));
+            cleanup.start();
+            final long end = System.currentTimeMillis() + 10_000L;
+            while (inbox.apply(Folder::getUnreadMessageCount) > 0
+                && System.currentTimeMillis() < end) {
+                Thread.sleep(20L);
+            }
+        }
+        MatcherAssert.assertThat(failures.get(), new IsEqual<>(-1));
+        MatcherAssert.assertThat(inbox.apply(Folder::getUnreadMessageCount), new IsEqual<>(0));
+    }
+
+    @Test
+    void keepsBatchOfUnexpectedError(final @TempDir Path temp) throws Exception {
+        this.send(1);
+        final Inbox inbox = new TransientInbox(this.account());
+        final AtomicInteger failures = new AtomicInteger(1);
+        final Inbox closing = new Inbox() {
+            @Override
+            public <T> T apply(final Inbox.Action<T> action) throws IOException {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Connection pool is closed");
+                }
+                return inbox.apply(action);
+            }
+        };
+        try (Cleanup cleanup = new Cleanup(Collections.emptyMap(), 50L)) {
+            cleanup.register(CleanupTest.source(closing, temp));
+            cleanup.accept(CleanupTest.report(1L));
+            cleanup.start();
+            final long end = System.currentTimeMillis() + 10_000L;
+            while (inbox.apply(Folder::getUnreadMessageCount) > 0
+                && System.currentTimeMillis() < end) {
+                Thread.sleep(20L);
+            }
+        }
+        MatcherAssert.assertThat(failures.get(), new IsEqual<>(-1));
+        MatcherAssert.assertThat(inbox.apply(Folder::getUnreadMessageCount), new IsEqual<>(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop();
+    }
+
+    /**
+     * Test mailbox.
+     * @param inbox Inbox
+     * @param temp Temporary directory
+     * @return Source
+     */
+    private static Source source(final Inbox inbox, final Path temp) {
+        return new Source(
+            CleanupTest.MAILBOX, inbox, new FileCheckpoints(temp.resolve("cleanup.properties"))
+        );
+    }
+
+    /**
+     * Report over, of the test mailbox.
+     * @param uid UID of its email
+     * @return Report
+     */
+    private static PendingReport report(final long uid) {
+        return new PendingReport(uid, CleanupTest.MAILBOX, CleanupTest.email(uid));
+    }
+
+    /**
+     * Email of a report.
+     * @param uid UID
+     * @return Envelope
+     */
+    private static Envelope email(final long uid) {
+        return new Envelope(
+            uid, "", CleanupTest.SENDER, "Report", Instant.now(), false,
+            Collections.emptyList()
+        );
+    }
+
+    /**
+     * Send a text email to test user.
+     * @param number Number of email
+     */
+    private void send(final int number) {
+        GreenMailUtil.sendTextEmail(
+            this.user.getEmail(), CleanupTest.SENDER, String.format("Report %d", number),
+            "Body", this.server.getSmtp().getServerSetup()
+        );
+    }
+
+    /**
+     * Account of test user.
+     * @return Account
+     */
+    private ImapAccount account() {
+        return new ImapAccount(
+            this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+            this.server.getImap().getPort(), this.user.getLogin(), this.user.getPassword()
+        );
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link CompiledSettings}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class CompiledSettingsTest {
+
+    /**
+     * Login line.
+     */
+    private static final String LOGIN = "      login: foo";
+
+    /**
+     * Password line.
+     */
+    private static final String PASSWORD = "      password: 123";
+
+    @Test
+    void readsAllValuesOnce(final @TempDir Path temp) throws Exception {
+        final Settings settings = new CompiledSettings(
+            CompiledSettingsTest.file(
+                temp, "  pipeline:\n    queue: 8\n",
+                CompiledSettingsTest.LOGIN, CompiledSettingsTest.PASSWORD
+            )
+        );
+        MatcherAssert.assertThat(settings.mailSettings().login(), new IsEqual<>("foo"));
+        MatcherAssert.assertThat(
+            settings.mailSettings().imapServerSettings().port(), new IsEqual<>(993)
+        );
+        MatcherAssert.assertThat(settings.mailboxes().size(), new IsEqual<>(1));
+        MatcherAssert.assertThat(settings.pipelineSettings().queue(), new IsEqual<>(8));
+        MatcherAssert.assertThat(settings.pipelineSettings().threads("parse"), new IsEqual<>(1));
+        MatcherAssert.assertThat(settings.reportSettings().header(), new IsEqual<>(1));
+    }
+
+    @Test
+    void rejectsInvalidSettingsAtOnce(final @TempDir Path temp) throws Exception {
+        final Settings origin = CompiledSettingsTest.file(
+            temp, "  pipeline:\n    queue: 0\n",
+            CompiledSettingsTest.LOGIN, CompiledSettingsTest.PASSWORD
+        );
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new CompiledSettings(origin)
+        );
+    }
+
+    @Test
+    void rejectsMailboxWithoutPassword(final @TempDir Path temp) throws Exception {
+        final Settings origin = CompiledSettingsTest.file(
+            temp, "", CompiledSettingsTest.LOGIN
+        );
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new CompiledSettings(origin)
+        );
+    }
+
+    @Test
+    void readsReportRules(final @TempDir Path temp) throws Exception {
+        final RuleSettings rules = new CompiledSettings(
+            CompiledSettingsTest.file(
+                temp, "  rules:\n    senders:\n      - site@\n    days: 3\n",
+                CompiledSettingsTest.LOGIN, CompiledSettingsTest.PASSWORD
+            )
+        ).ruleSettings();
+        MatcherAssert.assertThat(
+            rules.senders(), new IsEqual<>(Collections.singletonList("site@"))
+        );
+        MatcherAssert.assertThat(rules.subjects().isEmpty(), new IsEqual<>(true));
+        MatcherAssert.assertThat(rules.window(), new IsEqual<>(Duration.ofDays(3L)));
+        MatcherAssert.assertThat(rules.attachments(), new IsEqual<>(false));
+    }
+
+    @Test
+    void rejectsNegativeReportWindow(final @TempDir Path temp) throws Exception {
+        final Settings origin = CompiledSettingsTest.file(
+            temp, "  rules:\n    days: -1\n",
+            CompiledSettingsTest.LOGIN, CompiledSettingsTest.PASSWORD
+        );
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new CompiledSettings(origin)
+        );
+    }
+
+    /**
+     * Settings of one mailbox with extra sections.
+     * @param temp Temporary directory
+     * @param extra Extra YAML lines
+     * @param credentials YAML lines of credentials
+     * @return Settings
+     * @throws Exception If fails
+     */
+    private static Settings file(
+        final Path temp, final String extra, final String... credentials
+    ) throws Exception {
+        final List<String> lines = new ArrayList<>(0);
+        lines.add("settings:");
+        lines.add("  mailbox:");
+        lines.add("    credentials:");
+        lines.addAll(Arrays.asList(credentials));
+        lines.add("    imap_server:");
+        lines.add("      host: localhost");
+        lines.add("      ssl_tls: true");
+        lines.add("      port: 993");
+        lines.add(extra);
+        final Path path = temp.resolve("settings.yml");
+        Files.write(path, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return new SettingsFromPath(path);
+    }
+}
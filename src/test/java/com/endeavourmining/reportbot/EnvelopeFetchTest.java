@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link EnvelopeFetch}.
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class EnvelopeFetchTest {
+
+    /**
+     * Mail server.
+     */
+    private GreenMail server;
+
+    /**
+     * Mail user.
+     */
+    private GreenMailUser user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = new GreenMail(
+            new ServerSetup[] {
+                ServerSetup.SMTP.withPort(new AvailablePort().intValue()),
+                ServerSetup.IMAP.withPort(new AvailablePort().intValue()),
+            }
+        );
+        this.server.start();
+        this.user = this.server.setUser("bar@example.com", "bar", "pwd");
+    }
+
+    @Test
+    void describesEmailsWithTheirAttachments() throws Exception {
+        GreenMailUtil.sendTextEmail(
+            this.user.getEmail(), "foo@example.com", "Hello", "Not a report",
+            this.server.getSmtp().getServerSetup()
+        );
+        final String subject = "Daily report";
+        final String name = "daily.xlsx";
+        new ReportEmail(
+            this.server, this.user.getEmail(), subject, name,
+            "cells".getBytes(StandardCharsets.UTF_8)
+        ).send();
+        final List<Envelope> envelopes = new TransientInbox(
+            new ImapAccount(
+                this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+                this.server.getImap().getPort(), this.user.getLogin(),
+                this.user.getPassword()
+            )
+        ).apply(folder -> new EnvelopeFetch().apply(folder, folder.getMessages()));
+        MatcherAssert.assertThat(envelopes.size(), new IsEqual<>(2));
+        MatcherAssert.assertThat(
+            envelopes.get(0).attachments().isEmpty(),
+            new IsEqual<>(true)
+        );
+        final Envelope report = envelopes.get(1);
+        MatcherAssert.assertThat(report.uid(), new IsEqual<>(2L));
+        MatcherAssert.assertThat(report.subject(), new IsEqual<>(subject));
+        MatcherAssert.assertThat(report.sender(), new IsEqual<>("site@example.com"));
+        MatcherAssert.assertThat(report.isSeen(), new IsEqual<>(false));
+        final AttachmentPart part = report.attachments().get(0);
+        MatcherAssert.assertThat(part.section(), new IsEqual<>("2"));
+        MatcherAssert.assertThat(part.name(), new IsEqual<>(name));
+        MatcherAssert.assertThat(part.type(), new IsEqual<>(ReportEmail.XLSX));
+        MatcherAssert.assertThat(part.encoding(), new IsEqual<>("base64"));
+        MatcherAssert.assertThat(part.spreadsheet(), new IsEqual<>(true));
+    }
+
+    @Test
+    void ignoresLegacyWorkbooks() {
+        MatcherAssert.assertThat(
+            new AttachmentPart("2", "daily.xls", "application/vnd.ms-excel", "base64", 10)
+                .spreadsheet(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            new AttachmentPart("2", "Daily.XLSX", "application/octet-stream", "base64", 10)
+                .spreadsheet(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link FileCheckpoints}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class FileCheckpointsTest {
+
+    /**
+     * Name of checkpoints file.
+     */
+    private static final String FILE = "checkpoints.properties";
+
+    /**
+     * Name of folder.
+     */
+    private static final String INBOX = "INBOX";
+
+    @Test
+    void savesCheckpointsWithoutLeftovers(final @TempDir Path temp) throws IOException {
+        final Checkpoints checkpoints = new FileCheckpoints(
+            temp.resolve(FileCheckpointsTest.FILE)
+        );
+        checkpoints.save(FileCheckpointsTest.INBOX, new Checkpoint(7L, 42L, 1200L));
+        checkpoints.save("Archive", new Checkpoint(8L, 3L));
+        final Checkpoint saved = new FileCheckpoints(temp.resolve(FileCheckpointsTest.FILE))
+            .checkpoint(FileCheckpointsTest.INBOX);
+        MatcherAssert.assertThat(saved.validity(), new IsEqual<>(7L));
+        MatcherAssert.assertThat(saved.uid(), new IsEqual<>(42L));
+        MatcherAssert.assertThat(saved.since(7L), new IsEqual<>(1200L));
+        MatcherAssert.assertThat(saved.since(9L), new IsEqual<>(0L));
+        try (Stream<Path> files = Files.list(temp)) {
+            MatcherAssert.assertThat(
+                files.map(path -> path.getFileName().toString()).collect(Collectors.toList()),
+                new IsEqual<>(Collections.singletonList(FileCheckpointsTest.FILE))
+            );
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Fingerprints}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class FingerprintsTest {
+
+    @Test
+    void remembersFingerprintsAcrossInstances(final @TempDir Path temp) throws IOException {
+        final Path file = temp.resolve("seen.fingerprints");
+        final Fingerprint mid = new Fingerprint("<1@example.com>");
+        MatcherAssert.assertThat(new Fingerprints(file).add(mid), new IsEqual<>(true));
+        final Fingerprints again = new Fingerprints(file);
+        MatcherAssert.assertThat(again.contains(mid), new IsEqual<>(true));
+        MatcherAssert.assertThat(again.add(mid), new IsEqual<>(false));
+        MatcherAssert.assertThat(
+            again.contains(new Fingerprint("<2@example.com>")), new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(again.size(), new IsEqual<>(1));
+    }
+
+    @Test
+    void growsWhenHalfFull(final @TempDir Path temp) throws IOException {
+        final Path file = temp.resolve("many.fingerprints");
+        final Fingerprints prints = new Fingerprints(file);
+        final int count = 3000;
+        final String mid = "<%d@example.com>";
+        for (int idx = 0; idx < count; ++idx) {
+            prints.add(new Fingerprint(String.format(mid, idx)));
+        }
+        final Fingerprints reopened = new Fingerprints(file);
+        MatcherAssert.assertThat(reopened.size(), new IsEqual<>(count));
+        for (int idx = 0; idx < count; ++idx) {
+            MatcherAssert.assertThat(
+                reopened.contains(new Fingerprint(String.format(mid, idx))),
+                new IsEqual<>(true)
+            );
+        }
+        MatcherAssert.assertThat(
+            Files.size(file), new IsEqual<>(16L + 8192L * 32L + 8L + 2048L * 32L)
+        );
+        prints.close();
+        reopened.close();
+    }
+
+    @Test
+    void mapsFileAgainAfterClose(final @TempDir Path temp) throws IOException {
+        final Path file = temp.resolve("closed.fingerprints");
+        final Fingerprints prints = new Fingerprints(file);
+        prints.add(new Fingerprint("<4@example.com>"));
+        prints.close();
+        MatcherAssert.assertThat(
+            prints.contains(new Fingerprint("<4@example.com>")), new IsEqual<>(true)
+        );
+        MatcherAssert.assertThat(
+            prints.add(new Fingerprint("<5@example.com>")), new IsEqual<>(true)
+        );
+        prints.close();
+        MatcherAssert.assertThat(new Fingerprints(file).size(), new IsEqual<>(2));
+    }
+
+    @Test
+    void rejectsForeignFile(final @TempDir Path temp) throws IOException {
+        final Path file = temp.resolve("foreign.fingerprints");
+        Files.write(file, new byte[64]);
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new Fingerprints(file).contains(new Fingerprint("<3@example.com>"))
+        );
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local IMAP server advertising CONDSTORE, answering from a script.
+ *
+ * <p>It serves an INBOX of messages known by their UID and MODSEQ only.
+ * {@code UID FETCH n:* (UID MODSEQ)} answers the UID and MODSEQ of messages
+ * from {@code n} on, and of the last message, as the range always holds it,
+ * limited to the ones changed since a MODSEQ given with
+ * {@code (CHANGEDSINCE m)}. Other UID FETCH answer UIDs only, and other
+ * commands are accepted without any data. Commands received are recorded
+ * without their tag.</p>
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class ImapStub implements Closeable {
+
+    /**
+     * UIDVALIDITY of INBOX.
+     */
+    public static final long VALIDITY = 42L;
+
+    /**
+     * Listing of UIDs and MODSEQs.
+     */
+    private static final Pattern LISTING = Pattern.compile(
+        "UID FETCH (\\d+):\\* \\(UID MODSEQ\\)(?: \\(CHANGEDSINCE (\\d+)\\))?",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Other fetch of UIDs.
+     */
+    private static final Pattern FETCH = Pattern.compile(
+        "UID FETCH ([0-9:,*]+) .*", Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Server socket.
+     */
+    private final ServerSocket socket;
+
+    /**
+     * Threads serving connections.
+     */
+    private final ExecutorService threads;
+
+    /**
+     * MODSEQ of messages, by UID.
+     */
+    private final Map<Long, Long> messages;
+
+    /**
+     * Commands received.
+     */
+    private final List<String> received;
+
+    /**
+     * Ctor.
+     * @throws IOException If fails
+     */
+    public ImapStub() throws IOException {
+        this.socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+        this.threads = Executors.newCachedThreadPool();
+        this.messages = new ConcurrentSkipListMap<>();
+        this.received = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Start serving.
+     * @return This
+     */
+    public ImapStub start() {
+        this.threads.execute(
+            () -> {
+                while (!this.socket.isClosed()) {
+                    try {
+                        final Socket client = this.socket.accept();
+                        this.threads.execute(() -> this.serve(client));
+                    } catch (final IOException ex) {
+                        this.threads.shutdown();
+                    }
+                }
+            }
+        );
+        return this;
+    }
+
+    /**
+     * Add or change a message.
+     * @param uid UID
+     * @param modseq MODSEQ
+     * @return This
+     */
+    public ImapStub message(final long uid, final long modseq) {
+        this.messages.put(uid, modseq);
+        return this;
+    }
+
+    /**
+     * Account of the only user.
+     * @return Account
+     */
+    public ImapAccount account() {
+        return new ImapAccount(
+            this.socket.getInetAddress().getHostAddress(), "imap", this.socket.getLocalPort(),
+            "user", "pwd"
+        );
+    }
+
+    /**
+     * Commands received, without their tag, in order.
+     * @return Commands
+     */
+    public List<String> commands() {
+        return this.received;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.socket.close();
+        this.threads.shutdownNow();
+    }
+
+    /**
+     * Serve a connection until LOGOUT.
+     * @param client Socket of client
+     */
+    private void serve(final Socket client) {
+        try (Socket open = client;
+            BufferedReader input = new BufferedReader(
+                new InputStreamReader(open.getInputStream(), StandardCharsets.US_ASCII)
+            );
+            PrintWriter output = new PrintWriter(open.getOutputStream(), true)) {
+            ImapStub.line(output, "* OK [CAPABILITY IMAP4rev1 CONDSTORE] Stub ready");
+            boolean over = false;
+            for (String line = input.readLine(); line != null && !over;
+                line = input.readLine()) {
+                final int space = line.indexOf(' ');
+                final String tag = line.substring(0, space);
+                final String command = line.substring(space + 1);
+                this.received.add(command);
+                over = this.answer(output, command);
+                ImapStub.line(output, String.format("%s OK done", tag));
+            }
+        } catch (final IOException ex) {
+            this.received.add(String.format("broken: %s", ex.getMessage()));
+        }
+    }
+
+    /**
+     * Answer data of a command, before its completion.
+     * @param output Output
+     * @param command Command, without tag
+     * @return True if connection is over
+     */
+    private boolean answer(final PrintWriter output, final String command) {
+        final String upper = command.toUpperCase(Locale.ENGLISH);
+        final Matcher listing = ImapStub.LISTING.matcher(command);
+        final Matcher fetch = ImapStub.FETCH.matcher(command);
+        if (upper.startsWith("CAPABILITY")) {
+            ImapStub.line(output, "* CAPABILITY IMAP4rev1 CONDSTORE");
+        } else if (upper.startsWith("SELECT") || upper.startsWith("EXAMINE")) {
+            this.selected(output);
+        } else if (listing.matches()) {
+            long since = -1L;
+            if (listing.group(2) != null) {
+                since = Long.parseLong(listing.group(2));
+            }
+            this.listed(output, Long.parseLong(listing.group(1)), since);
+        } else if (fetch.matches()) {
+            this.fetched(output, fetch.group(1));
+        } else if (upper.startsWith("LOGOUT")) {
+            ImapStub.line(output, "* BYE Stub closing");
+        }
+        return upper.startsWith("LOGOUT");
+    }
+
+    /**
+     * Answer SELECT or EXAMINE of INBOX.
+     * @param output Output
+     */
+    private void selected(final PrintWriter output) {
+        long last = 0L;
+        long highest = 1L;
+        for (final Map.Entry<Long, Long> msg : this.messages.entrySet()) {
+            last = msg.getKey();
+            highest = Math.max(highest, msg.getValue());
+        }
+        ImapStub.line(output, "* FLAGS (\\Seen)");
+        ImapStub.line(output, String.format("* %d EXISTS", this.messages.size()));
+        ImapStub.line(output, "* 0 RECENT");
+        ImapStub.line(
+            output, String.format("* OK [UIDVALIDITY %d] UIDs valid", ImapStub.VALIDITY)
+        );
+        ImapStub.line(output, String.format("* OK [UIDNEXT %d] Predicted", last + 1L));
+        ImapStub.line(output, String.format("* OK [HIGHESTMODSEQ %d] Highest", highest));
+    }
+
+    /**
+     * Answer UIDs and MODSEQs of messages from a UID on.
+     * @param output Output
+     * @param from First UID
+     * @param since MODSEQ of CHANGEDSINCE, negative if none
+     */
+    private void listed(final PrintWriter output, final long from, final long since) {
+        int seq = 0;
+        for (final Map.Entry<Long, Long> msg : this.messages.entrySet()) {
+            ++seq;
+            final boolean range = msg.getKey() >= from || seq == this.messages.size();
+            if (range && msg.getValue() > since) {
+                ImapStub.line(
+                    output,
+                    String.format(
+                        "* %d FETCH (UID %d MODSEQ (%d))", seq, msg.getKey(), msg.getValue()
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Answer UIDs of messages in a set.
+     * @param output Output
+     * @param set Set of UIDs, like {@code 1:3,5}
+     */
+    private void fetched(final PrintWriter output, final String set) {
+        int seq = 0;
+        for (final Long uid : this.messages.keySet()) {
+            ++seq;
+            if (ImapStub.contains(set, uid)) {
+                ImapStub.line(output, String.format("* %d FETCH (UID %d)", seq, uid));
+            }
+        }
+    }
+
+    /**
+     * Whether a set of UIDs holds a UID.
+     * @param set Set of UIDs
+     * @param uid UID
+     * @return True if so
+     */
+    private static boolean contains(final String set, final long uid) {
+        boolean found = false;
+        for (final String range : set.split(",")) {
+            final String[] ends = range.split(":");
+            final long low = Long.parseLong(ends[0]);
+            long high = low;
+            if (ends.length > 1 && "*".equals(ends[1])) {
+                high = Long.MAX_VALUE;
+            } else if (ends.length > 1) {
+                high = Long.parseLong(ends[1]);
+            }
+            found = found || uid >= Math.min(low, high) && uid <= Math.max(low, high);
+        }
+        return found;
+    }
+
+    /**
+     * Write a line of answer.
+     * @param output Output
+     * @param line Line, without CRLF
+     */
+    private static void line(final PrintWriter output, final String line) {
+        output.print(line);
+        output.print("\r\n");
+        output.flush();
+    }
+}
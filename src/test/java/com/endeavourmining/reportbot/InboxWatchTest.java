@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link InboxWatch}.
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class InboxWatchTest {
+
+    /**
+     * Mail server.
+     */
+    private GreenMail server;
+
+    /**
+     * Mail user.
+     */
+    private GreenMailUser user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = new GreenMail(
+            new ServerSetup[] {
+                ServerSetup.SMTP.withPort(new AvailablePort().intValue()),
+                ServerSetup.IMAP.withPort(new AvailablePort().intValue()),
+            }
+        );
+        this.server.start();
+        this.user = this.server.setUser("bar@example.com", "bar", "pwd");
+    }
+
+    @Test
+    void notifiesNewEmailWithIdle() throws Exception {
+        this.notifiesNewEmail(true);
+    }
+
+    @Test
+    void notifiesNewEmailWithPolling() throws Exception {
+        this.notifiesNewEmail(false);
+    }
+
+    @Test
+    void refusesMailboxThatIsNotImap() {
+        final InboxWatch watch = new InboxWatch(
+            new ImapAccount(
+                this.server.getImap().getBindTo(), "pop3", this.server.getImap().getPort(),
+                this.user.getLogin(), this.user.getPassword()
+            )
+        );
+        try {
+            Assertions.assertThrows(IOException.class, watch::start);
+        } finally {
+            watch.close();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop();
+    }
+
+    /**
+     * Check that sending an email notifies listener.
+     * @param push Whether IDLE should be used
+     * @throws Exception If fails
+     */
+    private void notifiesNewEmail(final boolean push) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        try (
+            InboxWatch watch = new InboxWatch(
+                new ImapAccount(
+                    this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+                    this.server.getImap().getPort(), this.user.getLogin(),
+                    this.user.getPassword()
+                ),
+                Duration.ofMillis(100L),
+                push
+            ).subscribe(count -> latch.countDown())
+        ) {
+            watch.start();
+            GreenMailUtil.sendTextEmail(
+                this.user.getEmail(), "foo@example.com", "Report", "Body",
+                this.server.getSmtp().getServerSetup()
+            );
+            MatcherAssert.assertThat(
+                latch.await(5L, TimeUnit.SECONDS),
+                new IsEqual<>(true)
+            );
+        }
+    }
+}
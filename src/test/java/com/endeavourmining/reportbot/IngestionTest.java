@@ -0,0 +1,638 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.journey.DetectEvent;
+import com.endeavourmining.reportbot.journey.ExtractEvent;
+import com.endeavourmining.reportbot.journey.ParseEvent;
+import com.endeavourmining.reportbot.journey.PublishEvent;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.endeavourmining.reportbot.xlsx.WorkbookFile;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import javax.mail.Folder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Ingestion}.
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class IngestionTest {
+
+    /**
+     * Password of mail users.
+     */
+    private static final String PASSWORD = "pwd";
+
+    /**
+     * Key of single mailbox.
+     */
+    private static final String SINGLE = "  mailbox:";
+
+    /**
+     * Indentation of keys of single mailbox.
+     */
+    private static final String INDENT = "    ";
+
+    /**
+     * Field of rows in events.
+     */
+    private static final String ROWS = "rows";
+
+    /**
+     * Natural key of reports.
+     */
+    private static final String KEY = String.join(
+        "\n", "    key:", "      - site", "      - day"
+    );
+
+    /**
+     * Mail server.
+     */
+    private GreenMail server;
+
+    /**
+     * Mail user.
+     */
+    private GreenMailUser user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = new GreenMail(
+            new ServerSetup[] {
+                ServerSetup.SMTP.withPort(new AvailablePort().intValue()),
+                ServerSetup.IMAP.withPort(new AvailablePort().intValue()),
+            }
+        );
+        this.server.start();
+        this.user = this.server.setUser("bar@example.com", "bar", IngestionTest.PASSWORD);
+    }
+
+    @Test
+    void publishesReportsOfNewEmails(final @TempDir Path temp) throws Exception {
+        final String hounde = "Houndé";
+        final String ity = "Ity";
+        this.report(temp, this.user, hounde, 10);
+        GreenMailUtil.sendTextEmail(
+            this.user.getEmail(), "foo@example.com", "Hello", "Not a report",
+            this.server.getSmtp().getServerSetup()
+        );
+        this.report(temp, this.user, ity, 7);
+        final Map<String, Double> gold = new ConcurrentHashMap<>(2);
+        final List<String> complete = new CopyOnWriteArrayList<>();
+        IngestionTest.ingest(
+            IngestionTest.settings(
+                temp, IngestionTest.SINGLE, this.mailbox(IngestionTest.INDENT, this.user)
+            ),
+            temp, gold, complete
+        );
+        MatcherAssert.assertThat(gold.get(hounde), new IsEqual<>(55.0));
+        MatcherAssert.assertThat(gold.get(ity), new IsEqual<>(28.0));
+        Collections.sort(complete);
+        MatcherAssert.assertThat(
+            complete, new IsEqual<>(Arrays.asList("Report of 10 days", "Report of 7 days"))
+        );
+        MatcherAssert.assertThat(
+            new TransientInbox(
+                new ImapAccount(
+                    this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+                    this.server.getImap().getPort(), this.user.getLogin(),
+                    this.user.getPassword()
+                )
+            ).apply(Folder::getUnreadMessageCount),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void countsUnreadEmailsOfMailboxesReachable(final @TempDir Path temp) throws Exception {
+        final GreenMailUser other = this.server.setUser(
+            "baz@example.com", "baz", IngestionTest.PASSWORD
+        );
+        this.report(temp, this.user, "Tarkwa", 5);
+        this.report(temp, other, "Mana", 4);
+        final String item = "    -";
+        final String indent = "      ";
+        final Settings settings = IngestionTest.settings(
+            temp, "  mailboxes:",
+            String.join(
+                "\n", item, this.mailbox(indent, this.user), item,
+                this.mailbox(indent, other).replace(IngestionTest.PASSWORD, "wrong")
+            )
+        );
+        try (Mailboxes all = new Mailboxes(settings, temp)) {
+            MatcherAssert.assertThat(all.unread(), new IsEqual<>(1));
+        }
+    }
+
+    @Test
+    void pollsManyMailboxesConcurrently(final @TempDir Path temp) throws Exception {
+        final GreenMailUser other = this.server.setUser(
+            "baz@example.com", "baz", IngestionTest.PASSWORD
+        );
+        final String tarkwa = "Tarkwa";
+        final String mana = "Mana";
+        this.report(temp, this.user, tarkwa, 5);
+        this.report(temp, other, mana, 4);
+        this.report(temp, other, mana, 3);
+        final Map<String, Double> gold = new ConcurrentHashMap<>(2);
+        final List<String> complete = new CopyOnWriteArrayList<>();
+        final String item = "    -";
+        final String indent = "      ";
+        final String mailboxes = String.join(
+            "\n", item, this.mailbox(indent, this.user), item, this.mailbox(indent, other)
+        );
+        final Settings settings = IngestionTest.settings(temp, "  mailboxes:", mailboxes);
+        try (Mailboxes all = new Mailboxes(settings, temp)) {
+            MatcherAssert.assertThat(all.unread(), new IsEqual<>(3));
+        }
+        IngestionTest.ingest(settings, temp, gold, complete);
+        MatcherAssert.assertThat(gold.get(tarkwa), new IsEqual<>(15.0));
+        MatcherAssert.assertThat(gold.get(mana), new IsEqual<>(16.0));
+        MatcherAssert.assertThat(complete.size(), new IsEqual<>(3));
+        MatcherAssert.assertThat(
+            Files.exists(temp.resolve("checkpoints-baz@127.0.0.1.properties")),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void countsEmailsReportsAndRows(final @TempDir Path temp) throws Exception {
+        this.report(temp, this.user, "Boungou", 6);
+        this.report(temp, this.user, "Massawa", 4);
+        final Metrics metrics = new Metrics();
+        IngestionTest.ingest(
+            IngestionTest.settings(
+                temp, IngestionTest.SINGLE, this.mailbox(IngestionTest.INDENT, this.user)
+            ),
+            temp, part -> { }, metrics
+        );
+        MatcherAssert.assertThat(
+            metrics.counter("emails.fetched").sum(), new IsEqual<>(2L)
+        );
+        MatcherAssert.assertThat(
+            metrics.counter("reports.detected").sum(), new IsEqual<>(2L)
+        );
+        MatcherAssert.assertThat(
+            metrics.counter("reports.published").sum(), new IsEqual<>(2L)
+        );
+        MatcherAssert.assertThat(
+            metrics.counter("rows.published").sum(), new IsEqual<>(10L)
+        );
+        MatcherAssert.assertThat(
+            metrics.histogram("stage.fetch").count(), new IsEqual<>(1L)
+        );
+    }
+
+    @Test
+    void skipsReportsSeenAgain(final @TempDir Path temp) throws Exception {
+        final String site = "Lafigue";
+        this.report(temp, this.user, site, 5);
+        final Map<String, Double> gold = new ConcurrentHashMap<>(1);
+        final List<String> complete = new CopyOnWriteArrayList<>();
+        final Settings settings = IngestionTest.settings(
+            temp, IngestionTest.SINGLE, this.mailbox(IngestionTest.INDENT, this.user)
+        );
+        IngestionTest.ingest(settings, temp, gold, complete);
+        new ReportEmail(
+            this.server, this.user.getEmail(), "Fwd: Report of 5 days", "copy.xlsx",
+            Files.readAllBytes(temp.resolve("site-5.xlsx"))
+        ).send();
+        IngestionTest.ingest(settings, temp, gold, complete);
+        Files.delete(temp.resolve("checkpoints-bar@127.0.0.1.properties"));
+        IngestionTest.ingest(settings, temp, gold, complete);
+        MatcherAssert.assertThat(gold.get(site), new IsEqual<>(15.0));
+        MatcherAssert.assertThat(complete.size(), new IsEqual<>(1));
+        MatcherAssert.assertThat(
+            new Fingerprints(temp.resolve(Ingestion.SEEN)).size(), new IsEqual<>(3)
+        );
+    }
+
+    @Test
+    void publishesOnlyChangesOfReportSentAgain(final @TempDir Path temp) throws Exception {
+        final Settings settings = IngestionTest.settings(
+            temp, IngestionTest.SINGLE, this.mailbox(IngestionTest.INDENT, this.user),
+            IngestionTest.KEY
+        );
+        final AtomicInteger changed = new AtomicInteger();
+        final AtomicInteger removed = new AtomicInteger();
+        final Publisher publisher = part -> {
+            if (part.removal()) {
+                removed.addAndGet(part.batch().size());
+            } else {
+                changed.addAndGet(part.batch().size());
+            }
+        };
+        final String site = "Sabodala";
+        final int[] versions = {5, 6, 4};
+        final int[][] expected = {{5, 0}, {1, 0}, {0, 2}};
+        for (int idx = 0; idx < versions.length; ++idx) {
+            changed.set(0);
+            removed.set(0);
+            this.report(temp, this.user, site, versions[idx]);
+            IngestionTest.ingest(settings, temp, publisher);
+            MatcherAssert.assertThat(
+                new int[] {changed.get(), removed.get()}, new IsEqual<>(expected[idx])
+            );
+        }
+    }
+
+    @Test
+    void diffsAgainstVersionPublishedOnly(final @TempDir Path temp) throws Exception {
+        final Settings settings = IngestionTest.settings(
+            temp, IngestionTest.SINGLE, this.mailbox(IngestionTest.INDENT, this.user),
+            IngestionTest.KEY
+        );
+        final String site = "Tabakoto";
+        this.report(temp, this.user, site, 5);
+        this.report(temp, this.user, site, 6);
+        final AtomicInteger rows = new AtomicInteger();
+        IngestionTest.ingest(
+            settings, temp,
+            part -> {
+                if (part.envelope().subject().contains("5")) {
+                    throw new IOException("Version rejected");
+                }
+                rows.addAndGet(part.batch().size());
+            }
+        );
+        MatcherAssert.assertThat(rows.get(), new IsEqual<>(6));
+    }
+
+    @Test
+    void resumesReportsUnfinishedAtCrash(final @TempDir Path temp) throws Exception {
+        final String site = "Essakane";
+        this.report(temp, this.user, site, 6);
+        final Settings settings = IngestionTest.settings(
+            temp, IngestionTest.SINGLE, this.mailbox(IngestionTest.INDENT, this.user)
+        );
+        IngestionTest.ingest(
+            settings, temp,
+            part -> {
+                throw new IOException("Publisher is down");
+            }
+        );
+        final Map<String, Double> gold = new ConcurrentHashMap<>(1);
+        final List<String> complete = new CopyOnWriteArrayList<>();
+        IngestionTest.ingest(settings, temp, gold, complete);
+        IngestionTest.ingest(settings, temp, gold, complete);
+        MatcherAssert.assertThat(gold.get(site), new IsEqual<>(21.0));
+        MatcherAssert.assertThat(complete.size(), new IsEqual<>(1));
+        try (Stream<Path> files = Files.list(temp.resolve(Ingestion.DOWNLOADS))) {
+            MatcherAssert.assertThat(files.count(), new IsEqual<>(0L));
+        }
+    }
+
+    @Test
+    void leavesReportPendingWhenEarlierPartFails(final @TempDir Path temp) throws Exception {
+        final String site = "Kalana";
+        this.report(temp, this.user, site, 6);
+        final Settings settings = IngestionTest.settings(
+            temp, IngestionTest.SINGLE, this.mailbox(IngestionTest.INDENT, this.user)
+        );
+        IngestionTest.ingest(
+            settings, temp,
+            part -> {
+                if (!part.last()) {
+                    throw new IOException("First part rejected");
+                }
+            }
+        );
+        try (Journal journal = new Journal(temp.resolve(Ingestion.JOURNAL))) {
+            MatcherAssert.assertThat(journal.pending().size(), new IsEqual<>(1));
+        }
+        MatcherAssert.assertThat(
+            new Fingerprints(temp.resolve(Ingestion.SEEN)).size(), new IsEqual<>(0)
+        );
+        MatcherAssert.assertThat(
+            new TransientInbox(
+                new ImapAccount(
+                    this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+                    this.server.getImap().getPort(), this.user.getLogin(),
+                    this.user.getPassword()
+                )
+            ).apply(Folder::getUnreadMessageCount),
+            new IsEqual<>(1)
+        );
+        final Map<String, Double> gold = new ConcurrentHashMap<>(1);
+        final List<String> complete = new CopyOnWriteArrayList<>();
+        IngestionTest.ingest(settings, temp, gold, complete);
+        MatcherAssert.assertThat(gold.get(site), new IsEqual<>(21.0));
+        MatcherAssert.assertThat(complete.size(), new IsEqual<>(1));
+    }
+
+    @Test
+    void publishesNothingOfReportBrokenHalfWay(final @TempDir Path temp) throws Exception {
+        final StringBuilder data = new StringBuilder(
+            "<row r=\"1\"><c t=\"inlineStr\"><is><t>Site</t></is></c></row>"
+        );
+        for (int day = 1; day <= 7; ++day) {
+            data.append(
+                String.format(
+                    "<row r=\"%d\"><c t=\"s\"><v>0</v></c><c><v>%d</v></c><c><v>1</v></c></row>",
+                    day + 1, 44_926 + day
+                )
+            );
+        }
+        data.append(
+            "<row r=\"9\"><c t=\"s\"><v>0</v></c><c><v>44934</v></c>"
+        ).append("<c t=\"inlineStr\"><is><t>lots</t></is></c></row>");
+        final Path file = new WorkbookFile(
+            Collections.singletonList("Lafigué"),
+            Collections.singletonMap("Daily", data.toString())
+        ).write(temp.resolve("broken.xlsx"));
+        new ReportEmail(
+            this.server, this.user.getEmail(), "Broken report", "daily.xlsx",
+            Files.readAllBytes(file)
+        ).send();
+        final List<ReportPart> published = new CopyOnWriteArrayList<>();
+        IngestionTest.ingest(
+            IngestionTest.settings(
+                temp, IngestionTest.SINGLE, this.mailbox(IngestionTest.INDENT, this.user)
+            ),
+            temp, published::add
+        );
+        MatcherAssert.assertThat(published.size(), new IsEqual<>(0));
+        try (Journal journal = new Journal(temp.resolve(Ingestion.JOURNAL))) {
+            MatcherAssert.assertThat(journal.pending().size(), new IsEqual<>(0));
+        }
+    }
+
+    @Test
+    void recordsJourneyOfEveryReport(final @TempDir Path temp) throws Exception {
+        this.report(temp, this.user, "Wahgnion", 7);
+        final Path dump = temp.resolve("journey.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(DetectEvent.class);
+            recording.enable(ExtractEvent.class);
+            recording.enable(ParseEvent.class);
+            recording.enable(PublishEvent.class);
+            recording.start();
+            IngestionTest.ingest(
+                IngestionTest.settings(
+                    temp, IngestionTest.SINGLE, this.mailbox(IngestionTest.INDENT, this.user)
+                ),
+                temp, new ConcurrentHashMap<>(1), new CopyOnWriteArrayList<>()
+            );
+            recording.stop();
+            recording.dump(dump);
+        }
+        final Set<String> stages = new HashSet<>(4);
+        final Set<String> emails = new HashSet<>(1);
+        long published = 0L;
+        for (final RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+            stages.add(event.getEventType().getLabel());
+            emails.add(event.getString("mid"));
+            published += IngestionTest.published(event);
+        }
+        MatcherAssert.assertThat(
+            stages,
+            new IsEqual<>(
+                new HashSet<>(
+                    Arrays.asList(
+                        "Report Detected", "Report Extracted", "Report Parsed", "Report Published"
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(emails.size(), new IsEqual<>(1));
+        MatcherAssert.assertThat(published, new IsEqual<>(7L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop();
+    }
+
+    /**
+     * Poll all mailboxes of settings once and publish their reports.
+     * @param settings Settings
+     * @param temp Temporary directory
+     * @param gold Where to sum gold output per site
+     * @param complete Where to collect subjects of complete reports
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private static void ingest(
+        final Settings settings, final Path temp, final Map<String, Double> gold,
+        final List<String> complete
+    ) throws IOException {
+        IngestionTest.ingest(
+            settings, temp,
+            part -> {
+                for (int row = 0; row < part.batch().size(); ++row) {
+                    gold.merge(
+                        part.batch().text(0, row), part.batch().decimal(2, row), Double::sum
+                    );
+                }
+                if (part.last()) {
+                    complete.add(part.envelope().subject());
+                }
+            }
+        );
+    }
+
+    /**
+     * Resume reports pending, poll all mailboxes of settings once and
+     * publish their reports.
+     * @param settings Settings
+     * @param temp Temporary directory
+     * @param publisher Publisher
+     * @throws IOException If fails
+     */
+    private static void ingest(
+        final Settings settings, final Path temp, final Publisher publisher
+    ) throws IOException {
+        IngestionTest.ingest(settings, temp, publisher, new Metrics());
+    }
+
+    /**
+     * Resume reports pending, poll all mailboxes of settings once and
+     * publish their reports, recording metrics.
+     * @param settings Settings
+     * @param temp Temporary directory
+     * @param publisher Publisher
+     * @param metrics Metrics
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private static void ingest(
+        final Settings settings, final Path temp, final Publisher publisher,
+        final Metrics metrics
+    ) throws IOException {
+        try (Mailboxes mailboxes = new Mailboxes(settings, temp, metrics);
+            Ingestion ingestion = new Ingestion(publisher, settings, temp, metrics).start();
+            Polls polls = new Polls(mailboxes, ingestion)) {
+            ingestion.recover(mailboxes);
+            polls.once();
+        }
+    }
+
+    /**
+     * Rows published by an event, checking rows parsed.
+     * @param event Event
+     * @return Rows published, zero if event is not a publishing
+     */
+    private static long published(final RecordedEvent event) {
+        long rows = 0L;
+        if (event.hasField("last")) {
+            rows = event.getLong(IngestionTest.ROWS);
+        } else if (event.hasField(IngestionTest.ROWS)) {
+            MatcherAssert.assertThat(event.getLong(IngestionTest.ROWS), new IsEqual<>(7L));
+        }
+        return rows;
+    }
+
+    /**
+     * Send a report of a site, with gold output of 1 to {@code days}.
+     * @param temp Temporary directory
+     * @param recipient Recipient
+     * @param site Site
+     * @param days Number of days
+     * @throws Exception If fails
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private void report(
+        final Path temp, final GreenMailUser recipient, final String site, final int days
+    ) throws Exception {
+        final StringBuilder data = new StringBuilder(
+            "<row r=\"1\"><c t=\"inlineStr\"><is><t>Site</t></is></c></row>"
+        );
+        for (int day = 1; day <= days; ++day) {
+            data.append(
+                String.format(
+                    "<row r=\"%d\"><c t=\"s\"><v>0</v></c><c><v>%d</v></c><c><v>%d</v></c></row>",
+                    day + 1, 44_926 + day, day
+                )
+            );
+        }
+        final Path file = new WorkbookFile(
+            Collections.singletonList(site), Collections.singletonMap("Daily", data.toString())
+        ).write(temp.resolve(String.format("site-%d.xlsx", days)));
+        new ReportEmail(
+            this.server, recipient.getEmail(), String.format("Report of %d days", days),
+            "daily.xlsx", Files.readAllBytes(file)
+        ).send();
+    }
+
+    /**
+     * Settings of a test mailbox.
+     * @param indent Indentation of keys
+     * @param mailbox Mail user
+     * @return YAML lines
+     */
+    private String mailbox(final String indent, final GreenMailUser mailbox) {
+        return String.join(
+            "\n",
+            String.format("%scredentials:", indent),
+            String.format("%s  login: %s", indent, mailbox.getLogin()),
+            String.format("%s  password: %s", indent, mailbox.getPassword()),
+            String.format("%simap_server:", indent),
+            String.format("%s  host: 127.0.0.1", indent),
+            String.format("%s  ssl_tls: false", indent),
+            String.format("%s  port: %d", indent, this.server.getImap().getPort())
+        );
+    }
+
+    /**
+     * Settings of test mailboxes, with small batches.
+     * @param temp Temporary directory
+     * @param key Key of mailboxes
+     * @param mailboxes YAML lines of mailboxes
+     * @return Settings
+     * @throws IOException If fails
+     */
+    private static Settings settings(final Path temp, final String key, final String mailboxes)
+        throws IOException {
+        return IngestionTest.settings(temp, key, mailboxes, "");
+    }
+
+    /**
+     * Settings of test mailboxes, with small batches.
+     * @param temp Temporary directory
+     * @param key Key of mailboxes
+     * @param mailboxes YAML lines of mailboxes
+     * @param report More YAML lines of report layout
+     * @return Settings
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static Settings settings(
+        final Path temp, final String key, final String mailboxes, final String report
+    ) throws IOException {
+        final Path file = temp.resolve("settings.yml");
+        final String item = "      -";
+        Files.write(
+            file,
+            String.join(
+                "\n",
+                "settings:",
+                key,
+                mailboxes,
+                "  pipeline:",
+                "    extract: 2",
+                "    parse: 2",
+                "    publish: 2",
+                "    queue: 2",
+                "    host_connections: 2",
+                "    batch: 3",
+                "  report:",
+                "    header: 1",
+                "    columns:",
+                item,
+                "        name: site",
+                "        type: text",
+                item,
+                "        name: day",
+                "        type: integer",
+                item,
+                "        name: gold",
+                "        type: number",
+                report
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        return new SettingsFromPath(file);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Journal}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class JournalTest {
+
+    /**
+     * Name of journal file.
+     */
+    private static final String FILE = "reports.journal";
+
+    /**
+     * Name of mailbox.
+     */
+    private static final String MAILBOX = "bar@127.0.0.1";
+
+    /**
+     * Fingerprint of reports.
+     */
+    private static final Fingerprint PRINT = new Fingerprint("<report@example.com>");
+
+    @Test
+    void replaysReportsNotOver(final @TempDir Path temp) throws IOException {
+        final Path file = temp.resolve(JournalTest.FILE);
+        final Path download = Files.write(temp.resolve("report-2.xlsx"), new byte[] {1});
+        final Path published = Files.write(temp.resolve("report-3.xlsx"), new byte[] {2});
+        try (Journal journal = new Journal(file)) {
+            final Envelope second = JournalTest.email(2L);
+            final Envelope third = JournalTest.email(3L);
+            journal.detected(JournalTest.MAILBOX, JournalTest.email(1L));
+            journal.detected(JournalTest.MAILBOX, second);
+            journal.detected(JournalTest.MAILBOX, third);
+            journal.extracted(second, download, JournalTest.PRINT);
+            journal.extracted(third, published, JournalTest.PRINT);
+            journal.published(third);
+        }
+        final List<PendingReport> pending = new Journal(file).pending();
+        MatcherAssert.assertThat(pending.size(), new IsEqual<>(2));
+        MatcherAssert.assertThat(pending.get(0).envelope().uid(), new IsEqual<>(1L));
+        MatcherAssert.assertThat(pending.get(0).file(), new IsEqual<>(Optional.empty()));
+        MatcherAssert.assertThat(
+            pending.get(1).envelope().spreadsheet().get().name(),
+            new IsEqual<>(download.getFileName().toString())
+        );
+        MatcherAssert.assertThat(pending.get(1).mailbox(), new IsEqual<>(JournalTest.MAILBOX));
+        MatcherAssert.assertThat(pending.get(1).file(), new IsEqual<>(Optional.of(download)));
+        MatcherAssert.assertThat(Files.exists(published), new IsEqual<>(false));
+    }
+
+    @Test
+    void keepsFingerprintsOfReportsExtracted(final @TempDir Path temp) throws IOException {
+        final Path file = temp.resolve(JournalTest.FILE);
+        final Envelope email = JournalTest.email(1L);
+        try (Journal journal = new Journal(file)) {
+            journal.detected(JournalTest.MAILBOX, email);
+            journal.extracted(email, temp.resolve("report-1.xlsx"), JournalTest.PRINT);
+            MatcherAssert.assertThat(
+                journal.fingerprint(email), new IsEqual<>(Optional.of(JournalTest.PRINT))
+            );
+        }
+        try (Journal compacted = new Journal(file)) {
+            MatcherAssert.assertThat(compacted.pending().size(), new IsEqual<>(1));
+        }
+        MatcherAssert.assertThat(
+            new Journal(file).pending().get(0).fingerprint(),
+            new IsEqual<>(Optional.of(JournalTest.PRINT))
+        );
+    }
+
+    @Test
+    void ignoresRecordTornByCrash(final @TempDir Path temp) throws IOException {
+        final Path file = temp.resolve(JournalTest.FILE);
+        try (Journal journal = new Journal(file)) {
+            journal.detected(JournalTest.MAILBOX, JournalTest.email(7L));
+        }
+        Files.write(file, new byte[] {0, 0, 1, 0, 5}, StandardOpenOption.APPEND);
+        try (Journal journal = new Journal(file)) {
+            MatcherAssert.assertThat(journal.pending().size(), new IsEqual<>(1));
+            journal.detected(JournalTest.MAILBOX, JournalTest.email(8L));
+        }
+        MatcherAssert.assertThat(new Journal(file).pending().size(), new IsEqual<>(2));
+    }
+
+    @Test
+    void resumesReplayAfterCorruptRecord(final @TempDir Path temp) throws IOException {
+        final Path file = temp.resolve(JournalTest.FILE);
+        try (Journal journal = new Journal(file)) {
+            for (long uid = 1L; uid <= 3L; ++uid) {
+                journal.detected(JournalTest.MAILBOX, JournalTest.email(uid));
+            }
+            journal.sync();
+        }
+        final byte[] bytes = Files.readAllBytes(file);
+        final int second = 8 + ByteBuffer.wrap(bytes).getInt();
+        bytes[second + 20] = (byte) (bytes[second + 20] ^ 0xFF);
+        Files.write(file, bytes);
+        final List<PendingReport> pending = new Journal(file).pending();
+        MatcherAssert.assertThat(pending.size(), new IsEqual<>(2));
+        MatcherAssert.assertThat(pending.get(1).envelope().uid(), new IsEqual<>(3L));
+        try (Stream<Path> files = Files.list(temp)) {
+            MatcherAssert.assertThat(
+                files.filter(path -> path.toString().endsWith(".corrupt")).count(),
+                new IsEqual<>(1L)
+            );
+        }
+    }
+
+    @Test
+    void keepsSubjectsOfAnyLength(final @TempDir Path temp) throws IOException {
+        final Path file = temp.resolve(JournalTest.FILE);
+        final String subject = String.join("", Collections.nCopies(40_000, "\u00e9t\u00e9"));
+        try (Journal journal = new Journal(file)) {
+            journal.detected(
+                JournalTest.MAILBOX,
+                new Envelope(
+                    1L, "<1@example.com>", "site@example.com", subject,
+                    Instant.ofEpochMilli(1_600_000_000_000L), false,
+                    Collections.singletonList(
+                        new AttachmentPart("2", "report.xlsx", ReportEmail.XLSX, "base64", 1024)
+                    )
+                )
+            );
+        }
+        MatcherAssert.assertThat(
+            new Journal(file).pending().get(0).envelope().subject(),
+            new IsEqual<>(subject)
+        );
+    }
+
+    @Test
+    void forgetsReportsOverAfterCompaction(final @TempDir Path temp) throws IOException {
+        final Path file = temp.resolve(JournalTest.FILE);
+        try (Journal journal = new Journal(file)) {
+            for (long uid = 1L; uid <= 100L; ++uid) {
+                final Envelope email = JournalTest.email(uid);
+                journal.detected(JournalTest.MAILBOX, email);
+                journal.skipped(email);
+            }
+        }
+        final long size = Files.size(file);
+        try (Journal journal = new Journal(file)) {
+            MatcherAssert.assertThat(journal.pending().isEmpty(), new IsEqual<>(true));
+        }
+        MatcherAssert.assertThat(Files.size(file) < size, new IsEqual<>(true));
+    }
+
+    /**
+     * Email with a report.
+     * @param uid UID
+     * @return Envelope
+     */
+    private static Envelope email(final long uid) {
+        return new Envelope(
+            uid, String.format("<%d@example.com>", uid), "site@example.com", "Daily report",
+            Instant.ofEpochMilli(1_600_000_000_000L), false,
+            Collections.singletonList(
+                new AttachmentPart(
+                    "2", String.format("report-%d.xlsx", uid), ReportEmail.XLSX, "base64", 1024
+                )
+            )
+        );
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.pipeline.Sink;
+import com.endeavourmining.reportbot.pipeline.Workers;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Polls}.
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class PollsTest {
+
+    /**
+     * Mail server.
+     */
+    private GreenMail server;
+
+    /**
+     * Mail user.
+     */
+    private GreenMailUser user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = new GreenMail(
+            new ServerSetup[] {
+                ServerSetup.SMTP.withPort(new AvailablePort().intValue()),
+                ServerSetup.IMAP.withPort(new AvailablePort().intValue()),
+            }
+        );
+        this.server.start();
+        this.user = this.server.setUser("bar@example.com", "bar", "pwd");
+    }
+
+    @Test
+    void pollsWatchedMailboxAsSoonAsEmailsLand(@TempDir final Path dir) throws Exception {
+        final ImapAccount account = new ImapAccount(
+            this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+            this.server.getImap().getPort(), this.user.getLogin(), this.user.getPassword()
+        );
+        final BlockingQueue<Source> polled = new LinkedBlockingQueue<>();
+        try (PooledInbox inbox = new PooledInbox(account)) {
+            final Source source = new Source(
+                "bar@localhost", inbox,
+                new FileCheckpoints(dir.resolve("checkpoints.properties"))
+            );
+            try (
+                Polls polls = new Polls(
+                    Collections.singletonList(source),
+                    item -> {
+                        polled.add(item);
+                        item.release();
+                    }
+                )
+            ) {
+                polls.watch(source, new InboxWatch(account));
+                GreenMailUtil.sendTextEmail(
+                    this.user.getEmail(), "site@example.com", "Report", "Body",
+                    this.server.getSmtp().getServerSetup()
+                );
+                MatcherAssert.assertThat(
+                    polled.poll(5L, TimeUnit.SECONDS),
+                    new IsEqual<>(source)
+                );
+            }
+        }
+    }
+
+    @Test
+    void keepsPollingWhileFetchStageIsFull(@TempDir final Path dir) throws Exception {
+        final ImapAccount account = new ImapAccount(
+            this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+            this.server.getImap().getPort(), this.user.getLogin(), this.user.getPassword()
+        );
+        final CountDownLatch stuck = new CountDownLatch(1);
+        final BlockingQueue<Source> polled = new LinkedBlockingQueue<>();
+        final AtomicInteger offers = new AtomicInteger();
+        try (
+            PooledInbox inbox = new PooledInbox(account);
+            Workers<Source, Source> fetch = new Workers<Source, Source>(
+                "fetch",
+                (item, next) -> {
+                    try {
+                        stuck.await();
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    polled.add(item);
+                    item.release();
+                },
+                item -> { },
+                1, 1
+            ).start()
+        ) {
+            final Source first = new Source(
+                "first@localhost", inbox, new FileCheckpoints(dir.resolve("first.properties"))
+            );
+            final Source second = new Source(
+                "second@localhost", inbox, new FileCheckpoints(dir.resolve("second.properties"))
+            );
+            final Source third = new Source(
+                "third@localhost", inbox, new FileCheckpoints(dir.resolve("third.properties"))
+            );
+            final Sink<Source> sink = new Sink<Source>() {
+                @Override
+                public void accept(final Source item) throws IOException {
+                    fetch.accept(item);
+                }
+
+                @Override
+                public boolean offer(final Source item) {
+                    if (item.equals(third)) {
+                        offers.incrementAndGet();
+                    }
+                    return fetch.offer(item);
+                }
+            };
+            try (Polls polls = new Polls(Arrays.asList(first, second, third), sink)) {
+                polls.every(Duration.ofMillis(150L));
+                final long end = System.currentTimeMillis() + 5000L;
+                while (offers.get() < 3 && System.currentTimeMillis() < end) {
+                    TimeUnit.MILLISECONDS.sleep(50L);
+                }
+                MatcherAssert.assertThat(offers.get() >= 3, new IsEqual<>(true));
+                stuck.countDown();
+                final long last = System.currentTimeMillis() + 5000L;
+                boolean seen = false;
+                while (!seen && System.currentTimeMillis() < last) {
+                    seen = third.equals(polled.poll(100L, TimeUnit.MILLISECONDS));
+                }
+                MatcherAssert.assertThat(seen, new IsEqual<>(true));
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.mail.FolderClosedException;
+import javax.mail.Store;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link PooledInbox}.
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class PooledInboxTest {
+
+    /**
+     * Mail server.
+     */
+    private GreenMail server;
+
+    /**
+     * Mail user.
+     */
+    private GreenMailUser user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = new GreenMail(
+            new ServerSetup[] {
+                ServerSetup.SMTP.withPort(new AvailablePort().intValue()),
+                ServerSetup.IMAP.withPort(new AvailablePort().intValue()),
+            }
+        );
+        this.server.start();
+        this.user = this.server.setUser("bar@example.com", "bar", "pwd");
+    }
+
+    @Test
+    void reusesConnectionBetweenCalls() throws Exception {
+        try (PooledInbox inbox = new PooledInbox(this.account())) {
+            final Store first = inbox.apply(folder -> folder.getStore());
+            GreenMailUtil.sendTextEmail(
+                this.user.getEmail(), "foo@example.com", "Test 1", "Body",
+                this.server.getSmtp().getServerSetup()
+            );
+            MatcherAssert.assertThat(
+                new UnreadEmails(inbox).count(),
+                new IsEqual<>(1)
+            );
+            MatcherAssert.assertThat(
+                inbox.apply(folder -> folder.getStore()),
+                new IsSame<>(first)
+            );
+        }
+    }
+
+    @Test
+    void reconnectsWhenConnectionDropped() throws Exception {
+        try (PooledInbox inbox = new PooledInbox(this.account())) {
+            final Store first = inbox.apply(
+                folder -> {
+                    folder.getStore().close();
+                    return folder.getStore();
+                }
+            );
+            MatcherAssert.assertThat(
+                inbox.apply(folder -> folder.getStore()),
+                new IsNot<>(new IsSame<>(first))
+            );
+            MatcherAssert.assertThat(
+                new UnreadEmails(inbox).count(),
+                new IsEqual<>(0)
+            );
+        }
+    }
+
+    @Test
+    void retriesOnlyIdempotentActionsOnDroppedConnection() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final Inbox.Action<Integer> dropped = folder -> {
+            if (runs.incrementAndGet() == 1) {
+                throw new FolderClosedException(folder, "Dropped");
+            }
+            return runs.get();
+        };
+        try (PooledInbox inbox = new PooledInbox(this.account())) {
+            MatcherAssert.assertThat(
+                inbox.apply(new Idempotent<>(dropped)), new IsEqual<>(2)
+            );
+            runs.set(0);
+            Assertions.assertThrows(IOException.class, () -> inbox.apply(dropped));
+            MatcherAssert.assertThat(runs.get(), new IsEqual<>(1));
+        }
+    }
+
+    @Test
+    void limitsNumberOfConnections() throws Exception {
+        final ExecutorService threads = Executors.newFixedThreadPool(4);
+        try (PooledInbox inbox = new PooledInbox(this.account(), 1)) {
+            final Collection<Callable<Store>> tasks = new ArrayList<>(8);
+            for (int idx = 0; idx < 8; ++idx) {
+                tasks.add(() -> inbox.apply(folder -> folder.getStore()));
+            }
+            final Set<Store> stores = new HashSet<>(1);
+            for (final Future<Store> store : threads.invokeAll(tasks)) {
+                stores.add(store.get());
+            }
+            MatcherAssert.assertThat(stores.size(), new IsEqual<>(1));
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop();
+    }
+
+    /**
+     * Account of test user.
+     * @return Account
+     */
+    private ImapAccount account() {
+        return new ImapAccount(
+            this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+            this.server.getImap().getPort(), this.user.getLogin(), this.user.getPassword()
+        );
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.amihaiemil.eoyaml.Yaml;
+import com.endeavourmining.reportbot.report.Column;
+import com.endeavourmining.reportbot.report.ColumnType;
+import com.endeavourmining.reportbot.report.ReportBatch;
+import com.endeavourmining.reportbot.report.SingleBatch;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.StringContains;
+import org.hamcrest.number.OrderingComparison;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link PowerBiPublisher}.
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class PowerBiPublisherTest {
+
+    /**
+     * Token line of settings.
+     */
+    private static final String TOKEN = String.format("token: %s", PowerBiStub.TOKEN);
+
+    /**
+     * Retries line of settings.
+     */
+    private static final String RETRIES = "retries: 2";
+
+    /**
+     * Backoff line of settings.
+     */
+    private static final String BACKOFF = "backoff: 1";
+
+    @Test
+    void postsRowsInBoundedRequests() throws IOException {
+        try (PowerBiStub stub = new PowerBiStub(0, 0L).start()) {
+            new PowerBiPublisher(
+                PowerBiPublisherTest.settings(stub.yaml(PowerBiPublisherTest.TOKEN, "rows: 10"))
+            ).publish(PowerBiPublisherTest.part(25));
+            MatcherAssert.assertThat(stub.bodies().size(), new IsEqual<>(3));
+            MatcherAssert.assertThat(stub.rows(), new IsEqual<>(25));
+            MatcherAssert.assertThat(
+                stub.bodies().get(0),
+                new StringContains("{\"site\":\"Ity \\\"North\\\"\",\"day\":1,\"gold\":0.5}")
+            );
+            MatcherAssert.assertThat(
+                stub.bodies().get(2), new StringContains("\"day\":null,\"gold\":null}]}")
+            );
+        }
+    }
+
+    @Test
+    void datesEveryRowByReceptionOfItsEmail() throws IOException {
+        try (PowerBiStub stub = new PowerBiStub(0, 0L).start()) {
+            new PowerBiPublisher(
+                PowerBiPublisherTest.settings(
+                    stub.yaml(PowerBiPublisherTest.TOKEN, "removed: removed", "received: at")
+                )
+            ).publish(PowerBiPublisherTest.part(2));
+            MatcherAssert.assertThat(
+                stub.bodies().get(0),
+                new StringContains(
+                    "\"gold\":0.5,\"removed\":false,\"at\":\"1970-01-01T00:00:00Z\"}"
+                )
+            );
+        }
+    }
+
+    @Test
+    void retriesThrottledRequests() throws IOException {
+        try (PowerBiStub stub = new PowerBiStub(2, 0L).start()) {
+            new PowerBiPublisher(
+                PowerBiPublisherTest.settings(
+                    stub.yaml(
+                        PowerBiPublisherTest.TOKEN, PowerBiPublisherTest.RETRIES,
+                        PowerBiPublisherTest.BACKOFF
+                    )
+                )
+            ).publish(PowerBiPublisherTest.part(5));
+            MatcherAssert.assertThat(stub.rows(), new IsEqual<>(5));
+        }
+    }
+
+    @Test
+    void failsWhenThrottledForTooLong() throws IOException {
+        try (PowerBiStub stub = new PowerBiStub(3, 0L).start()) {
+            final Publisher publisher = new PowerBiPublisher(
+                PowerBiPublisherTest.settings(
+                    stub.yaml(
+                        PowerBiPublisherTest.TOKEN, PowerBiPublisherTest.RETRIES,
+                        PowerBiPublisherTest.BACKOFF
+                    )
+                )
+            );
+            final ReportPart part = PowerBiPublisherTest.part(5);
+            Assertions.assertThrows(IOException.class, () -> publisher.publish(part));
+        }
+    }
+
+    @Test
+    void retriesRequestsTimedOut() throws IOException {
+        try (PowerBiStub stub = new PowerBiStub(0, 500L).start()) {
+            final Publisher publisher = new PowerBiPublisher(
+                PowerBiPublisherTest.settings(
+                    stub.yaml(
+                        PowerBiPublisherTest.TOKEN, PowerBiPublisherTest.RETRIES,
+                        PowerBiPublisherTest.BACKOFF, "read_timeout: 50"
+                    )
+                )
+            );
+            final ReportPart part = PowerBiPublisherTest.part(5);
+            Assertions.assertThrows(IOException.class, () -> publisher.publish(part));
+            MatcherAssert.assertThat(stub.requests(), new IsEqual<>(3));
+        }
+    }
+
+    @Test
+    void leavesFlightWhileWaitingForRetry() throws Exception {
+        try (PowerBiStub stub = new PowerBiStub(1, 0L, 3600).start()) {
+            final Publisher publisher = new PowerBiPublisher(
+                PowerBiPublisherTest.settings(
+                    stub.yaml(
+                        PowerBiPublisherTest.TOKEN, PowerBiPublisherTest.RETRIES,
+                        "in_flight: 1", "max_backoff: 2000"
+                    )
+                )
+            );
+            final ExecutorService threads = Executors.newSingleThreadExecutor();
+            final Future<?> throttled = threads.submit(
+                () -> {
+                    publisher.publish(PowerBiPublisherTest.part(3));
+                    return null;
+                }
+            );
+            while (stub.requests() == 0) {
+                Thread.sleep(10L);
+            }
+            publisher.publish(PowerBiPublisherTest.part(4));
+            MatcherAssert.assertThat(throttled.isDone(), new IsEqual<>(false));
+            throttled.get();
+            threads.shutdown();
+            MatcherAssert.assertThat(stub.rows(), new IsEqual<>(7));
+        }
+    }
+
+    @Test
+    void failsWithoutRetryOnClientError() throws IOException {
+        try (PowerBiStub stub = new PowerBiStub(0, 0L).start()) {
+            final Publisher publisher = new PowerBiPublisher(
+                PowerBiPublisherTest.settings(stub.yaml("token: wrong"))
+            );
+            final ReportPart part = PowerBiPublisherTest.part(5);
+            final IOException error = Assertions.assertThrows(
+                IOException.class, () -> publisher.publish(part)
+            );
+            MatcherAssert.assertThat(error.getMessage(), new StringContains("401"));
+        }
+    }
+
+    @Test
+    void failsWithoutRetryOnClientErrorWithoutBody() throws IOException {
+        try (PowerBiStub stub = new PowerBiStub(0, 0L).start()) {
+            final Publisher publisher = new PowerBiPublisher(
+                PowerBiPublisherTest.settings(
+                    stub.yaml(PowerBiPublisherTest.TOKEN, PowerBiPublisherTest.RETRIES)
+                        .replace("/v1.0/", "/v0.9/")
+                )
+            );
+            final ReportPart part = PowerBiPublisherTest.part(5);
+            final IOException error = Assertions.assertThrows(
+                IOException.class, () -> publisher.publish(part)
+            );
+            MatcherAssert.assertThat(error.getMessage(), new StringContains("404"));
+            MatcherAssert.assertThat(stub.requests(), new IsEqual<>(1));
+        }
+    }
+
+    @Test
+    void boundsRequestsInFlight() throws Exception {
+        try (PowerBiStub stub = new PowerBiStub(0, 50L).start()) {
+            final Publisher publisher = new PowerBiPublisher(
+                PowerBiPublisherTest.settings(
+                    stub.yaml(PowerBiPublisherTest.TOKEN, "rows: 2", "in_flight: 3")
+                )
+            );
+            final ExecutorService threads = Executors.newFixedThreadPool(6);
+            final List<Future<?>> done = new ArrayList<>(6);
+            for (int idx = 0; idx < 6; ++idx) {
+                done.add(
+                    threads.submit(
+                        () -> {
+                            publisher.publish(PowerBiPublisherTest.part(4));
+                            return null;
+                        }
+                    )
+                );
+            }
+            for (final Future<?> future : done) {
+                future.get();
+            }
+            threads.shutdown();
+            MatcherAssert.assertThat(stub.rows(), new IsEqual<>(24));
+            MatcherAssert.assertThat(stub.peak(), OrderingComparison.lessThanOrEqualTo(3));
+            MatcherAssert.assertThat(stub.peak(), OrderingComparison.greaterThan(1));
+        }
+    }
+
+    /**
+     * Compiled settings.
+     * @param yaml YAML of Power BI section
+     * @return Settings
+     * @throws IOException If fails
+     */
+    private static PowerBiSettings settings(final String yaml) throws IOException {
+        return new CompiledPowerBiSettings(
+            new YamlPowerBiSettings(Yaml.createYamlInput(yaml).readYamlMapping())
+        );
+    }
+
+    /**
+     * Last part of a report, its last row blank but for site.
+     * @param rows Number of rows
+     * @return Part
+     */
+    private static ReportPart part(final int rows) {
+        final ReportBatch batch = new ReportBatch(
+            Arrays.asList(
+                new Column("site", 0, ColumnType.TEXT),
+                new Column("day", 1, ColumnType.INTEGER),
+                new Column("gold", 2, ColumnType.NUMBER)
+            ),
+            rows
+        );
+        for (int idx = 0; idx < rows; ++idx) {
+            final int row = batch.add(idx + 2);
+            batch.putText(0, row, "Ity \"North\"");
+            if (idx < rows - 1) {
+                batch.putInteger(1, row, idx + 1);
+                batch.putDecimal(2, row, (idx + 1) / 2.0);
+            }
+        }
+        return new ReportPart(
+            new Envelope(
+                1L, "<1@example.com>", "site@example.com", "Report", Instant.EPOCH, false,
+                Collections.emptyList()
+            ),
+            batch, new SingleBatch(batch), true
+        );
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local server imitating the REST API of Power BI push datasets.
+ *
+ * <p>It accepts {@code POST .../datasets/<d>/tables/<t>/rows} with a bearer
+ * token, answers 401 to other tokens, 404 without body to other paths and
+ * 400 to more than 10,000 rows, and throttles a given number of first
+ * requests with 429, asking to retry after a given number of seconds.</p>
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class PowerBiStub implements Closeable {
+
+    /**
+     * Token accepted.
+     */
+    public static final String TOKEN = "secret";
+
+    /**
+     * Most rows per request.
+     */
+    private static final int LIMIT = 10_000;
+
+    /**
+     * Path of rows.
+     */
+    private static final Pattern PATH = Pattern.compile(
+        "/v1\\.0/myorg(/groups/[^/]+)?/datasets/[^/]+/tables/[^/]+/rows"
+    );
+
+    /**
+     * Start of row in body.
+     */
+    private static final Pattern ROW = Pattern.compile("[\\[,]\\{\"");
+
+    /**
+     * HTTP server.
+     */
+    private final HttpServer server;
+
+    /**
+     * Requests to throttle.
+     */
+    private final AtomicInteger throttled;
+
+    /**
+     * Delay of each answer, in milliseconds.
+     */
+    private final long delay;
+
+    /**
+     * Retry-After of throttled requests, in seconds.
+     */
+    private final String after;
+
+    /**
+     * Requests received.
+     */
+    private final AtomicInteger received;
+
+    /**
+     * Bodies of requests accepted.
+     */
+    private final List<String> accepted;
+
+    /**
+     * Requests being answered.
+     */
+    private final AtomicInteger busy;
+
+    /**
+     * Most requests answered at once.
+     */
+    private final AtomicInteger busiest;
+
+    /**
+     * Ctor.
+     * @param throttled Number of first requests to throttle
+     * @param delay Delay of each answer, in milliseconds
+     * @throws IOException If fails
+     */
+    public PowerBiStub(final int throttled, final long delay) throws IOException {
+        this(throttled, delay, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param throttled Number of first requests to throttle
+     * @param delay Delay of each answer, in milliseconds
+     * @param after Seconds throttled requests are asked to wait
+     * @throws IOException If fails
+     */
+    public PowerBiStub(final int throttled, final long delay, final int after)
+        throws IOException {
+        this.server = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0
+        );
+        this.throttled = new AtomicInteger(throttled);
+        this.delay = delay;
+        this.after = Integer.toString(after);
+        this.received = new AtomicInteger();
+        this.accepted = new CopyOnWriteArrayList<>();
+        this.busy = new AtomicInteger();
+        this.busiest = new AtomicInteger();
+    }
+
+    /**
+     * Start serving.
+     * @return This
+     */
+    public PowerBiStub start() {
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.start();
+        return this;
+    }
+
+    /**
+     * Settings of a dataset served by this stub.
+     * @param extra Extra YAML lines
+     * @return YAML lines
+     */
+    public String yaml(final String... extra) {
+        return String.join(
+            "\n",
+            String.format(
+                "api: http://127.0.0.1:%d/v1.0/myorg", this.server.getAddress().getPort()
+            ),
+            "group: operations",
+            "dataset: mines",
+            "table: production",
+            String.join("\n", extra)
+        );
+    }
+
+    /**
+     * Bodies of requests accepted.
+     * @return Bodies
+     */
+    public List<String> bodies() {
+        return this.accepted;
+    }
+
+    /**
+     * Rows accepted.
+     * @return Count
+     */
+    public int rows() {
+        int rows = 0;
+        for (final String body : this.accepted) {
+            rows += PowerBiStub.count(body);
+        }
+        return rows;
+    }
+
+    /**
+     * Requests received, answered or not.
+     * @return Count
+     */
+    public int requests() {
+        return this.received.get();
+    }
+
+    /**
+     * Most requests answered at once.
+     * @return Count
+     */
+    public int peak() {
+        return this.busiest.get();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+    }
+
+    /**
+     * Answer a request.
+     * @param exchange Exchange
+     * @throws IOException If fails
+     */
+    private void handle(final HttpExchange exchange) throws IOException {
+        this.received.incrementAndGet();
+        this.busiest.accumulateAndGet(this.busy.incrementAndGet(), Math::max);
+        try {
+            final String body = PowerBiStub.body(exchange);
+            Thread.sleep(this.delay);
+            final int status;
+            final boolean found = PowerBiStub.PATH.matcher(
+                exchange.getRequestURI().getPath()
+            ).matches();
+            final boolean allowed = String.format("Bearer %s", PowerBiStub.TOKEN)
+                .equals(exchange.getRequestHeaders().getFirst("Authorization"));
+            if (found && allowed) {
+                status = this.status(body, exchange);
+            } else if (found) {
+                status = 401;
+            } else {
+                status = 404;
+            }
+            if (status == 404) {
+                exchange.sendResponseHeaders(status, -1L);
+                exchange.close();
+            } else {
+                exchange.sendResponseHeaders(status, 0L);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write("{}".getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.busy.decrementAndGet();
+        }
+    }
+
+    /**
+     * Status of an authorized request to add rows.
+     * @param body Body of request
+     * @param exchange Exchange
+     * @return HTTP status
+     */
+    private int status(final String body, final HttpExchange exchange) {
+        final int status;
+        if (PowerBiStub.count(body) > PowerBiStub.LIMIT) {
+            status = 400;
+        } else if (this.throttled.getAndDecrement() > 0) {
+            exchange.getResponseHeaders().set("Retry-After", this.after);
+            status = 429;
+        } else {
+            this.accepted.add(body);
+            status = 200;
+        }
+        return status;
+    }
+
+    /**
+     * Body of request.
+     * @param exchange Exchange
+     * @return Body
+     * @throws IOException If fails
+     */
+    private static String body(final HttpExchange exchange) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream input = exchange.getRequestBody()) {
+            final byte[] buf = new byte[4096];
+            for (int len = input.read(buf); len >= 0; len = input.read(buf)) {
+                body.write(buf, 0, len);
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rows in a body.
+     * @param body Body
+     * @return Count
+     */
+    private static int count(final String body) {
+        final Matcher matcher = PowerBiStub.ROW.matcher(body);
+        int count = 0;
+        while (matcher.find()) {
+            ++count;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.endeavourmining.reportbot.metrics.Metrics;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collections;
+import javax.mail.internet.MimeMessage;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.StringContains;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Replies}.
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class RepliesTest {
+
+    /**
+     * Name of mailbox.
+     */
+    private static final String MAILBOX = "bar@127.0.0.1";
+
+    /**
+     * Metric of SMTP connections.
+     */
+    private static final String CONNECT = "smtp.connect";
+
+    /**
+     * Mail server.
+     */
+    private GreenMail server;
+
+    /**
+     * Mail user.
+     */
+    private GreenMailUser user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = new GreenMail(
+            new ServerSetup[] {
+                ServerSetup.SMTP.withPort(new AvailablePort().intValue()),
+                ServerSetup.IMAP.withPort(new AvailablePort().intValue()),
+            }
+        );
+        this.server.start();
+        this.user = this.server.setUser("bar@example.com", "bar", "pwd");
+    }
+
+    @Test
+    void sendsRepliesInBatchesOverOneConnection(final @TempDir Path temp) throws Exception {
+        final Metrics metrics = new Metrics();
+        final String mailbox = RepliesTest.MAILBOX;
+        final String reason = "Cell C3 is not a number";
+        try (Replies replies = new Replies(this.settings(temp), metrics).start()) {
+            for (long uid = 1L; uid <= 5L; ++uid) {
+                replies.accept(mailbox, RepliesTest.email(uid), uid * 10L);
+            }
+            replies.reject(mailbox, RepliesTest.email(6L), reason);
+            replies.accept("other@127.0.0.1", RepliesTest.email(7L), 1L);
+        }
+        final MimeMessage[] sent = this.server.getReceivedMessages();
+        MatcherAssert.assertThat(sent.length, new IsEqual<>(6));
+        MatcherAssert.assertThat(
+            metrics.histogram(RepliesTest.CONNECT).count(), new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(sent[0].getSubject(), new IsEqual<>("Re: Report 1"));
+        MatcherAssert.assertThat(
+            sent[0].getHeader("In-Reply-To", null), new IsEqual<>("<1@example.com>")
+        );
+        MatcherAssert.assertThat(
+            GreenMailUtil.getBody(sent[0]), new StringContains("report-1.xlsx was received")
+        );
+        MatcherAssert.assertThat(
+            GreenMailUtil.getBody(sent[5]), new StringContains(reason)
+        );
+    }
+
+    @Test
+    void dropsOnlyReplyThatCantBeBuilt(final @TempDir Path temp) throws Exception {
+        final Metrics metrics = new Metrics();
+        final String mailbox = RepliesTest.MAILBOX;
+        try (Replies replies = new Replies(this.settings(temp), metrics).start()) {
+            replies.accept(mailbox, RepliesTest.email(1L), 10L);
+            replies.accept(
+                mailbox,
+                new Envelope(
+                    2L, "<2@example.com>", "site@@example.com", "Report 2", Instant.now(),
+                    false, Collections.emptyList()
+                ),
+                20L
+            );
+            replies.accept(mailbox, RepliesTest.email(3L), 30L);
+        }
+        final MimeMessage[] sent = this.server.getReceivedMessages();
+        MatcherAssert.assertThat(sent.length, new IsEqual<>(2));
+        MatcherAssert.assertThat(sent[1].getSubject(), new IsEqual<>("Re: Report 3"));
+        MatcherAssert.assertThat(
+            metrics.histogram(RepliesTest.CONNECT).count(), new IsEqual<>(1L)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop();
+    }
+
+    /**
+     * Settings of a mailbox with an SMTP server.
+     * @param temp Temporary directory
+     * @return Settings
+     * @throws IOException If fails
+     */
+    private Settings settings(final Path temp) throws IOException {
+        final Path file = temp.resolve("settings.yml");
+        final String host = "      host: 127.0.0.1";
+        final String plain = "      ssl_tls: false";
+        final String port = "      port: %d";
+        Files.write(
+            file,
+            String.join(
+                "\n",
+                "settings:",
+                "  mailbox:",
+                "    address: bar@example.com",
+                "    credentials:",
+                String.format("      login: %s", this.user.getLogin()),
+                String.format("      password: %s", this.user.getPassword()),
+                "    smtp_server:",
+                host,
+                plain,
+                String.format(port, this.server.getSmtp().getPort()),
+                "    imap_server:",
+                host,
+                plain,
+                String.format(port, this.server.getImap().getPort())
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        return new SettingsFromPath(file);
+    }
+
+    /**
+     * Email with a report.
+     * @param uid UID
+     * @return Envelope
+     */
+    private static Envelope email(final long uid) {
+        return new Envelope(
+            uid, String.format("<%d@example.com>", uid), "site@example.com",
+            String.format("Report %d", uid), Instant.now(), false,
+            Collections.singletonList(
+                new AttachmentPart(
+                    "2", String.format("report-%d.xlsx", uid), ReportEmail.XLSX, "base64", 1024
+                )
+            )
+        );
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ReplyTemplate}.
+ *
+ * @since 0.1
+ */
+final class ReplyTemplateTest {
+
+    @Test
+    void rendersPlaceholdersOfSubjectAndBody() throws Exception {
+        final Map<String, String> values = new HashMap<>(2);
+        values.put("subject", "Daily report");
+        values.put("rows", "42");
+        final MimeMessage msg = new ReplyTemplate(
+            "Re: {subject}\r\n\r\n{rows} rows of {file}{missing} accepted.\n"
+        ).reply("site@example.com", "", values).message(
+            Session.getInstance(System.getProperties()),
+            new InternetAddress("bot@example.com")
+        );
+        MatcherAssert.assertThat(msg.getSubject(), new IsEqual<>("Re: Daily report"));
+        MatcherAssert.assertThat(msg.getContent(), new IsEqual<>("42 rows of  accepted.\n"));
+        MatcherAssert.assertThat(msg.getHeader("In-Reply-To"), new IsEqual<>(null));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.icegreen.greenmail.util.GreenMail;
+import javax.activation.DataHandler;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import javax.mail.util.ByteArrayDataSource;
+
+/**
+ * Email with an Excel report attached, sent to a test mail server.
+ *
+ * @since 0.1
+ */
+public final class ReportEmail {
+
+    /**
+     * Excel workbook MIME type.
+     */
+    public static final String XLSX =
+        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    /**
+     * Mail server.
+     */
+    private final GreenMail server;
+
+    /**
+     * Recipient address.
+     */
+    private final String recipient;
+
+    /**
+     * Subject.
+     */
+    private final String subject;
+
+    /**
+     * Attachment file name.
+     */
+    private final String name;
+
+    /**
+     * Attachment content.
+     */
+    private final byte[] content;
+
+    /**
+     * Ctor.
+     * @param server Mail server
+     * @param recipient Recipient address
+     * @param subject Subject
+     * @param name Attachment file name
+     * @param content Attachment content
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public ReportEmail(
+        final GreenMail server, final String recipient, final String subject,
+        final String name, final byte[] content
+    ) {
+        this.server = server;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.name = name;
+        this.content = content.clone();
+    }
+
+    /**
+     * Send email from {@code site@example.com}.
+     * @throws MessagingException If fails
+     */
+    public void send() throws MessagingException {
+        final MimeMessage msg = new MimeMessage(this.server.getSmtp().createSession());
+        msg.setFrom(new InternetAddress("site@example.com"));
+        msg.addRecipient(Message.RecipientType.TO, new InternetAddress(this.recipient));
+        msg.setSubject(this.subject);
+        final MimeBodyPart text = new MimeBodyPart();
+        text.setText("Please find attached the daily report.");
+        final MimeBodyPart attachment = new MimeBodyPart();
+        attachment.setDataHandler(
+            new DataHandler(new ByteArrayDataSource(this.content, ReportEmail.XLSX))
+        );
+        attachment.setFileName(this.name);
+        attachment.setHeader("Content-Transfer-Encoding", "base64");
+        msg.setContent(new MimeMultipart(text, attachment));
+        Transport.send(msg);
+    }
+}
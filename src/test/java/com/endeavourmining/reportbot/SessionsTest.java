@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.time.Duration;
+import javax.mail.Session;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.IsNull;
+import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Sessions}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class SessionsTest {
+
+    @Test
+    void sharesSessionOfSameServer() {
+        final Sessions sessions = new Sessions();
+        final String protocol = "imaps";
+        final Session session = sessions.session(protocol, "mail.example.com", 993);
+        MatcherAssert.assertThat(
+            sessions.session(protocol, "MAIL.example.com", 993),
+            new IsSame<>(session)
+        );
+        MatcherAssert.assertThat(sessions.size(), new IsEqual<>(1));
+    }
+
+    @Test
+    void isolatesPropertiesOfEachServer() {
+        final Sessions sessions = new Sessions();
+        final String protocol = "imap";
+        final String key = "mail.imap.port";
+        final Session first = sessions.session(protocol, "one.example.com", 143);
+        final Session second = sessions.session(protocol, "two.example.com", 1143);
+        MatcherAssert.assertThat(first.getProperty(key), new IsEqual<>("143"));
+        MatcherAssert.assertThat(second.getProperty(key), new IsEqual<>("1143"));
+        MatcherAssert.assertThat(System.getProperty(key), new IsNull<>());
+        MatcherAssert.assertThat(second, new IsNot<>(new IsSame<>(first)));
+    }
+
+    @Test
+    void setsTimeoutsOfServer() {
+        final Session session = new Sessions().session(
+            new CompiledServerSettings(
+                "smtp.example.com", "smtp", 587, Duration.ofSeconds(5L), Duration.ofMinutes(1L)
+            )
+        );
+        MatcherAssert.assertThat(
+            session.getProperty("mail.smtp.connectiontimeout"), new IsEqual<>("5000")
+        );
+        MatcherAssert.assertThat(session.getProperty("mail.smtp.timeout"), new IsEqual<>("60000"));
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import com.amihaiemil.eoyaml.Yaml;
+import com.icegreen.greenmail.user.GreenMailUser;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.sun.mail.imap.IMAPFolder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import javax.mail.UIDFolder;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link UidSync}.
+ *
+ * @since 0.1
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class UidSyncTest {
+
+    /**
+     * Name of inbox folder.
+     */
+    private static final String INBOX = "INBOX";
+
+    /**
+     * Mail server.
+     */
+    private GreenMail server;
+
+    /**
+     * Mail user.
+     */
+    private GreenMailUser user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = new GreenMail(
+            new ServerSetup[] {
+                ServerSetup.SMTP.withPort(new AvailablePort().intValue()),
+                ServerSetup.IMAP.withPort(new AvailablePort().intValue()),
+            }
+        );
+        this.server.start();
+        this.user = this.server.setUser("bar@example.com", "bar", "pwd");
+    }
+
+    @Test
+    void fetchesOnlyNewMessages(final @TempDir Path temp) throws Exception {
+        final Path file = temp.resolve("checkpoints.properties");
+        try (PooledInbox inbox = new PooledInbox(this.account())) {
+            this.send("Report 1");
+            this.send("Report 2");
+            final List<String> subjects = new ArrayList<>(3);
+            final UidSync.Handler handler = (folder, messages) -> {
+                for (final javax.mail.Message msg : messages) {
+                    subjects.add(msg.getSubject());
+                }
+            };
+            MatcherAssert.assertThat(
+                new UidSync(inbox, new FileCheckpoints(file), 1).sync(handler),
+                new IsEqual<>(2)
+            );
+            MatcherAssert.assertThat(
+                new UidSync(inbox, new FileCheckpoints(file)).sync(handler),
+                new IsEqual<>(0)
+            );
+            final String last = "Report 3";
+            this.send(last);
+            UidSyncTest.refresh(inbox);
+            MatcherAssert.assertThat(
+                new UidSync(inbox, new FileCheckpoints(file)).sync(handler),
+                new IsEqual<>(1)
+            );
+            MatcherAssert.assertThat(
+                subjects.get(2),
+                new IsEqual<>(last)
+            );
+        }
+    }
+
+    @Test
+    void fetchesAllMessagesWhenValidityChanged(final @TempDir Path temp)
+        throws Exception {
+        final Checkpoints checkpoints = new FileCheckpoints(temp.resolve("sync.properties"));
+        final String name = UidSyncTest.INBOX;
+        checkpoints.save(name, new Checkpoint(-1L, 100L));
+        this.send("Report");
+        MatcherAssert.assertThat(
+            new UidSync(new TransientInbox(this.account()), checkpoints).sync(
+                (folder, messages) -> { }
+            ),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(
+            checkpoints.checkpoint(name).uid(),
+            new IsEqual<>(1L)
+        );
+    }
+
+    @Test
+    void listsAllNewMessagesWithoutCondstore(final @TempDir Path temp) throws Exception {
+        final Checkpoints checkpoints = new FileCheckpoints(temp.resolve("modseq.properties"));
+        final Inbox inbox = new TransientInbox(this.account());
+        this.send("Report");
+        final long validity = inbox.apply(folder -> ((UIDFolder) folder).getUIDValidity());
+        checkpoints.save(UidSyncTest.INBOX, new Checkpoint(validity, 0L, 500L));
+        MatcherAssert.assertThat(
+            new UidSync(inbox, checkpoints).sync((folder, messages) -> { }),
+            new IsEqual<>(1)
+        );
+        final Checkpoint saved = checkpoints.checkpoint(UidSyncTest.INBOX);
+        MatcherAssert.assertThat(saved.uid(), new IsEqual<>(1L));
+        MatcherAssert.assertThat(saved.modseq(), new IsEqual<>(0L));
+    }
+
+    @Test
+    void listsNewMessagesChangedSinceModseq(final @TempDir Path temp) throws Exception {
+        final Checkpoints checkpoints = new FileCheckpoints(temp.resolve("condstore.properties"));
+        try (ImapStub stub = new ImapStub().message(1L, 5L).message(2L, 9L).message(3L, 7L)
+            .start()) {
+            final UidSync sync = new UidSync(new TransientInbox(stub.account()), checkpoints);
+            MatcherAssert.assertThat(
+                sync.sync((folder, messages) -> { }), new IsEqual<>(3)
+            );
+            MatcherAssert.assertThat(
+                checkpoints.checkpoint(UidSyncTest.INBOX).modseq(), new IsEqual<>(9L)
+            );
+            MatcherAssert.assertThat(
+                sync.sync((folder, messages) -> { }), new IsEqual<>(0)
+            );
+            stub.message(4L, 12L);
+            MatcherAssert.assertThat(
+                sync.sync((folder, messages) -> { }), new IsEqual<>(1)
+            );
+            final Checkpoint saved = checkpoints.checkpoint(UidSyncTest.INBOX);
+            MatcherAssert.assertThat(saved.uid(), new IsEqual<>(4L));
+            MatcherAssert.assertThat(saved.modseq(), new IsEqual<>(12L));
+            MatcherAssert.assertThat(
+                UidSyncTest.listings(stub),
+                new IsEqual<>(
+                    Arrays.asList(
+                        "UID FETCH 1:* (UID MODSEQ)",
+                        "UID FETCH 4:* (UID MODSEQ) (CHANGEDSINCE 9)",
+                        "UID FETCH 4:* (UID MODSEQ) (CHANGEDSINCE 9)"
+                    )
+                )
+            );
+        }
+    }
+
+    @Test
+    void ignoresListedMessagesBeforeCheckpoint(final @TempDir Path temp) throws Exception {
+        final Checkpoints checkpoints = new FileCheckpoints(temp.resolve("range.properties"));
+        checkpoints.save(UidSyncTest.INBOX, new Checkpoint(ImapStub.VALIDITY, 2L));
+        try (ImapStub stub = new ImapStub().message(1L, 3L).message(2L, 6L).start()) {
+            MatcherAssert.assertThat(
+                new UidSync(new TransientInbox(stub.account()), checkpoints).sync(
+                    (folder, messages) -> { }
+                ),
+                new IsEqual<>(0)
+            );
+            final Checkpoint saved = checkpoints.checkpoint(UidSyncTest.INBOX);
+            MatcherAssert.assertThat(saved.uid(), new IsEqual<>(2L));
+            MatcherAssert.assertThat(saved.modseq(), new IsEqual<>(0L));
+        }
+    }
+
+    @Test
+    void handlesOnlyMessagesMatchingRules(final @TempDir Path temp) throws Exception {
+        final Checkpoints checkpoints = new FileCheckpoints(temp.resolve("rules.properties"));
+        final String subject = "Daily report";
+        final byte[] content = "cells".getBytes(StandardCharsets.UTF_8);
+        new ReportEmail(this.server, this.user.getEmail(), subject, "daily.xlsx", content)
+            .send();
+        this.send("site@example.com", subject);
+        this.send("news@example.com", "Weekly report");
+        new ReportEmail(this.server, this.user.getEmail(), "Lunch", "menu.xlsx", content).send();
+        final List<String> subjects = new ArrayList<>(1);
+        MatcherAssert.assertThat(
+            new UidSync(
+                new TransientInbox(this.account()), checkpoints,
+                new ReportRules(
+                    new YamlRuleSettings(
+                        Yaml.createYamlInput(
+                            String.join(
+                                "\n", "senders:", "  - site@example.com",
+                                "  - plant@example.com", "subjects:", "  - REPORT",
+                                "days: 2", "attachments: true"
+                            )
+                        ).readYamlMapping()
+                    )
+                )
+            ).sync(
+                (folder, messages) -> {
+                    for (final javax.mail.Message msg : messages) {
+                        subjects.add(msg.getSubject());
+                    }
+                }
+            ),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(subjects, new IsEqual<>(Collections.singletonList(subject)));
+        MatcherAssert.assertThat(
+            checkpoints.checkpoint(UidSyncTest.INBOX).uid(), new IsEqual<>(4L)
+        );
+    }
+
+    @Test
+    void catchesUpBacklogInUidOrder(final @TempDir Path temp) throws Exception {
+        final Checkpoints checkpoints = new FileCheckpoints(temp.resolve("backlog.properties"));
+        final List<String> expected = new ArrayList<>(7);
+        for (int idx = 1; idx <= 7; ++idx) {
+            final String subject = String.format("Report %d", idx);
+            this.send(subject);
+            expected.add(subject);
+        }
+        final List<String> subjects = new ArrayList<>(7);
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        try (PooledInbox inbox = new PooledInbox(this.account(), 3);
+            CatchUp catchup = new CatchUp(3, 5)) {
+            final UidSync sync = new UidSync(inbox, checkpoints, 2, new ReportRules(), catchup);
+            MatcherAssert.assertThat(
+                sync.sync(
+                    (folder, messages) -> {
+                        threads.add(Thread.currentThread());
+                        final List<String> fetched = new ArrayList<>(messages.length);
+                        for (final javax.mail.Message msg : messages) {
+                            fetched.add(msg.getSubject());
+                        }
+                        return fetched;
+                    },
+                    subjects::addAll
+                ),
+                new IsEqual<>(7)
+            );
+            MatcherAssert.assertThat(
+                sync.sync((folder, messages) -> messages.length, fetched -> { }),
+                new IsEqual<>(0)
+            );
+        }
+        MatcherAssert.assertThat(subjects, new IsEqual<>(expected));
+        MatcherAssert.assertThat(threads.contains(Thread.currentThread()), new IsEqual<>(false));
+        MatcherAssert.assertThat(
+            checkpoints.checkpoint(UidSyncTest.INBOX).uid(), new IsEqual<>(7L)
+        );
+    }
+
+    @Test
+    void deliversBatchesWithoutHoldingHostPermit(final @TempDir Path temp)
+        throws Exception {
+        this.send("Report A");
+        this.send("Report B");
+        this.send("Report C");
+        final Semaphore permits = new Semaphore(1);
+        final List<Integer> free = new ArrayList<>(2);
+        try (PooledInbox pool = new PooledInbox(this.account())) {
+            MatcherAssert.assertThat(
+                new UidSync(
+                    new LimitedInbox(pool, permits),
+                    new FileCheckpoints(temp.resolve("permits.properties")), 2
+                ).sync(
+                    (folder, messages) -> messages.length,
+                    fetched -> free.add(permits.availablePermits())
+                ),
+                new IsEqual<>(3)
+            );
+        }
+        MatcherAssert.assertThat(free, new IsEqual<>(Arrays.asList(1, 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop();
+    }
+
+    /**
+     * Send an email to test user.
+     * @param subject Subject
+     */
+    private void send(final String subject) {
+        this.send("foo@example.com", subject);
+    }
+
+    /**
+     * Send a text email to test user.
+     * @param sender Address of sender
+     * @param subject Subject
+     */
+    private void send(final String sender, final String subject) {
+        GreenMailUtil.sendTextEmail(
+            this.user.getEmail(), sender, subject, "Body",
+            this.server.getSmtp().getServerSetup()
+        );
+    }
+
+    /**
+     * Refresh selected INBOX with a NOOP.
+     * GreenMail reports new messages (EXISTS) only after FETCH responses
+     * referencing them, so selected INBOX must be refreshed first.
+     * @param inbox Inbox
+     * @throws IOException If fails
+     */
+    private static void refresh(final Inbox inbox) throws IOException {
+        inbox.apply(
+            folder -> ((IMAPFolder) folder).doCommand(
+                protocol -> {
+                    protocol.noop();
+                    return true;
+                }
+            )
+        );
+    }
+
+    /**
+     * Listings of new UIDs received by a stub.
+     * @param stub Stub
+     * @return Commands
+     */
+    private static List<String> listings(final ImapStub stub) {
+        final List<String> listings = new ArrayList<>(3);
+        for (final String command : stub.commands()) {
+            if (command.contains("MODSEQ")) {
+                listings.add(command);
+            }
+        }
+        return listings;
+    }
+
+    /**
+     * Account of test user.
+     * @return Account
+     */
+    private ImapAccount account() {
+        return new ImapAccount(
+            this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+            this.server.getImap().getPort(), this.user.getLogin(), this.user.getPassword()
+        );
+    }
+}
@@ -16,10 +16,13 @@
  */
 package com.endeavourmining.reportbot;
 
+import com.endeavourmining.reportbot.metrics.Metrics;
 import com.icegreen.greenmail.user.GreenMailUser;
 import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.GreenMailUtil;
 import com.icegreen.greenmail.util.ServerSetup;
 import java.io.IOException;
+import javax.mail.Flags;
 import javax.mail.Message;
 import javax.mail.Session;
 import javax.mail.Transport;
@@ -36,6 +39,7 @@ import org.junit.jupiter.api.Test;
  *
  * @since 0.1
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle MagicNumberCheck (500 lines)
  */
 final class UnreadEmailsTest {
 
@@ -44,35 +48,134 @@ final class UnreadEmailsTest {
      */
     private GreenMail server;
 
+    /**
+     * Mail user.
+     */
+    private GreenMailUser user;
+
     @BeforeEach
     void setUp() throws IOException {
         this.server = new GreenMail(
             new ServerSetup[] {
                 ServerSetup.SMTP.withPort(new AvailablePort().intValue()),
                 ServerSetup.IMAP.withPort(new AvailablePort().intValue()),
+                ServerSetup.POP3.withPort(new AvailablePort().intValue()),
             }
         );
         this.server.start();
-    }
-
-    @Test
-    void getNumberOfUnreadEmails() throws Exception {
-        final GreenMailUser user = this.server.setUser(
+        this.user = this.server.setUser(
             "bar@example.com",
             "bar",
             "pwd"
         );
+    }
+
+    @Test
+    void getNumberOfUnreadEmails() throws Exception {
         final Session session = this.server.getSmtp().createSession();
         final Message msg = new MimeMessage(session);
         msg.setFrom(new InternetAddress("foo@example.com"));
-        msg.addRecipient(Message.RecipientType.TO, new InternetAddress(user.getEmail()));
+        msg.addRecipient(Message.RecipientType.TO, new InternetAddress(this.user.getEmail()));
         msg.setSubject("Test 1");
         msg.setText("This is email for test 1 purpose.");
         Transport.send(msg);
         MatcherAssert.assertThat(
             new UnreadEmails(
                 this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
-                this.server.getImap().getPort(), user.getLogin(), user.getPassword()
+                this.server.getImap().getPort(), this.user.getLogin(), this.user.getPassword()
+            ).count(),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void countsWithStatusAsWithSearch() throws Exception {
+        for (int idx = 0; idx < 3; ++idx) {
+            this.send();
+        }
+        final ImapAccount account = this.account();
+        try (PooledInbox inbox = new PooledInbox(account)) {
+            inbox.apply(
+                folder -> {
+                    folder.getMessage(1).setFlag(Flags.Flag.SEEN, true);
+                    return true;
+                }
+            );
+            MatcherAssert.assertThat(
+                new UnreadEmails(new ReadOnlyInbox(account), new StatusUnreadCount()).count(),
+                new IsEqual<>(new UnreadEmails(inbox, new SearchUnreadCount()).count())
+            );
+        }
+        MatcherAssert.assertThat(
+            new UnreadEmails(new ReadOnlyInbox(account)).count(),
+            new IsEqual<>(2)
+        );
+    }
+
+    @Test
+    void sendsStatusWithoutSelectingInbox() throws Exception {
+        this.send();
+        final Metrics metrics = new Metrics();
+        MatcherAssert.assertThat(
+            new UnreadEmails(
+                new ReadOnlyInbox(this.account(), metrics), new CapableUnreadCount(metrics)
+            ).count(),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(
+            metrics.histogram("imap.status").count(), new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(
+            metrics.histogram("imap.select").count(), new IsEqual<>(0L)
+        );
+        MatcherAssert.assertThat(
+            metrics.histogram("imap.search").count(), new IsEqual<>(0L)
+        );
+    }
+
+    @Test
+    void searchesInboxAlreadySelected() throws Exception {
+        this.send();
+        final Metrics metrics = new Metrics();
+        try (PooledInbox inbox = new PooledInbox(this.account())) {
+            MatcherAssert.assertThat(
+                new UnreadEmails(inbox, new CapableUnreadCount(metrics)).count(),
+                new IsEqual<>(1)
+            );
+        }
+        MatcherAssert.assertThat(
+            metrics.histogram("imap.status").count(), new IsEqual<>(0L)
+        );
+        MatcherAssert.assertThat(
+            metrics.histogram("imap.search").count(), new IsEqual<>(1L)
+        );
+    }
+
+    @Test
+    void fallsBackToSearchWithoutImap() throws Exception {
+        this.send();
+        MatcherAssert.assertThat(
+            new UnreadEmails(
+                this.server.getPop3().getBindTo(), this.server.getPop3().getProtocol(),
+                this.server.getPop3().getPort(), this.user.getLogin(), this.user.getPassword()
+            ).count(),
+            new IsEqual<>(1)
+        );
+    }
+
+    @Test
+    void countsWithStatusFallbackWithoutImap() throws Exception {
+        this.send();
+        MatcherAssert.assertThat(
+            new UnreadEmails(
+                new TransientInbox(
+                    new ImapAccount(
+                        this.server.getPop3().getBindTo(), this.server.getPop3().getProtocol(),
+                        this.server.getPop3().getPort(), this.user.getLogin(),
+                        this.user.getPassword()
+                    )
+                ),
+                new StatusUnreadCount()
             ).count(),
             new IsEqual<>(1)
         );
@@ -82,4 +185,25 @@ final class UnreadEmailsTest {
     void tearDown() {
         this.server.stop();
     }
+
+    /**
+     * IMAP account of test user.
+     * @return Account
+     */
+    private ImapAccount account() {
+        return new ImapAccount(
+            this.server.getImap().getBindTo(), this.server.getImap().getProtocol(),
+            this.server.getImap().getPort(), this.user.getLogin(), this.user.getPassword()
+        );
+    }
+
+    /**
+     * Send a report email to test user.
+     */
+    private void send() {
+        GreenMailUtil.sendTextEmail(
+            this.user.getEmail(), "site@example.com", "Report", "Body",
+            this.server.getSmtp().getServerSetup()
+        );
+    }
 }
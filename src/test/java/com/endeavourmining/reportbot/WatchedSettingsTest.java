@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link WatchedSettings}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class WatchedSettingsTest {
+
+    /**
+     * Name of settings file.
+     */
+    private static final String NAME = "settings.yml";
+
+    /**
+     * Login of mailbox.
+     */
+    private static final String LOGIN = "foo";
+
+    @Test
+    void swapsSnapshotWhenFileChanges(final @TempDir Path temp) throws Exception {
+        final Path path = temp.resolve(WatchedSettingsTest.NAME);
+        WatchedSettingsTest.write(path, WatchedSettingsTest.LOGIN, "4");
+        try (WatchedSettings settings = new WatchedSettings(path).start()) {
+            MatcherAssert.assertThat(settings.pipelineSettings().queue(), new IsEqual<>(4));
+            final String login = "bar";
+            WatchedSettingsTest.write(path, login, "8");
+            final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(30L);
+            while (settings.pipelineSettings().queue() != 8 && System.nanoTime() < end) {
+                TimeUnit.MILLISECONDS.sleep(50L);
+            }
+            final Settings snapshot = settings.snapshot();
+            MatcherAssert.assertThat(snapshot.pipelineSettings().queue(), new IsEqual<>(8));
+            MatcherAssert.assertThat(snapshot.mailSettings().login(), new IsEqual<>(login));
+        }
+    }
+
+    @Test
+    void keepsSnapshotWhenNewFileIsInvalid(final @TempDir Path temp) throws Exception {
+        final Path path = temp.resolve(WatchedSettingsTest.NAME);
+        WatchedSettingsTest.write(path, WatchedSettingsTest.LOGIN, "4");
+        try (WatchedSettings settings = new WatchedSettings(path)) {
+            final Settings snapshot = settings.snapshot();
+            WatchedSettingsTest.write(path, WatchedSettingsTest.LOGIN, "-1");
+            MatcherAssert.assertThat(settings.reload(), new IsEqual<>(false));
+            MatcherAssert.assertThat(settings.snapshot(), new IsSame<>(snapshot));
+        }
+    }
+
+    /**
+     * Write settings file atomically.
+     * @param path Path
+     * @param login Login of mailbox
+     * @param queue Capacity of queues
+     * @throws Exception If fails
+     */
+    private static void write(final Path path, final String login, final String queue)
+        throws Exception {
+        final Path tmp = Files.createTempFile(path.getParent(), "settings", ".tmp");
+        Files.write(
+            tmp,
+            String.join(
+                "\n",
+                "settings:",
+                "  mailbox:",
+                "    credentials:",
+                String.format("      login: %s", login),
+                "      password: secret",
+                "    imap_server:",
+                "      host: localhost",
+                "      port: 143",
+                "  pipeline:",
+                String.format("    queue: %s", queue)
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
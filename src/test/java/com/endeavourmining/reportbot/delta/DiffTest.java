@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.delta;
+
+import com.endeavourmining.reportbot.report.Column;
+import com.endeavourmining.reportbot.report.ColumnType;
+import com.endeavourmining.reportbot.report.ReportBatch;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Diff}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class DiffTest {
+
+    /**
+     * Site of rows.
+     */
+    private static final String SITE = "Ity";
+
+    /**
+     * Columns.
+     */
+    private static final List<Column> COLUMNS = Arrays.asList(
+        new Column("site", 0, ColumnType.TEXT),
+        new Column("day", 1, ColumnType.INTEGER),
+        new Column("gold", 2, ColumnType.NUMBER)
+    );
+
+    /**
+     * Columns of natural key.
+     */
+    private static final List<String> KEY = Arrays.asList(
+        DiffTest.COLUMNS.get(0).name(), DiffTest.COLUMNS.get(1).name()
+    );
+
+    @Test
+    void keepsOnlyRowsChangedSinceSavedVersion(final @TempDir Path temp) throws Exception {
+        final ReportBatch next = DiffTest.batch(1.0, 2.5, 3.0, 4.0, 5.0);
+        final Diff diff = DiffTest.second(temp, next);
+        MatcherAssert.assertThat(next.size(), new IsEqual<>(2));
+        MatcherAssert.assertThat(next.integer(1, 0), new IsEqual<>(2L));
+        MatcherAssert.assertThat(next.decimal(2, 0), new IsEqual<>(2.5));
+        MatcherAssert.assertThat(next.integer(1, 1), new IsEqual<>(5L));
+        MatcherAssert.assertThat(next.number(1), new IsEqual<>(6));
+        MatcherAssert.assertThat(diff.version().size(), new IsEqual<>(5));
+    }
+
+    @Test
+    void restoresRowsRemovedSinceSavedVersion(final @TempDir Path temp) throws Exception {
+        final ReportBatch next = DiffTest.batch(1.0, 2.0);
+        final Diff diff = DiffTest.second(temp, next);
+        MatcherAssert.assertThat(next.size(), new IsEqual<>(0));
+        final List<String[]> removed = diff.removed();
+        MatcherAssert.assertThat(removed.size(), new IsEqual<>(2));
+        diff.restore(next, removed.get(0));
+        MatcherAssert.assertThat(next.text(0, 0), new IsEqual<>(DiffTest.SITE));
+        MatcherAssert.assertThat(next.blank(2, 0), new IsEqual<>(true));
+        diff.restore(next, removed.get(1));
+        MatcherAssert.assertThat(
+            next.integer(1, 0) + next.integer(1, 1), new IsEqual<>(7L)
+        );
+    }
+
+    @Test
+    void keepsAllRowsWithoutNaturalKey() {
+        final Diff diff = new Diff(
+            new RowHashes(DiffTest.COLUMNS, Collections.emptyList()), new Version()
+        );
+        final ReportBatch batch = DiffTest.batch(1.0, 1.0);
+        diff.retain(batch);
+        MatcherAssert.assertThat(batch.size(), new IsEqual<>(2));
+        MatcherAssert.assertThat(diff.removed().isEmpty(), new IsEqual<>(true));
+    }
+
+    /**
+     * Diff a batch against a saved version of days 1 to 4.
+     * @param temp Temporary directory
+     * @param batch Batch to diff
+     * @return Diff
+     * @throws IOException If fails
+     */
+    private static Diff second(final Path temp, final ReportBatch batch) throws IOException {
+        final RowHashes hashes = new RowHashes(DiffTest.COLUMNS, DiffTest.KEY);
+        final Diff first = new Diff(hashes, new Version());
+        final ReportBatch rows = DiffTest.batch(1.0, 2.0, 3.0, 4.0);
+        first.retain(rows);
+        MatcherAssert.assertThat(rows.size(), new IsEqual<>(4));
+        final VersionFile file = new VersionFile(temp.resolve("report.version"));
+        file.write(first.version());
+        final Diff diff = new Diff(hashes, file.read());
+        diff.retain(batch);
+        return diff;
+    }
+
+    /**
+     * Batch of rows of a site, one per day from day 1.
+     * @param gold Gold output of each day
+     * @return Batch
+     */
+    private static ReportBatch batch(final double... gold) {
+        final ReportBatch batch = new ReportBatch(DiffTest.COLUMNS, 8);
+        for (int day = 1; day <= gold.length; ++day) {
+            final int row = batch.add(day + 1);
+            batch.putText(0, row, DiffTest.SITE);
+            batch.putInteger(1, row, day);
+            batch.putDecimal(2, row, gold[day - 1]);
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.metrics;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.number.IsCloseTo;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Histogram}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class HistogramTest {
+
+    @Test
+    void estimatesQuantilesWithinBucketPrecision() {
+        final Histogram histogram = new Histogram();
+        for (long value = 1L; value <= 100_000L; ++value) {
+            histogram.record(value * 1000L);
+        }
+        MatcherAssert.assertThat(histogram.count(), new IsEqual<>(100_000L));
+        MatcherAssert.assertThat(histogram.max(), new IsEqual<>(100_000_000L));
+        MatcherAssert.assertThat(
+            (double) histogram.quantile(0.5), new IsCloseTo(50_000_000.0, 6_250_000.0)
+        );
+        MatcherAssert.assertThat(
+            (double) histogram.quantile(0.99), new IsCloseTo(99_000_000.0, 12_375_000.0)
+        );
+        MatcherAssert.assertThat(histogram.quantile(1.0), new IsEqual<>(100_000_000L));
+    }
+
+    @Test
+    void keepsSmallValuesExact() {
+        final Histogram histogram = new Histogram();
+        histogram.record(3L);
+        histogram.record(-5L);
+        histogram.record(7L);
+        MatcherAssert.assertThat(histogram.quantile(0.0), new IsEqual<>(0L));
+        MatcherAssert.assertThat(histogram.quantile(0.5), new IsEqual<>(3L));
+        MatcherAssert.assertThat(histogram.sum(), new IsEqual<>(10L));
+    }
+
+    @Test
+    void answersZeroWhenEmpty() {
+        final Histogram histogram = new Histogram();
+        MatcherAssert.assertThat(histogram.quantile(0.99), new IsEqual<>(0L));
+        MatcherAssert.assertThat(histogram.max(), new IsEqual<>(0L));
+    }
+
+    @Test
+    void recordsExtremeValues() {
+        final Histogram histogram = new Histogram();
+        histogram.record(Long.MAX_VALUE);
+        MatcherAssert.assertThat(histogram.quantile(0.5), new IsEqual<>(Long.MAX_VALUE));
+    }
+}
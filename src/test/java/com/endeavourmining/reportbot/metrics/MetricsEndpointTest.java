@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.StringContains;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link MetricsEndpoint} and {@link JmxMetrics}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class MetricsEndpointTest {
+
+    /**
+     * Name of histogram.
+     */
+    private static final String NAME = "imap.connect";
+
+    /**
+     * Name of counter.
+     */
+    private static final String ROWS = "rows.published";
+
+    @Test
+    void servesHistogramsAsText() throws IOException {
+        final Metrics metrics = new Metrics();
+        metrics.histogram(MetricsEndpointTest.NAME).record(2_000_000L);
+        try (MetricsEndpoint endpoint = new MetricsEndpoint(metrics, 0).start()) {
+            final HttpURLConnection conn = (HttpURLConnection) new URL(
+                String.format("http://127.0.0.1:%d/metrics", endpoint.port())
+            ).openConnection();
+            MatcherAssert.assertThat(conn.getResponseCode(), new IsEqual<>(200));
+            final String text = MetricsEndpointTest.body(conn);
+            MatcherAssert.assertThat(
+                text,
+                new StringContains("reportbot_imap_connect_seconds{quantile=\"0.5\"} 0.002000000")
+            );
+            MatcherAssert.assertThat(
+                text, new StringContains("reportbot_imap_connect_seconds_count 1\n")
+            );
+        }
+    }
+
+    @Test
+    void servesCountersAsText() throws IOException {
+        final Metrics metrics = new Metrics();
+        metrics.counter(MetricsEndpointTest.ROWS).add(42L);
+        try (MetricsEndpoint endpoint = new MetricsEndpoint(metrics, 0)) {
+            MatcherAssert.assertThat(
+                endpoint.text(),
+                new IsEqual<>(
+                    String.join(
+                        "\n", "# TYPE reportbot_rows_published_total counter",
+                        "reportbot_rows_published_total 42", ""
+                    )
+                )
+            );
+        }
+    }
+
+    @Test
+    void exposesHistogramsThroughJmx() throws Exception {
+        final Metrics metrics = new Metrics();
+        metrics.histogram(MetricsEndpointTest.NAME).record(3_000L);
+        metrics.counter(MetricsEndpointTest.ROWS).add(7L);
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        new JmxMetrics(metrics).register(server);
+        final ObjectName name = new ObjectName(JmxMetrics.NAME);
+        MatcherAssert.assertThat(
+            server.getAttribute(name, "imap.connect.count"), new IsEqual<>(1L)
+        );
+        MatcherAssert.assertThat(
+            server.getAttribute(name, "imap.connect.max"), new IsEqual<>(3.0)
+        );
+        MatcherAssert.assertThat(
+            server.getAttribute(name, MetricsEndpointTest.ROWS), new IsEqual<>(7L)
+        );
+        MatcherAssert.assertThat(
+            server.getMBeanInfo(name).getAttributes().length, new IsEqual<>(8)
+        );
+        MatcherAssert.assertThat(
+            ManagementFactory.getPlatformMBeanServer().isRegistered(name),
+            new IsEqual<>(false)
+        );
+    }
+
+    /**
+     * Read body of response.
+     * @param conn Connection
+     * @return Body
+     * @throws IOException If fails
+     */
+    private static String body(final HttpURLConnection conn) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream input = conn.getInputStream()) {
+            final byte[] buf = new byte[4096];
+            for (int len = input.read(buf); len >= 0; len = input.read(buf)) {
+                out.write(buf, 0, len);
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
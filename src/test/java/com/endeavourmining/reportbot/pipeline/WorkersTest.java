@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.pipeline;
+
+import com.endeavourmining.reportbot.metrics.Histogram;
+import com.endeavourmining.reportbot.metrics.Metrics;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Workers}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class WorkersTest {
+
+    @Test
+    void drainsChainedStagesOnClose() throws Exception {
+        final List<Integer> out = new CopyOnWriteArrayList<>();
+        final Workers<Integer, Integer> last = new Workers<Integer, Integer>(
+            "square", (item, next) -> next.accept(item * item), out::add, 2, 2
+        ).start();
+        final Stage<Integer, Integer> twice = (item, next) -> {
+            next.accept(item);
+            next.accept(-item);
+        };
+        final Workers<Integer, Integer> first = new Workers<>("twice", twice, last, 3, 2)
+            .start();
+        for (int idx = 1; idx <= 50; ++idx) {
+            first.accept(idx);
+        }
+        first.close();
+        last.close();
+        MatcherAssert.assertThat(out.size(), new IsEqual<>(100));
+        MatcherAssert.assertThat(
+            out.stream().mapToInt(Integer::intValue).sum(), new IsEqual<>(85_850)
+        );
+    }
+
+    @Test
+    void timesProcessingWithoutHandOff() throws Exception {
+        final Metrics metrics = new Metrics();
+        final Sink<Integer> slow = item -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(200L);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        final Workers<Integer, Integer> stage = new Workers<Integer, Integer>(
+            "handoff", (item, next) -> next.accept(item), slow, 1, 1, metrics
+        ).start();
+        stage.accept(1);
+        stage.accept(2);
+        stage.close();
+        final Histogram timer = metrics.histogram("stage.handoff");
+        MatcherAssert.assertThat(timer.count(), new IsEqual<>(2L));
+        MatcherAssert.assertThat(
+            timer.max() < TimeUnit.MILLISECONDS.toNanos(100L), new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void blocksUpstreamWhileQueueIsFull() throws Exception {
+        final CountDownLatch slow = new CountDownLatch(1);
+        final Stage<Integer, Integer> stuck = (item, next) -> {
+            try {
+                slow.await();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        final Workers<Integer, Integer> stage = new Workers<Integer, Integer>(
+            "stuck", stuck, item -> { }, 1, 1
+        ).start();
+        final Runnable produce = () -> {
+            for (int idx = 0; idx < 3; ++idx) {
+                try {
+                    stage.accept(idx);
+                } catch (final IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        };
+        final CompletableFuture<Void> producer = CompletableFuture.runAsync(produce);
+        TimeUnit.MILLISECONDS.sleep(300L);
+        MatcherAssert.assertThat(producer.isDone(), new IsEqual<>(false));
+        slow.countDown();
+        producer.get(5L, TimeUnit.SECONDS);
+        stage.close();
+        MatcherAssert.assertThat(stage.pending(), new IsEqual<>(0));
+    }
+}
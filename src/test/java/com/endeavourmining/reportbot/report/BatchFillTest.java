@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.report;
+
+import com.endeavourmining.reportbot.xlsx.Row;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link BatchFill}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class BatchFillTest {
+
+    @Test
+    void handsFullBatchesDownstream() throws Exception {
+        final List<String> seen = new ArrayList<>(5);
+        final List<Integer> sizes = new ArrayList<>(3);
+        final ReportBatch batch = new ReportBatch(BatchFillTest.columns(), 2);
+        final BatchFill fill = new BatchFill(
+            batch, 1,
+            full -> {
+                sizes.add(full.size());
+                for (int row = 0; row < full.size(); ++row) {
+                    seen.add(
+                        String.format(
+                            "%s/%d/%.1f/%b",
+                            full.text(0, row), full.integer(1, row),
+                            full.decimal(2, row), full.blank(2, row)
+                        )
+                    );
+                }
+            }
+        );
+        final String site = "Houndé";
+        final String ity = "Ity";
+        final String day = "44929";
+        fill.handle(new Row(1, Arrays.asList("Site", "Date", "Gold (oz)")));
+        fill.handle(new Row(2, Arrays.asList(site, "44927", "12.5")));
+        fill.handle(new Row(3, Arrays.asList(ity, "44927.0", "3")));
+        fill.handle(new Row(4, Arrays.asList(site, "44928")));
+        fill.handle(new Row(5, Arrays.asList(site, day, " ")));
+        fill.handle(new Row(6, Arrays.asList("Mana", day, "7.25")));
+        fill.flush();
+        MatcherAssert.assertThat(sizes, new IsEqual<>(Arrays.asList(2, 2, 1)));
+        MatcherAssert.assertThat(
+            seen,
+            new IsEqual<>(
+                Arrays.asList(
+                    "Houndé/44927/12.5/false", "Ity/44927/3.0/false",
+                    "Houndé/44928/0.0/true", "Houndé/44929/0.0/true",
+                    "Mana/44929/7.3/false"
+                )
+            )
+        );
+        MatcherAssert.assertThat(batch.dictionary(0).size(), new IsEqual<>(1));
+    }
+
+    @Test
+    void clearsDictionariesWithBatch() {
+        final ReportBatch batch = new ReportBatch(BatchFillTest.columns(), 2);
+        final ReportBatch sibling = batch.sibling();
+        batch.putText(0, batch.add(1), "Boungou");
+        batch.putText(0, batch.add(2), "Wahgnion");
+        MatcherAssert.assertThat(sibling.dictionary(0).size(), new IsEqual<>(0));
+        batch.clear();
+        MatcherAssert.assertThat(batch.dictionary(0).size(), new IsEqual<>(0));
+        final String site = "Sabodala";
+        batch.putText(0, batch.add(3), site);
+        MatcherAssert.assertThat(batch.code(0, 0), new IsEqual<>(0));
+        MatcherAssert.assertThat(batch.text(0, 0), new IsEqual<>(site));
+    }
+
+    @Test
+    void rejectsTextInNumericColumn() {
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new BatchFill(
+                new ReportBatch(BatchFillTest.columns(), 2), 0, full -> { }
+            ).handle(new Row(1, Arrays.asList("Ity mine", "today")))
+        );
+    }
+
+    @Test
+    void refusesRowsBeyondCapacity() {
+        final ReportBatch batch = new ReportBatch(
+            Collections.singletonList(new Column("Gold", 0, ColumnType.NUMBER)), 1
+        );
+        batch.add(1);
+        Assertions.assertThrows(IllegalStateException.class, () -> batch.add(2));
+    }
+
+    /**
+     * Columns of a production report.
+     * @return Columns
+     */
+    private static List<Column> columns() {
+        return Arrays.asList(
+            new Column("site", 0, ColumnType.TEXT),
+            new Column("day", 1, ColumnType.INTEGER),
+            new Column("gold", 2, ColumnType.NUMBER)
+        );
+    }
+}
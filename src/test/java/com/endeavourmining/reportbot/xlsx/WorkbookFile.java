@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.xlsx;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal Excel workbook written for tests.
+ *
+ * @since 0.1
+ */
+public final class WorkbookFile {
+
+    /**
+     * SpreadsheetML namespace.
+     */
+    private static final String MAIN =
+        "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    /**
+     * Shared strings.
+     */
+    private final Iterable<String> strings;
+
+    /**
+     * Content of {@code sheetData} element by sheet name, in order.
+     */
+    private final Map<String, String> sheets;
+
+    /**
+     * Ctor.
+     * @param strings Shared strings
+     * @param sheets Content of {@code sheetData} element by sheet name
+     */
+    public WorkbookFile(final Iterable<String> strings, final Map<String, String> sheets) {
+        this.strings = strings;
+        this.sheets = sheets;
+    }
+
+    /**
+     * Write workbook.
+     * @param file File to write
+     * @return File
+     * @throws IOException If fails
+     */
+    public Path write(final Path file) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            final StringBuilder workbook = new StringBuilder(
+                String.format(
+                    "<workbook xmlns=\"%s\" xmlns:r=\"%s\"><sheets>", WorkbookFile.MAIN,
+                    "http://schemas.openxmlformats.org/officeDocument/2006/relationships"
+                )
+            );
+            final StringBuilder rels = new StringBuilder(
+                String.format(
+                    "<Relationships xmlns=\"%s\">",
+                    "http://schemas.openxmlformats.org/package/2006/relationships"
+                )
+            );
+            int idx = 0;
+            for (final Map.Entry<String, String> sheet : this.sheets.entrySet()) {
+                idx += 1;
+                workbook.append(
+                    String.format(
+                        "<sheet name=\"%s\" sheetId=\"%d\" r:id=\"rId%2$d\"/>",
+                        sheet.getKey(), idx
+                    )
+                );
+                rels.append(
+                    String.format(
+                        "<Relationship Id=\"rId%d\" Target=\"worksheets/sheet%1$d.xml\"/>", idx
+                    )
+                );
+                WorkbookFile.entry(
+                    zip, String.format("xl/worksheets/sheet%d.xml", idx),
+                    String.format(
+                        "<worksheet xmlns=\"%s\"><sheetData>%s</sheetData></worksheet>",
+                        WorkbookFile.MAIN, sheet.getValue()
+                    )
+                );
+            }
+            WorkbookFile.entry(zip, "xl/workbook.xml", workbook.append("</sheets></workbook>"));
+            WorkbookFile.entry(zip, "xl/_rels/workbook.xml.rels", rels.append("</Relationships>"));
+            final StringBuilder shared = new StringBuilder(
+                String.format("<sst xmlns=\"%s\">", WorkbookFile.MAIN)
+            );
+            for (final String text : this.strings) {
+                shared.append("<si><t>").append(text).append("</t></si>");
+            }
+            WorkbookFile.entry(zip, "xl/sharedStrings.xml", shared.append("</sst>"));
+        }
+        return file;
+    }
+
+    /**
+     * Add an entry.
+     * @param zip Archive
+     * @param name Entry name
+     * @param content Content
+     * @throws IOException If fails
+     */
+    private static void entry(final ZipOutputStream zip, final String name,
+        final CharSequence content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        final OutputStream out = zip;
+        out.write(content.toString().getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2022 Endeavour Mining
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.endeavourmining.reportbot.xlsx;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link XlsxWorkbook}.
+ *
+ * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class XlsxWorkbookTest {
+
+    @Test
+    void readsCellsOfFirstSheet(final @TempDir Path temp) throws Exception {
+        final List<Row> rows = new ArrayList<>(2);
+        final String header = "Site";
+        final String site = "Houndé";
+        final Path file = new WorkbookFile(
+            Arrays.asList(header, site),
+            Collections.singletonMap(
+                "Production",
+                String.join(
+                    "",
+                    "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c>",
+                    "<c r=\"C1\" t=\"inlineStr\"><is><t>Gold (oz)</t></is></c></row>",
+                    "<row r=\"3\"><c r=\"A3\" t=\"s\"><v>1</v></c>",
+                    "<c r=\"C3\"><v>1250.5</v></c></row>"
+                )
+            )
+        ).write(temp.resolve("production.xlsx"));
+        MatcherAssert.assertThat(new XlsxWorkbook(file).rows(rows::add), new IsEqual<>(2));
+        MatcherAssert.assertThat(rows.get(0).cell(0), new IsEqual<>(header));
+        MatcherAssert.assertThat(rows.get(0).cell(1), new IsEqual<>(""));
+        MatcherAssert.assertThat(rows.get(0).cell(2), new IsEqual<>("Gold (oz)"));
+        MatcherAssert.assertThat(rows.get(1).number(), new IsEqual<>(3));
+        MatcherAssert.assertThat(rows.get(1).cell(0), new IsEqual<>(site));
+        MatcherAssert.assertThat(rows.get(1).cell(2), new IsEqual<>("1250.5"));
+        MatcherAssert.assertThat(rows.get(1).size(), new IsEqual<>(3));
+    }
+
+    @Test
+    void skipsPhoneticRunsAndBlankIndexes(final @TempDir Path temp) throws Exception {
+        final List<Row> rows = new ArrayList<>(1);
+        new XlsxWorkbook(
+            new WorkbookFile(
+                Collections.singletonList("Tarkwa"),
+                Collections.singletonMap(
+                    "Sites",
+                    String.join(
+                        "",
+                        "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>東京</t>",
+                        "<rPh sb=\"0\" eb=\"2\"><t>トウキョウ</t></rPh></is></c>",
+                        "<c r=\"B1\" t=\"s\"><v/></c><c r=\"C1\" t=\"s\"><v>0</v></c></row>"
+                    )
+                )
+            ).write(temp.resolve("sites.xlsx"))
+        ).rows(rows::add);
+        MatcherAssert.assertThat(rows.get(0).cell(0), new IsEqual<>("東京"));
+        MatcherAssert.assertThat(rows.get(0).cell(1), new IsEqual<>(""));
+        MatcherAssert.assertThat(rows.get(0).cell(2), new IsEqual<>("Tarkwa"));
+    }
+
+    @Test
+    void rejectsSharedStringOfBadIndex(final @TempDir Path temp) throws Exception {
+        final XlsxWorkbook workbook = new XlsxWorkbook(
+            new WorkbookFile(
+                Collections.singletonList("Tarkwa"),
+                Collections.singletonMap(
+                    "Sites", "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>one</v></c></row>"
+                )
+            ).write(temp.resolve("bad.xlsx"))
+        );
+        Assertions.assertThrows(IOException.class, () -> workbook.rows(row -> { }));
+    }
+
+    @Test
+    void readsSheetByName(final @TempDir Path temp) throws Exception {
+        final String summary = "Summary";
+        final String details = "Details";
+        final Map<String, String> sheets = new LinkedHashMap<>(2);
+        sheets.put(summary, "<row r=\"1\"><c r=\"A1\"><v>1</v></c></row>");
+        sheets.put(details, "<row r=\"1\"><c r=\"B1\"><v>2</v></c></row>");
+        final XlsxWorkbook workbook = new XlsxWorkbook(
+            new WorkbookFile(Collections.emptyList(), sheets)
+                .write(temp.resolve("details.xlsx"))
+        );
+        final List<Row> rows = new ArrayList<>(1);
+        workbook.rows(details, rows::add);
+        MatcherAssert.assertThat(
+            workbook.sheets(), new IsEqual<>(Arrays.asList(summary, details))
+        );
+        MatcherAssert.assertThat(rows.get(0).cell(1), new IsEqual<>("2"));
+    }
+
+    @Test
+    void streamsManyRowsWithManySharedStrings(final @TempDir Path temp) throws Exception {
+        final int total = 20_000;
+        final List<String> strings = new ArrayList<>(total);
+        final StringBuilder data = new StringBuilder(0);
+        for (int idx = 0; idx < total; ++idx) {
+            strings.add(String.format("Pit %d", idx));
+            data.append(
+                String.format(
+                    String.join(
+                        "", "<row r=\"%d\"><c r=\"A%1$d\" t=\"s\"><v>%d</v></c>",
+                        "<c r=\"B%1$d\"><v>%2$d</v></c></row>"
+                    ),
+                    idx + 1, total - idx - 1
+                )
+            );
+        }
+        final AtomicInteger matches = new AtomicInteger();
+        new XlsxWorkbook(
+            new WorkbookFile(strings, Collections.singletonMap("Pits", data.toString()))
+                .write(temp.resolve("pits.xlsx"))
+        ).rows(
+            row -> {
+                if (row.cell(0).equals(String.format("Pit %s", row.cell(1)))) {
+                    matches.incrementAndGet();
+                }
+            }
+        );
+        MatcherAssert.assertThat(matches.get(), new IsEqual<>(total));
+    }
+
+    @Test
+    void deletesSpillFileOfBrokenWorkbook(final @TempDir Path temp) throws Exception {
+        final Path broken = Files.write(temp.resolve("broken.xlsx"), new byte[] {1, 2, 3});
+        final long before = XlsxWorkbookTest.spills();
+        final List<Row> rows = new ArrayList<>(0);
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new XlsxWorkbook(broken).rows(rows::add)
+        );
+        MatcherAssert.assertThat(XlsxWorkbookTest.spills(), new IsEqual<>(before));
+    }
+
+    /**
+     * Number of spill files of shared strings in temporary directory.
+     * @return Number of files
+     * @throws IOException If fails
+     */
+    private static long spills() throws IOException {
+        try (
+            Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))
+        ) {
+            return files.filter(
+                path -> path.getFileName().toString().startsWith("shared-strings")
+            ).count();
+        }
+    }
+}